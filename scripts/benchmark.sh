@@ -0,0 +1,13 @@
+# Runs the JMH benchmarks (https://github.com/openjdk/jmh), whose names match the first argument
+# Further arguments are passed to JMH, for example: ./benchmark.sh LoopInvariantBenchmark -prof gc
+cd "$(dirname "$0")/.."
+if [ -f "pom.xml" ]
+then
+    echo "Compiling the benchmarks ..."
+    mvn -q test-compile || exit 70
+    mvn -q dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/benchmark.classpath || exit 70
+    java -cp "target/test-classes:target/classes:$(cat target/benchmark.classpath)" org.openjdk.jmh.Main "$@"
+else
+    echo "Could not find the project folder"
+    exit 70
+fi
@@ -20,11 +20,14 @@
 
 package org.jbasic;
 
+import org.jbasic.interpreter.ExecutionMode;
 import org.jbasic.interpreter.JBasicInterpreter;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
 
 /**
  * @brief The command line interface of the interpreter
@@ -37,8 +40,28 @@ public class JBasicCLI {
      */
     public static void main(String[] args) {
 
-        if (args.length != 1) {
-            System.out.println("Usage: JBASIC <script>");
+        // The options of the tiered execution precede the script, AND and OR evaluate both operands like in the visitor
+        JBasicInterpreterOptions options = new JBasicInterpreterOptions()
+                .setExecutionMode(ExecutionMode.TIERED)
+                .setShortCircuitEvaluation(false);
+        boolean profiling = false;
+        int scriptIndex = 0;
+        for (; scriptIndex < args.length - 1; scriptIndex++) {
+            if ("--log-tiers".equals(args[scriptIndex])) {
+                options.setTierLogging(true);
+            }
+            else if ("--profile".equals(args[scriptIndex])) {
+                profiling = true;
+            }
+            else if ("--short-circuit".equals(args[scriptIndex])) {
+                options.setShortCircuitEvaluation(true);
+            }
+            else {
+                break;
+            }
+        }
+        if (args.length == 0 || scriptIndex != args.length - 1) {
+            System.out.println("Usage: JBASIC [--log-tiers] [--profile] [--short-circuit] <script>");
             System.exit(64);
         }
         if ("--version".equals(args[0]) || "-v".equals(args[0])) {
@@ -49,21 +72,26 @@ public class JBasicCLI {
             showHelp();
             return;
         }
-        runScript(args[0]);
+        if (profiling) {
+            // The profile is stored next to the script
+            options.setProfileFile(Paths.get(args[scriptIndex] + ".profile"));
+        }
+        runScript(args[scriptIndex], options);
     }
 
     /**
-     * Runs a JBASIC script
+     * Runs a JBASIC script, that starts in the node tree and compiles its hot loops and subroutines
      * @param path The path where the script is stored
+     * @param options The options that configure how the script is executed
      */
-    private static void runScript(String path) {
+    private static void runScript(String path, JBasicInterpreterOptions options) {
         InputStream inputStream = null;
         JBasicInterpreter interpreter = null;
         try {
             // Open file under specified path
             inputStream = new FileInputStream(path);
             // Creates a new JBasicInterpreter object instance using the standard input, output and error output stream
-            interpreter = new JBasicInterpreter(System.in, System.out, System.err);
+            interpreter = new JBasicInterpreter(System.in, System.out, System.err, options);
             // Interprets file content
             interpreter.run(inputStream);
             interpreter.clear();
@@ -102,9 +130,12 @@ public class JBasicCLI {
     private static void showHelp() {
         System.out.println(JBasicCLI.class.getPackage().getImplementationTitle() +
                 " Help:\n" +
-                "Usage: JBASIC (-h|--help|-v|--version|<script>)\n\n" +
+                "Usage: JBASIC (-h|--help|-v|--version|[--log-tiers] [--profile] [--short-circuit] <script>)\n\n" +
                 "Options\n" +
                 "-h, --help\t\tDisplay this help and exit\n" +
-                "-v, --version\t\tShows the version of the installed interpreter and exit\n");
+                "-v, --version\t\tShows the version of the installed interpreter and exit\n" +
+                "--log-tiers\t\tLogs when loops and subroutines are compiled to bytecode\n" +
+                "--profile\t\tReuses the type feedback and the hot loops of earlier runs, stored next to the script\n" +
+                "--short-circuit\t\tSkips the right operand of AND and OR if the left operand decides the result\n");
     }
 }
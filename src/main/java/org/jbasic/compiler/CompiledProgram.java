@@ -0,0 +1,101 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file CompiledProgram.java
+ * @brief A JBASIC program that was translated into executable nodes.
+ */
+
+package org.jbasic.compiler;
+
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.interpreter.FrameLayout;
+import org.jbasic.interpreter.StackFrame;
+
+import java.util.Map;
+
+/**
+ * @brief A JBASIC program that was translated into executable nodes.
+ * @details The program can be executed several times, each execution uses its own execution context.
+ */
+public class CompiledProgram {
+
+    /// The top level block of the program
+    private final StatementNode main;
+    /// The layout of the stack frame of the main program
+    private final FrameLayout layout;
+    /// The subroutines of the program, stored with the name of the subroutine as key
+    private final Map<String, SubroutineDefinitionNode> subroutines;
+
+    /**
+     * Constructor of the CompiledProgram
+     *
+     * @param main        The top level block of the program
+     * @param layout      The layout of the stack frame of the main program
+     * @param subroutines The subroutines of the program with their name as key
+     */
+    public CompiledProgram(StatementNode main, FrameLayout layout, Map<String, SubroutineDefinitionNode> subroutines) {
+        this.main = main;
+        this.layout = layout;
+        this.subroutines = subroutines;
+    }
+
+    /**
+     * Executes the program
+     *
+     * @param executionContext The runtime environment used by the execution
+     */
+    public void execute(ExecutionContext executionContext) {
+        // The frame of the main program stays the current frame, so the variables can be inspected afterwards
+        executionContext.getState().enterFrame(new StackFrame(this.layout));
+        executionContext.getSubroutines().putAll(this.subroutines);
+        try {
+            this.main.execute(executionContext);
+            executionContext.dispatchJumps(this.layout);
+            executionContext.guaranteeJumpsAreResolved();
+        }
+        finally {
+            executionContext.cleanup();
+        }
+    }
+
+    /**
+     * Gets the top level block of the program
+     *
+     * @return The top level block or the statement that executes it
+     */
+    public StatementNode getMain() {
+        return this.main;
+    }
+
+    /**
+     * Gets the layout of the stack frame of the main program
+     *
+     * @return The frame layout of the main program
+     */
+    public FrameLayout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Gets the subroutines of the program
+     *
+     * @return The subroutines with their name as key
+     */
+    public Map<String, SubroutineDefinitionNode> getSubroutines() {
+        return this.subroutines;
+    }
+}
@@ -0,0 +1,176 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ConstantFolder.java
+ * @brief Decodes literals into a constant pool and folds expressions whose operands are constant.
+ */
+
+package org.jbasic.compiler;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.nodes.BinaryExpressionNode;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.FunctionCallNode;
+import org.jbasic.compiler.nodes.IfStatementNode;
+import org.jbasic.compiler.nodes.LiteralNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.UnaryExpressionNode;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @brief Decodes literals into a constant pool and folds expressions whose operands are constant.
+ * @details Every literal is decoded once when the program is compiled and equal literals share the same value.
+ * If folding is enabled, arithmetic, comparisons, logical operators and calls of pure builtin functions with constant
+ * operands are evaluated at compile time and branches of if statements with constant conditions are removed.
+ * Expressions whose evaluation fails are not folded, so the error is still reported when the program reaches them.
+ */
+class ConstantFolder {
+
+    /// Whether constant expressions are folded and constant branches are removed
+    private final boolean enabled;
+    /// The decoded literals, stored with the underlying number or string as key
+    private final Map<Object, JBasicValue> constantPool = new HashMap<>();
+
+    /**
+     * Constructor of the ConstantFolder
+     *
+     * @param enabled Whether constant expressions are folded and constant branches are removed
+     */
+    ConstantFolder(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the pooled value of a numeric literal
+     *
+     * @param number The decoded number
+     * @return The value of the literal
+     */
+    JBasicValue constant(JBasicValue number) {
+        // Integers are pooled separately from floating point numbers, so their keys are of different types
+        Object key = number.isAnIntegerValue() ? (Object) number.underlyingInteger() : (Object) number.underlyingNumber();
+        return this.constantPool.computeIfAbsent(key, (ignored) -> number);
+    }
+
+    /**
+     * Gets the pooled value of a string literal
+     *
+     * @param string The decoded string without the quotes
+     * @return The value of the literal
+     */
+    JBasicValue constant(String string) {
+        return this.constantPool.computeIfAbsent(string, (key) -> new JBasicValue(string));
+    }
+
+    /**
+     * Folds an expression if all of its operands are constant
+     *
+     * @param expression The compiled expression
+     * @return A literal with the result of the expression or the expression itself if it can not be folded
+     */
+    ExpressionNode fold(ExpressionNode expression) {
+        if (!this.enabled || !this.isFoldable(expression)) {
+            return expression;
+        }
+        JBasicValue result;
+        try {
+            // The operands are literals, so the expression does not access the runtime environment
+            result = expression.evaluate(null);
+        }
+        catch (RuntimeException exception) {
+            // The error is reported when the expression is evaluated by the program
+            return expression;
+        }
+        if (result.isANumericalValue()) {
+            result = this.constant(result);
+        }
+        else if (result.isAStringValue()) {
+            result = this.constant(result.underlyingString());
+        }
+        return new LiteralNode(result, expression.getContext());
+    }
+
+    /**
+     * Removes the branches of an if statement, whose conditions are constant
+     *
+     * @param conditions The conditions of the 'if' and the 'else if' branches
+     * @param blocks     The blocks of the 'if' and the 'else if' branches
+     * @param elseBlock  The block of the 'else' branch or null
+     * @param context    The parsing context of the if statement
+     * @return The if statement with the remaining branches or the block that is always executed
+     */
+    StatementNode foldIf(ExpressionNode[] conditions, BlockNode[] blocks, BlockNode elseBlock,
+                         ParserRuleContext context) {
+        if (!this.enabled) {
+            return new IfStatementNode(conditions, blocks, elseBlock, context);
+        }
+        List<ExpressionNode> remainingConditions = new ArrayList<>();
+        List<BlockNode> remainingBlocks = new ArrayList<>();
+        BlockNode remainingElseBlock = elseBlock;
+        for (int i = 0; i < conditions.length; i++) {
+            JBasicValue condition = conditions[i] instanceof LiteralNode ? ((LiteralNode) conditions[i]).getValue() : null;
+            if (condition == null || !condition.isANumericalValue()) {
+                remainingConditions.add(conditions[i]);
+                remainingBlocks.add(blocks[i]);
+            }
+            else if (condition.underlyingNumber() != 0) {
+                // The branch is always taken, so none of the following branches can be reached
+                remainingElseBlock = blocks[i];
+                break;
+            }
+        }
+        if (remainingConditions.isEmpty()) {
+            return remainingElseBlock != null ? remainingElseBlock : new BlockNode(new StatementNode[0], context);
+        }
+        return new IfStatementNode(remainingConditions.toArray(new ExpressionNode[0]),
+                remainingBlocks.toArray(new BlockNode[0]), remainingElseBlock, context);
+    }
+
+    /**
+     * Determines whether an expression can be evaluated at compile time
+     *
+     * @param expression The compiled expression
+     * @return true if the expression is an operation or a pure function call with constant operands
+     */
+    private boolean isFoldable(ExpressionNode expression) {
+        if (expression instanceof UnaryExpressionNode) {
+            return ((UnaryExpressionNode) expression).getOperand() instanceof LiteralNode;
+        }
+        if (expression instanceof BinaryExpressionNode) {
+            BinaryExpressionNode binary = (BinaryExpressionNode) expression;
+            return binary.getLeft() instanceof LiteralNode && binary.getRight() instanceof LiteralNode;
+        }
+        if (expression instanceof FunctionCallNode) {
+            FunctionCallNode call = (FunctionCallNode) expression;
+            if (!call.getFunction().isPure() || !call.isArityValid()) {
+                return false;
+            }
+            for (ExpressionNode argument : call.getArguments()) {
+                if (!(argument instanceof LiteralNode)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
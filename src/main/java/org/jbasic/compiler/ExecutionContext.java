@@ -0,0 +1,286 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ExecutionContext.java
+ * @brief The runtime environment of a compiled JBASIC program.
+ */
+
+package org.jbasic.compiler;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.SubroutineInvocationNode;
+import org.jbasic.error.labels.UndefinedLabelException;
+import org.jbasic.interpreter.FrameLayout;
+import org.jbasic.interpreter.JBasicInterpreterState;
+import org.jbasic.languageModels.JBasicValue;
+import org.jbasic.programFlow.Completion;
+import org.jbasic.programFlow.ContinueException;
+import org.jbasic.programFlow.ExitException;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @brief The runtime environment of a compiled JBASIC program.
+ * @details Bundles the interpreter state with the standard streams and the subroutines of the program. 'continue', 'exit' and 'goto' statements signal their completion through
+ * the context instead of throwing an exception.
+ */
+public class ExecutionContext {
+
+    /// State of the interpreter
+    private final JBasicInterpreterState state;
+    /// standard output stream that is used when the program is executed
+    private final PrintStream printStream;
+    /// standard input stream that is used when the program is executed
+    private final BufferedReader inputStream;
+    /// The subroutines of the executed program, stored with the name of the subroutine as key
+    private final Map<String, SubroutineDefinitionNode> subroutines = new HashMap<>();
+    /// The completion signaled by the last 'continue', 'exit' or 'goto' statement, that was not handled yet
+    private Completion completion = Completion.NORMAL;
+    /// The labeled block the pending jump continues at
+    private LabeledBlockNode jumpTarget;
+    /// The parsing context of the 'goto' statement of the pending jump
+    private ParserRuleContext jumpContext;
+    /// The invocation in tail position of the pending tail call
+    private SubroutineInvocationNode tailCall;
+    /// The evaluated arguments of the pending tail call
+    private JBasicValue[] tailCallArguments;
+
+    /**
+     * Constructor of the ExecutionContext
+     *
+     * @param state  The interpreter state object used by the program
+     * @param stdin  The standard input stream used by the program
+     * @param stdout The standard output stream used by the program
+     */
+    public ExecutionContext(JBasicInterpreterState state, InputStream stdin, PrintStream stdout) {
+        this.state = state;
+        this.printStream = new PrintStream(stdout, true);
+        this.inputStream = new BufferedReader(new InputStreamReader(stdin));
+    }
+
+    /**
+     * Gets the state of the interpreter
+     *
+     * @return The interpreter state
+     */
+    public JBasicInterpreterState getState() {
+        return this.state;
+    }
+
+    /**
+     * Gets the stream print statements write to
+     *
+     * @return The output stream of the program
+     */
+    public PrintStream getPrintStream() {
+        return this.printStream;
+    }
+
+    /**
+     * Gets the reader input statements read from
+     *
+     * @return The input stream of the program
+     */
+    public BufferedReader getInputStream() {
+        return this.inputStream;
+    }
+
+    /**
+     * Gets the subroutines of the executed program
+     *
+     * @return The subroutines with their name as key
+     */
+    public Map<String, SubroutineDefinitionNode> getSubroutines() {
+        return this.subroutines;
+    }
+
+    /**
+     * Gets the completion signaled by the last 'continue', 'exit' or 'goto' statement, that was not handled yet
+     *
+     * @return The pending completion or NORMAL if the statements are executed normally
+     */
+    public Completion getCompletion() {
+        return this.completion;
+    }
+
+    /**
+     * Signals that the execution completed abruptly, the enclosing statements stop executing
+     *
+     * @param completion The completion of the 'continue' or 'exit' statement
+     */
+    public void complete(Completion completion) {
+        this.completion = completion;
+    }
+
+    /**
+     * Signals a jump to a labeled block, the enclosing statements stop executing until the unit that contains the
+     * label continues the execution at the label
+     *
+     * @param target  The labeled block the execution continues at
+     * @param context The parsing context of the 'goto' statement
+     */
+    public void jump(LabeledBlockNode target, ParserRuleContext context) {
+        this.state.checkStopRequested();
+        this.completion = Completion.JUMP;
+        this.jumpTarget = target;
+        this.jumpContext = context;
+    }
+
+    /**
+     * Signals a subroutine invocation in tail position, the enclosing subroutine returns and its invocation executes
+     * the called subroutine with the same frame
+     *
+     * @param invocation The invocation in tail position
+     * @param arguments  The evaluated arguments
+     */
+    public void tailCall(SubroutineInvocationNode invocation, JBasicValue[] arguments) {
+        this.completion = Completion.TAIL_CALL;
+        this.tailCall = invocation;
+        this.tailCallArguments = arguments;
+    }
+
+    /**
+     * Gets the invocation in tail position of the pending tail call
+     *
+     * @return The invocation
+     */
+    public SubroutineInvocationNode getTailCall() {
+        return this.tailCall;
+    }
+
+    /**
+     * Gets the evaluated arguments of the pending tail call
+     *
+     * @return The arguments
+     */
+    public JBasicValue[] getTailCallArguments() {
+        return this.tailCallArguments;
+    }
+
+    /**
+     * Resumes the normal execution, after a loop or a switch statement handled the pending completion
+     *
+     * @return The completion that was pending
+     */
+    public Completion resume() {
+        Completion pending = this.completion;
+        this.completion = Completion.NORMAL;
+        this.jumpTarget = null;
+        this.tailCall = null;
+        this.tailCallArguments = null;
+        return pending;
+    }
+
+    /**
+     * Handles the pending completion after the body of a loop was executed
+     *
+     * @return true if the loop has to stop, because of an 'exit' statement or a jump, false if it continues
+     */
+    public boolean leavesLoop() {
+        if (this.completion == Completion.JUMP) {
+            return true;
+        }
+        return this.resume() == Completion.EXIT;
+    }
+
+    /**
+     * Stops the program, if the calling thread of the interpreter asked it to stop. Checked by every iteration of a
+     * loop, so a program without subroutine invocations and output can be stopped as well
+     */
+    public void checkStopRequested() {
+        this.state.checkStopRequested();
+    }
+
+    /**
+     * Executes the body of a loop or the block of a case. A 'continue' or 'exit' statement, that throws an exception
+     * because loop control exceptions are enabled, completes the body like a signaled completion
+     *
+     * @param body The body of the loop or the block of the case
+     */
+    public void executeBody(StatementNode body) {
+        try {
+            body.execute(this);
+        }
+        catch (ContinueException exception) {
+            this.completion = Completion.CONTINUE;
+        }
+        catch (ExitException exception) {
+            this.completion = Completion.EXIT;
+        }
+    }
+
+    /**
+     * Continues the execution of the body of a loop or the block of a case at a labeled block, the completion of a
+     * thrown 'continue' or 'exit' statement is handled like in executeBody
+     *
+     * @param body   The body of the loop or the block of the case
+     * @param target The labeled block the execution continues at
+     * @param depth  The depth of the body in the resume path of the labeled block
+     */
+    public void resumeBody(StatementNode body, LabeledBlockNode target, int depth) {
+        try {
+            body.resume(this, target, depth);
+        }
+        catch (ContinueException exception) {
+            this.completion = Completion.CONTINUE;
+        }
+        catch (ExitException exception) {
+            this.completion = Completion.EXIT;
+        }
+    }
+
+    /**
+     * Continues the execution at the labels the 'goto' statements of a unit jumped to. Every jump returns to the
+     * unit first, so jumping backwards repeatedly runs in constant stack space
+     *
+     * @param layout The layout of the stack frame of the unit, jumps to labels of other units are left to the caller
+     */
+    public void dispatchJumps(FrameLayout layout) {
+        while (this.completion == Completion.JUMP && this.jumpTarget.getLayout() == layout) {
+            LabeledBlockNode target = this.jumpTarget;
+            this.resume();
+            target.resumeExecution(this);
+        }
+    }
+
+    /**
+     * Ensures that no jump is pending after the main program ended
+     *
+     * @throws UndefinedLabelException if a 'goto' statement jumped to the label of a subroutine, that is not executed
+     */
+    public void guaranteeJumpsAreResolved() throws UndefinedLabelException {
+        if (this.completion == Completion.JUMP) {
+            throw new UndefinedLabelException("The label " + this.jumpTarget.getLabel() +
+                    " can not be reached from the goto statement", this.jumpContext);
+        }
+    }
+
+    /**
+     * @brief Cleans up after program execution
+     * @details The printStream is closed
+     */
+    public void cleanup() {
+        this.printStream.close();
+    }
+}
@@ -0,0 +1,302 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ExecutionProfile.java
+ * @brief The type feedback and the hot loops and subroutines of a program, that are reused by the next run.
+ */
+
+package org.jbasic.compiler;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.nodes.BinaryExpressionNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.optimizer.NodeTransformer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * @brief The type feedback and the hot loops and subroutines of a program, that are reused by the next run.
+ * @details The profile is stored in a file together with the hash of the source code. A profile, whose hash does not
+ * match the source code, is stale and discarded. Nodes are identified by the tokens of their parsing context, that
+ * stay the same as long as the source code does not change. The operand types of a binary expression are recorded
+ * as the specialization the expression has chosen, expressions that share a parsing context, like the copies of an
+ * inlined subroutine, are recorded as generic if their specializations differ.
+ */
+public class ExecutionProfile {
+
+    /// The first line of every profile file
+    private static final String HEADER = "JBASIC profile";
+    /// The name of the generic specialization, that accepts operands of any type
+    private static final String GENERIC = "GENERIC";
+
+    /// The file the profile is stored in
+    private final Path file;
+    /// The hash of the source code of the program
+    private final String sourceHash;
+    /// Whether the file contained a profile of another version of the source code
+    private final boolean stale;
+    /// The specializations of the binary expressions, stored with the position of the expression as key
+    private final Map<String, String> binaryExpressions = new TreeMap<>();
+    /// The positions of the loops, that were compiled to bytecode
+    private final Set<String> hotLoops = new TreeSet<>();
+    /// The names of the subroutines, that were compiled to bytecode
+    private final Set<String> hotSubroutines = new TreeSet<>();
+
+    /**
+     * Constructor of the ExecutionProfile
+     *
+     * @param file       The file the profile is stored in
+     * @param sourceHash The hash of the source code of the program
+     * @param stale      Whether the file contained a profile of another version of the source code
+     */
+    private ExecutionProfile(Path file, String sourceHash, boolean stale) {
+        this.file = file;
+        this.sourceHash = sourceHash;
+        this.stale = stale;
+    }
+
+    /**
+     * Loads the profile of a program, a missing, unreadable or stale profile results in an empty profile
+     *
+     * @param file   The file the profile is stored in
+     * @param source The source code of the program
+     * @return The profile of the program
+     */
+    public static ExecutionProfile load(Path file, String source) {
+        String sourceHash = hash(source);
+        List<String> lines;
+        try {
+            lines = Files.exists(file) ? Files.readAllLines(file, StandardCharsets.UTF_8) : new ArrayList<>();
+        }
+        catch (IOException exception) {
+            lines = new ArrayList<>();
+        }
+        if (lines.size() < 2 || !HEADER.equals(lines.get(0)) || !("source " + sourceHash).equals(lines.get(1))) {
+            return new ExecutionProfile(file, sourceHash, !lines.isEmpty());
+        }
+        ExecutionProfile profile = new ExecutionProfile(file, sourceHash, false);
+        for (String line : lines.subList(2, lines.size())) {
+            String[] parts = line.split(" ");
+            if (parts.length == 3 && parts[0].equals("binary")) {
+                profile.binaryExpressions.put(parts[1], parts[2]);
+            }
+            else if (parts.length == 2 && parts[0].equals("loop")) {
+                profile.hotLoops.add(parts[1]);
+            }
+            else if (parts.length == 2 && parts[0].equals("subroutine")) {
+                profile.hotSubroutines.add(parts[1]);
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Stores the profile in its file
+     *
+     * @throws IOException if the file can not be written
+     */
+    public void save() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        lines.add("source " + this.sourceHash);
+        this.binaryExpressions.forEach((position, types) -> lines.add("binary " + position + " " + types));
+        this.hotLoops.forEach((position) -> lines.add("loop " + position));
+        this.hotSubroutines.forEach((name) -> lines.add("subroutine " + name));
+        Files.write(this.file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Determines whether the file contained a profile of another version of the source code, that was discarded
+     *
+     * @return true if the profile was stale, false if not
+     */
+    public boolean isStale() {
+        return this.stale;
+    }
+
+    /**
+     * Gets the file the profile is stored in
+     *
+     * @return The file of the profile
+     */
+    public Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * Specializes the binary expressions of a program to the operand types of the earlier runs
+     *
+     * @param program The program, that was compiled into a node tree
+     */
+    public void specialize(CompiledProgram program) {
+        this.specialize(program.getMain());
+        for (SubroutineDefinitionNode definition : program.getSubroutines().values()) {
+            this.specialize(definition.getBody());
+        }
+    }
+
+    /**
+     * Specializes the binary expressions of a unit to the operand types of the earlier runs
+     *
+     * @param unit The body of the unit
+     */
+    public void specialize(StatementNode unit) {
+        new BinaryExpressionVisitor(false).transform(unit);
+    }
+
+    /**
+     * Records the operand types the binary expressions of a program have seen
+     *
+     * @param program The program, that was executed
+     */
+    public void record(CompiledProgram program) {
+        this.record(program.getMain());
+        for (SubroutineDefinitionNode definition : program.getSubroutines().values()) {
+            this.record(definition.getBody());
+        }
+    }
+
+    /**
+     * Records the operand types the binary expressions of a unit have seen
+     *
+     * @param unit The body of the unit
+     */
+    public void record(StatementNode unit) {
+        new BinaryExpressionVisitor(true).transform(unit);
+    }
+
+    /**
+     * Determines whether a loop was compiled to bytecode by an earlier run
+     *
+     * @param context The parsing context of the loop
+     * @return true if the loop was hot, false if not
+     */
+    public boolean isHotLoop(ParserRuleContext context) {
+        return this.hotLoops.contains(position(context));
+    }
+
+    /**
+     * Records that a loop was compiled to bytecode
+     *
+     * @param context The parsing context of the loop
+     */
+    public void recordHotLoop(ParserRuleContext context) {
+        this.hotLoops.add(position(context));
+    }
+
+    /**
+     * Determines whether a subroutine was compiled to bytecode by an earlier run
+     *
+     * @param name The name of the subroutine
+     * @return true if the subroutine was hot, false if not
+     */
+    public boolean isHotSubroutine(String name) {
+        return this.hotSubroutines.contains(name);
+    }
+
+    /**
+     * Records that a subroutine was compiled to bytecode
+     *
+     * @param name The name of the subroutine
+     */
+    public void recordHotSubroutine(String name) {
+        this.hotSubroutines.add(name);
+    }
+
+    /**
+     * Identifies a node by the first and the last token of its parsing context
+     *
+     * @param context The parsing context of the node
+     * @return The position of the node
+     */
+    private static String position(ParserRuleContext context) {
+        return context.getStart().getTokenIndex() + ":" + context.getStop().getTokenIndex();
+    }
+
+    /**
+     * Calculates the hash of the source code of a program
+     *
+     * @param source The source code
+     * @return The SHA-256 hash of the source code in hexadecimal digits
+     */
+    private static String hash(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder();
+            for (byte value : digest) {
+                builder.append(String.format("%02x", value));
+            }
+            return builder.toString();
+        }
+        catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not supported by the runtime", exception);
+        }
+    }
+
+    /**
+     * Visits the binary expressions of a unit to record or to apply their specializations
+     */
+    private class BinaryExpressionVisitor extends NodeTransformer {
+
+        /// Whether the specializations are recorded instead of applied
+        private final boolean recording;
+
+        /**
+         * Constructor of the BinaryExpressionVisitor
+         *
+         * @param recording Whether the specializations are recorded instead of applied
+         */
+        BinaryExpressionVisitor(boolean recording) {
+            this.recording = recording;
+        }
+
+        @Override
+        protected ExpressionNode transformBinary(BinaryExpressionNode binary) {
+            if (binary.getContext() == null) {
+                return super.transformBinary(binary);
+            }
+            String position = position(binary.getContext());
+            if (!this.recording) {
+                binary.specialize(ExecutionProfile.this.binaryExpressions.get(position));
+            }
+            else if (binary.getProfiledTypes() != null) {
+                // Copies of the expression, that have seen other operand types, make the expression generic
+                ExecutionProfile.this.binaryExpressions.merge(position, binary.getProfiledTypes(),
+                        (recorded, types) -> recorded.equals(types) ? recorded : GENERIC);
+            }
+            return super.transformBinary(binary);
+        }
+
+        @Override
+        protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+            // The body of a subroutine is a unit of its own
+            return definition;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ExpressionCompiler.java
+ * @brief Translates expressions in the abstract syntax tree into expression nodes.
+ */
+
+package org.jbasic.compiler;
+
+import jbasic.JBasicBaseVisitor;
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.nodes.ArrayGetAtIndexNode;
+import org.jbasic.compiler.nodes.BinaryExpressionNode;
+import org.jbasic.compiler.nodes.BinaryOperator;
+import org.jbasic.compiler.nodes.BuiltinFunction;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.FunctionCallNode;
+import org.jbasic.compiler.nodes.LiteralNode;
+import org.jbasic.compiler.nodes.UnaryExpressionNode;
+import org.jbasic.compiler.nodes.UnaryOperator;
+import org.jbasic.compiler.nodes.VariableNode;
+import org.jbasic.interpreter.FrameLayout;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.List;
+
+/**
+ * @brief Translates expressions in the abstract syntax tree into expression nodes.
+ */
+class ExpressionCompiler extends JBasicBaseVisitor<ExpressionNode> {
+
+    /// Decodes the literals and folds constant expressions
+    private final ConstantFolder constantFolder;
+    /// Whether 'and' and 'or' expressions only evaluate their right operand if the left operand does not decide it
+    private final boolean shortCircuitEvaluation;
+    /// The layout of the stack frame of the subroutine or main program that is compiled
+    private FrameLayout layout = new FrameLayout();
+
+    /**
+     * Constructor of the ExpressionCompiler
+     *
+     * @param constantFolder         Decodes the literals and folds constant expressions
+     * @param shortCircuitEvaluation Whether 'and' and 'or' expressions skip the right operand if the left operand
+     *                               decides the result
+     */
+    ExpressionCompiler(ConstantFolder constantFolder, boolean shortCircuitEvaluation) {
+        this.constantFolder = constantFolder;
+        this.shortCircuitEvaluation = shortCircuitEvaluation;
+    }
+
+    /**
+     * Gets the layout of the stack frame of the scope that is compiled
+     *
+     * @return The frame layout of the current scope
+     */
+    FrameLayout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Starts to compile another scope, the variables of the scope are resolved in the specified layout
+     *
+     * @param layout The frame layout of the scope
+     * @return The frame layout of the enclosing scope
+     */
+    FrameLayout enterScope(FrameLayout layout) {
+        final FrameLayout enclosingLayout = this.layout;
+        this.layout = layout;
+        return enclosingLayout;
+    }
+
+    /**
+     * Resolves the slot of a variable in the current scope
+     *
+     * @param name The name of the variable, including the suffix
+     * @return The slot of the variable
+     */
+    int resolve(String name) {
+        return this.layout.resolve(name);
+    }
+
+    /**
+     * Compiles a list of expressions
+     *
+     * @param contexts The parsing contexts of the expressions
+     * @return The compiled expressions in the same order
+     */
+    ExpressionNode[] compileAll(List<JBasicParser.ExpressionContext> contexts) {
+        ExpressionNode[] nodes = new ExpressionNode[contexts.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = this.visit(contexts.get(i));
+        }
+        return nodes;
+    }
+
+    @Override
+    public ExpressionNode visitFunctionExpression(JBasicParser.FunctionExpressionContext context) {
+        return this.visit(context.function());
+    }
+
+    @Override
+    public ExpressionNode visitFunction(JBasicParser.FunctionContext context) {
+        ParserRuleContext callContext = (ParserRuleContext) context.getChild(0);
+        JBasicParser.FunctionCallArgsContext argumentsContext =
+                callContext.getRuleContext(JBasicParser.FunctionCallArgsContext.class, 0);
+        return this.constantFolder.fold(new FunctionCallNode(BuiltinFunction.fromContext(context),
+                this.compileAll(argumentsContext.expression()), argumentsContext, callContext));
+    }
+
+    @Override
+    public ExpressionNode visitArrayGetAtIndexExpression(JBasicParser.ArrayGetAtIndexExpressionContext context) {
+        String arrayName = context.variableIdentifier().getText();
+        return new ArrayGetAtIndexNode(arrayName, this.resolve(arrayName), this.compileAll(context.expression()),
+                context.expression(), context);
+    }
+
+    @Override
+    public ExpressionNode visitNegateExpression(JBasicParser.NegateExpressionContext context) {
+        return this.constantFolder.fold(
+                new UnaryExpressionNode(UnaryOperator.NEGATE, this.visit(context.expression()), context));
+    }
+
+    @Override
+    public ExpressionNode visitNotExpression(JBasicParser.NotExpressionContext context) {
+        return this.constantFolder.fold(
+                new UnaryExpressionNode(UnaryOperator.NOT, this.visit(context.expression()), context));
+    }
+
+    @Override
+    public ExpressionNode visitParenExpression(JBasicParser.ParenExpressionContext context) {
+        return this.visit(context.expression());
+    }
+
+    @Override
+    public ExpressionNode visitFactorExpression(JBasicParser.FactorExpressionContext context) {
+        switch (context.op.getType()) {
+            case JBasicParser.MULTIPLY:
+                return this.binary(BinaryOperator.MULTIPLY, context.expression(), context);
+            case JBasicParser.DIVIDE:
+                return this.binary(BinaryOperator.DIVIDE, context.expression(), context);
+            default:
+                return this.binary(BinaryOperator.MODULO, context.expression(), context);
+        }
+    }
+
+    @Override
+    public ExpressionNode visitTermExpression(JBasicParser.TermExpressionContext context) {
+        if (context.op.getType() == JBasicParser.ADD) {
+            return this.binary(BinaryOperator.ADD, context.expression(), context);
+        }
+        return this.binary(BinaryOperator.SUBTRACT, context.expression(), context);
+    }
+
+    @Override
+    public ExpressionNode visitComparisonExpression(JBasicParser.ComparisonExpressionContext context) {
+        switch (context.op.getType()) {
+            case JBasicParser.GREATER_THEN:
+                return this.binary(BinaryOperator.GREATER_THEN, context.expression(), context);
+            case JBasicParser.GREATER_THEN_EQUAL:
+                return this.binary(BinaryOperator.GREATER_THEN_EQUAL, context.expression(), context);
+            case JBasicParser.LESS_THEN:
+                return this.binary(BinaryOperator.LESS_THEN, context.expression(), context);
+            default:
+                return this.binary(BinaryOperator.LESS_THEN_EQUAL, context.expression(), context);
+        }
+    }
+
+    @Override
+    public ExpressionNode visitEqualityExpression(JBasicParser.EqualityExpressionContext context) {
+        if (context.op.getType() == JBasicParser.EQUALS) {
+            return this.binary(BinaryOperator.EQUAL, context.expression(), context);
+        }
+        return this.binary(BinaryOperator.NOT_EQUAL, context.expression(), context);
+    }
+
+    @Override
+    public ExpressionNode visitAndExpression(JBasicParser.AndExpressionContext context) {
+        return this.binary(BinaryOperator.AND, context.expression(), context);
+    }
+
+    @Override
+    public ExpressionNode visitOrExpression(JBasicParser.OrExpressionContext context) {
+        return this.binary(BinaryOperator.OR, context.expression(), context);
+    }
+
+    @Override
+    public ExpressionNode visitNumericLiteralExpression(JBasicParser.NumericLiteralExpressionContext context) {
+        return this.visit(context.numericLiteral());
+    }
+
+    @Override
+    public ExpressionNode visitStringLiteralExpression(JBasicParser.StringLiteralExpressionContext context) {
+        return this.visit(context.stringLiteral());
+    }
+
+    @Override
+    public ExpressionNode visitIdentifierExpression(JBasicParser.IdentifierExpressionContext context) {
+        return this.visit(context.variableIdentifier());
+    }
+
+    @Override
+    public ExpressionNode visitNumericLiteral(JBasicParser.NumericLiteralContext context) {
+        return new LiteralNode(this.constantFolder.constant(JBasicValue.parseNumber(context.getText())), context);
+    }
+
+    @Override
+    public ExpressionNode visitStringLiteral(JBasicParser.StringLiteralContext context) {
+        return new LiteralNode(this.constantFolder.constant(unquote(context.getText())), context);
+    }
+
+    @Override
+    public ExpressionNode visitVariableIdentifier(JBasicParser.VariableIdentifierContext context) {
+        return new VariableNode(context.getText(), this.resolve(context.getText()), context);
+    }
+
+    /**
+     * Removes the quotes of a string literal
+     *
+     * @param literal The string literal including the quotes
+     * @return The content of the string literal
+     */
+    static String unquote(String literal) {
+        return literal.substring(1, literal.length() - 1);
+    }
+
+    /**
+     * Compiles a binary expression
+     *
+     * @param operator The operator of the expression
+     * @param operands The parsing contexts of the two operands
+     * @param context  The parsing context of the binary expression
+     * @return The compiled binary expression
+     */
+    private ExpressionNode binary(BinaryOperator operator, List<JBasicParser.ExpressionContext> operands,
+                                  ParserRuleContext context) {
+        return this.constantFolder.fold(new BinaryExpressionNode(operator, this.visit(operands.get(0)),
+                this.visit(operands.get(1)), this.shortCircuitEvaluation, context));
+    }
+}
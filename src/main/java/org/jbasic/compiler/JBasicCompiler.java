@@ -0,0 +1,95 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file JBasicCompiler.java
+ * @brief Translates the abstract syntax tree of a program into a tree of executable nodes.
+ */
+
+package org.jbasic.compiler;
+
+import jbasic.JBasicParser;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.optimizer.BoundsCheckElimination;
+import org.jbasic.compiler.optimizer.CommonSubexpressionElimination;
+import org.jbasic.compiler.optimizer.LoopInvariantCodeMotion;
+import org.jbasic.compiler.optimizer.SubroutineInlining;
+import org.jbasic.compiler.optimizer.TailCallElimination;
+import org.jbasic.compiler.optimizer.TypeInference;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
+
+import java.util.Map;
+
+/**
+ * @brief Translates the abstract syntax tree of a program into a tree of executable nodes.
+ * @details Every node is linked to its children once, so executing the program no longer dispatches through the
+ * visitor, re-reads the text of the parsing contexts or re-evaluates child lists of the syntax tree. Afterwards the
+ * types of the variables are inferred, so numerical expressions compute with primitive numbers, and the invariant
+ * expressions of loops and the repeated expressions of statement sequences are only computed once.
+ */
+public class JBasicCompiler {
+
+    /// The options that configure the optimizations of the compiler
+    private final JBasicInterpreterOptions options;
+
+    /**
+     * Constructor of the JBasicCompiler, that applies the default optimizations
+     */
+    public JBasicCompiler() {
+        this(new JBasicInterpreterOptions());
+    }
+
+    /**
+     * Constructor of the JBasicCompiler
+     *
+     * @param options The options that configure the optimizations of the compiler
+     */
+    public JBasicCompiler(JBasicInterpreterOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Compiles a program
+     *
+     * @param context The parsing context of the program
+     * @return The compiled program
+     */
+    public CompiledProgram compile(JBasicParser.ProgramContext context) {
+        ConstantFolder constantFolder = new ConstantFolder(this.options.isConstantFolding());
+        ExpressionCompiler expressionCompiler = new ExpressionCompiler(constantFolder,
+                this.options.isShortCircuitEvaluation());
+        StatementCompiler statementCompiler = new StatementCompiler(expressionCompiler, constantFolder,
+                this.options.isLoopControlExceptions());
+        StatementNode main = statementCompiler.visitBlock(context.block());
+        if (this.options.getInliningThreshold() > 0) {
+            main = new SubroutineInlining(expressionCompiler.getLayout(), this.options.getInliningThreshold())
+                    .transformProgram(main);
+        }
+        main = new TypeInference(expressionCompiler.getLayout()).transform(main);
+        if (this.options.isBoundsCheckElimination()) {
+            main = new BoundsCheckElimination().transformProgram(main);
+        }
+        if (this.options.isLoopInvariantCodeMotion()) {
+            main = new LoopInvariantCodeMotion(expressionCompiler.getLayout()).transformProgram(main);
+        }
+        if (this.options.isCommonSubexpressionElimination()) {
+            main = new CommonSubexpressionElimination(expressionCompiler.getLayout()).transform(main);
+        }
+        main = new TailCallElimination().transform(main);
+        Map<String, SubroutineDefinitionNode> subroutines = new SymbolResolver().resolve(main);
+        return new CompiledProgram(main, expressionCompiler.getLayout(), subroutines);
+    }
+}
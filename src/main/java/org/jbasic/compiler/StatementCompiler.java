@@ -0,0 +1,289 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file StatementCompiler.java
+ * @brief Translates statements in the abstract syntax tree into statement nodes.
+ */
+
+package org.jbasic.compiler;
+
+import jbasic.JBasicBaseVisitor;
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.RuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.jbasic.compiler.nodes.ArrayDeclarationNode;
+import org.jbasic.compiler.nodes.ArraySetAtIndexNode;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.ClsStatementNode;
+import org.jbasic.compiler.nodes.ContinueStatementNode;
+import org.jbasic.compiler.nodes.DataStatementNode;
+import org.jbasic.compiler.nodes.DoLoopStatementNode;
+import org.jbasic.compiler.nodes.ExitStatementNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.ForStatementNode;
+import org.jbasic.compiler.nodes.GotoStatementNode;
+import org.jbasic.compiler.nodes.InputStatementNode;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.LetStatementNode;
+import org.jbasic.compiler.nodes.PrintStatementNode;
+import org.jbasic.compiler.nodes.ReadStatementNode;
+import org.jbasic.compiler.nodes.RestoreStatementNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.StatementValueNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.SubroutineInvocationNode;
+import org.jbasic.compiler.nodes.SwitchStatementNode;
+import org.jbasic.compiler.nodes.WhileStatementNode;
+import org.jbasic.interpreter.FrameLayout;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @brief Translates statements in the abstract syntax tree into statement nodes.
+ */
+class StatementCompiler extends JBasicBaseVisitor<StatementNode> {
+
+    /// Compiles the expressions used by the statements
+    private final ExpressionCompiler expressionCompiler;
+    /// Decodes the case values and removes constant branches
+    private final ConstantFolder constantFolder;
+    /// Whether 'continue' and 'exit' statements throw exceptions instead of signaling their completion
+    private final boolean loopControlExceptions;
+
+    /**
+     * Constructor of the StatementCompiler
+     *
+     * @param expressionCompiler    The compiler used for the expressions of the statements
+     * @param constantFolder        Decodes the case values and removes constant branches
+     * @param loopControlExceptions Whether 'continue' and 'exit' statements throw exceptions
+     */
+    StatementCompiler(ExpressionCompiler expressionCompiler, ConstantFolder constantFolder,
+                      boolean loopControlExceptions) {
+        this.expressionCompiler = expressionCompiler;
+        this.constantFolder = constantFolder;
+        this.loopControlExceptions = loopControlExceptions;
+    }
+
+    @Override
+    public BlockNode visitBlock(JBasicParser.BlockContext context) {
+        List<StatementNode> statements = new ArrayList<>();
+        for (ParseTree child : context.children != null ? context.children : new ArrayList<ParseTree>()) {
+            if (child instanceof ParserRuleContext) {
+                StatementNode statement = this.visit(child);
+                if (statement != null) {
+                    statements.add(statement);
+                }
+            }
+        }
+        return new BlockNode(statements.toArray(new StatementNode[0]), context);
+    }
+
+    @Override
+    public StatementNode visitLabeledBlock(JBasicParser.LabeledBlockContext context) {
+        return new LabeledBlockNode(context.lab.getText(), context.lab.getType() == JBasicParser.NUMERIC_LITERAL,
+                this.visitBlock(context.block()), this.expressionCompiler.getLayout(), context);
+    }
+
+    @Override
+    public StatementNode visitStatement(JBasicParser.StatementContext context) {
+        // Comments are terminals and are not compiled
+        if (context.getChild(0) instanceof ParserRuleContext) {
+            return this.visit(context.getChild(0));
+        }
+        return null;
+    }
+
+    @Override
+    public StatementNode visitArrayDeclarationStatement(JBasicParser.ArrayDeclarationStatementContext context) {
+        String arrayName = context.variableIdentifier().getText();
+        return new ArrayDeclarationNode(arrayName, this.expressionCompiler.resolve(arrayName),
+                this.expressionCompiler.compileAll(context.expression()), context.expression(), context);
+    }
+
+    @Override
+    public StatementNode visitArraySetAtIndexStatement(JBasicParser.ArraySetAtIndexStatementContext context) {
+        String arrayName = context.variableIdentifier().getText();
+        return new ArraySetAtIndexNode(arrayName, this.expressionCompiler.resolve(arrayName),
+                context.variableIdentifier(),
+                this.expressionCompiler.compileAll(context.expression()), context.expression(),
+                this.expressionCompiler.visit(context.arraySetAtIndexAssignment().expression()), context);
+    }
+
+    @Override
+    public StatementNode visitClsStatement(JBasicParser.ClsStatementContext context) {
+        return new ClsStatementNode(context);
+    }
+
+    @Override
+    public StatementNode visitContinueStatement(JBasicParser.ContinueStatementContext context) {
+        return new ContinueStatementNode(this.loopControlExceptions, context);
+    }
+
+    @Override
+    public StatementNode visitDataStatement(JBasicParser.DataStatementContext context) {
+        return new DataStatementNode(this.expressionCompiler.compileAll(context.expression()), context);
+    }
+
+    @Override
+    public StatementNode visitDoUntilStatement(JBasicParser.DoUntilStatementContext context) {
+        return new DoLoopStatementNode(this.expressionCompiler.visit(context.expression()),
+                this.visitBlock(context.block()), true, context);
+    }
+
+    @Override
+    public StatementNode visitDoWhileStatement(JBasicParser.DoWhileStatementContext context) {
+        return new DoLoopStatementNode(this.expressionCompiler.visit(context.expression()),
+                this.visitBlock(context.block()), false, context);
+    }
+
+    @Override
+    public StatementNode visitExitStatement(JBasicParser.ExitStatementContext context) {
+        return new ExitStatementNode(this.loopControlExceptions, context);
+    }
+
+    @Override
+    public StatementNode visitForStatement(JBasicParser.ForStatementContext context) {
+        String variableName = context.variableIdentifier().IDENTIFIER().getText();
+        return new ForStatementNode(variableName, this.expressionCompiler.resolve(variableName),
+                this.expressionCompiler.visit(context.expression(0)),
+                this.expressionCompiler.visit(context.expression(1)),
+                context.expression(2) != null ? this.expressionCompiler.visit(context.expression(2)) : null,
+                this.visitBlock(context.block()), context);
+    }
+
+    @Override
+    public StatementNode visitGotoStatement(JBasicParser.GotoStatementContext context) {
+        return new GotoStatementNode(context.lab.getText(), context);
+    }
+
+    @Override
+    public StatementNode visitIfStatement(JBasicParser.IfStatementContext context) {
+        List<JBasicParser.ElifStatementContext> elifContexts = context.elifStatement();
+        ExpressionNode[] conditions = new ExpressionNode[elifContexts.size() + 1];
+        BlockNode[] blocks = new BlockNode[elifContexts.size() + 1];
+        conditions[0] = this.expressionCompiler.visit(context.expression());
+        blocks[0] = this.visitBlock(context.block());
+        for (int i = 0; i < elifContexts.size(); i++) {
+            conditions[i + 1] = new StatementValueNode(this.visit(elifContexts.get(i).statement()));
+            blocks[i + 1] = this.visitBlock(elifContexts.get(i).block());
+        }
+        BlockNode elseBlock = context.elseStatement() != null ? this.visitBlock(context.elseStatement().block()) : null;
+        return this.constantFolder.foldIf(conditions, blocks, elseBlock, context);
+    }
+
+    @Override
+    public StatementNode visitInputStatement(JBasicParser.InputStatementContext context) {
+        String variableName = context.variableIdentifier() != null ? context.variableIdentifier().getText() : null;
+        return new InputStatementNode(ExpressionCompiler.unquote(context.stringLiteral().getText()), variableName,
+                variableName != null ? this.expressionCompiler.resolve(variableName) : -1, context);
+    }
+
+    @Override
+    public StatementNode visitLetStatement(JBasicParser.LetStatementContext context) {
+        String variableName = context.variableIdentifier().getText();
+        return new LetStatementNode(variableName, this.expressionCompiler.resolve(variableName),
+                context.variableIdentifier().variableSuffix(), this.expressionCompiler.visit(context.expression()),
+                context);
+    }
+
+    @Override
+    public StatementNode visitPrintStatement(JBasicParser.PrintStatementContext context) {
+        return new PrintStatementNode(this.expressionCompiler.compileAll(context.expression()), context);
+    }
+
+    @Override
+    public StatementNode visitReadStatement(JBasicParser.ReadStatementContext context) {
+        List<JBasicParser.VariableIdentifierContext> variables = context.variableIdentifier();
+        String[] names = new String[variables.size()];
+        int[] slots = new int[variables.size()];
+        JBasicParser.VariableSuffixContext[] suffixes = new JBasicParser.VariableSuffixContext[variables.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = variables.get(i).getText();
+            slots[i] = this.expressionCompiler.resolve(names[i]);
+            suffixes[i] = variables.get(i).variableSuffix();
+        }
+        return new ReadStatementNode(names, slots, suffixes, context);
+    }
+
+    @Override
+    public StatementNode visitRepeatStatement(JBasicParser.RepeatStatementContext context) {
+        return new WhileStatementNode(this.expressionCompiler.visit(context.expression()),
+                this.visitBlock(context.block()), true, context);
+    }
+
+    @Override
+    public StatementNode visitRestoreStatement(JBasicParser.RestoreStatementContext context) {
+        return new RestoreStatementNode(this.expressionCompiler.visit(context.expression()), context);
+    }
+
+    @Override
+    public StatementNode visitSubroutineDefinitionStatement(JBasicParser.SubroutineDefinitionStatementContext context) {
+        String[] parameters = context.subroutineSignature().variableIdentifier().stream()
+                .map(RuleContext::getText).toArray(String[]::new);
+        // Every subroutine has its own scope, the parameters are resolved first so they occupy the first slots
+        FrameLayout layout = new FrameLayout();
+        int[] parameterSlots = new int[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            parameterSlots[i] = layout.resolve(parameters[i]);
+        }
+        FrameLayout enclosingLayout = this.expressionCompiler.enterScope(layout);
+        List<StatementNode> body = new ArrayList<>();
+        try {
+            for (JBasicParser.StatementContext statementContext : context.subroutineBody().statement()) {
+                StatementNode statement = this.visit(statementContext);
+                if (statement != null) {
+                    body.add(statement);
+                }
+            }
+        }
+        finally {
+            this.expressionCompiler.enterScope(enclosingLayout);
+        }
+        return new SubroutineDefinitionNode(context.subroutineSignature().IDENTIFIER().getText(), parameters,
+                parameterSlots, new BlockNode(body.toArray(new StatementNode[0]), context.subroutineBody()), layout,
+                context);
+    }
+
+    @Override
+    public StatementNode visitSubroutineInvocationStatement(JBasicParser.SubroutineInvocationStatementContext context) {
+        return new SubroutineInvocationNode(context.IDENTIFIER().getText(),
+                this.expressionCompiler.compileAll(context.expression()), context);
+    }
+
+    @Override
+    public StatementNode visitSwitchStatement(JBasicParser.SwitchStatementContext context) {
+        List<JBasicParser.SwitchCaseContext> cases = context.switchCase();
+        JBasicValue[] caseValues = new JBasicValue[cases.size()];
+        BlockNode[] caseBlocks = new BlockNode[cases.size()];
+        for (int i = 0; i < caseValues.length; i++) {
+            JBasicParser.SwitchCaseContext caseContext = cases.get(i);
+            caseValues[i] = caseContext.numericLiteral() != null ?
+                    this.constantFolder.constant(JBasicValue.parseNumber(caseContext.numericLiteral().getText())) :
+                    this.constantFolder.constant(ExpressionCompiler.unquote(caseContext.stringLiteral().getText()));
+            caseBlocks[i] = this.visitBlock(caseContext.block());
+        }
+        return new SwitchStatementNode(this.expressionCompiler.visit(context.expression()), caseValues, caseBlocks, context);
+    }
+
+    @Override
+    public StatementNode visitWhileStatement(JBasicParser.WhileStatementContext context) {
+        return new WhileStatementNode(this.expressionCompiler.visit(context.expression()),
+                this.visitBlock(context.block()), false, context);
+    }
+}
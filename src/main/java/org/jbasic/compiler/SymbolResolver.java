@@ -0,0 +1,203 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file SymbolResolver.java
+ * @brief Resolves the labels and subroutines of a compiled program.
+ */
+
+package org.jbasic.compiler;
+
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.DoLoopStatementNode;
+import org.jbasic.compiler.nodes.ForStatementNode;
+import org.jbasic.compiler.nodes.GotoStatementNode;
+import org.jbasic.compiler.nodes.IfStatementNode;
+import org.jbasic.compiler.nodes.InlinedSubroutineNode;
+import org.jbasic.compiler.nodes.InvariantScopeNode;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.SwitchStatementNode;
+import org.jbasic.compiler.nodes.WhileStatementNode;
+import org.jbasic.core.guard.NumericalValueSafeguard;
+import org.jbasic.error.labels.UndefinedLabelException;
+import org.jbasic.error.subroutine.SubroutineRedefinitionException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @brief Resolves the labels and subroutines of a compiled program.
+ * @details The main program and the body of every subroutine are separate units. Every labeled block stores the
+ * statements that enclose it inside of its unit, so a 'goto' statement can continue the execution at the label
+ * without executing the statements before it. Every 'goto' statement is bound to its labeled block and the
+ * subroutines of all units are collected, so the program does not register labels or subroutines while it runs.
+ */
+class SymbolResolver {
+
+    /// The labeled blocks of the program, stored with the label as key
+    private final Map<String, LabeledBlockNode> labeledBlocks;
+    /// The 'goto' statements of the program
+    private final List<GotoStatementNode> gotoStatements;
+    /// The subroutines of the program, stored with the name of the subroutine as key
+    private final Map<String, SubroutineDefinitionNode> subroutines;
+
+    /// The statements that enclose the statement that is currently resolved
+    private final List<StatementNode> path = new ArrayList<>();
+    /// The position of the next statement of the path in each of the enclosing statements
+    private final List<Integer> indices = new ArrayList<>();
+
+    /**
+     * Constructor of the SymbolResolver
+     */
+    SymbolResolver() {
+        this(new HashMap<>(), new ArrayList<>(), new LinkedHashMap<>());
+    }
+
+    /**
+     * Constructor of the SymbolResolver, that shares the resolved symbols with the resolver of another unit
+     *
+     * @param labeledBlocks  The labeled blocks of the program
+     * @param gotoStatements The 'goto' statements of the program
+     * @param subroutines    The subroutines of the program
+     */
+    private SymbolResolver(Map<String, LabeledBlockNode> labeledBlocks, List<GotoStatementNode> gotoStatements,
+                           Map<String, SubroutineDefinitionNode> subroutines) {
+        this.labeledBlocks = labeledBlocks;
+        this.gotoStatements = gotoStatements;
+        this.subroutines = subroutines;
+    }
+
+    /**
+     * Resolves the labels and subroutines of a program
+     *
+     * @param main The top level block of the program
+     * @return The subroutines of the program with their name as key
+     * @throws SubroutineRedefinitionException if a subroutine is defined more than once
+     * @throws UndefinedLabelException if a 'goto' statement jumps to a label, that is not defined
+     */
+    Map<String, SubroutineDefinitionNode> resolve(StatementNode main)
+            throws SubroutineRedefinitionException, UndefinedLabelException {
+        this.unit(main);
+        for (GotoStatementNode gotoStatement : this.gotoStatements) {
+            LabeledBlockNode target = this.labeledBlocks.get(gotoStatement.getLabel());
+            if (target == null) {
+                throw new UndefinedLabelException("A label called " + gotoStatement.getLabel() + " is not defined",
+                        gotoStatement.getContext());
+            }
+            gotoStatement.setTarget(target);
+        }
+        return this.subroutines;
+    }
+
+    /**
+     * Resolves the labeled blocks of a unit and of the subroutines that are defined in the unit
+     *
+     * @param body The body of the unit
+     */
+    private void unit(StatementNode body) {
+        new SymbolResolver(this.labeledBlocks, this.gotoStatements, this.subroutines).enclosed(body, 0);
+    }
+
+    /**
+     * Resolves a statement that is part of the current path
+     *
+     * @param statement The statement
+     * @param index     The position of the statement in the enclosing statement
+     */
+    private void enclosed(StatementNode statement, int index) {
+        if (!this.indices.isEmpty()) {
+            this.indices.set(this.indices.size() - 1, index);
+        }
+        this.path.add(statement);
+        this.indices.add(0);
+        this.statement(statement);
+        this.path.remove(this.path.size() - 1);
+        this.indices.remove(this.indices.size() - 1);
+    }
+
+    /**
+     * Resolves the statements inside of a statement
+     *
+     * @param statement The statement
+     */
+    private void statement(StatementNode statement) {
+        if (statement instanceof BlockNode) {
+            StatementNode[] statements = ((BlockNode) statement).getStatements();
+            for (int i = 0; i < statements.length; i++) {
+                this.enclosed(statements[i], i);
+            }
+        }
+        else if (statement instanceof LabeledBlockNode) {
+            LabeledBlockNode labeledBlock = (LabeledBlockNode) statement;
+            if (labeledBlock.isNumerical()) {
+                NumericalValueSafeguard.guaranteeIsWhole("Digits are not allowed in a label",
+                        Double.parseDouble(labeledBlock.getLabel()), labeledBlock.getContext());
+            }
+            // If a label is used twice, the last block in the program is the target of the 'goto' statements
+            this.labeledBlocks.put(labeledBlock.getLabel(), labeledBlock);
+            labeledBlock.setResumePath(this.path.toArray(new StatementNode[0]),
+                    this.indices.stream().mapToInt(Integer::intValue).toArray());
+            this.enclosed(labeledBlock.getBlock(), 0);
+        }
+        else if (statement instanceof IfStatementNode) {
+            IfStatementNode ifStatement = (IfStatementNode) statement;
+            BlockNode[] blocks = ifStatement.getBlocks();
+            for (int i = 0; i < blocks.length; i++) {
+                this.enclosed(blocks[i], i);
+            }
+            if (ifStatement.getElseBlock() != null) {
+                this.enclosed(ifStatement.getElseBlock(), blocks.length);
+            }
+        }
+        else if (statement instanceof ForStatementNode) {
+            this.enclosed(((ForStatementNode) statement).getBody(), 0);
+        }
+        else if (statement instanceof WhileStatementNode) {
+            this.enclosed(((WhileStatementNode) statement).getBody(), 0);
+        }
+        else if (statement instanceof DoLoopStatementNode) {
+            this.enclosed(((DoLoopStatementNode) statement).getBody(), 0);
+        }
+        else if (statement instanceof SwitchStatementNode) {
+            BlockNode[] caseBlocks = ((SwitchStatementNode) statement).getCaseBlocks();
+            for (int i = 0; i < caseBlocks.length; i++) {
+                this.enclosed(caseBlocks[i], i);
+            }
+        }
+        else if (statement instanceof InvariantScopeNode) {
+            this.enclosed(((InvariantScopeNode) statement).getStatement(), 0);
+        }
+        else if (statement instanceof InlinedSubroutineNode) {
+            this.enclosed(((InlinedSubroutineNode) statement).getBody(), 0);
+        }
+        else if (statement instanceof GotoStatementNode) {
+            this.gotoStatements.add((GotoStatementNode) statement);
+        }
+        else if (statement instanceof SubroutineDefinitionNode) {
+            SubroutineDefinitionNode definition = (SubroutineDefinitionNode) statement;
+            if (this.subroutines.putIfAbsent(definition.getName(), definition) != null) {
+                throw new SubroutineRedefinitionException("A subroutine with the name " + definition.getName() +
+                        " is already defined in the script", definition.getContext());
+            }
+            // The body of a subroutine is a unit of its own
+            this.unit(definition.getBody());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file BytecodeClassLoader.java
+ * @brief Defines the classes that were generated for a single program.
+ */
+
+package org.jbasic.compiler.bytecode;
+
+/**
+ * @brief Defines the classes that were generated for a single program.
+ * @details Every program uses its own class loader, so the generated classes can be unloaded together with the program.
+ */
+class BytecodeClassLoader extends ClassLoader {
+
+    /**
+     * Constructor of the BytecodeClassLoader
+     *
+     * @param parent The class loader of the interpreter
+     */
+    BytecodeClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    /**
+     * Defines a generated class
+     *
+     * @param name     The binary name of the class
+     * @param bytecode The content of the class file
+     * @return The defined class
+     */
+    Class<?> define(String name, byte[] bytecode) {
+        return this.defineClass(name, bytecode, 0, bytecode.length);
+    }
+}
@@ -0,0 +1,129 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file BytecodeCompiler.java
+ * @brief Translates a compiled program into JVM bytecode.
+ */
+
+package org.jbasic.compiler.bytecode;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.CompiledProgram;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.interpreter.FrameLayout;
+import org.objectweb.asm.ClassTooLargeException;
+import org.objectweb.asm.MethodTooLargeException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @brief Translates a compiled program into JVM bytecode.
+ * @details The main program and the body of every subroutine are translated into a class of their own, that is
+ * defined by a class loader that belongs to the program, so the JIT compiler of the JVM can compile the script
+ * directly. A unit that exceeds the size limits of a class file is executed by the node tree instead.
+ */
+public class BytecodeCompiler {
+
+    /// The package of the generated classes
+    private static final String GENERATED_PACKAGE = "org.jbasic.compiler.bytecode.generated.";
+
+    /// Defines the generated classes of the program
+    private final BytecodeClassLoader classLoader = new BytecodeClassLoader(BytecodeCompiler.class.getClassLoader());
+    /// The amount of classes that were generated, used to give every class a unique name
+    private int generatedClasses;
+
+    /**
+     * Translates a compiled program into JVM bytecode
+     *
+     * @param program The program, that was compiled into a node tree
+     * @return The program that executes the generated bytecode
+     */
+    public CompiledProgram compile(CompiledProgram program) {
+        if (!(program.getMain() instanceof BlockNode)) {
+            return program;
+        }
+        Map<String, SubroutineDefinitionNode> subroutines = new LinkedHashMap<>();
+        for (SubroutineDefinitionNode definition : program.getSubroutines().values()) {
+            subroutines.put(definition.getName(), this.compileSubroutine(definition));
+        }
+        BlockNode main = (BlockNode) program.getMain();
+        return new CompiledProgram(this.compileUnit(main, program.getLayout(),
+                LocalVariableAnalysis.numericalLocals(main, new String[0]), true, false, "Main"),
+                program.getLayout(), subroutines);
+    }
+
+    /**
+     * Translates the body of a subroutine into JVM bytecode
+     *
+     * @param definition The definition of the subroutine
+     * @return The definition of the subroutine with the translated body
+     */
+    SubroutineDefinitionNode compileSubroutine(SubroutineDefinitionNode definition) {
+        if (!(definition.getBody() instanceof BlockNode)) {
+            return definition;
+        }
+        BlockNode body = (BlockNode) definition.getBody();
+        return definition.withBody(this.compileUnit(body, definition.getLayout(),
+                LocalVariableAnalysis.numericalLocals(body, definition.getParameters()), false, false, "Subroutine"));
+    }
+
+    /**
+     * Translates a loop into JVM bytecode, that continues the loop while it is running. The local variables are read
+     * from the stack frame when the loop starts, so the loop continues with the values the node tree assigned
+     *
+     * @param body   The block, that contains the loop
+     * @param layout The layout of the stack frame the loop is executed in
+     * @param locals The variables that are stored in local double variables, the caller guarantees that they are
+     *               numbers or undefined when the loop starts
+     * @return The instance of the generated class or null if the loop is too large
+     */
+    StatementNode compileLoop(BlockNode body, FrameLayout layout, Set<String> locals) {
+        StatementNode compiled = this.compileUnit(body, layout, locals, false, true, "Loop");
+        return compiled != body ? compiled : null;
+    }
+
+    /**
+     * Translates a unit into a class and instantiates it
+     *
+     * @param body       The body of the unit
+     * @param layout     The layout of the stack frame the unit is executed in
+     * @param locals     The variables that are stored in local double variables
+     * @param main       Whether the unit is the main program
+     * @param continued  Whether the unit continues a running loop
+     * @param kind       The kind of the unit, used as prefix of the class name
+     * @return The instance of the generated class or the body itself if the unit is too large
+     */
+    private StatementNode compileUnit(BlockNode body, FrameLayout layout, Set<String> locals, boolean main,
+                                      boolean continued, String kind) {
+        String className = GENERATED_PACKAGE + kind + this.generatedClasses++;
+        UnitCompiler unitCompiler = new UnitCompiler(className.replace('.', '/'), layout, locals);
+        try {
+            Class<?> unitClass = this.classLoader.define(className, unitCompiler.compile(body, main, continued));
+            return (StatementNode) unitClass.getConstructor(ParserRuleContext.class, Object[].class)
+                    .newInstance(body.getContext(), unitCompiler.getConstants());
+        }
+        catch (MethodTooLargeException | ClassTooLargeException exception) {
+            return body;
+        }
+        catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Could not instantiate the generated class " + className, exception);
+        }
+    }
+}
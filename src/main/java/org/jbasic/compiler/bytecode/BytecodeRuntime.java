@@ -0,0 +1,102 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file BytecodeRuntime.java
+ * @brief Helper functions that are called by the generated bytecode.
+ */
+
+package org.jbasic.compiler.bytecode;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.error.variable.UndefinedVariableException;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Helper functions that are called by the generated bytecode.
+ * @details The generated classes are defined by their own class loader, that's why all helpers have to be public.
+ */
+public final class BytecodeRuntime {
+
+    /**
+     * Private constructor, the class only contains static helpers
+     */
+    private BytecodeRuntime() {
+    }
+
+    /**
+     * Wraps a number into a value
+     *
+     * @param number The wrapped number
+     * @return The value with the number as the underlying value
+     */
+    public static JBasicValue box(double number) {
+        return new JBasicValue(number);
+    }
+
+    /**
+     * Creates the error that is reported if a variable that is stored in a local variable is read before it was assigned
+     *
+     * @param name    The name of the variable
+     * @param context The parsing context where the variable is read
+     * @return The error that is thrown by the generated bytecode
+     */
+    public static UndefinedVariableException undefinedVariable(String name, ParserRuleContext context) {
+        return new UndefinedVariableException(name + " is not defined", context);
+    }
+
+    /**
+     * Determines whether two numbers are equal, using the same semantics as {@link JBasicValue#equal}
+     *
+     * @param left  The left number
+     * @param right The right number
+     * @return true if the numbers are equal, false if not
+     */
+    public static boolean equal(double left, double right) {
+        return Double.doubleToLongBits(left) == Double.doubleToLongBits(right);
+    }
+
+    /**
+     * Combines two numbers with a logical and
+     *
+     * @param left  The left number
+     * @param right The right number
+     * @return 1 if both numbers are truthy, 0 if not
+     */
+    public static double and(double left, double right) {
+        return left != 0 && right != 0 ? 1 : 0;
+    }
+
+    /**
+     * Combines two numbers with a logical or
+     *
+     * @param left  The left number
+     * @param right The right number
+     * @return 1 if one of the numbers is truthy, 0 if not
+     */
+    public static double or(double left, double right) {
+        return left != 0 || right != 0 ? 1 : 0;
+    }
+
+    /**
+     * Inverts the logical value of a number
+     *
+     * @param number The inverted number
+     * @return 1 if the number is falsy, 0 if not
+     */
+    public static double not(double number) {
+        return number == 0 ? 1 : 0;
+    }
+}
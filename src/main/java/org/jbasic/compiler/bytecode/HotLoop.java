@@ -0,0 +1,122 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file HotLoop.java
+ * @brief Counts the iterations of a loop and continues the loop in bytecode once it became hot.
+ */
+
+package org.jbasic.compiler.bytecode;
+
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.OnStackReplacement;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.interpreter.FrameLayout;
+import org.jbasic.interpreter.StackFrame;
+
+import java.util.Set;
+
+/**
+ * @brief Counts the iterations of a loop and continues the loop in bytecode once it became hot.
+ * @details The iterations of all executions of the loop are counted. The translated loop reads its local double
+ * variables from the stack frame when it starts, so it continues with the values the node tree assigned. The loop only
+ * switches over while these variables are numbers or undefined. A for loop is continued by a copy, that reads the
+ * counter, the end value and the step from hidden slots of the frame instead of evaluating them again.
+ */
+class HotLoop implements OnStackReplacement {
+
+    /// Translates the loop once it became hot
+    private final TieredCompiler compiler;
+    /// The block, that contains the loop that executes the remaining iterations
+    private final BlockNode continuation;
+    /// The layout of the stack frame the loop is executed in
+    private final FrameLayout layout;
+    /// The hidden slots of the counter, the end value and the step of a for loop, empty for the other loops
+    private final int[] slots;
+    /// The amount of iterations after which the loop is translated
+    private final int threshold;
+    /// The amount of iterations that were counted so far
+    private int iterations;
+    /// The translated loop, null as long as the loop is not hot
+    private StatementNode compiled;
+    /// The slots of the variables, that the translated loop stores in local double variables
+    private int[] localSlots;
+    /// Whether the loop stays in the node tree, because it could not be translated
+    private boolean rejected;
+
+    /**
+     * Constructor of the HotLoop
+     *
+     * @param compiler     Translates the loop once it became hot
+     * @param continuation The loop, that executes the remaining iterations
+     * @param layout       The layout of the stack frame the loop is executed in
+     * @param slots        The hidden slots of the counter, the end value and the step of a for loop
+     */
+    HotLoop(TieredCompiler compiler, StatementNode continuation, FrameLayout layout, int[] slots) {
+        this.compiler = compiler;
+        this.continuation = new BlockNode(new StatementNode[]{continuation}, continuation.getContext());
+        this.layout = layout;
+        this.slots = slots;
+        this.threshold = compiler.loopThreshold(continuation.getContext());
+    }
+
+    @Override
+    public boolean countIteration(ExecutionContext executionContext) {
+        if (this.compiled == null) {
+            if (this.rejected || ++this.iterations < this.threshold) {
+                return false;
+            }
+            Set<String> locals = LocalVariableAnalysis.numericalLocals(this.continuation, new String[0]);
+            this.compiled = this.compiler.compileLoop(this.continuation, this.layout, locals, this.iterations);
+            this.rejected = this.compiled == null;
+            if (this.rejected) {
+                return false;
+            }
+            this.localSlots = locals.stream().mapToInt(this.layout::find).toArray();
+        }
+        return this.holdsNumbers(executionContext.getState().getFrame());
+    }
+
+    @Override
+    public void continueLoop(ExecutionContext executionContext, double counter, double endValue, double stepValue) {
+        StackFrame frame = executionContext.getState().getFrame();
+        frame.setNumber(this.slots[0], counter);
+        frame.setNumber(this.slots[1], endValue);
+        frame.setNumber(this.slots[2], stepValue);
+        this.compiled.execute(executionContext);
+    }
+
+    @Override
+    public void continueLoop(ExecutionContext executionContext) {
+        this.compiled.execute(executionContext);
+    }
+
+    /**
+     * Determines whether the variables, that the translated loop stores in local double variables, are numbers or
+     * undefined, otherwise the loop continues in the node tree
+     *
+     * @param frame The current stack frame
+     * @return true if the translated loop can continue with the variables, false if not
+     */
+    private boolean holdsNumbers(StackFrame frame) {
+        for (int slot : this.localSlots) {
+            if (frame.isDefined(slot) && !frame.get(slot, null).isANumericalValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file HotSubroutineNode.java
+ * @brief Counts the invocations of a subroutine and executes the body in bytecode once the subroutine became hot.
+ */
+
+package org.jbasic.compiler.bytecode;
+
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+
+/**
+ * @brief Counts the invocations of a subroutine and executes the body in bytecode once the subroutine became hot.
+ * @details Replaces the body of the subroutine, every execution of the body is an invocation. The invocations, that
+ * are still running when the subroutine becomes hot, finish in the node tree.
+ */
+class HotSubroutineNode extends StatementNode {
+
+    /// Translates the subroutine once it became hot
+    private final TieredCompiler compiler;
+    /// The definition of the subroutine with the body of the node tree
+    private final SubroutineDefinitionNode definition;
+    /// The amount of invocations after which the subroutine is translated
+    private final int threshold;
+    /// The amount of invocations that were counted so far
+    private int invocations;
+    /// The translated body, null as long as the subroutine is not hot
+    private StatementNode compiled;
+    /// Whether the subroutine stays in the node tree, because it could not be translated
+    private boolean rejected;
+
+    /**
+     * Constructor of the HotSubroutineNode
+     *
+     * @param compiler   Translates the subroutine once it became hot
+     * @param definition The definition of the subroutine with the body of the node tree
+     */
+    HotSubroutineNode(TieredCompiler compiler, SubroutineDefinitionNode definition) {
+        super(definition.getBody().getContext());
+        this.compiler = compiler;
+        this.definition = definition;
+        this.threshold = compiler.invocationThreshold(definition.getName());
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        if (this.compiled == null && !this.rejected && ++this.invocations >= this.threshold) {
+            this.compiled = this.compiler.compileSubroutine(this.definition, this.invocations);
+            this.rejected = this.compiled == null;
+        }
+        (this.compiled != null ? this.compiled : this.definition.getBody()).execute(executionContext);
+    }
+}
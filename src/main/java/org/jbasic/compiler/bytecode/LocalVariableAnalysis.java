@@ -0,0 +1,318 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file LocalVariableAnalysis.java
+ * @brief Determines which variables of a compiled unit can be stored in local double variables.
+ */
+
+package org.jbasic.compiler.bytecode;
+
+import org.jbasic.compiler.nodes.ArrayDeclarationNode;
+import org.jbasic.compiler.nodes.ArrayGetAtIndexNode;
+import org.jbasic.compiler.nodes.ArraySetAtIndexNode;
+import org.jbasic.compiler.nodes.BinaryExpressionNode;
+import org.jbasic.compiler.nodes.BinaryOperator;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.DataStatementNode;
+import org.jbasic.compiler.nodes.DoLoopStatementNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.ForStatementNode;
+import org.jbasic.compiler.nodes.FunctionCallNode;
+import org.jbasic.compiler.nodes.GotoStatementNode;
+import org.jbasic.compiler.nodes.IfStatementNode;
+import org.jbasic.compiler.nodes.InlinedSubroutineNode;
+import org.jbasic.compiler.nodes.InputStatementNode;
+import org.jbasic.compiler.nodes.InvariantExpressionNode;
+import org.jbasic.compiler.nodes.InvariantScopeNode;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.LetStatementNode;
+import org.jbasic.compiler.nodes.LiteralNode;
+import org.jbasic.compiler.nodes.PrintStatementNode;
+import org.jbasic.compiler.nodes.ReadStatementNode;
+import org.jbasic.compiler.nodes.RestoreStatementNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.StatementValueNode;
+import org.jbasic.compiler.nodes.SubroutineInvocationNode;
+import org.jbasic.compiler.nodes.SwitchStatementNode;
+import org.jbasic.compiler.nodes.UnaryExpressionNode;
+import org.jbasic.compiler.nodes.UnaryOperator;
+import org.jbasic.compiler.nodes.VariableNode;
+import org.jbasic.compiler.nodes.WhileStatementNode;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @brief Determines which variables of a compiled unit can be stored in local double variables.
+ * @details A variable is stored in a local double variable if every assignment in the unit assigns a number to it.
+ * Variables that are assigned by 'input' or 'read' statements, arrays, parameters, string variables and variables with
+ * the suffix '%', that hold 64 bit integers, stay in the memory of the interpreter. Units that contain labels or 'goto' statements keep all variables in memory, because
+ * the target of a 'goto' statement is executed by the node tree, that reads the variables from memory.
+ */
+class LocalVariableAnalysis {
+
+    /// All the let statements of the unit, including the ones that are used as conditions
+    private final List<LetStatementNode> assignments = new ArrayList<>();
+    /// The variables that are assigned by a let statement or used as counter of a for loop
+    private final Set<String> candidates = new LinkedHashSet<>();
+    /// The variables that can not be stored in local variables
+    private final Set<String> excluded = new HashSet<>();
+    /// Whether the unit contains labels or goto statements
+    private boolean containsJumps;
+
+    /**
+     * Determines the variables of a unit that can be stored in local double variables
+     *
+     * @param body       The body of the unit
+     * @param parameters The parameters of the unit, if the unit is a subroutine
+     * @return The names of the variables, that are stored in local double variables
+     */
+    static Set<String> numericalLocals(BlockNode body, String[] parameters) {
+        LocalVariableAnalysis analysis = new LocalVariableAnalysis();
+        analysis.excluded.addAll(Arrays.asList(parameters));
+        analysis.statement(body);
+        Set<String> locals = new LinkedHashSet<>();
+        if (analysis.containsJumps) {
+            return locals;
+        }
+        for (String candidate : analysis.candidates) {
+            if (!analysis.excluded.contains(candidate) && !candidate.endsWith("$") && !candidate.endsWith("%")) {
+                locals.add(candidate);
+            }
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (LetStatementNode assignment : analysis.assignments) {
+                if (locals.contains(assignment.getVariableName()) && !producesNumber(assignment.getValue(), locals)) {
+                    locals.remove(assignment.getVariableName());
+                    changed = true;
+                }
+            }
+        }
+        return locals;
+    }
+
+    /**
+     * Determines whether an expression always evaluates to a number
+     *
+     * @param expression The expression
+     * @param locals     The variables that are stored in local double variables
+     * @return true if the expression always evaluates to a number, false if not
+     */
+    static boolean producesNumber(ExpressionNode expression, Set<String> locals) {
+        if (expression instanceof LiteralNode) {
+            JBasicValue value = ((LiteralNode) expression).getValue();
+            return value.isANumericalValue() && !value.isAnIntegerValue();
+        }
+        else if (expression instanceof VariableNode) {
+            return locals.contains(((VariableNode) expression).getName());
+        }
+        else if (expression instanceof UnaryExpressionNode) {
+            UnaryExpressionNode unary = (UnaryExpressionNode) expression;
+            return unary.getOperator() == UnaryOperator.NOT || !readsIntegers(unary.getOperand());
+        }
+        else if (expression instanceof BinaryExpressionNode) {
+            BinaryExpressionNode binary = (BinaryExpressionNode) expression;
+            if (binary.getOperator() == BinaryOperator.ADD) {
+                return producesNumber(binary.getLeft(), locals) && producesNumber(binary.getRight(), locals);
+            }
+            // The exact result of an integer operation stays a value, a number would round it
+            return binary.getOperator().producesTruthValue() || binary.isShortCircuit() || !readsIntegers(binary);
+        }
+        else if (expression instanceof FunctionCallNode) {
+            FunctionCallNode call = (FunctionCallNode) expression;
+            return call.isArityValid() && call.getFunction().returnsNumber();
+        }
+        else if (expression instanceof StatementValueNode) {
+            StatementNode statement = ((StatementValueNode) expression).getStatement();
+            return !(statement instanceof LetStatementNode) ||
+                    locals.contains(((LetStatementNode) statement).getVariableName());
+        }
+        else if (expression instanceof InvariantExpressionNode) {
+            return producesNumber(((InvariantExpressionNode) expression).getExpression(), locals);
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether an expression reads an integer literal or a variable or an array with the suffix '%', whose
+     * values are integers
+     *
+     * @param expression The expression
+     * @return true if the result of the expression can be an integer, false if not
+     */
+    static boolean readsIntegers(ExpressionNode expression) {
+        if (expression instanceof LiteralNode) {
+            return ((LiteralNode) expression).getValue().isAnIntegerValue();
+        }
+        else if (expression instanceof VariableNode) {
+            return ((VariableNode) expression).getName().endsWith("%");
+        }
+        else if (expression instanceof ArrayGetAtIndexNode) {
+            return ((ArrayGetAtIndexNode) expression).getArrayName().endsWith("%");
+        }
+        else if (expression instanceof UnaryExpressionNode) {
+            return readsIntegers(((UnaryExpressionNode) expression).getOperand());
+        }
+        else if (expression instanceof BinaryExpressionNode) {
+            BinaryExpressionNode binary = (BinaryExpressionNode) expression;
+            return readsIntegers(binary.getLeft()) || readsIntegers(binary.getRight());
+        }
+        else if (expression instanceof StatementValueNode) {
+            StatementNode statement = ((StatementValueNode) expression).getStatement();
+            return statement instanceof LetStatementNode
+                    && ((LetStatementNode) statement).getVariableName().endsWith("%");
+        }
+        else if (expression instanceof InvariantExpressionNode) {
+            return readsIntegers(((InvariantExpressionNode) expression).getExpression());
+        }
+        return false;
+    }
+
+    /**
+     * Collects the assignments and variable usages of a statement
+     *
+     * @param statement The statement
+     */
+    private void statement(StatementNode statement) {
+        if (statement instanceof BlockNode) {
+            for (StatementNode child : ((BlockNode) statement).getStatements()) {
+                this.statement(child);
+            }
+        }
+        else if (statement instanceof LabeledBlockNode) {
+            this.containsJumps = true;
+            this.statement(((LabeledBlockNode) statement).getBlock());
+        }
+        else if (statement instanceof GotoStatementNode) {
+            this.containsJumps = true;
+        }
+        else if (statement instanceof LetStatementNode) {
+            LetStatementNode let = (LetStatementNode) statement;
+            this.assignments.add(let);
+            this.candidates.add(let.getVariableName());
+            this.expression(let.getValue());
+        }
+        else if (statement instanceof ForStatementNode) {
+            ForStatementNode loop = (ForStatementNode) statement;
+            this.candidates.add(loop.getVariableName());
+            this.expression(loop.getStart());
+            this.expression(loop.getEnd());
+            this.expression(loop.getStep());
+            this.statement(loop.getBody());
+        }
+        else if (statement instanceof WhileStatementNode) {
+            this.expression(((WhileStatementNode) statement).getCondition());
+            this.statement(((WhileStatementNode) statement).getBody());
+        }
+        else if (statement instanceof DoLoopStatementNode) {
+            this.expression(((DoLoopStatementNode) statement).getCondition());
+            this.statement(((DoLoopStatementNode) statement).getBody());
+        }
+        else if (statement instanceof IfStatementNode) {
+            IfStatementNode ifStatement = (IfStatementNode) statement;
+            this.expressions(ifStatement.getConditions());
+            for (BlockNode block : ifStatement.getBlocks()) {
+                this.statement(block);
+            }
+            this.statement(ifStatement.getElseBlock());
+        }
+        else if (statement instanceof SwitchStatementNode) {
+            this.expression(((SwitchStatementNode) statement).getValue());
+            for (BlockNode block : ((SwitchStatementNode) statement).getCaseBlocks()) {
+                this.statement(block);
+            }
+        }
+        else if (statement instanceof ArrayDeclarationNode) {
+            this.excluded.add(((ArrayDeclarationNode) statement).getArrayName());
+            this.expressions(((ArrayDeclarationNode) statement).getDimensions());
+        }
+        else if (statement instanceof ArraySetAtIndexNode) {
+            this.excluded.add(((ArraySetAtIndexNode) statement).getArrayName());
+            this.expressions(((ArraySetAtIndexNode) statement).getIndices());
+            this.expression(((ArraySetAtIndexNode) statement).getValue());
+        }
+        else if (statement instanceof InputStatementNode) {
+            this.excluded.add(((InputStatementNode) statement).getVariableName());
+        }
+        else if (statement instanceof ReadStatementNode) {
+            this.excluded.addAll(Arrays.asList(((ReadStatementNode) statement).getVariableNames()));
+        }
+        else if (statement instanceof PrintStatementNode) {
+            this.expressions(((PrintStatementNode) statement).getExpressions());
+        }
+        else if (statement instanceof DataStatementNode) {
+            this.expressions(((DataStatementNode) statement).getExpressions());
+        }
+        else if (statement instanceof RestoreStatementNode) {
+            this.expression(((RestoreStatementNode) statement).getIndex());
+        }
+        else if (statement instanceof SubroutineInvocationNode) {
+            this.expressions(((SubroutineInvocationNode) statement).getArguments());
+        }
+        else if (statement instanceof InvariantScopeNode) {
+            this.statement(((InvariantScopeNode) statement).getStatement());
+        }
+        else if (statement instanceof InlinedSubroutineNode) {
+            this.statement(((InlinedSubroutineNode) statement).getBody());
+        }
+    }
+
+    /**
+     * Collects the assignments and variable usages of several expressions
+     *
+     * @param expressions The expressions
+     */
+    private void expressions(ExpressionNode[] expressions) {
+        for (ExpressionNode expression : expressions) {
+            this.expression(expression);
+        }
+    }
+
+    /**
+     * Collects the assignments and variable usages of an expression
+     *
+     * @param expression The expression or null
+     */
+    private void expression(ExpressionNode expression) {
+        if (expression instanceof UnaryExpressionNode) {
+            this.expression(((UnaryExpressionNode) expression).getOperand());
+        }
+        else if (expression instanceof BinaryExpressionNode) {
+            this.expression(((BinaryExpressionNode) expression).getLeft());
+            this.expression(((BinaryExpressionNode) expression).getRight());
+        }
+        else if (expression instanceof FunctionCallNode) {
+            this.expressions(((FunctionCallNode) expression).getArguments());
+        }
+        else if (expression instanceof ArrayGetAtIndexNode) {
+            this.excluded.add(((ArrayGetAtIndexNode) expression).getArrayName());
+            this.expressions(((ArrayGetAtIndexNode) expression).getIndices());
+        }
+        else if (expression instanceof StatementValueNode) {
+            this.statement(((StatementValueNode) expression).getStatement());
+        }
+        else if (expression instanceof InvariantExpressionNode) {
+            this.expression(((InvariantExpressionNode) expression).getExpression());
+        }
+    }
+}
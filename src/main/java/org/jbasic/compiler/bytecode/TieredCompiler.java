@@ -0,0 +1,294 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file TieredCompiler.java
+ * @brief Promotes the hot loops and subroutines of a program from the node tree to JVM bytecode.
+ */
+
+package org.jbasic.compiler.bytecode;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.CompiledProgram;
+import org.jbasic.compiler.ExecutionProfile;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.DoLoopStatementNode;
+import org.jbasic.compiler.nodes.ForStatementNode;
+import org.jbasic.compiler.nodes.GotoStatementNode;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.VariableNode;
+import org.jbasic.compiler.nodes.WhileStatementNode;
+import org.jbasic.compiler.optimizer.NodeTransformer;
+import org.jbasic.interpreter.FrameLayout;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @brief Promotes the hot loops and subroutines of a program from the node tree to JVM bytecode.
+ * @details Every program starts in the node tree, that does not have to generate any classes before it runs. The
+ * loops count their iterations and the subroutines count their invocations. A subroutine, that crossed its threshold,
+ * is translated into bytecode and executes the translated body from the next invocation on. A loop, that crossed its
+ * threshold, is translated as well and the running loop continues with the next iteration in bytecode. Units with
+ * labels or 'goto' statements only promote their subroutines, a jump could continue the execution inside of a loop.
+ */
+public class TieredCompiler {
+
+    /// Translates the hot loops and subroutines into bytecode
+    private final BytecodeCompiler bytecodeCompiler = new BytecodeCompiler();
+    /// The amount of iterations after which a loop is translated into bytecode
+    private final int loopThreshold;
+    /// The amount of invocations after which a subroutine is translated into bytecode
+    private final int invocationThreshold;
+    /// The stream the tier decisions are logged to, null if the decisions are not logged
+    private final PrintStream log;
+    /// The profile of the earlier runs, that is updated by this run, null if no profile is used
+    private final ExecutionProfile profile;
+    /// The bodies of the units, that are executed by the node tree
+    private final List<StatementNode> units = new ArrayList<>();
+
+    /**
+     * Constructor of the TieredCompiler
+     *
+     * @param loopThreshold       The amount of iterations after which a loop is translated into bytecode
+     * @param invocationThreshold The amount of invocations after which a subroutine is translated into bytecode
+     * @param log                 The stream the tier decisions are logged to or null
+     * @param profile             The profile of the earlier runs or null
+     */
+    public TieredCompiler(int loopThreshold, int invocationThreshold, PrintStream log, ExecutionProfile profile) {
+        this.loopThreshold = loopThreshold;
+        this.invocationThreshold = invocationThreshold;
+        this.log = log;
+        this.profile = profile;
+    }
+
+    /**
+     * Prepares a compiled program to count its loop iterations and subroutine invocations. The loops and
+     * subroutines, that were hot in the profile, are compiled at their first iteration or invocation
+     *
+     * @param program The program, that was compiled into a node tree
+     * @return The program that promotes its hot loops and subroutines to bytecode
+     */
+    public CompiledProgram compile(CompiledProgram program) {
+        this.log("loops are compiled after " + this.loopThreshold + " iterations, subroutines after " +
+                this.invocationThreshold + " invocations");
+        Map<String, SubroutineDefinitionNode> subroutines = new LinkedHashMap<>();
+        for (SubroutineDefinitionNode definition : program.getSubroutines().values()) {
+            SubroutineDefinitionNode instrumented = definition.withBody(
+                    this.instrument(definition.getBody(), definition.getLayout()));
+            subroutines.put(definition.getName(),
+                    instrumented.withBody(new HotSubroutineNode(this, instrumented)));
+        }
+        return new CompiledProgram(this.instrument(program.getMain(), program.getLayout()), program.getLayout(),
+                subroutines);
+    }
+
+    /**
+     * Lets the loops of a unit count their iterations
+     *
+     * @param body   The body of the unit
+     * @param layout The layout of the stack frame of the unit
+     * @return The body with the counting loops or the body itself if the unit contains labels or 'goto' statements
+     */
+    private StatementNode instrument(StatementNode body, FrameLayout layout) {
+        Instrumentation instrumentation = new Instrumentation(layout);
+        StatementNode instrumented = instrumentation.transform(body);
+        StatementNode unit = instrumentation.containsJumps ? body : instrumented;
+        if (this.profile != null) {
+            this.profile.specialize(unit);
+        }
+        this.units.add(unit);
+        return unit;
+    }
+
+    /**
+     * Records the operand types the binary expressions of the node tree have seen in the profile
+     */
+    public void recordProfile() {
+        if (this.profile != null) {
+            this.units.forEach(this.profile::record);
+        }
+    }
+
+    /**
+     * Translates a loop, that became hot, into bytecode
+     *
+     * @param body       The block, that contains the loop that continues the iterations
+     * @param layout     The layout of the stack frame the loop is executed in
+     * @param locals     The variables that are stored in local double variables
+     * @param iterations The amount of iterations that were counted
+     * @return The translated loop or null if the loop stays in the node tree
+     */
+    StatementNode compileLoop(BlockNode body, FrameLayout layout, Set<String> locals, int iterations) {
+        StatementNode compiled = this.bytecodeCompiler.compileLoop(body, layout, locals);
+        if (compiled != null && this.profile != null) {
+            this.profile.recordHotLoop(body.getContext());
+        }
+        this.log("loop at " + position(body.getContext()) + (compiled != null ?
+                " continues in bytecode after " : " stays in the node tree after ") + iterations + " iterations");
+        return compiled;
+    }
+
+    /**
+     * Translates the body of a subroutine, that became hot, into bytecode
+     *
+     * @param definition  The definition of the subroutine
+     * @param invocations The amount of invocations that were counted
+     * @return The translated body or null if the subroutine stays in the node tree
+     */
+    StatementNode compileSubroutine(SubroutineDefinitionNode definition, int invocations) {
+        StatementNode body = this.bytecodeCompiler.compileSubroutine(definition).getBody();
+        boolean compiled = body != definition.getBody();
+        if (compiled && this.profile != null) {
+            this.profile.recordHotSubroutine(definition.getName());
+        }
+        this.log("subroutine " + definition.getName() + (compiled ? " is compiled to bytecode after " :
+                " stays in the node tree after ") + invocations + " invocations");
+        return compiled ? body : null;
+    }
+
+    /**
+     * Gets the amount of iterations after which a loop is translated into bytecode
+     *
+     * @param context The parsing context of the loop
+     * @return The threshold of the loop, 1 if the loop was hot in the profile
+     */
+    int loopThreshold(ParserRuleContext context) {
+        return this.profile != null && this.profile.isHotLoop(context) ? 1 : this.loopThreshold;
+    }
+
+    /**
+     * Gets the amount of invocations after which a subroutine is translated into bytecode
+     *
+     * @param name The name of the subroutine
+     * @return The threshold of the subroutine, 1 if the subroutine was hot in the profile
+     */
+    int invocationThreshold(String name) {
+        return this.profile != null && this.profile.isHotSubroutine(name) ? 1 : this.invocationThreshold;
+    }
+
+    /**
+     * Logs a tier decision, if the decisions are logged
+     *
+     * @param message The decision
+     */
+    private void log(String message) {
+        if (this.log != null) {
+            this.log.println("Tiered compilation: " + message);
+        }
+    }
+
+    /**
+     * Formats the position of a statement in the script
+     *
+     * @param context The parsing context of the statement
+     * @return The line and the column of the statement
+     */
+    private static String position(ParserRuleContext context) {
+        return "[" + context.getStart().getLine() + ", " + context.getStart().getCharPositionInLine() + "]";
+    }
+
+    /**
+     * Attaches the on-stack replacement to the loops of a unit
+     */
+    private class Instrumentation extends NodeTransformer {
+
+        /// The layout of the stack frame of the unit
+        private final FrameLayout layout;
+        /// Whether the unit contains labels or 'goto' statements
+        private boolean containsJumps;
+
+        /**
+         * Constructor of the Instrumentation
+         *
+         * @param layout The layout of the stack frame of the unit
+         */
+        Instrumentation(FrameLayout layout) {
+            this.layout = layout;
+        }
+
+        @Override
+        protected StatementNode transformFor(ForStatementNode loop) {
+            ForStatementNode transformed = (ForStatementNode) super.transformFor(loop);
+            // The continuation reads the counter, the end value and the step from hidden slots of the frame
+            int[] slots = {this.allocateSlot(), this.allocateSlot(), this.allocateSlot()};
+            ForStatementNode continuation = new ForStatementNode(transformed.getVariableName(),
+                    transformed.getSlot(), this.hidden(slots[0], loop), this.hidden(slots[1], loop),
+                    this.hidden(slots[2], loop), transformed.getBody(), loop.getContext());
+            return transformed.withReplacement(new HotLoop(TieredCompiler.this, continuation, this.layout, slots));
+        }
+
+        @Override
+        protected StatementNode transformWhile(WhileStatementNode loop) {
+            WhileStatementNode transformed = (WhileStatementNode) super.transformWhile(loop);
+            return transformed.withReplacement(new HotLoop(TieredCompiler.this, transformed, this.layout,
+                    new int[0]));
+        }
+
+        @Override
+        protected StatementNode transformDoLoop(DoLoopStatementNode loop) {
+            DoLoopStatementNode transformed = (DoLoopStatementNode) super.transformDoLoop(loop);
+            return transformed.withReplacement(new HotLoop(TieredCompiler.this, transformed, this.layout,
+                    new int[0]));
+        }
+
+        @Override
+        protected StatementNode transformLabeledBlock(LabeledBlockNode labeledBlock) {
+            this.containsJumps = true;
+            return labeledBlock;
+        }
+
+        @Override
+        protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+            // The body of a subroutine is a unit of its own
+            return definition;
+        }
+
+        @Override
+        protected StatementNode transformLeaf(StatementNode statement) {
+            if (statement instanceof GotoStatementNode) {
+                this.containsJumps = true;
+            }
+            return statement;
+        }
+
+        /**
+         * Adds a hidden slot to the layout of the unit
+         *
+         * @return The hidden slot
+         */
+        private int allocateSlot() {
+            // The name can not be used by a variable of the program
+            return this.layout.resolve("#" + this.layout.size());
+        }
+
+        /**
+         * Creates a variable, that reads a hidden slot
+         *
+         * @param slot The hidden slot
+         * @param loop The loop the slot belongs to
+         * @return The variable
+         */
+        private VariableNode hidden(int slot, ForStatementNode loop) {
+            return new VariableNode("#" + slot, slot, loop.getContext());
+        }
+    }
+}
@@ -0,0 +1,1349 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file UnitCompiler.java
+ * @brief Generates the class of a single compiled unit, that is the main program or the body of a subroutine.
+ */
+
+package org.jbasic.compiler.bytecode;
+
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.compiler.nodes.ArrayDeclarationNode;
+import org.jbasic.compiler.nodes.ArrayGetAtIndexNode;
+import org.jbasic.compiler.nodes.ArraySetAtIndexNode;
+import org.jbasic.compiler.nodes.BinaryExpressionNode;
+import org.jbasic.compiler.nodes.BinaryOperator;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.BuiltinFunction;
+import org.jbasic.compiler.nodes.ContinueStatementNode;
+import org.jbasic.compiler.nodes.DataStatementNode;
+import org.jbasic.compiler.nodes.DoLoopStatementNode;
+import org.jbasic.compiler.nodes.ExitStatementNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.ForStatementNode;
+import org.jbasic.compiler.nodes.FunctionCallNode;
+import org.jbasic.compiler.nodes.GotoStatementNode;
+import org.jbasic.compiler.nodes.IfStatementNode;
+import org.jbasic.compiler.nodes.InlinedSubroutineNode;
+import org.jbasic.compiler.nodes.InvariantExpressionNode;
+import org.jbasic.compiler.nodes.InvariantScopeNode;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.LetStatementNode;
+import org.jbasic.compiler.nodes.LiteralNode;
+import org.jbasic.compiler.nodes.PrintStatementNode;
+import org.jbasic.compiler.nodes.RestoreStatementNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.StatementValueNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.SubroutineInvocationNode;
+import org.jbasic.compiler.nodes.SwitchStatementNode;
+import org.jbasic.compiler.nodes.UnaryExpressionNode;
+import org.jbasic.compiler.nodes.UnaryOperator;
+import org.jbasic.compiler.nodes.VariableNode;
+import org.jbasic.compiler.nodes.WhileStatementNode;
+import org.jbasic.interpreter.FrameLayout;
+import org.jbasic.interpreter.JBasicInterpreterState;
+import org.jbasic.interpreter.StackFrame;
+import org.jbasic.languageModels.JBasicValue;
+import org.jbasic.programFlow.Completion;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @brief Generates the class of a single compiled unit, that is the main program or the body of a subroutine.
+ * @details The generated class extends StatementNode and executes the unit in its execute method. Loops and
+ * conditions become jumps, variables that always hold numbers become local double variables and everything else
+ * calls the same node methods as the node tree, so runtime errors are reported exactly like in the other modes.
+ * The nodes, values and parsing contexts used by the generated code are passed to the constructor and stored in
+ * final fields.
+ */
+class UnitCompiler implements Opcodes {
+
+    private static final String EXECUTION_CONTEXT = Type.getInternalName(ExecutionContext.class);
+    private static final String VALUE = Type.getInternalName(JBasicValue.class);
+    private static final String VALUE_DESCRIPTOR = Type.getDescriptor(JBasicValue.class);
+    private static final String CONTEXT_DESCRIPTOR = Type.getDescriptor(ParserRuleContext.class);
+    private static final String FRAME_DESCRIPTOR = Type.getDescriptor(StackFrame.class);
+    private static final String RUNTIME = Type.getInternalName(BytecodeRuntime.class);
+    private static final String STATEMENT_NODE = Type.getInternalName(StatementNode.class);
+    private static final String EXECUTE_DESCRIPTOR = "(" + Type.getDescriptor(ExecutionContext.class) + ")V";
+    private static final String COMPLETION = Type.getInternalName(Completion.class);
+    private static final String COMPLETION_DESCRIPTOR = Type.getDescriptor(Completion.class);
+
+    /// The jump targets of a loop or a switch statement
+    private static class JumpTarget {
+        /// The target of 'continue' statements, null for switch statements
+        final Label continueLabel;
+        /// The target of 'exit' statements
+        final Label exitLabel;
+
+        JumpTarget(Label continueLabel, Label exitLabel) {
+            this.continueLabel = continueLabel;
+            this.exitLabel = exitLabel;
+        }
+    }
+
+    /// The internal name of the generated class
+    private final String className;
+    /// The layout of the stack frame the unit is executed in
+    private final FrameLayout layout;
+    /// The variables that are stored in local double variables
+    private final Set<String> locals;
+    /// The slots of the local double variables
+    private final Map<String, Integer> numberSlots = new HashMap<>();
+    /// The slots of the flags, that indicate whether a local double variable was already assigned
+    private final Map<String, Integer> definedSlots = new HashMap<>();
+    /// The objects that are stored in the fields of the generated class
+    private final List<Object> constants = new ArrayList<>();
+    /// The types of the fields that store the constants
+    private final List<Class<?>> constantTypes = new ArrayList<>();
+    /// The index of the field of every constant
+    private final Map<Object, Integer> constantIndices = new IdentityHashMap<>();
+    /// The jump targets of the enclosing loops and switch statements
+    private final Deque<JumpTarget> jumpTargets = new ArrayDeque<>();
+    /// The generated execute method
+    private final MethodNode method;
+    /// The end of the execute method, that is jumped to if a completion is left to the caller of the unit
+    private final Label finish = new Label();
+    /// The next unused slot for local variables, slot 0 is 'this' and slot 1 the execution context
+    private int nextSlot = 2;
+    /// The slot of the local variable that stores the stack frame of the unit
+    private int frameSlot;
+
+    /**
+     * Constructor of the UnitCompiler
+     *
+     * @param className The internal name of the generated class
+     * @param layout    The layout of the stack frame the unit is executed in
+     * @param locals    The variables that are stored in local double variables
+     */
+    UnitCompiler(String className, FrameLayout layout, Set<String> locals) {
+        this.className = className;
+        this.layout = layout;
+        this.locals = locals;
+        this.method = new MethodNode(ACC_PUBLIC, "execute", EXECUTE_DESCRIPTOR, null, null);
+    }
+
+    /**
+     * Generates the class of the unit
+     *
+     * @param body      The body of the unit
+     * @param main      Whether the unit is the main program, the local variables of the main program are written
+     *                  back to memory when the program ends
+     * @param continued Whether the unit continues a running loop, the local variables are read from memory when the
+     *                  unit starts and written back when it ends
+     * @return The content of the generated class file
+     */
+    byte[] compile(BlockNode body, boolean main, boolean continued) {
+        MethodVisitor code = this.method;
+        code.visitCode();
+        // The frame of the unit stays the current frame whenever the generated code runs, so it is loaded once
+        this.frameSlot = this.allocate(1);
+        this.state();
+        this.invoke(JBasicInterpreterState.class, "getFrame", "()" + FRAME_DESCRIPTOR);
+        code.visitVarInsn(ASTORE, this.frameSlot);
+        for (String local : this.locals) {
+            this.numberSlots.put(local, this.allocate(2));
+            this.definedSlots.put(local, this.allocate(1));
+            code.visitInsn(DCONST_0);
+            code.visitVarInsn(DSTORE, this.numberSlots.get(local));
+            code.visitInsn(ICONST_0);
+            code.visitVarInsn(ISTORE, this.definedSlots.get(local));
+            if (continued) {
+                this.loadLocal(local);
+            }
+        }
+        if ((main || continued) && !this.locals.isEmpty()) {
+            Label start = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            code.visitLabel(start);
+            this.statement(body);
+            code.visitLabel(end);
+            code.visitLabel(this.finish);
+            this.writeBackLocals(continued);
+            code.visitInsn(RETURN);
+            code.visitLabel(handler);
+            this.writeBackLocals(continued);
+            code.visitInsn(ATHROW);
+            code.visitTryCatchBlock(start, end, handler, null);
+        }
+        else {
+            this.statement(body);
+            code.visitLabel(this.finish);
+            code.visitInsn(RETURN);
+        }
+        code.visitMaxs(0, 0);
+        code.visitEnd();
+        return this.generateClass();
+    }
+
+    /**
+     * Gets the constants that have to be passed to the constructor of the generated class
+     *
+     * @return The constants in the order of the fields
+     */
+    Object[] getConstants() {
+        return this.constants.toArray();
+    }
+
+    /**
+     * Generates the class with the fields, the constructor and the execute method
+     *
+     * @return The content of the class file
+     */
+    private byte[] generateClass() {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected ClassLoader getClassLoader() {
+                return UnitCompiler.class.getClassLoader();
+            }
+        };
+        writer.visit(V11, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, this.className, null, STATEMENT_NODE, null);
+        for (int i = 0; i < this.constants.size(); i++) {
+            writer.visitField(ACC_PRIVATE | ACC_FINAL, "c" + i, Type.getDescriptor(this.constantTypes.get(i)),
+                    null, null).visitEnd();
+        }
+        MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>",
+                "(" + CONTEXT_DESCRIPTOR + "[Ljava/lang/Object;)V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitVarInsn(ALOAD, 1);
+        constructor.visitMethodInsn(INVOKESPECIAL, STATEMENT_NODE, "<init>", "(" + CONTEXT_DESCRIPTOR + ")V", false);
+        for (int i = 0; i < this.constants.size(); i++) {
+            constructor.visitVarInsn(ALOAD, 0);
+            constructor.visitVarInsn(ALOAD, 2);
+            constructor.visitLdcInsn(i);
+            constructor.visitInsn(AALOAD);
+            constructor.visitTypeInsn(CHECKCAST, Type.getInternalName(this.constantTypes.get(i)));
+            constructor.visitFieldInsn(PUTFIELD, this.className, "c" + i, Type.getDescriptor(this.constantTypes.get(i)));
+        }
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+        this.method.accept(writer);
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Allocates slots for a local variable
+     *
+     * @param size The amount of slots, 2 for doubles and 1 for all other types
+     * @return The first allocated slot
+     */
+    private int allocate(int size) {
+        int slot = this.nextSlot;
+        this.nextSlot += size;
+        return slot;
+    }
+
+    /**
+     * Pushes a constant, that is stored in a field of the generated class
+     *
+     * @param value The constant
+     * @param type  The type the constant is used as
+     */
+    private void constant(Object value, Class<?> type) {
+        Integer index = this.constantIndices.get(value);
+        if (index == null) {
+            index = this.constants.size();
+            this.constants.add(value);
+            this.constantTypes.add(type);
+            this.constantIndices.put(value, index);
+        }
+        this.method.visitVarInsn(ALOAD, 0);
+        Class<?> fieldType = this.constantTypes.get(index);
+        this.method.visitFieldInsn(GETFIELD, this.className, "c" + index, Type.getDescriptor(fieldType));
+        if (!type.isAssignableFrom(fieldType)) {
+            this.method.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+        }
+    }
+
+    /**
+     * Pushes the execution context
+     */
+    private void executionContext() {
+        this.method.visitVarInsn(ALOAD, 1);
+    }
+
+    /**
+     * Pushes the state of the interpreter
+     */
+    private void state() {
+        this.executionContext();
+        this.method.visitMethodInsn(INVOKEVIRTUAL, EXECUTION_CONTEXT, "getState",
+                "()" + Type.getDescriptor(JBasicInterpreterState.class), false);
+    }
+
+    /**
+     * Pushes the stack frame of the unit
+     */
+    private void frame() {
+        this.method.visitVarInsn(ALOAD, this.frameSlot);
+    }
+
+    /**
+     * Calls a method of a node, a value or the state of the interpreter
+     *
+     * @param owner      The class that declares the method
+     * @param name       The name of the method
+     * @param descriptor The descriptor of the method
+     */
+    private void invoke(Class<?> owner, String name, String descriptor) {
+        this.method.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(owner), name, descriptor, false);
+    }
+
+    /**
+     * Executes a node of the node tree, used for statements that are not translated
+     *
+     * @param statement The executed statement
+     */
+    private void executeNode(StatementNode statement) {
+        this.constant(statement, StatementNode.class);
+        this.executionContext();
+        this.method.visitMethodInsn(INVOKEVIRTUAL, STATEMENT_NODE, "execute", EXECUTE_DESCRIPTOR, false);
+    }
+
+    /**
+     * Reads a local double variable from the memory of the interpreter, if the variable is defined. The number of a
+     * variable is only read when the variable is defined, the caller guarantees that it is a number
+     *
+     * @param local The name of the variable
+     */
+    private void loadLocal(String local) {
+        Label skip = new Label();
+        this.frame();
+        this.method.visitLdcInsn(this.layout.find(local));
+        this.invoke(StackFrame.class, "isDefined", "(I)Z");
+        this.method.visitInsn(DUP);
+        this.method.visitVarInsn(ISTORE, this.definedSlots.get(local));
+        this.method.visitJumpInsn(IFEQ, skip);
+        this.frame();
+        this.method.visitLdcInsn(this.layout.find(local));
+        this.method.visitInsn(ACONST_NULL);
+        this.invoke(StackFrame.class, "getNumber", "(I" + CONTEXT_DESCRIPTOR + ")D");
+        this.method.visitVarInsn(DSTORE, this.numberSlots.get(local));
+        this.method.visitLabel(skip);
+    }
+
+    /**
+     * Writes the local double variables that were assigned back to the memory of the interpreter
+     *
+     * @param removeUndefined Whether the variables, that are not defined, are removed from memory, because they
+     *                        could have been defined when the unit started
+     */
+    private void writeBackLocals(boolean removeUndefined) {
+        for (String local : this.locals) {
+            Label undefined = new Label();
+            Label skip = new Label();
+            this.method.visitVarInsn(ILOAD, this.definedSlots.get(local));
+            this.method.visitJumpInsn(IFEQ, undefined);
+            this.frame();
+            this.method.visitLdcInsn(this.layout.find(local));
+            this.method.visitVarInsn(DLOAD, this.numberSlots.get(local));
+            this.box();
+            this.invoke(StackFrame.class, "set", "(I" + VALUE_DESCRIPTOR + ")V");
+            this.method.visitJumpInsn(GOTO, skip);
+            this.method.visitLabel(undefined);
+            if (removeUndefined) {
+                this.frame();
+                this.method.visitLdcInsn(this.layout.find(local));
+                this.invoke(StackFrame.class, "remove", "(I)V");
+            }
+            this.method.visitLabel(skip);
+        }
+    }
+
+    /**
+     * Wraps the number on top of the stack into a value
+     */
+    private void box() {
+        this.method.visitMethodInsn(INVOKESTATIC, RUNTIME, "box", "(D)" + VALUE_DESCRIPTOR, false);
+    }
+
+    /**
+     * Replaces the value on top of the stack with its underlying number
+     */
+    private void unbox() {
+        this.invoke(JBasicValue.class, "underlyingNumber", "()D");
+    }
+
+    // Statements
+
+    /**
+     * Generates the code of a statement
+     *
+     * @param statement The statement
+     */
+    private void statement(StatementNode statement) {
+        if (statement instanceof BlockNode) {
+            for (StatementNode child : ((BlockNode) statement).getStatements()) {
+                this.statement(child);
+            }
+        }
+        else if (statement instanceof LetStatementNode) {
+            this.let((LetStatementNode) statement);
+            this.method.visitInsn(this.locals.contains(((LetStatementNode) statement).getVariableName()) ? POP2 : POP);
+        }
+        else if (statement instanceof PrintStatementNode) {
+            for (ExpressionNode expression : ((PrintStatementNode) statement).getExpressions()) {
+                this.constant(statement, PrintStatementNode.class);
+                this.executionContext();
+                this.value(expression);
+                this.invoke(PrintStatementNode.class, "print", EXECUTE_DESCRIPTOR.replace(")V", VALUE_DESCRIPTOR + ")V"));
+            }
+        }
+        else if (statement instanceof IfStatementNode) {
+            this.ifStatement((IfStatementNode) statement);
+        }
+        else if (statement instanceof ForStatementNode) {
+            this.forStatement((ForStatementNode) statement);
+        }
+        else if (statement instanceof WhileStatementNode) {
+            this.whileStatement((WhileStatementNode) statement);
+        }
+        else if (statement instanceof DoLoopStatementNode) {
+            this.doLoopStatement((DoLoopStatementNode) statement);
+        }
+        else if (statement instanceof SwitchStatementNode) {
+            this.switchStatement((SwitchStatementNode) statement);
+        }
+        else if (statement instanceof ContinueStatementNode) {
+            this.jump(statement, true);
+        }
+        else if (statement instanceof ExitStatementNode) {
+            this.jump(statement, false);
+        }
+        else if (statement instanceof ArrayDeclarationNode) {
+            this.arrayDeclaration((ArrayDeclarationNode) statement);
+        }
+        else if (statement instanceof ArraySetAtIndexNode) {
+            this.arraySetAtIndex((ArraySetAtIndexNode) statement);
+        }
+        else if (statement instanceof DataStatementNode) {
+            this.constant(statement, DataStatementNode.class);
+            this.executionContext();
+            this.values(((DataStatementNode) statement).getExpressions());
+            this.invoke(DataStatementNode.class, "store", "(" + Type.getDescriptor(ExecutionContext.class) + "[" + VALUE_DESCRIPTOR + ")V");
+        }
+        else if (statement instanceof RestoreStatementNode) {
+            this.constant(statement, RestoreStatementNode.class);
+            this.executionContext();
+            this.value(((RestoreStatementNode) statement).getIndex());
+            this.invoke(RestoreStatementNode.class, "restore", "(" + Type.getDescriptor(ExecutionContext.class) + VALUE_DESCRIPTOR + ")V");
+        }
+        else if (statement instanceof SubroutineInvocationNode) {
+            this.constant(statement, SubroutineInvocationNode.class);
+            this.executionContext();
+            this.values(((SubroutineInvocationNode) statement).getArguments());
+            this.invoke(SubroutineInvocationNode.class, "call", "(" + Type.getDescriptor(ExecutionContext.class) + "[" + VALUE_DESCRIPTOR + ")V");
+            this.completion();
+        }
+        else if (statement instanceof SubroutineDefinitionNode) {
+            // The subroutine was defined when the program was compiled, its body is translated on its own
+        }
+        else if (statement instanceof LabeledBlockNode) {
+            this.statement(((LabeledBlockNode) statement).getBlock());
+        }
+        else if (statement instanceof InvariantScopeNode) {
+            InvariantScopeNode scope = (InvariantScopeNode) statement;
+            for (int slot : scope.getSlots()) {
+                this.frame();
+                this.method.visitLdcInsn(slot);
+                this.invoke(StackFrame.class, "remove", "(I)V");
+            }
+            this.statement(scope.getStatement());
+        }
+        else if (statement instanceof InlinedSubroutineNode) {
+            this.inlinedSubroutine((InlinedSubroutineNode) statement);
+        }
+        else {
+            // Input, read, cls and goto statements are executed by the node tree
+            this.executeNode(statement);
+            if (statement instanceof GotoStatementNode) {
+                this.completion();
+            }
+        }
+    }
+
+    /**
+     * Generates the code of a let statement, that leaves the assigned value on the stack
+     *
+     * @param let The let statement
+     * @return true if the assigned value is a number, false if it is a value
+     */
+    private boolean let(LetStatementNode let) {
+        String name = let.getVariableName();
+        if (this.locals.contains(name)) {
+            this.number(let.getValue());
+            this.method.visitInsn(DUP2);
+            this.method.visitVarInsn(DSTORE, this.numberSlots.get(name));
+            this.method.visitInsn(ICONST_1);
+            this.method.visitVarInsn(ISTORE, this.definedSlots.get(name));
+            return true;
+        }
+        this.constant(let, LetStatementNode.class);
+        this.executionContext();
+        this.value(let.getValue());
+        this.invoke(LetStatementNode.class, "store", "(" + Type.getDescriptor(ExecutionContext.class) + VALUE_DESCRIPTOR + ")" + VALUE_DESCRIPTOR);
+        return false;
+    }
+
+    /**
+     * Generates the code of an if statement
+     *
+     * @param ifStatement The if statement
+     */
+    private void ifStatement(IfStatementNode ifStatement) {
+        Label end = new Label();
+        ExpressionNode[] conditions = ifStatement.getConditions();
+        for (int i = 0; i < conditions.length; i++) {
+            Label next = new Label();
+            this.jumpIf(conditions[i], false, next, ifStatement.getContext());
+            this.statement(ifStatement.getBlocks()[i]);
+            this.method.visitJumpInsn(GOTO, end);
+            this.method.visitLabel(next);
+        }
+        if (ifStatement.getElseBlock() != null) {
+            this.statement(ifStatement.getElseBlock());
+        }
+        this.method.visitLabel(end);
+    }
+
+    /**
+     * Generates the code of a for loop
+     *
+     * @param loop The for loop
+     */
+    private void forStatement(ForStatementNode loop) {
+        int counter = this.allocate(2);
+        int end = this.allocate(2);
+        int step = this.allocate(2);
+        this.rawNumber(loop.getStart());
+        this.method.visitVarInsn(DSTORE, counter);
+        this.rawNumber(loop.getEnd());
+        this.method.visitVarInsn(DSTORE, end);
+        if (loop.getStep() != null) {
+            this.rawNumber(loop.getStep());
+        }
+        else {
+            this.method.visitInsn(DCONST_1);
+        }
+        this.method.visitVarInsn(DSTORE, step);
+        Label condition = new Label();
+        Label descending = new Label();
+        Label body = new Label();
+        Label increment = new Label();
+        Label exit = new Label();
+        this.method.visitLabel(condition);
+        this.checkStopRequested();
+        this.method.visitVarInsn(DLOAD, step);
+        this.method.visitInsn(DCONST_0);
+        this.method.visitInsn(DCMPL);
+        this.method.visitJumpInsn(IFLT, descending);
+        this.method.visitVarInsn(DLOAD, counter);
+        this.method.visitVarInsn(DLOAD, end);
+        this.method.visitInsn(DCMPG);
+        this.method.visitJumpInsn(IFGT, exit);
+        this.method.visitJumpInsn(GOTO, body);
+        this.method.visitLabel(descending);
+        this.method.visitVarInsn(DLOAD, counter);
+        this.method.visitVarInsn(DLOAD, end);
+        this.method.visitInsn(DCMPL);
+        this.method.visitJumpInsn(IFLT, exit);
+        this.method.visitLabel(body);
+        String name = loop.getVariableName();
+        if (this.locals.contains(name)) {
+            this.method.visitVarInsn(DLOAD, counter);
+            this.method.visitVarInsn(DSTORE, this.numberSlots.get(name));
+            this.method.visitInsn(ICONST_1);
+            this.method.visitVarInsn(ISTORE, this.definedSlots.get(name));
+        }
+        else {
+            this.frame();
+            this.method.visitLdcInsn(loop.getSlot());
+            this.method.visitVarInsn(DLOAD, counter);
+            this.invoke(StackFrame.class, "setNumber", "(ID)V");
+        }
+        this.loopBody(loop.getBody(), increment, exit);
+        this.method.visitLabel(increment);
+        this.method.visitVarInsn(DLOAD, counter);
+        this.method.visitVarInsn(DLOAD, step);
+        this.method.visitInsn(DADD);
+        this.method.visitVarInsn(DSTORE, counter);
+        this.method.visitJumpInsn(GOTO, condition);
+        this.method.visitLabel(exit);
+    }
+
+    /**
+     * Generates the code of a while or repeat loop
+     *
+     * @param loop The loop
+     */
+    private void whileStatement(WhileStatementNode loop) {
+        Label condition = new Label();
+        Label exit = new Label();
+        this.method.visitLabel(condition);
+        this.checkStopRequested();
+        this.jumpIf(loop.getCondition(), loop.isUntil(), exit, loop.getContext());
+        this.loopBody(loop.getBody(), condition, exit);
+        this.method.visitJumpInsn(GOTO, condition);
+        this.method.visitLabel(exit);
+    }
+
+    /**
+     * Generates the code of a do while or do until loop
+     *
+     * @param loop The loop
+     */
+    private void doLoopStatement(DoLoopStatementNode loop) {
+        Label body = new Label();
+        Label condition = new Label();
+        Label exit = new Label();
+        this.method.visitLabel(body);
+        this.checkStopRequested();
+        this.loopBody(loop.getBody(), condition, exit);
+        this.method.visitLabel(condition);
+        this.jumpIf(loop.getCondition(), !loop.isUntil(), body, loop.getContext());
+        this.method.visitLabel(exit);
+    }
+
+    /**
+     * Generates the check at the start of every iteration of a loop, that stops the program if the calling thread of
+     * the interpreter asked it to stop
+     */
+    private void checkStopRequested() {
+        this.executionContext();
+        this.invoke(ExecutionContext.class, "checkStopRequested", "()V");
+    }
+
+    /**
+     * Generates the body of a loop. 'continue' and 'exit' statements in the body become jumps, the completions
+     * signaled by subroutines or by the node tree are handled after the statement that executed them
+     *
+     * @param body      The body of the loop
+     * @param continued The label the loop continues at
+     * @param exit      The label after the loop
+     */
+    private void loopBody(BlockNode body, Label continued, Label exit) {
+        this.jumpTargets.push(new JumpTarget(continued, exit));
+        this.statement(body);
+        this.jumpTargets.pop();
+    }
+
+    /**
+     * Generates the code that handles the completion signaled by a statement, that was executed by a subroutine or
+     * by the node tree. The enclosing loop or switch statement of the unit resumes the normal execution, otherwise the
+     * unit returns and leaves the completion to the statement that executed the unit. Jumps to labels always return,
+     * the unit that contains the label continues the execution in the node tree
+     */
+    private void completion() {
+        Label normal = new Label();
+        this.executionContext();
+        this.invoke(ExecutionContext.class, "getCompletion", "()" + COMPLETION_DESCRIPTOR);
+        this.method.visitFieldInsn(GETSTATIC, COMPLETION, Completion.NORMAL.name(), COMPLETION_DESCRIPTOR);
+        this.method.visitJumpInsn(IF_ACMPEQ, normal);
+        if (!this.jumpTargets.isEmpty()) {
+            JumpTarget target = this.jumpTargets.peek();
+            Label continued = new Label();
+            this.executionContext();
+            this.invoke(ExecutionContext.class, "getCompletion", "()" + COMPLETION_DESCRIPTOR);
+            this.method.visitFieldInsn(GETSTATIC, COMPLETION, Completion.EXIT.name(), COMPLETION_DESCRIPTOR);
+            this.method.visitJumpInsn(IF_ACMPNE, continued);
+            this.resume();
+            this.method.visitJumpInsn(GOTO, target.exitLabel);
+            this.method.visitLabel(continued);
+            if (target.continueLabel != null) {
+                this.executionContext();
+                this.invoke(ExecutionContext.class, "getCompletion", "()" + COMPLETION_DESCRIPTOR);
+                this.method.visitFieldInsn(GETSTATIC, COMPLETION, Completion.CONTINUE.name(), COMPLETION_DESCRIPTOR);
+                this.method.visitJumpInsn(IF_ACMPNE, this.finish);
+                this.resume();
+                this.method.visitJumpInsn(GOTO, target.continueLabel);
+            }
+        }
+        this.method.visitJumpInsn(GOTO, this.finish);
+        this.method.visitLabel(normal);
+    }
+
+    /**
+     * Resumes the normal execution after a signaled completion was handled
+     */
+    private void resume() {
+        this.executionContext();
+        this.invoke(ExecutionContext.class, "resume", "()" + COMPLETION_DESCRIPTOR);
+        this.method.visitInsn(POP);
+    }
+
+    /**
+     * Generates the code of a switch statement
+     *
+     * @param switchStatement The switch statement
+     */
+    private void switchStatement(SwitchStatementNode switchStatement) {
+        int matching = this.allocate(1);
+        int position = this.allocate(1);
+        Label exit = new Label();
+        Label check = new Label();
+        Label next = new Label();
+        // The positions of the matching cases are looked up in the table of the switch statement
+        this.constant(switchStatement, SwitchStatementNode.class);
+        this.value(switchStatement.getValue());
+        this.invoke(SwitchStatementNode.class, "matchingCases", "(" + VALUE_DESCRIPTOR + ")Ljava/util/List;");
+        this.method.visitVarInsn(ASTORE, matching);
+        this.method.visitInsn(ICONST_0);
+        this.method.visitVarInsn(ISTORE, position);
+        this.method.visitLabel(check);
+        this.method.visitVarInsn(ILOAD, position);
+        this.method.visitVarInsn(ALOAD, matching);
+        this.method.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "size", "()I", true);
+        this.method.visitJumpInsn(IF_ICMPGE, exit);
+        // Every matching case is dispatched with a table switch on its position
+        this.method.visitVarInsn(ALOAD, matching);
+        this.method.visitVarInsn(ILOAD, position);
+        this.method.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
+        this.method.visitTypeInsn(CHECKCAST, "java/lang/Integer");
+        this.invoke(Integer.class, "intValue", "()I");
+        BlockNode[] caseBlocks = switchStatement.getCaseBlocks();
+        Label[] cases = new Label[caseBlocks.length];
+        for (int i = 0; i < cases.length; i++) {
+            cases[i] = new Label();
+        }
+        this.method.visitTableSwitchInsn(0, cases.length - 1, next, cases);
+        Label continued = this.jumpTargets.isEmpty() ? null : this.continueTarget();
+        for (int i = 0; i < cases.length; i++) {
+            this.method.visitLabel(cases[i]);
+            this.jumpTargets.push(new JumpTarget(continued, exit));
+            this.statement(caseBlocks[i]);
+            this.jumpTargets.pop();
+            this.method.visitJumpInsn(GOTO, next);
+        }
+        this.method.visitLabel(next);
+        this.method.visitIincInsn(position, 1);
+        this.method.visitJumpInsn(GOTO, check);
+        this.method.visitLabel(exit);
+    }
+
+    /**
+     * Gets the target of a 'continue' statement
+     *
+     * @return The label of the innermost loop or null if the statement is not inside a loop of this unit
+     */
+    private Label continueTarget() {
+        return this.jumpTargets.isEmpty() ? null : this.jumpTargets.peek().continueLabel;
+    }
+
+    /**
+     * Generates a 'continue' or an 'exit' statement, that jumps to the enclosing loop or throws an exception
+     * if the statement is not inside a loop of this unit
+     *
+     * @param statement  The statement
+     * @param continuing Whether the statement is a 'continue' statement
+     */
+    private void jump(StatementNode statement, boolean continuing) {
+        Label target = continuing ? this.continueTarget() :
+                this.jumpTargets.isEmpty() ? null : this.jumpTargets.peek().exitLabel;
+        if (target == null) {
+            this.executeNode(statement);
+            this.completion();
+        }
+        else {
+            this.method.visitJumpInsn(GOTO, target);
+        }
+    }
+
+    /**
+     * Generates the code of an array declaration
+     *
+     * @param declaration The array declaration
+     */
+    private void arrayDeclaration(ArrayDeclarationNode declaration) {
+        ExpressionNode[] dimensions = declaration.getDimensions();
+        this.constant(declaration, ArrayDeclarationNode.class);
+        this.invoke(ArrayDeclarationNode.class, "checkDimensionCount", "()V");
+        this.constant(declaration, ArrayDeclarationNode.class);
+        this.executionContext();
+        this.method.visitLdcInsn(dimensions.length);
+        this.method.visitIntInsn(NEWARRAY, T_INT);
+        for (int i = 0; i < dimensions.length; i++) {
+            this.method.visitInsn(DUP);
+            this.method.visitLdcInsn(i);
+            this.constant(declaration, ArrayDeclarationNode.class);
+            this.method.visitLdcInsn(i);
+            this.value(dimensions[i]);
+            this.invoke(ArrayDeclarationNode.class, "size", "(I" + VALUE_DESCRIPTOR + ")I");
+            this.method.visitInsn(IASTORE);
+        }
+        this.invoke(ArrayDeclarationNode.class, "declare", "(" + Type.getDescriptor(ExecutionContext.class) + "[I)V");
+    }
+
+    /**
+     * Generates the code of an inlined subroutine, whose variables are undefined before the body is executed
+     *
+     * @param inlined The inlined subroutine
+     */
+    private void inlinedSubroutine(InlinedSubroutineNode inlined) {
+        String[] variableNames = inlined.getVariableNames();
+        int[] slots = inlined.getSlots();
+        for (int i = 0; i < slots.length; i++) {
+            if (this.locals.contains(variableNames[i])) {
+                this.method.visitInsn(ICONST_0);
+                this.method.visitVarInsn(ISTORE, this.definedSlots.get(variableNames[i]));
+            }
+            else {
+                this.frame();
+                this.method.visitLdcInsn(slots[i]);
+                this.invoke(StackFrame.class, "remove", "(I)V");
+            }
+        }
+        this.statement(inlined.getBody());
+    }
+
+    /**
+     * Generates the code of an 'array set at index' statement
+     *
+     * @param statement The statement
+     */
+    private void arraySetAtIndex(ArraySetAtIndexNode statement) {
+        this.constant(statement, ArraySetAtIndexNode.class);
+        this.constant(statement, ArraySetAtIndexNode.class);
+        this.executionContext();
+        this.invoke(ArraySetAtIndexNode.class, "lookupArray", "(" + Type.getDescriptor(ExecutionContext.class) + ")" + VALUE_DESCRIPTOR);
+        this.indices(statement, ArraySetAtIndexNode.class, statement.getIndices(), statement.areIndicesInRange());
+        this.value(statement.getValue());
+        this.invoke(ArraySetAtIndexNode.class, "store", "(" + VALUE_DESCRIPTOR + "[I" + VALUE_DESCRIPTOR + ")V");
+    }
+
+    /**
+     * Pushes an array with the zero based indices of an array access
+     *
+     * @param node    The node that converts the indices
+     * @param type    The type of the node
+     * @param indices The index expressions
+     * @param inRange Whether the indices were proven to be in range and are converted without checks
+     */
+    private void indices(Object node, Class<?> type, ExpressionNode[] indices, boolean inRange) {
+        this.method.visitLdcInsn(indices.length);
+        this.method.visitIntInsn(NEWARRAY, T_INT);
+        for (int i = 0; i < indices.length; i++) {
+            this.method.visitInsn(DUP);
+            this.method.visitLdcInsn(i);
+            if (inRange) {
+                this.rawNumber(indices[i]);
+                this.method.visitInsn(D2I);
+                this.method.visitInsn(ICONST_1);
+                this.method.visitInsn(ISUB);
+                this.method.visitInsn(IASTORE);
+                continue;
+            }
+            this.constant(node, type);
+            this.method.visitLdcInsn(i);
+            this.value(indices[i]);
+            this.invoke(type, "index", "(I" + VALUE_DESCRIPTOR + ")I");
+            this.method.visitInsn(IASTORE);
+        }
+    }
+
+    // Conditions
+
+    /**
+     * Generates a jump that is taken depending on the truthiness of a condition
+     *
+     * @param condition   The condition
+     * @param whenTruthy  Whether the jump is taken if the condition is truthy instead of falsy
+     * @param target      The target of the jump
+     * @param context     The parsing context used to report conditions that are not numerical
+     */
+    private void jumpIf(ExpressionNode condition, boolean whenTruthy, Label target, ParserRuleContext context) {
+        if (condition instanceof BinaryExpressionNode && ((BinaryExpressionNode) condition).isShortCircuit()) {
+            this.jumpIfShortCircuit((BinaryExpressionNode) condition, whenTruthy, target);
+            return;
+        }
+        if (condition instanceof BinaryExpressionNode) {
+            BinaryExpressionNode comparison = (BinaryExpressionNode) condition;
+            if (isComparison(comparison.getOperator()) && this.isNumber(comparison.getLeft()) &&
+                    this.isNumber(comparison.getRight())) {
+                this.rawNumber(comparison.getLeft());
+                this.rawNumber(comparison.getRight());
+                this.compareAndJump(comparison.getOperator(), whenTruthy, target);
+                return;
+            }
+        }
+        if (this.isNumber(condition)) {
+            this.rawNumber(condition);
+            this.method.visitInsn(DCONST_0);
+            this.method.visitInsn(DCMPL);
+        }
+        else {
+            this.expression(condition);
+            this.constant(context, ParserRuleContext.class);
+            this.invoke(JBasicValue.class, "isTruthy", "(" + CONTEXT_DESCRIPTOR + ")Z");
+        }
+        this.method.visitJumpInsn(whenTruthy ? IFNE : IFEQ, target);
+    }
+
+    /**
+     * Generates the jumps of an 'and' or 'or' expression with short-circuit evaluation, the right operand is only
+     * evaluated if the left operand does not decide the result
+     *
+     * @param logical    The 'and' or 'or' expression
+     * @param whenTruthy Whether the jump is taken if the expression is truthy instead of falsy
+     * @param target     The target of the jump
+     */
+    private void jumpIfShortCircuit(BinaryExpressionNode logical, boolean whenTruthy, Label target) {
+        boolean or = logical.getOperator() == BinaryOperator.OR;
+        if (whenTruthy == or) {
+            // Each operand decides the jump on its own
+            this.jumpIf(logical.getLeft(), whenTruthy, target, logical.getContext());
+            this.jumpIf(logical.getRight(), whenTruthy, target, logical.getContext());
+        }
+        else {
+            // The left operand can only decide that the jump is not taken
+            Label skip = new Label();
+            this.jumpIf(logical.getLeft(), !whenTruthy, skip, logical.getContext());
+            this.jumpIf(logical.getRight(), whenTruthy, target, logical.getContext());
+            this.method.visitLabel(skip);
+        }
+    }
+
+    /**
+     * Determines whether an operator compares two numbers
+     *
+     * @param operator The operator
+     * @return true if the operator is a comparison, false if not
+     */
+    private static boolean isComparison(BinaryOperator operator) {
+        switch (operator) {
+            case GREATER_THEN:
+            case GREATER_THEN_EQUAL:
+            case LESS_THEN:
+            case LESS_THEN_EQUAL:
+            case EQUAL:
+            case NOT_EQUAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Compares the two numbers on top of the stack and jumps depending on the result.
+     * Comparisons with NaN are false, like the comparisons of boxed values
+     *
+     * @param operator The comparison operator
+     * @param whenTrue Whether the jump is taken if the comparison is true instead of false
+     * @param target   The target of the jump
+     */
+    private void compareAndJump(BinaryOperator operator, boolean whenTrue, Label target) {
+        switch (operator) {
+            case GREATER_THEN:
+                this.method.visitInsn(DCMPL);
+                this.method.visitJumpInsn(whenTrue ? IFGT : IFLE, target);
+                break;
+            case GREATER_THEN_EQUAL:
+                this.method.visitInsn(DCMPL);
+                this.method.visitJumpInsn(whenTrue ? IFGE : IFLT, target);
+                break;
+            case LESS_THEN:
+                this.method.visitInsn(DCMPG);
+                this.method.visitJumpInsn(whenTrue ? IFLT : IFGE, target);
+                break;
+            case LESS_THEN_EQUAL:
+                this.method.visitInsn(DCMPG);
+                this.method.visitJumpInsn(whenTrue ? IFLE : IFGT, target);
+                break;
+            case EQUAL:
+                this.method.visitMethodInsn(INVOKESTATIC, RUNTIME, "equal", "(DD)Z", false);
+                this.method.visitJumpInsn(whenTrue ? IFNE : IFEQ, target);
+                break;
+            default:
+                this.method.visitMethodInsn(INVOKESTATIC, RUNTIME, "equal", "(DD)Z", false);
+                this.method.visitJumpInsn(whenTrue ? IFEQ : IFNE, target);
+                break;
+        }
+    }
+
+    // Expressions
+
+    /**
+     * Determines whether the generated code of an expression pushes a number instead of a value
+     *
+     * @param expression The expression
+     * @return true if the expression is evaluated to a number, false if not
+     */
+    private boolean isNumber(ExpressionNode expression) {
+        return LocalVariableAnalysis.producesNumber(expression, this.locals);
+    }
+
+    /**
+     * Pushes the result of an expression as a value
+     *
+     * @param expression The expression
+     */
+    private void value(ExpressionNode expression) {
+        this.expression(expression);
+        if (this.isNumber(expression)) {
+            this.box();
+        }
+    }
+
+    /**
+     * Pushes an array with the values of several expressions
+     *
+     * @param expressions The expressions
+     */
+    private void values(ExpressionNode[] expressions) {
+        this.method.visitLdcInsn(expressions.length);
+        this.method.visitTypeInsn(ANEWARRAY, VALUE);
+        for (int i = 0; i < expressions.length; i++) {
+            this.method.visitInsn(DUP);
+            this.method.visitLdcInsn(i);
+            this.value(expressions[i]);
+            this.method.visitInsn(AASTORE);
+        }
+    }
+
+    /**
+     * Pushes the result of an expression, that always evaluates to a number, as a number
+     *
+     * @param expression The expression
+     */
+    private void number(ExpressionNode expression) {
+        this.expression(expression);
+    }
+
+    /**
+     * Pushes the underlying number of an expression without checking that the result is numerical,
+     * like the start, end and step values of a for loop
+     *
+     * @param expression The expression
+     */
+    private void rawNumber(ExpressionNode expression) {
+        if (expression instanceof VariableNode && !this.locals.contains(((VariableNode) expression).getName())) {
+            // Reads the number of the variable without creating a value for the counter of a for loop
+            VariableNode variable = (VariableNode) expression;
+            this.frame();
+            this.method.visitLdcInsn(variable.getSlot());
+            this.constant(variable.getContext(), ParserRuleContext.class);
+            this.invoke(StackFrame.class, "getNumber", "(I" + CONTEXT_DESCRIPTOR + ")D");
+            return;
+        }
+        this.expression(expression);
+        if (!this.isNumber(expression)) {
+            this.unbox();
+        }
+    }
+
+    /**
+     * Generates the code of an expression. The code pushes a double if the expression produces a number
+     * and a value if not
+     *
+     * @param expression The expression
+     */
+    private void expression(ExpressionNode expression) {
+        if (expression instanceof LiteralNode) {
+            JBasicValue value = ((LiteralNode) expression).getValue();
+            if (value.isANumericalValue() && !value.isAnIntegerValue()) {
+                this.method.visitLdcInsn(value.underlyingNumber());
+            }
+            else {
+                this.constant(value, JBasicValue.class);
+            }
+        }
+        else if (expression instanceof VariableNode) {
+            this.variable((VariableNode) expression);
+        }
+        else if (expression instanceof UnaryExpressionNode) {
+            this.unary((UnaryExpressionNode) expression);
+        }
+        else if (expression instanceof BinaryExpressionNode) {
+            this.binary((BinaryExpressionNode) expression);
+        }
+        else if (expression instanceof FunctionCallNode) {
+            this.functionCall((FunctionCallNode) expression);
+        }
+        else if (expression instanceof InvariantExpressionNode) {
+            this.invariant((InvariantExpressionNode) expression);
+        }
+        else if (expression instanceof ArrayGetAtIndexNode) {
+            ArrayGetAtIndexNode access = (ArrayGetAtIndexNode) expression;
+            this.constant(access, ArrayGetAtIndexNode.class);
+            this.constant(access, ArrayGetAtIndexNode.class);
+            this.executionContext();
+            this.invoke(ArrayGetAtIndexNode.class, "lookupArray", "(" + Type.getDescriptor(ExecutionContext.class) + ")" + VALUE_DESCRIPTOR);
+            this.indices(access, ArrayGetAtIndexNode.class, access.getIndices(), access.areIndicesInRange());
+            this.invoke(ArrayGetAtIndexNode.class, "elementAt", "(" + VALUE_DESCRIPTOR + "[I)" + VALUE_DESCRIPTOR);
+        }
+        else if (expression instanceof StatementValueNode) {
+            StatementNode statement = ((StatementValueNode) expression).getStatement();
+            if (statement instanceof LetStatementNode) {
+                this.let((LetStatementNode) statement);
+            }
+            else {
+                this.statement(statement);
+                this.method.visitInsn(DCONST_0);
+            }
+        }
+        else {
+            // Unknown expressions are evaluated by the node tree
+            this.constant(expression, ExpressionNode.class);
+            this.executionContext();
+            this.invoke(ExpressionNode.class, "evaluate", "(" + Type.getDescriptor(ExecutionContext.class) + ")" + VALUE_DESCRIPTOR);
+        }
+    }
+
+    /**
+     * Generates the code of an invariant expression, that is only evaluated if its hidden slot is not defined
+     *
+     * @param invariant The invariant expression
+     */
+    private void invariant(InvariantExpressionNode invariant) {
+        boolean number = this.isNumber(invariant);
+        Label stored = new Label();
+        this.frame();
+        this.method.visitLdcInsn(invariant.getSlot());
+        this.invoke(StackFrame.class, "isDefined", "(I)Z");
+        this.method.visitJumpInsn(IFNE, stored);
+        this.frame();
+        this.method.visitLdcInsn(invariant.getSlot());
+        if (number) {
+            this.number(invariant.getExpression());
+            this.invoke(StackFrame.class, "setNumber", "(ID)V");
+        }
+        else {
+            this.value(invariant.getExpression());
+            this.invoke(StackFrame.class, "set", "(I" + VALUE_DESCRIPTOR + ")V");
+        }
+        this.method.visitLabel(stored);
+        this.frame();
+        this.method.visitLdcInsn(invariant.getSlot());
+        this.constant(invariant.getContext(), ParserRuleContext.class);
+        if (number) {
+            this.invoke(StackFrame.class, "getNumber", "(I" + CONTEXT_DESCRIPTOR + ")D");
+        }
+        else {
+            this.invoke(StackFrame.class, "get", "(I" + CONTEXT_DESCRIPTOR + ")" + VALUE_DESCRIPTOR);
+        }
+    }
+
+    /**
+     * Generates the code that reads a variable
+     *
+     * @param variable The variable
+     */
+    private void variable(VariableNode variable) {
+        String name = variable.getName();
+        if (this.locals.contains(name)) {
+            Label defined = new Label();
+            this.method.visitVarInsn(ILOAD, this.definedSlots.get(name));
+            this.method.visitJumpInsn(IFNE, defined);
+            // Inlined variables are reported with the name they have in their subroutine
+            this.method.visitLdcInsn(this.layout.nameOf(variable.getSlot()));
+            this.constant(variable.getContext(), ParserRuleContext.class);
+            this.method.visitMethodInsn(INVOKESTATIC, RUNTIME, "undefinedVariable",
+                    "(Ljava/lang/String;" + CONTEXT_DESCRIPTOR + ")Lorg/jbasic/error/variable/UndefinedVariableException;", false);
+            this.method.visitInsn(ATHROW);
+            this.method.visitLabel(defined);
+            this.method.visitVarInsn(DLOAD, this.numberSlots.get(name));
+        }
+        else {
+            this.frame();
+            this.method.visitLdcInsn(variable.getSlot());
+            this.constant(variable.getContext(), ParserRuleContext.class);
+            this.invoke(StackFrame.class, "get", "(I" + CONTEXT_DESCRIPTOR + ")" + VALUE_DESCRIPTOR);
+        }
+    }
+
+    /**
+     * Generates the code of a unary expression, the result is always a number
+     *
+     * @param unary The unary expression
+     */
+    private void unary(UnaryExpressionNode unary) {
+        ExpressionNode operand = unary.getOperand();
+        if (this.isNumber(operand)) {
+            this.expression(operand);
+            if (unary.getOperator() == UnaryOperator.NEGATE) {
+                this.method.visitInsn(DNEG);
+            }
+            else {
+                this.method.visitMethodInsn(INVOKESTATIC, RUNTIME, "not", "(D)D", false);
+            }
+        }
+        else if (unary.getOperator() == UnaryOperator.NEGATE) {
+            this.expression(operand);
+            this.constant(unary.getContext(), JBasicParser.NegateExpressionContext.class);
+            this.invoke(JBasicValue.class, "negate", "(" + Type.getDescriptor(JBasicParser.NegateExpressionContext.class) + ")" + VALUE_DESCRIPTOR);
+            if (this.isNumber(unary)) {
+                this.unbox();
+            }
+        }
+        else {
+            this.expression(operand);
+            this.constant(unary.getContext(), ParserRuleContext.class);
+            this.invoke(JBasicValue.class, "not", "(" + CONTEXT_DESCRIPTOR + ")" + VALUE_DESCRIPTOR);
+            this.unbox();
+        }
+    }
+
+    /**
+     * Generates the code of a binary expression. If both operands are numbers the operation is applied to the numbers
+     * directly, otherwise the operation of the values is called
+     *
+     * @param binary The binary expression
+     */
+    private void binary(BinaryExpressionNode binary) {
+        BinaryOperator operator = binary.getOperator();
+        if (binary.isShortCircuit()) {
+            Label isTrue = new Label();
+            Label end = new Label();
+            this.jumpIf(binary, true, isTrue, binary.getContext());
+            this.method.visitInsn(DCONST_0);
+            this.method.visitJumpInsn(GOTO, end);
+            this.method.visitLabel(isTrue);
+            this.method.visitInsn(DCONST_1);
+            this.method.visitLabel(end);
+            return;
+        }
+        if (this.isNumber(binary.getLeft()) && this.isNumber(binary.getRight())) {
+            this.expression(binary.getLeft());
+            this.expression(binary.getRight());
+            switch (operator) {
+                case ADD:
+                    this.method.visitInsn(DADD);
+                    break;
+                case SUBTRACT:
+                    this.method.visitInsn(DSUB);
+                    break;
+                case MULTIPLY:
+                    this.method.visitInsn(DMUL);
+                    break;
+                case DIVIDE:
+                    this.method.visitInsn(DDIV);
+                    break;
+                case MODULO:
+                    this.method.visitInsn(DREM);
+                    break;
+                case AND:
+                    this.method.visitMethodInsn(INVOKESTATIC, RUNTIME, "and", "(DD)D", false);
+                    break;
+                case OR:
+                    this.method.visitMethodInsn(INVOKESTATIC, RUNTIME, "or", "(DD)D", false);
+                    break;
+                default:
+                    Label isFalse = new Label();
+                    Label end = new Label();
+                    this.compareAndJump(operator, false, isFalse);
+                    this.method.visitInsn(DCONST_1);
+                    this.method.visitJumpInsn(GOTO, end);
+                    this.method.visitLabel(isFalse);
+                    this.method.visitInsn(DCONST_0);
+                    this.method.visitLabel(end);
+                    break;
+            }
+            return;
+        }
+        this.value(binary.getLeft());
+        this.value(binary.getRight());
+        this.constant(binary.getContext(), ParserRuleContext.class);
+        this.invoke(JBasicValue.class, methodName(operator), "(" + VALUE_DESCRIPTOR + CONTEXT_DESCRIPTOR + ")" + VALUE_DESCRIPTOR);
+        if (this.isNumber(binary)) {
+            this.unbox();
+        }
+    }
+
+    /**
+     * Gets the method of the value class that applies a binary operator
+     *
+     * @param operator The binary operator
+     * @return The name of the method
+     */
+    private static String methodName(BinaryOperator operator) {
+        switch (operator) {
+            case ADD:
+                return "add";
+            case SUBTRACT:
+                return "subtract";
+            case MULTIPLY:
+                return "multiply";
+            case DIVIDE:
+                return "divide";
+            case MODULO:
+                return "modulo";
+            case GREATER_THEN:
+                return "greaterThen";
+            case GREATER_THEN_EQUAL:
+                return "greaterThenEqual";
+            case LESS_THEN:
+                return "lessThen";
+            case LESS_THEN_EQUAL:
+                return "lessThenEqual";
+            case EQUAL:
+                return "equal";
+            case NOT_EQUAL:
+                return "notEqual";
+            case AND:
+                return "and";
+            default:
+                return "or";
+        }
+    }
+
+    /**
+     * Generates the code of a function call
+     *
+     * @param call The function call
+     */
+    private void functionCall(FunctionCallNode call) {
+        BuiltinFunction function = call.getFunction();
+        if (!call.isArityValid()) {
+            // Reports the arity error
+            this.constant(call, ExpressionNode.class);
+            this.executionContext();
+            this.invoke(ExpressionNode.class, "evaluate", "(" + Type.getDescriptor(ExecutionContext.class) + ")" + VALUE_DESCRIPTOR);
+        }
+        else if (function.isNumericalFunction() && this.isNumber(call.getArguments()[0])) {
+            this.constant(function, BuiltinFunction.class);
+            this.expression(call.getArguments()[0]);
+            this.invoke(BuiltinFunction.class, "applyNumericalFunction", "(D)D");
+        }
+        else {
+            this.constant(call, FunctionCallNode.class);
+            this.executionContext();
+            this.values(call.getArguments());
+            this.invoke(FunctionCallNode.class, "call", "(" + Type.getDescriptor(ExecutionContext.class) + "[" + VALUE_DESCRIPTOR + ")" + VALUE_DESCRIPTOR);
+            if (function.returnsNumber()) {
+                this.unbox();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ArrayDeclarationNode.java
+ * @brief Declares an array.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.core.guard.ArraySafeguard;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.List;
+
+/**
+ * @brief Declares an array.
+ */
+public class ArrayDeclarationNode extends StatementNode {
+
+    /// The name of the array
+    private final String arrayName;
+    /// The slot of the array in the stack frame
+    private final int slot;
+    /// The expressions that specify the size of each dimension
+    private final ExpressionNode[] dimensions;
+    /// The parsing contexts of the dimension expressions
+    private final List<JBasicParser.ExpressionContext> dimensionContexts;
+
+    /**
+     * Constructor of the ArrayDeclarationNode
+     *
+     * @param arrayName         The name of the array
+     * @param slot              The slot of the array in the stack frame
+     * @param dimensions        The expressions that specify the size of each dimension
+     * @param dimensionContexts The parsing contexts of the dimension expressions
+     * @param context           The parsing context of the array declaration
+     */
+    public ArrayDeclarationNode(String arrayName, int slot, ExpressionNode[] dimensions,
+                                List<JBasicParser.ExpressionContext> dimensionContexts, ParserRuleContext context) {
+        super(context);
+        this.arrayName = arrayName;
+        this.slot = slot;
+        this.dimensions = dimensions;
+        this.dimensionContexts = dimensionContexts;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        this.checkDimensionCount();
+        int[] sizes = new int[this.dimensions.length];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = this.size(i, this.dimensions[i].evaluate(executionContext));
+        }
+        this.declare(executionContext, sizes);
+    }
+
+    /**
+     * Checks that the array has a supported amount of dimensions
+     */
+    public void checkDimensionCount() {
+        ArraySafeguard.guaranteeArrayDimensionCountIsValid(this.dimensionContexts);
+    }
+
+    /**
+     * Converts the evaluated size of the specified dimension
+     *
+     * @param dimension The dimension
+     * @param size      The evaluated size
+     * @return The size of the dimension
+     */
+    public int size(int dimension, JBasicValue size) {
+        ArraySafeguard.guaranteeArrayDimensionIsValid(size, this.dimensionContexts.get(dimension));
+        return (int) size.underlyingNumber();
+    }
+
+    /**
+     * Allocates the array and assigns it to the array variable
+     *
+     * @param executionContext The runtime environment of the program
+     * @param sizes            The size of each dimension
+     */
+    public void declare(ExecutionContext executionContext, int[] sizes) {
+        JBasicValue array;
+        switch (sizes.length) {
+            case 1:
+                array = new JBasicValue(new JBasicValue[sizes[0]]);
+                break;
+            case 2:
+                array = new JBasicValue(new JBasicValue[sizes[0]][sizes[1]]);
+                break;
+            default:
+                array = new JBasicValue(new JBasicValue[sizes[0]][sizes[1]][sizes[2]]);
+                break;
+        }
+        executionContext.getState().getFrame().set(this.slot, array);
+    }
+
+    /**
+     * Gets the name of the array
+     *
+     * @return The name of the array
+     */
+    public String getArrayName() {
+        return this.arrayName;
+    }
+
+    /**
+     * Gets the expressions that specify the size of each dimension
+     *
+     * @return The dimension expressions
+     */
+    public ExpressionNode[] getDimensions() {
+        return this.dimensions;
+    }
+
+    /**
+     * Gets the slot of the array in the stack frame
+     *
+     * @return The slot of the array variable
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+
+    /**
+     * Creates a declaration of the same array with other dimension expressions
+     *
+     * @param dimensions The new dimension expressions
+     * @return The array declaration with the new dimension expressions
+     */
+    public ArrayDeclarationNode withDimensions(ExpressionNode[] dimensions) {
+        return new ArrayDeclarationNode(this.arrayName, this.slot, dimensions, this.dimensionContexts, this.context);
+    }
+
+    /**
+     * Creates a declaration of another array with the same dimension expressions
+     *
+     * @param arrayName The name of the array
+     * @param slot      The slot of the array in the stack frame
+     * @return The declaration of the other array
+     */
+    public ArrayDeclarationNode withArray(String arrayName, int slot) {
+        return new ArrayDeclarationNode(arrayName, slot, this.dimensions, this.dimensionContexts, this.context);
+    }
+}
@@ -0,0 +1,206 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ArrayGetAtIndexNode.java
+ * @brief Reads an element of an array.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.core.guard.ArraySafeguard;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.List;
+
+/**
+ * @brief Reads an element of an array.
+ */
+public class ArrayGetAtIndexNode extends ExpressionNode {
+
+    /// The name of the array
+    private final String arrayName;
+    /// The slot of the array in the stack frame
+    private final int slot;
+    /// The expressions that specify the index in each dimension
+    private final ExpressionNode[] indices;
+    /// The parsing contexts of the index expressions
+    private final List<JBasicParser.ExpressionContext> indexContexts;
+    /// Whether the indices were proven to be in range of the declared array
+    private final boolean indicesInRange;
+    /// Locates the row, that contains the accessed element
+    private final ArrayRowCache rows;
+
+    /**
+     * Constructor of the ArrayGetAtIndexNode
+     *
+     * @param arrayName     The name of the array
+     * @param slot          The slot of the array in the stack frame
+     * @param indices       The expressions that specify the index in each dimension
+     * @param indexContexts The parsing contexts of the index expressions
+     * @param context       The parsing context of the 'array get at index expression'
+     */
+    public ArrayGetAtIndexNode(String arrayName, int slot, ExpressionNode[] indices,
+                               List<JBasicParser.ExpressionContext> indexContexts, ParserRuleContext context) {
+        this(arrayName, slot, indices, indexContexts, false, context);
+    }
+
+    /**
+     * Constructor of the ArrayGetAtIndexNode
+     *
+     * @param arrayName      The name of the array
+     * @param slot           The slot of the array in the stack frame
+     * @param indices        The expressions that specify the index in each dimension
+     * @param indexContexts  The parsing contexts of the index expressions
+     * @param indicesInRange Whether the indices were proven to be in range of the declared array
+     * @param context        The parsing context of the 'array get at index expression'
+     */
+    private ArrayGetAtIndexNode(String arrayName, int slot, ExpressionNode[] indices,
+                                List<JBasicParser.ExpressionContext> indexContexts, boolean indicesInRange,
+                                ParserRuleContext context) {
+        super(context);
+        this.arrayName = arrayName;
+        this.slot = slot;
+        this.indices = indices;
+        this.indexContexts = indexContexts;
+        this.indicesInRange = indicesInRange;
+        this.rows = new ArrayRowCache(indexContexts, indicesInRange);
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        JBasicValue array = this.lookupArray(executionContext);
+        int[] index = new int[this.indices.length];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = this.indicesInRange
+                    ? (int) this.indices[i].evaluateNumber(executionContext) - 1
+                    : this.index(i, this.indices[i].evaluate(executionContext));
+        }
+        return this.elementAt(array, index);
+    }
+
+    /**
+     * Reads the array from memory and checks that the amount of indices matches the dimensions of the array
+     *
+     * @param executionContext The runtime environment of the program
+     * @return The array
+     */
+    public JBasicValue lookupArray(ExecutionContext executionContext) {
+        JBasicValue array = executionContext.getState().getFrame().get(this.slot, this.context);
+        if (this.indicesInRange) {
+            // The array was declared with the dimensions of the access
+            return array;
+        }
+        ArraySafeguard.guaranteeArrayDimensionCountIsValid(this.indexContexts);
+        ArraySafeguard.guaranteeArrayDimensionsMatch(array, this.indexContexts);
+        return array;
+    }
+
+    /**
+     * Converts the evaluated index of the specified dimension into a zero based index
+     *
+     * @param dimension The dimension of the index
+     * @param index     The evaluated index
+     * @return The zero based index
+     */
+    public int index(int dimension, JBasicValue index) {
+        ArraySafeguard.guaranteeArrayDimensionIsValid(index, this.indexContexts.get(dimension));
+        return (int) index.underlyingNumber() - 1;
+    }
+
+    /**
+     * Gets the element of the array at the specified index
+     *
+     * @param array The array
+     * @param index The zero based index in each dimension
+     * @return The element at the index
+     */
+    public JBasicValue elementAt(JBasicValue array, int[] index) {
+        JBasicValue[] row = this.rows.row(array, index);
+        return row[this.rows.column(row, index)];
+    }
+
+    /**
+     * Gets the name of the array
+     *
+     * @return The name of the array
+     */
+    public String getArrayName() {
+        return this.arrayName;
+    }
+
+    /**
+     * Gets the expressions that specify the index in each dimension
+     *
+     * @return The index expressions
+     */
+    public ExpressionNode[] getIndices() {
+        return this.indices;
+    }
+
+    /**
+     * Determines whether the indices were proven to be in range of the declared array
+     *
+     * @return true if the indices are not checked, false if they are checked
+     */
+    public boolean areIndicesInRange() {
+        return this.indicesInRange;
+    }
+
+    /**
+     * Gets the slot of the array in the stack frame
+     *
+     * @return The slot of the array variable
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+
+    /**
+     * Creates an access of the same array with other index expressions
+     *
+     * @param indices The new index expressions
+     * @return The array access with the new index expressions
+     */
+    public ArrayGetAtIndexNode withIndices(ExpressionNode[] indices) {
+        return new ArrayGetAtIndexNode(this.arrayName, this.slot, indices, this.indexContexts, this.indicesInRange,
+                this.context);
+    }
+
+    /**
+     * Creates a copy of the access, whose indices were proven to be in range of the declared array
+     *
+     * @return The array access without checks of the indices
+     */
+    public ArrayGetAtIndexNode withIndicesInRange() {
+        return new ArrayGetAtIndexNode(this.arrayName, this.slot, this.indices, this.indexContexts, true,
+                this.context);
+    }
+
+    /**
+     * Creates an access of another array with the same index expressions
+     *
+     * @param arrayName The name of the array
+     * @param slot      The slot of the array in the stack frame
+     * @return The access of the other array
+     */
+    public ArrayGetAtIndexNode withArray(String arrayName, int slot) {
+        return new ArrayGetAtIndexNode(arrayName, slot, this.indices, this.indexContexts, this.indicesInRange,
+                this.context);
+    }
+}
@@ -0,0 +1,122 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ArrayRowCache.java
+ * @brief Locates the row of an array, that contains the element an array access reads or writes.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.jbasic.core.guard.ArraySafeguard;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.List;
+
+/**
+ * @brief Locates the row of an array, that contains the element an array access reads or writes.
+ * @details Arrays with several dimensions are stored as nested rows. An access inside a loop usually only changes
+ * the index of the last dimension between two executions, so the row that was located last is remembered together
+ * with the outer indices and only the index of the last dimension is applied, as long as they do not change.
+ * The indices are checked against the size of the dimensions, unless they were proven to be in range.
+ */
+final class ArrayRowCache {
+
+    /// The parsing contexts of the index expressions
+    private final List<JBasicParser.ExpressionContext> indexContexts;
+    /// Whether the indices were proven to be in range
+    private final boolean indicesInRange;
+    /// The array the remembered row belongs to
+    private Object array;
+    /// The index of the first dimension of the remembered row
+    private int first;
+    /// The index of the second dimension of the remembered row
+    private int second;
+    /// The remembered row
+    private JBasicValue[] row;
+
+    /**
+     * Constructor of the ArrayRowCache
+     *
+     * @param indexContexts  The parsing contexts of the index expressions
+     * @param indicesInRange Whether the indices were proven to be in range
+     */
+    ArrayRowCache(List<JBasicParser.ExpressionContext> indexContexts, boolean indicesInRange) {
+        this.indexContexts = indexContexts;
+        this.indicesInRange = indicesInRange;
+    }
+
+    /**
+     * Locates the innermost row, that contains the element at the specified index
+     *
+     * @param array The array
+     * @param index The zero based index in each dimension
+     * @return The row, that contains the element
+     */
+    JBasicValue[] row(JBasicValue array, int[] index) {
+        switch (index.length) {
+            case 1:
+                return array.underlyingOneDimensionalArray();
+            case 2:
+                JBasicValue[][] rows = array.underlyingTwoDimensionalArray();
+                if (rows != this.array || index[0] != this.first) {
+                    this.check(0, index[0], rows.length);
+                    this.row = rows[index[0]];
+                    this.array = rows;
+                    this.first = index[0];
+                }
+                return this.row;
+            default:
+                JBasicValue[][][] planes = array.underlyingThreeDimensionalArray();
+                if (planes != this.array || index[0] != this.first || index[1] != this.second) {
+                    this.check(0, index[0], planes.length);
+                    JBasicValue[][] plane = planes[index[0]];
+                    this.check(1, index[1], plane.length);
+                    this.row = plane[index[1]];
+                    this.array = planes;
+                    this.first = index[0];
+                    this.second = index[1];
+                }
+                return this.row;
+        }
+    }
+
+    /**
+     * Converts the index of the last dimension into the position of the element in its row
+     *
+     * @param row   The row, that contains the element
+     * @param index The zero based index in each dimension
+     * @return The position of the element in the row
+     */
+    int column(JBasicValue[] row, int[] index) {
+        int last = index.length - 1;
+        this.check(last, index[last], row.length);
+        return index[last];
+    }
+
+    /**
+     * Checks the index of a dimension against the size of the dimension
+     *
+     * @param dimension The dimension of the index
+     * @param index     The zero based index
+     * @param size      The amount of elements of the dimension
+     */
+    private void check(int dimension, int index, int size) {
+        if (!this.indicesInRange) {
+            ArraySafeguard.guaranteeArrayIndexIsInRange(index, size, this.indexContexts.get(dimension));
+        }
+    }
+}
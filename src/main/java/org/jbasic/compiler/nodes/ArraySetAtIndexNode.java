@@ -0,0 +1,298 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ArraySetAtIndexNode.java
+ * @brief Assigns a value to an element of an array.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.core.guard.ArraySafeguard;
+import org.jbasic.core.guard.ValueTypeSafeguard;
+import org.jbasic.core.guard.VariableSafeguard;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.List;
+
+/**
+ * @brief Assigns a value to an element of an array.
+ * @details Assignments like 'a[i] = a[i] + value' accumulate into the element in place. The array is read and the
+ * indices are evaluated only once for reading and writing the element.
+ */
+public class ArraySetAtIndexNode extends StatementNode {
+
+    /// The name of the array
+    private final String arrayName;
+    /// The slot of the array in the stack frame
+    private final int slot;
+    /// The parsing context of the array identifier
+    private final JBasicParser.VariableIdentifierContext identifierContext;
+    /// The expressions that specify the index in each dimension
+    private final ExpressionNode[] indices;
+    /// The parsing contexts of the index expressions
+    private final List<JBasicParser.ExpressionContext> indexContexts;
+    /// Whether the indices were proven to be in range of the declared array
+    private final boolean indicesInRange;
+    /// Locates the row, that contains the accessed element
+    private final ArrayRowCache rows;
+    /// The assigned expression
+    private final ExpressionNode value;
+    /// The assigned expression, if it accumulates into the same element, null otherwise
+    private final BinaryExpressionNode accumulation;
+
+    /**
+     * Constructor of the ArraySetAtIndexNode
+     *
+     * @param arrayName         The name of the array
+     * @param slot              The slot of the array in the stack frame
+     * @param identifierContext The parsing context of the array identifier
+     * @param indices           The expressions that specify the index in each dimension
+     * @param indexContexts     The parsing contexts of the index expressions
+     * @param value             The assigned expression
+     * @param context           The parsing context of the 'array set at index statement'
+     */
+    public ArraySetAtIndexNode(String arrayName, int slot,
+                               JBasicParser.VariableIdentifierContext identifierContext, ExpressionNode[] indices, List<JBasicParser.ExpressionContext> indexContexts,
+                               ExpressionNode value, ParserRuleContext context) {
+        this(arrayName, slot, identifierContext, indices, indexContexts, false, value, context);
+    }
+
+    /**
+     * Constructor of the ArraySetAtIndexNode
+     *
+     * @param arrayName         The name of the array
+     * @param slot              The slot of the array in the stack frame
+     * @param identifierContext The parsing context of the array identifier
+     * @param indices           The expressions that specify the index in each dimension
+     * @param indexContexts     The parsing contexts of the index expressions
+     * @param indicesInRange    Whether the indices were proven to be in range of the declared array
+     * @param value             The assigned expression
+     * @param context           The parsing context of the 'array set at index statement'
+     */
+    private ArraySetAtIndexNode(String arrayName, int slot, JBasicParser.VariableIdentifierContext identifierContext,
+                                ExpressionNode[] indices, List<JBasicParser.ExpressionContext> indexContexts,
+                                boolean indicesInRange, ExpressionNode value, ParserRuleContext context) {
+        super(context);
+        this.arrayName = arrayName;
+        this.slot = slot;
+        this.identifierContext = identifierContext;
+        this.indices = indices;
+        this.indexContexts = indexContexts;
+        this.indicesInRange = indicesInRange;
+        this.rows = new ArrayRowCache(indexContexts, indicesInRange);
+        this.value = value;
+        this.accumulation = accumulation(slot, indices, value);
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        JBasicValue array = this.lookupArray(executionContext);
+        int[] index = new int[this.indices.length];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = this.indicesInRange
+                    ? (int) this.indices[i].evaluateNumber(executionContext) - 1
+                    : this.index(i, this.indices[i].evaluate(executionContext));
+        }
+        if (this.accumulation != null) {
+            // The element is read through the access of the expression, so out of range indices are reported there
+            ArrayGetAtIndexNode element = (ArrayGetAtIndexNode) this.accumulation.getLeft();
+            JBasicValue current = element.elementAt(element.lookupArray(executionContext), index);
+            JBasicValue operand = this.accumulation.getRight().evaluate(executionContext);
+            this.store(array, index, this.accumulation.combine(current, operand));
+        }
+        else {
+            this.store(array, index, this.value.evaluate(executionContext));
+        }
+    }
+
+    /**
+     * Determines whether an assignment accumulates into the assigned element
+     *
+     * @param slot    The slot of the array
+     * @param indices The expressions that specify the index in each dimension
+     * @param value   The assigned expression
+     * @return The assigned expression if it accumulates into the same element, null otherwise
+     */
+    private static BinaryExpressionNode accumulation(int slot, ExpressionNode[] indices, ExpressionNode value) {
+        if (!(value instanceof BinaryExpressionNode) || !((BinaryExpressionNode) value).accumulates() ||
+                !(((BinaryExpressionNode) value).getLeft() instanceof ArrayGetAtIndexNode)) {
+            return null;
+        }
+        ArrayGetAtIndexNode element = (ArrayGetAtIndexNode) ((BinaryExpressionNode) value).getLeft();
+        if (element.getSlot() != slot || element.getIndices().length != indices.length) {
+            return null;
+        }
+        for (int i = 0; i < indices.length; i++) {
+            if (!isSameIndex(indices[i], element.getIndices()[i])) {
+                return null;
+            }
+        }
+        return (BinaryExpressionNode) value;
+    }
+
+    /**
+     * Determines whether two index expressions always evaluate to the same index, without side effects
+     *
+     * @param first  The first index expression
+     * @param second The second index expression
+     * @return true if both expressions read the same variables and literals in the same way, false if not
+     */
+    private static boolean isSameIndex(ExpressionNode first, ExpressionNode second) {
+        if (first instanceof VariableNode && second instanceof VariableNode) {
+            return ((VariableNode) first).getSlot() == ((VariableNode) second).getSlot();
+        }
+        if (first instanceof LiteralNode && second instanceof LiteralNode) {
+            JBasicValue firstValue = ((LiteralNode) first).getValue();
+            JBasicValue secondValue = ((LiteralNode) second).getValue();
+            return firstValue.isANumericalValue() && firstValue.equals(secondValue);
+        }
+        if (first instanceof BinaryExpressionNode && second instanceof BinaryExpressionNode) {
+            BinaryExpressionNode firstBinary = (BinaryExpressionNode) first;
+            BinaryExpressionNode secondBinary = (BinaryExpressionNode) second;
+            return firstBinary.getOperator() == secondBinary.getOperator() &&
+                    isSameIndex(firstBinary.getLeft(), secondBinary.getLeft()) &&
+                    isSameIndex(firstBinary.getRight(), secondBinary.getRight());
+        }
+        return false;
+    }
+
+    /**
+     * Reads the array from memory and checks that the amount of indices matches the dimensions of the array
+     *
+     * @param executionContext The runtime environment of the program
+     * @return The array
+     */
+    public JBasicValue lookupArray(ExecutionContext executionContext) {
+        JBasicValue array = executionContext.getState().getFrame().get(this.slot, this.context);
+        if (this.indicesInRange) {
+            // The array was declared with the dimensions of the access
+            return array;
+        }
+        ValueTypeSafeguard.guaranteeValueIsArray("Could not execute set expression", array, this.identifierContext);
+        ArraySafeguard.guaranteeArrayDimensionCountIsValid(this.indexContexts);
+        ArraySafeguard.guaranteeArrayDimensionsMatch(array, this.indexContexts);
+        return array;
+    }
+
+    /**
+     * Converts the evaluated index of the specified dimension into a zero based index
+     *
+     * @param dimension The dimension of the index
+     * @param index     The evaluated index
+     * @return The zero based index
+     */
+    public int index(int dimension, JBasicValue index) {
+        ArraySafeguard.guaranteeArrayDimensionIsValid(index, this.indexContexts.get(dimension));
+        return (int) index.underlyingNumber() - 1;
+    }
+
+    /**
+     * Stores a value in the array at the specified index
+     *
+     * @param array The array
+     * @param index The zero based index in each dimension
+     * @param value The stored value
+     */
+    public void store(JBasicValue array, int[] index, JBasicValue value) {
+        if (this.identifierContext.variableSuffix() != null) {
+            VariableSafeguard.guaranteeVariableSuffixIsNotViolated(value, this.identifierContext.variableSuffix());
+        }
+        JBasicValue[] row = this.rows.row(array, index);
+        row[this.rows.column(row, index)] = this.arrayName.endsWith("%") ? value.asInteger() : value;
+    }
+
+    /**
+     * Gets the name of the array
+     *
+     * @return The name of the array
+     */
+    public String getArrayName() {
+        return this.arrayName;
+    }
+
+    /**
+     * Gets the expressions that specify the index in each dimension
+     *
+     * @return The index expressions
+     */
+    public ExpressionNode[] getIndices() {
+        return this.indices;
+    }
+
+    /**
+     * Gets the assigned expression
+     *
+     * @return The assigned expression
+     */
+    public ExpressionNode getValue() {
+        return this.value;
+    }
+
+    /**
+     * Determines whether the indices were proven to be in range of the declared array
+     *
+     * @return true if the indices are not checked, false if they are checked
+     */
+    public boolean areIndicesInRange() {
+        return this.indicesInRange;
+    }
+
+    /**
+     * Gets the slot of the array in the stack frame
+     *
+     * @return The slot of the array variable
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+
+    /**
+     * Creates an assignment to the same array with other index expressions and another assigned expression
+     *
+     * @param indices The new index expressions
+     * @param value   The new assigned expression
+     * @return The array assignment with the new expressions
+     */
+    public ArraySetAtIndexNode withOperands(ExpressionNode[] indices, ExpressionNode value) {
+        return new ArraySetAtIndexNode(this.arrayName, this.slot, this.identifierContext, indices, this.indexContexts,
+                this.indicesInRange, value, this.context);
+    }
+
+    /**
+     * Creates a copy of the assignment, whose indices were proven to be in range of the declared array
+     *
+     * @return The array assignment without checks of the indices
+     */
+    public ArraySetAtIndexNode withIndicesInRange() {
+        return new ArraySetAtIndexNode(this.arrayName, this.slot, this.identifierContext, this.indices,
+                this.indexContexts, true, this.value, this.context);
+    }
+
+    /**
+     * Creates an assignment to another array with the same expressions
+     *
+     * @param arrayName The name of the array
+     * @param slot      The slot of the array in the stack frame
+     * @return The assignment to the other array
+     */
+    public ArraySetAtIndexNode withArray(String arrayName, int slot) {
+        return new ArraySetAtIndexNode(arrayName, slot, this.identifierContext, this.indices, this.indexContexts,
+                this.indicesInRange, this.value, this.context);
+    }
+}
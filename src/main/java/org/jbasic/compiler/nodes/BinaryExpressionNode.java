@@ -0,0 +1,206 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file BinaryExpressionNode.java
+ * @brief Applies a binary operator to two operands.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Applies a binary operator to two operands.
+ * @details Expressions, whose operand types were not proven by the type inference, specialize themselves to the
+ * types of the operands they see, see BinarySpecialization.
+ */
+public class BinaryExpressionNode extends ExpressionNode {
+
+    /// The operator of the expression
+    private final BinaryOperator operator;
+    /// The left operand of the expression
+    private final ExpressionNode left;
+    /// The right operand of the expression
+    private final ExpressionNode right;
+    /// Whether the right operand of an 'and' or 'or' expression is only evaluated, if the left operand does not
+    /// decide the result
+    private final boolean shortCircuit;
+    /// The form the expression specialized itself to, depending on the types of the operands it has seen
+    private BinarySpecialization specialization = BinarySpecialization.UNINITIALIZED;
+
+    /**
+     * Constructor of the BinaryExpressionNode
+     *
+     * @param operator The operator of the expression
+     * @param left     The left operand of the expression
+     * @param right    The right operand of the expression
+     * @param context  The parsing context of the binary expression
+     */
+    public BinaryExpressionNode(BinaryOperator operator, ExpressionNode left, ExpressionNode right, ParserRuleContext context) {
+        this(operator, left, right, false, context);
+    }
+
+    /**
+     * Constructor of the BinaryExpressionNode
+     *
+     * @param operator     The operator of the expression
+     * @param left         The left operand of the expression
+     * @param right        The right operand of the expression
+     * @param shortCircuit Whether the right operand of an 'and' or 'or' expression is only evaluated, if the left
+     *                     operand does not decide the result
+     * @param context      The parsing context of the binary expression
+     */
+    public BinaryExpressionNode(BinaryOperator operator, ExpressionNode left, ExpressionNode right,
+                                boolean shortCircuit, ParserRuleContext context) {
+        super(context);
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+        this.shortCircuit = shortCircuit && (operator == BinaryOperator.AND || operator == BinaryOperator.OR);
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        JBasicValue leftValue = this.left.evaluate(executionContext);
+        if (this.shortCircuit) {
+            boolean truthy = leftValue.isTruthy(this.context);
+            if (truthy == (this.operator == BinaryOperator.OR)) {
+                return truthy ? JBasicValue.TrueValue : JBasicValue.FalseValue;
+            }
+            return this.right.evaluate(executionContext).isTruthy(this.context) ?
+                    JBasicValue.TrueValue : JBasicValue.FalseValue;
+        }
+        return this.combine(leftValue, this.right.evaluate(executionContext));
+    }
+
+    @Override
+    public boolean evaluateCondition(ExecutionContext executionContext, ParserRuleContext context) {
+        if (this.specialization != BinarySpecialization.NUMBERS || !this.operator.producesTruthValue()
+                || this.shortCircuit) {
+            return super.evaluateCondition(executionContext, context);
+        }
+        // A comparison of numbers branches on the compared numbers directly
+        JBasicValue leftValue = this.left.evaluate(executionContext);
+        JBasicValue rightValue = this.right.evaluate(executionContext);
+        if (leftValue.isANumericalValue() && rightValue.isANumericalValue() && !leftValue.isAnIntegerValue()
+                && !rightValue.isAnIntegerValue()) {
+            return this.operator.applyToNumbers(leftValue.underlyingNumber(), rightValue.underlyingNumber()) != 0;
+        }
+        return this.combine(leftValue, rightValue).isTruthy(context);
+    }
+
+    /**
+     * Applies the operator to the evaluated operands, the expression specializes itself to the types of the operands
+     *
+     * @param leftValue  The value of the left operand
+     * @param rightValue The value of the right operand
+     * @return The result of the operation
+     */
+    JBasicValue combine(JBasicValue leftValue, JBasicValue rightValue) {
+        JBasicValue result = this.specialization.apply(this.operator, leftValue, rightValue, this.context);
+        if (result != null) {
+            return result;
+        }
+        // The first execution chooses a specialization, a failed guard deoptimizes the expression to the generic form
+        this.specialization = this.specialization == BinarySpecialization.UNINITIALIZED
+                ? BinarySpecialization.of(this.operator, leftValue, rightValue)
+                : BinarySpecialization.GENERIC;
+        return this.operator.apply(leftValue, rightValue, this.context);
+    }
+
+    /**
+     * Determines whether the expression updates its left operand in place, if it is assigned to the left operand,
+     * like 'i = i + 1' or 'total = total * factor'
+     *
+     * @return true if the operator is an addition, a subtraction or a multiplication, false if not
+     */
+    boolean accumulates() {
+        return this.operator == BinaryOperator.ADD || this.operator == BinaryOperator.SUBTRACT
+                || this.operator == BinaryOperator.MULTIPLY;
+    }
+
+    /**
+     * Gets the operator of the expression
+     *
+     * @return The operator
+     */
+    public BinaryOperator getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * Gets the left operand of the expression
+     *
+     * @return The left operand
+     */
+    public ExpressionNode getLeft() {
+        return this.left;
+    }
+
+    /**
+     * Gets the right operand of the expression
+     *
+     * @return The right operand
+     */
+    public ExpressionNode getRight() {
+        return this.right;
+    }
+
+    /**
+     * Determines whether the right operand is only evaluated, if the left operand does not decide the result
+     *
+     * @return true if the expression is an 'and' or 'or' expression with short-circuit evaluation, false if not
+     */
+    public boolean isShortCircuit() {
+        return this.shortCircuit;
+    }
+
+    /**
+     * Gets the operand types the expression specialized itself to, so they can be stored in a profile
+     *
+     * @return The name of the specialization or null if the expression was not executed yet
+     */
+    public String getProfiledTypes() {
+        return this.specialization != BinarySpecialization.UNINITIALIZED ? this.specialization.name() : null;
+    }
+
+    /**
+     * Specializes the expression to the operand types an earlier run of the program has seen. The guards of the
+     * specialization stay in place, so operands of other types deoptimize the expression like in every other run
+     *
+     * @param profiledTypes The name of the specialization, unknown names are ignored
+     */
+    public void specialize(String profiledTypes) {
+        for (BinarySpecialization specialization : BinarySpecialization.values()) {
+            if (specialization.name().equals(profiledTypes) && specialization.supports(this.operator)) {
+                this.specialization = specialization;
+            }
+        }
+    }
+
+    /**
+     * Creates the same expression with other operands
+     *
+     * @param left  The new left operand
+     * @param right The new right operand
+     * @return The expression with the new operands
+     */
+    public BinaryExpressionNode withOperands(ExpressionNode left, ExpressionNode right) {
+        return new BinaryExpressionNode(this.operator, left, right, this.shortCircuit, this.context);
+    }
+}
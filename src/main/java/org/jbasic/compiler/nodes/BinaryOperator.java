@@ -0,0 +1,287 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file BinaryOperator.java
+ * @brief The binary operators of JBASIC.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief The binary operators of JBASIC.
+ */
+public enum BinaryOperator {
+
+    /// Addition or string concatenation '+'
+    ADD {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.add(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left + right;
+        }
+
+        @Override
+        public long applyToIntegers(long left, long right) {
+            return Math.addExact(left, right);
+        }
+    },
+    /// Subtraction '-'
+    SUBTRACT {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.subtract(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left - right;
+        }
+
+        @Override
+        public long applyToIntegers(long left, long right) {
+            return Math.subtractExact(left, right);
+        }
+    },
+    /// Multiplication '*'
+    MULTIPLY {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.multiply(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left * right;
+        }
+
+        @Override
+        public long applyToIntegers(long left, long right) {
+            return Math.multiplyExact(left, right);
+        }
+    },
+    /// Division '/'
+    DIVIDE {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.divide(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left / right;
+        }
+    },
+    /// Remainder 'MOD'
+    MODULO {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.modulo(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left % right;
+        }
+
+        @Override
+        public long applyToIntegers(long left, long right) {
+            return left % right;
+        }
+    },
+    /// Comparison '>'
+    GREATER_THEN {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.greaterThen(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left > right ? 1 : 0;
+        }
+
+        @Override
+        public boolean producesTruthValue() {
+            return true;
+        }
+    },
+    /// Comparison '>='
+    GREATER_THEN_EQUAL {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.greaterThenEqual(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left >= right ? 1 : 0;
+        }
+
+        @Override
+        public boolean producesTruthValue() {
+            return true;
+        }
+    },
+    /// Comparison '<'
+    LESS_THEN {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.lessThen(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left < right ? 1 : 0;
+        }
+
+        @Override
+        public boolean producesTruthValue() {
+            return true;
+        }
+    },
+    /// Comparison '<='
+    LESS_THEN_EQUAL {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.lessThenEqual(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left <= right ? 1 : 0;
+        }
+
+        @Override
+        public boolean producesTruthValue() {
+            return true;
+        }
+    },
+    /// Equality '='
+    EQUAL {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.equal(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return Double.doubleToLongBits(left) == Double.doubleToLongBits(right) ? 1 : 0;
+        }
+
+        @Override
+        public boolean producesTruthValue() {
+            return true;
+        }
+    },
+    /// Inequality '<>'
+    NOT_EQUAL {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.notEqual(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return Double.doubleToLongBits(left) != Double.doubleToLongBits(right) ? 1 : 0;
+        }
+
+        @Override
+        public boolean producesTruthValue() {
+            return true;
+        }
+    },
+    /// Logical conjunction 'AND'
+    AND {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.and(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left != 0 && right != 0 ? 1 : 0;
+        }
+
+        @Override
+        public boolean producesTruthValue() {
+            return true;
+        }
+    },
+    /// Logical disjunction 'OR'
+    OR {
+        @Override
+        public JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return left.or(right, context);
+        }
+
+        @Override
+        public double applyToNumbers(double left, double right) {
+            return left != 0 || right != 0 ? 1 : 0;
+        }
+
+        @Override
+        public boolean producesTruthValue() {
+            return true;
+        }
+    };
+
+    /**
+     * Applies the operator to two values
+     *
+     * @param left    The left operand
+     * @param right   The right operand
+     * @param context The parsing context of the binary expression
+     * @return The result of the operation
+     */
+    public abstract JBasicValue apply(JBasicValue left, JBasicValue right, ParserRuleContext context);
+
+    /**
+     * Applies the operator to two numbers, the types of both operands have to be numerical
+     *
+     * @param left  The left operand
+     * @param right The right operand
+     * @return The result of the operation, comparisons and logical operators evaluate to 1 or 0
+     */
+    public abstract double applyToNumbers(double left, double right);
+
+    /**
+     * Applies the arithmetic operator to two 64 bit integers exactly
+     *
+     * @param left  The left operand
+     * @param right The right operand
+     * @return The result of the operation
+     * @note Throws an ArithmeticException if the result overflows or the operator has no exact integer result
+     */
+    public long applyToIntegers(long left, long right) {
+        throw new ArithmeticException(this + " has no exact integer result");
+    }
+
+    /**
+     * Determines whether the result of the operator is a truth value
+     *
+     * @return true if the operator is a comparison or a logical operator, false if it is an arithmetic operator
+     */
+    public boolean producesTruthValue() {
+        return false;
+    }
+}
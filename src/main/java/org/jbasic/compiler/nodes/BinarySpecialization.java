@@ -0,0 +1,165 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file BinarySpecialization.java
+ * @brief The forms a binary expression specializes itself to, depending on the types of the operands it has seen.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief The forms a binary expression specializes itself to, depending on the types of the operands it has seen.
+ * @details An expression starts uninitialized and chooses a specialized form, that matches the types of the
+ * operands of its first execution. The specialized forms guard the types of the operands and skip the type checks of
+ * the generic operators. If a guard fails the expression falls back to the generic form for good, so an expression,
+ * whose operand types change, does not switch between forms over and over again.
+ */
+enum BinarySpecialization {
+
+    /// The expression was not executed yet
+    UNINITIALIZED {
+        @Override
+        JBasicValue apply(BinaryOperator operator, JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return null;
+        }
+    },
+    /// Both operands are floating point numbers
+    NUMBERS {
+        @Override
+        JBasicValue apply(BinaryOperator operator, JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            if (!left.isANumericalValue() || !right.isANumericalValue() || left.isAnIntegerValue()
+                    || right.isAnIntegerValue()) {
+                return null;
+            }
+            double result = operator.applyToNumbers(left.underlyingNumber(), right.underlyingNumber());
+            if (operator.producesTruthValue()) {
+                return result != 0 ? JBasicValue.TrueValue : JBasicValue.FalseValue;
+            }
+            return new JBasicValue(result);
+        }
+    },
+    /// Both operands are numbers and at least one of them is an integer, the operator computes exactly if it can
+    INTEGERS {
+        @Override
+        JBasicValue apply(BinaryOperator operator, JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            if (!left.isANumericalValue() || !right.isANumericalValue() || !left.isAnIntegerValue()
+                    && !right.isAnIntegerValue()) {
+                return null;
+            }
+            return operator.apply(left, right, context);
+        }
+    },
+    /// Both operands are strings, used by the concatenation and the equality operators
+    STRINGS {
+        @Override
+        JBasicValue apply(BinaryOperator operator, JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            if (!left.isAStringValue() || !right.isAStringValue()) {
+                return null;
+            }
+            if (operator == BinaryOperator.ADD) {
+                return new JBasicValue(left.underlyingString() + right.underlyingString());
+            }
+            boolean equal = left.underlyingString().equals(right.underlyingString());
+            return equal == (operator == BinaryOperator.EQUAL) ? JBasicValue.TrueValue : JBasicValue.FalseValue;
+        }
+    },
+    /// A string is concatenated with a number
+    STRING_AND_NUMBER {
+        @Override
+        JBasicValue apply(BinaryOperator operator, JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            if (!left.isAStringValue() || !right.isANumericalValue()) {
+                return null;
+            }
+            return new JBasicValue(left.underlyingString() + right.formatNumber());
+        }
+    },
+    /// A number is concatenated with a string
+    NUMBER_AND_STRING {
+        @Override
+        JBasicValue apply(BinaryOperator operator, JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            if (!left.isANumericalValue() || !right.isAStringValue()) {
+                return null;
+            }
+            return new JBasicValue(left.formatNumber() + right.underlyingString());
+        }
+    },
+    /// The operands had different types, the generic operator checks the types on every execution
+    GENERIC {
+        @Override
+        JBasicValue apply(BinaryOperator operator, JBasicValue left, JBasicValue right, ParserRuleContext context) {
+            return operator.apply(left, right, context);
+        }
+    };
+
+    /**
+     * Applies the operator, if the operands have the types of the specialization
+     *
+     * @param operator The operator of the expression
+     * @param left     The left operand
+     * @param right    The right operand
+     * @param context  The parsing context of the binary expression
+     * @return The result of the operation or null if the guard of the specialization failed
+     */
+    abstract JBasicValue apply(BinaryOperator operator, JBasicValue left, JBasicValue right,
+                               ParserRuleContext context);
+
+    /**
+     * Determines whether the specialization can be used by an expression with an operator
+     *
+     * @param operator The operator of the expression
+     * @return true if the specialization supports the operator, false if not
+     */
+    boolean supports(BinaryOperator operator) {
+        switch (this) {
+            case STRINGS:
+                return operator == BinaryOperator.ADD || operator == BinaryOperator.EQUAL
+                        || operator == BinaryOperator.NOT_EQUAL;
+            case STRING_AND_NUMBER:
+            case NUMBER_AND_STRING:
+                return operator == BinaryOperator.ADD;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Chooses the specialization, that matches the operands of the first execution of an expression
+     *
+     * @param operator The operator of the expression
+     * @param left     The left operand
+     * @param right    The right operand
+     * @return The specialization for the types of the operands
+     */
+    static BinarySpecialization of(BinaryOperator operator, JBasicValue left, JBasicValue right) {
+        if (left.isANumericalValue() && right.isANumericalValue()) {
+            return left.isAnIntegerValue() || right.isAnIntegerValue() ? INTEGERS : NUMBERS;
+        }
+        if (left.isAStringValue() && right.isAStringValue() && (operator == BinaryOperator.ADD
+                || operator == BinaryOperator.EQUAL || operator == BinaryOperator.NOT_EQUAL)) {
+            return STRINGS;
+        }
+        if (operator == BinaryOperator.ADD && left.isAStringValue() && right.isANumericalValue()) {
+            return STRING_AND_NUMBER;
+        }
+        if (operator == BinaryOperator.ADD && left.isANumericalValue() && right.isAStringValue()) {
+            return NUMBER_AND_STRING;
+        }
+        return GENERIC;
+    }
+}
@@ -0,0 +1,76 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file BlockNode.java
+ * @brief A sequence of statements.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.programFlow.Completion;
+
+/**
+ * @brief A sequence of statements.
+ */
+public class BlockNode extends StatementNode {
+
+    /// The statements of the block in the order they are executed
+    private final StatementNode[] statements;
+
+    /**
+     * Constructor of the BlockNode
+     *
+     * @param statements The statements of the block
+     * @param context    The parsing context of the block
+     */
+    public BlockNode(StatementNode[] statements, ParserRuleContext context) {
+        super(context);
+        this.statements = statements;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        for (StatementNode statement : this.statements) {
+            statement.execute(executionContext);
+            if (executionContext.getCompletion() != Completion.NORMAL) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void resume(ExecutionContext executionContext, LabeledBlockNode target, int depth) {
+        int index = target.getResumeIndex(depth);
+        this.statements[index].resume(executionContext, target, depth + 1);
+        for (int i = index + 1; i < this.statements.length; i++) {
+            if (executionContext.getCompletion() != Completion.NORMAL) {
+                return;
+            }
+            this.statements[i].execute(executionContext);
+        }
+    }
+
+    /**
+     * Gets the statements of the block
+     *
+     * @return The statements
+     */
+    public StatementNode[] getStatements() {
+        return this.statements;
+    }
+}
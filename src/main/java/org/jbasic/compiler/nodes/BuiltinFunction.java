@@ -0,0 +1,251 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file BuiltinFunction.java
+ * @brief The native functions of JBASIC.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.core.RandomNumbersGenerator;
+import org.jbasic.core.Trigonometry;
+import org.jbasic.core.guard.ValueTypeSafeguard;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.math.BigDecimal;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * @brief The native functions of JBASIC.
+ */
+public enum BuiltinFunction {
+
+    ABS(JBasicParser.ABS_FUNCTION, Math::abs),
+    ACS(JBasicParser.ACS_FUNCTION, Math::acos),
+    ASH(JBasicParser.ASH_FUNCTION, Trigonometry::inverseSineHyperbolicus),
+    ASN(JBasicParser.ASN_FUNCTION, Math::asin),
+    ATH(JBasicParser.ATH_FUNCTION, Trigonometry::areaTangentHyperbolicus),
+    ATN(JBasicParser.ATN_FUNCTION, Math::atan),
+    AVG(JBasicParser.AVG_FUNCTION) {
+        @Override
+        public JBasicValue invoke(JBasicValue[] arguments, FunctionCallNode call, ExecutionContext executionContext) {
+            double sum = 0;
+            for (JBasicValue argument : arguments) {
+                ValueTypeSafeguard.guaranteeValueIsNumerical("Could not call AVG", argument, call.getContext());
+                sum += argument.underlyingNumber();
+            }
+            return new JBasicValue(sum / arguments.length);
+        }
+    },
+    COS(JBasicParser.COS_FUNCTION, Math::cos),
+    EXP(JBasicParser.EXP_FUNCTION, Math::exp),
+    LEN(JBasicParser.LEN_FUNCTION) {
+        @Override
+        public JBasicValue invoke(JBasicValue[] arguments, FunctionCallNode call, ExecutionContext executionContext) {
+            ValueTypeSafeguard.guaranteeValueIsString("Could not call LEN", arguments[0], call.getContext());
+            return new JBasicValue(arguments[0].underlyingString().length());
+        }
+    },
+    LIST(JBasicParser.LIST_FUNCTION) {
+        @Override
+        public boolean acceptsArgumentCount(int argumentCount) {
+            return true;
+        }
+
+        @Override
+        public JBasicValue invoke(JBasicValue[] arguments, FunctionCallNode call, ExecutionContext executionContext) {
+            return new JBasicValue(executionContext.getState().getCurrentScript());
+        }
+    },
+    LOG(JBasicParser.LOG_FUNCTION, Math::log),
+    MAX(JBasicParser.MAX_FUNCTION) {
+        @Override
+        public JBasicValue invoke(JBasicValue[] arguments, FunctionCallNode call, ExecutionContext executionContext) {
+            double maxValue = Double.MIN_VALUE;
+            for (JBasicValue argument : arguments) {
+                ValueTypeSafeguard.guaranteeValueIsNumerical("Could not call MAX", argument, call.getContext());
+                maxValue = Math.max(maxValue, argument.underlyingNumber());
+            }
+            return new JBasicValue(maxValue);
+        }
+    },
+    MIN(JBasicParser.MIN_FUNCTION) {
+        @Override
+        public JBasicValue invoke(JBasicValue[] arguments, FunctionCallNode call, ExecutionContext executionContext) {
+            double minValue = Double.MAX_VALUE;
+            for (JBasicValue argument : arguments) {
+                ValueTypeSafeguard.guaranteeValueIsNumerical("Could not call MIN", argument, call.getContext());
+                minValue = Math.min(minValue, argument.underlyingNumber());
+            }
+            return new JBasicValue(minValue);
+        }
+    },
+    NUM(JBasicParser.NUM_FUNCTION) {
+        @Override
+        public JBasicValue invoke(JBasicValue[] arguments, FunctionCallNode call, ExecutionContext executionContext) {
+            if (arguments[0].isAStringValue()) {
+                try {
+                    return new JBasicValue(Long.parseLong(arguments[0].underlyingString()));
+                }
+                catch (NumberFormatException e) {
+                    return JBasicValue.NullValue;
+                }
+            }
+            return arguments[0];
+        }
+    },
+    RND(JBasicParser.RND_FUNCTION) {
+        @Override
+        public boolean acceptsArgumentCount(int argumentCount) {
+            return argumentCount == 2;
+        }
+
+        @Override
+        public JBasicValue invoke(JBasicValue[] arguments, FunctionCallNode call, ExecutionContext executionContext) {
+            ValueTypeSafeguard.guaranteeValueIsNumerical("Could not call RND", arguments[0], call.getArgumentContext(0));
+            ValueTypeSafeguard.guaranteeValueIsNumerical("Could not call RND", arguments[1], call.getArgumentContext(1));
+            return new JBasicValue(RandomNumbersGenerator.doubleRandomWithinRange(arguments[0].underlyingNumber(),
+                    arguments[1].underlyingNumber()));
+        }
+    },
+    SIN(JBasicParser.SIN_FUNCTION, Math::sin),
+    SQR(JBasicParser.SQR_FUNCTION, Math::sqrt),
+    STR(JBasicParser.STR_FUNCTION) {
+        @Override
+        public JBasicValue invoke(JBasicValue[] arguments, FunctionCallNode call, ExecutionContext executionContext) {
+            if (arguments[0].isANumericalValue()) {
+                return new JBasicValue(arguments[0].formatNumber());
+            }
+            return arguments[0];
+        }
+    },
+    SUM(JBasicParser.SUM_FUNCTION) {
+        @Override
+        public JBasicValue invoke(JBasicValue[] arguments, FunctionCallNode call, ExecutionContext executionContext) {
+            BigDecimal sum = BigDecimal.valueOf(0);
+            for (JBasicValue argument : arguments) {
+                ValueTypeSafeguard.guaranteeValueIsNumerical("Could not call SUM", argument, call.getContext());
+                sum = sum.add(BigDecimal.valueOf(argument.underlyingNumber()));
+            }
+            return new JBasicValue(Double.parseDouble(String.valueOf(sum)));
+        }
+    },
+    TAN(JBasicParser.TAN_FUNCTION, Math::tan);
+
+    /// The token type of the function name
+    private final int tokenType;
+    /// The numerical function applied by functions that take exactly one number, null for all other functions
+    private final DoubleUnaryOperator numericalFunction;
+
+    /**
+     * Constructor of a function that expects at least one argument and overrides invoke
+     *
+     * @param tokenType The token type of the function name
+     */
+    BuiltinFunction(int tokenType) {
+        this(tokenType, null);
+    }
+
+    /**
+     * Constructor of a function that applies a numerical function to exactly one number
+     *
+     * @param tokenType         The token type of the function name
+     * @param numericalFunction The applied numerical function
+     */
+    BuiltinFunction(int tokenType, DoubleUnaryOperator numericalFunction) {
+        this.tokenType = tokenType;
+        this.numericalFunction = numericalFunction;
+    }
+
+    /**
+     * Gets the function that is called by a function call
+     *
+     * @param context The parsing context of the function call
+     * @return The called function
+     */
+    public static BuiltinFunction fromContext(JBasicParser.FunctionContext context) {
+        int tokenType = context.getStart().getType();
+        for (BuiltinFunction function : values()) {
+            if (function.tokenType == tokenType) {
+                return function;
+            }
+        }
+        // Unreachable
+        throw new IllegalStateException("Unexpected function: " + context.getText());
+    }
+
+    /**
+     * Determines whether the function can be called with the specified amount of arguments
+     *
+     * @param argumentCount The amount of arguments
+     * @return true if the function accepts the amount of arguments, false if not
+     */
+    public boolean acceptsArgumentCount(int argumentCount) {
+        return this.numericalFunction != null ? argumentCount == 1 : argumentCount != 0;
+    }
+
+    /**
+     * Determines whether the function always returns a number
+     *
+     * @return true if the result of the function is always numerical, false if not
+     */
+    public boolean returnsNumber() {
+        return this != LIST && this != NUM && this != STR;
+    }
+
+    /**
+     * Determines whether the result of the function only depends on its arguments
+     *
+     * @return true if the function can be evaluated when the program is compiled, false if not
+     */
+    public boolean isPure() {
+        return this != LIST && this != RND;
+    }
+
+    /**
+     * Determines whether the function applies a numerical function to exactly one number
+     *
+     * @return true if the function has an underlying numerical function, false if not
+     */
+    public boolean isNumericalFunction() {
+        return this.numericalFunction != null;
+    }
+
+    /**
+     * Applies the underlying numerical function of the function to a number
+     *
+     * @param argument The number the function is applied to
+     * @return The result of the numerical function
+     */
+    public double applyNumericalFunction(double argument) {
+        return this.numericalFunction.applyAsDouble(argument);
+    }
+
+    /**
+     * Invokes the function
+     *
+     * @param arguments        The evaluated arguments of the function call
+     * @param call             The function call node, used to report errors
+     * @param executionContext The runtime environment of the program
+     * @return The result of the function
+     */
+    public JBasicValue invoke(JBasicValue[] arguments, FunctionCallNode call, ExecutionContext executionContext) {
+        ValueTypeSafeguard.guaranteeValueIsNumerical("Could not call " + this.name(), arguments[0], call.getContext());
+        return new JBasicValue(this.numericalFunction.applyAsDouble(arguments[0].underlyingNumber()));
+    }
+}
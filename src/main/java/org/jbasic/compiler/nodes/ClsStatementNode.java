@@ -0,0 +1,45 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ClsStatementNode.java
+ * @brief Clears the console.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+
+/**
+ * @brief Clears the console.
+ */
+public class ClsStatementNode extends StatementNode {
+
+    /**
+     * Constructor of the ClsStatementNode
+     *
+     * @param context The parsing context of the cls statement
+     */
+    public ClsStatementNode(ParserRuleContext context) {
+        super(context);
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        System.out.print("\033[H\033[2J");
+        System.out.flush();
+    }
+}
@@ -0,0 +1,55 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ContinueStatementNode.java
+ * @brief Continues with the next iteration of the enclosing loop.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.programFlow.Completion;
+import org.jbasic.programFlow.ContinueException;
+
+/**
+ * @brief Continues with the next iteration of the enclosing loop.
+ */
+public class ContinueStatementNode extends StatementNode {
+
+    /// Whether the statement throws an exception with a stack trace like earlier versions instead of signaling its
+    /// completion
+    private final boolean throwsException;
+
+    /**
+     * Constructor of the ContinueStatementNode
+     *
+     * @param throwsException Whether the statement throws an exception instead of signaling its completion
+     * @param context         The parsing context of the continue statement
+     */
+    public ContinueStatementNode(boolean throwsException, ParserRuleContext context) {
+        super(context);
+        this.throwsException = throwsException;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        if (this.throwsException) {
+            throw new ContinueException();
+        }
+        executionContext.complete(Completion.CONTINUE);
+    }
+}
@@ -0,0 +1,79 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file DataStatementNode.java
+ * @brief Replaces the data segment with the values of expressions.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.interpreter.JBasicInterpreterState;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Replaces the data segment with the values of expressions.
+ */
+public class DataStatementNode extends StatementNode {
+
+    /// The expressions that are stored in the data segment
+    private final ExpressionNode[] expressions;
+
+    /**
+     * Constructor of the DataStatementNode
+     *
+     * @param expressions The expressions that are stored in the data segment
+     * @param context     The parsing context of the data statement
+     */
+    public DataStatementNode(ExpressionNode[] expressions, ParserRuleContext context) {
+        super(context);
+        this.expressions = expressions;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        JBasicValue[] values = new JBasicValue[this.expressions.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.expressions[i].evaluate(executionContext);
+        }
+        this.store(executionContext, values);
+    }
+
+    /**
+     * Replaces the content of the data segment
+     *
+     * @param executionContext The runtime environment of the program
+     * @param values           The evaluated expressions of the data statement
+     */
+    public void store(ExecutionContext executionContext, JBasicValue[] values) {
+        JBasicInterpreterState state = executionContext.getState();
+        state.getPoppedDataStack().clear();
+        state.getDataSegment().clear();
+        for (JBasicValue value : values) {
+            state.getDataSegment().add(value);
+        }
+    }
+
+    /**
+     * Gets the expressions that are stored in the data segment
+     *
+     * @return The expressions of the data statement
+     */
+    public ExpressionNode[] getExpressions() {
+        return this.expressions;
+    }
+}
@@ -0,0 +1,126 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file DoLoopStatementNode.java
+ * @brief A loop that checks the condition after the body was executed.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.programFlow.Completion;
+
+/**
+ * @brief A loop that checks the condition after the body was executed.
+ * @details Used for 'do while' and 'do until' loops.
+ */
+public class DoLoopStatementNode extends StatementNode {
+
+    /// The condition of the loop
+    private final ExpressionNode condition;
+    /// The body of the loop
+    private final BlockNode body;
+    /// Whether the loop ends when the condition becomes truthy instead of falsy
+    private final boolean until;
+    /// Continues the loop in a faster tier once it became hot, null if the loop stays in the node tree
+    private final OnStackReplacement replacement;
+
+    /**
+     * Constructor of the DoLoopStatementNode
+     *
+     * @param condition The condition of the loop
+     * @param body      The body of the loop
+     * @param until     Whether the loop ends when the condition becomes truthy instead of falsy
+     * @param context   The parsing context of the loop
+     */
+    public DoLoopStatementNode(ExpressionNode condition, BlockNode body, boolean until, ParserRuleContext context) {
+        this(condition, body, until, null, context);
+    }
+
+    private DoLoopStatementNode(ExpressionNode condition, BlockNode body, boolean until,
+                                OnStackReplacement replacement, ParserRuleContext context) {
+        super(context);
+        this.condition = condition;
+        this.body = body;
+        this.until = until;
+        this.replacement = replacement;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        do {
+            // The iteration is counted before the body is executed, so the faster tier starts with the body
+            if (this.replacement != null && this.replacement.countIteration(executionContext)) {
+                this.replacement.continueLoop(executionContext);
+                return;
+            }
+            executionContext.checkStopRequested();
+            executionContext.executeBody(this.body);
+            if (executionContext.getCompletion() != Completion.NORMAL && executionContext.leavesLoop()) {
+                break;
+            }
+        } while (this.condition.evaluateCondition(executionContext, this.context) != this.until);
+    }
+
+    @Override
+    public void resume(ExecutionContext executionContext, LabeledBlockNode target, int depth) {
+        executionContext.resumeBody(this.body, target, depth + 1);
+        if (executionContext.getCompletion() != Completion.NORMAL && executionContext.leavesLoop()) {
+            return;
+        }
+        if (this.condition.evaluateCondition(executionContext, this.context) != this.until) {
+            this.execute(executionContext);
+        }
+    }
+
+    /**
+     * Creates a copy of the loop, that counts its iterations and continues in a faster tier once it became hot
+     *
+     * @param replacement Continues the loop in the faster tier
+     * @return The copy of the loop
+     */
+    public DoLoopStatementNode withReplacement(OnStackReplacement replacement) {
+        return new DoLoopStatementNode(this.condition, this.body, this.until, replacement, this.context);
+    }
+
+    /**
+     * Gets the condition of the loop
+     *
+     * @return The condition of the loop
+     */
+    public ExpressionNode getCondition() {
+        return this.condition;
+    }
+
+    /**
+     * Gets the body of the loop
+     *
+     * @return The body of the loop
+     */
+    public BlockNode getBody() {
+        return this.body;
+    }
+
+    /**
+     * Determines whether the loop ends when the condition becomes truthy instead of falsy
+     *
+     * @return true if the loop ends when the condition becomes truthy, false if not
+     */
+    public boolean isUntil() {
+        return this.until;
+    }
+}
@@ -0,0 +1,85 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ExpressionNode.java
+ * @brief Base class of all executable expression nodes.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Base class of all executable expression nodes.
+ * @details Expression nodes are linked to their operands when the program is compiled,
+ * so evaluating an expression does not touch the abstract syntax tree anymore.
+ */
+public abstract class ExpressionNode {
+
+    /// The parsing context of the expression, used to report errors
+    protected final ParserRuleContext context;
+
+    /**
+     * Constructor of the ExpressionNode
+     *
+     * @param context The parsing context of the expression
+     */
+    protected ExpressionNode(ParserRuleContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Evaluates the expression
+     *
+     * @param executionContext The runtime environment of the program
+     * @return The value the expression evaluates to
+     */
+    public abstract JBasicValue evaluate(ExecutionContext executionContext);
+
+    /**
+     * Evaluates an expression, whose type was inferred to be numerical
+     *
+     * @param executionContext The runtime environment of the program
+     * @return The number the expression evaluates to
+     * @note Specialized nodes override this method, so nested numerical expressions do not allocate values
+     */
+    public double evaluateNumber(ExecutionContext executionContext) {
+        return this.evaluate(executionContext).underlyingNumber();
+    }
+
+    /**
+     * Evaluates an expression, that is used as the condition of a branch or a loop
+     *
+     * @param executionContext The runtime environment of the program
+     * @param context          The parsing context of the statement, used to report a condition that is not a number
+     * @return true if the condition is truthy, false if not
+     * @note Comparisons override this method, so the branch compares the operands without creating a truth value
+     */
+    public boolean evaluateCondition(ExecutionContext executionContext, ParserRuleContext context) {
+        return this.evaluate(executionContext).isTruthy(context);
+    }
+
+    /**
+     * Gets the parsing context of the expression
+     *
+     * @return The parsing context of the expression
+     */
+    public ParserRuleContext getContext() {
+        return this.context;
+    }
+}
@@ -0,0 +1,187 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ForStatementNode.java
+ * @brief A counting loop.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.interpreter.StackFrame;
+import org.jbasic.programFlow.Completion;
+
+/**
+ * @brief A counting loop.
+ */
+public class ForStatementNode extends StatementNode {
+
+    /// The name of the counter variable
+    private final String variableName;
+    /// The slot of the counter variable in the stack frame
+    private final int slot;
+    /// The start value of the counter
+    private final ExpressionNode start;
+    /// The end value of the counter
+    private final ExpressionNode end;
+    /// The step the counter is incremented by, null if the loop has no 'step'
+    private final ExpressionNode step;
+    /// The body of the loop
+    private final BlockNode body;
+    /// Continues the loop in a faster tier once it became hot, null if the loop stays in the node tree
+    private final OnStackReplacement replacement;
+
+    /**
+     * Constructor of the ForStatementNode
+     *
+     * @param variableName The name of the counter variable
+     * @param slot         The slot of the counter variable in the stack frame
+     * @param start        The start value of the counter
+     * @param end          The end value of the counter
+     * @param step         The step the counter is incremented by or null
+     * @param body         The body of the loop
+     * @param context      The parsing context of the for statement
+     */
+    public ForStatementNode(String variableName, int slot, ExpressionNode start, ExpressionNode end,
+                            ExpressionNode step, BlockNode body, ParserRuleContext context) {
+        this(variableName, slot, start, end, step, body, null, context);
+    }
+
+    private ForStatementNode(String variableName, int slot, ExpressionNode start, ExpressionNode end,
+                             ExpressionNode step, BlockNode body, OnStackReplacement replacement,
+                             ParserRuleContext context) {
+        super(context);
+        this.variableName = variableName;
+        this.slot = slot;
+        this.start = start;
+        this.end = end;
+        this.step = step;
+        this.body = body;
+        this.replacement = replacement;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        double counter = this.start.evaluateNumber(executionContext);
+        double endValue = this.end.evaluateNumber(executionContext);
+        double stepValue = this.step != null ? this.step.evaluateNumber(executionContext) : 1;
+        this.loop(executionContext, counter, endValue, stepValue);
+    }
+
+    @Override
+    public void resume(ExecutionContext executionContext, LabeledBlockNode target, int depth) {
+        executionContext.resumeBody(this.body, target, depth + 1);
+        if (executionContext.getCompletion() != Completion.NORMAL && executionContext.leavesLoop()) {
+            return;
+        }
+        // The loop was entered by a jump, so the limit and the step are evaluated again and the counter is read
+        double endValue = this.end.evaluateNumber(executionContext);
+        double stepValue = this.step != null ? this.step.evaluateNumber(executionContext) : 1;
+        double counter = executionContext.getState().getFrame().getNumber(this.slot, this.context);
+        this.loop(executionContext, counter + stepValue, endValue, stepValue);
+    }
+
+    /**
+     * Executes the iterations of the loop, the counter is stored as a number and only becomes a value when it is read
+     *
+     * @param executionContext The runtime environment of the program
+     * @param counter          The value of the counter in the first iteration
+     * @param endValue         The last value of the counter
+     * @param stepValue        The value the counter is incremented by
+     */
+    private void loop(ExecutionContext executionContext, double counter, double endValue, double stepValue) {
+        StackFrame frame = executionContext.getState().getFrame();
+        boolean ascending = stepValue >= 0;
+        for (; ascending ? counter <= endValue : counter >= endValue; counter += stepValue) {
+            if (this.replacement != null && this.replacement.countIteration(executionContext)) {
+                this.replacement.continueLoop(executionContext, counter, endValue, stepValue);
+                return;
+            }
+            executionContext.checkStopRequested();
+            frame.setNumber(this.slot, counter);
+            executionContext.executeBody(this.body);
+            if (executionContext.getCompletion() != Completion.NORMAL && executionContext.leavesLoop()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of the loop, that counts its iterations and continues in a faster tier once it became hot
+     *
+     * @param replacement Continues the loop in the faster tier
+     * @return The copy of the loop
+     */
+    public ForStatementNode withReplacement(OnStackReplacement replacement) {
+        return new ForStatementNode(this.variableName, this.slot, this.start, this.end, this.step, this.body,
+                replacement, this.context);
+    }
+
+    /**
+     * Gets the name of the counter variable
+     *
+     * @return The name of the counter variable
+     */
+    public String getVariableName() {
+        return this.variableName;
+    }
+
+    /**
+     * Gets the start value of the counter
+     *
+     * @return The start expression
+     */
+    public ExpressionNode getStart() {
+        return this.start;
+    }
+
+    /**
+     * Gets the end value of the counter
+     *
+     * @return The end expression
+     */
+    public ExpressionNode getEnd() {
+        return this.end;
+    }
+
+    /**
+     * Gets the step the counter is incremented by
+     *
+     * @return The step expression or null if the loop has no 'step'
+     */
+    public ExpressionNode getStep() {
+        return this.step;
+    }
+
+    /**
+     * Gets the body of the loop
+     *
+     * @return The body of the loop
+     */
+    public BlockNode getBody() {
+        return this.body;
+    }
+
+    /**
+     * Gets the slot of the counter variable in the stack frame
+     *
+     * @return The slot of the counter variable
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+}
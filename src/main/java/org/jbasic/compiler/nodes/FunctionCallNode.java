@@ -0,0 +1,139 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file FunctionCallNode.java
+ * @brief Calls a native function.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.core.guard.FunctionSafeguard;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Calls a native function.
+ */
+public class FunctionCallNode extends ExpressionNode {
+
+    /// The called function
+    private final BuiltinFunction function;
+    /// The arguments of the call
+    private final ExpressionNode[] arguments;
+    /// The parsing context of the arguments, used to report arity errors
+    private final JBasicParser.FunctionCallArgsContext argumentsContext;
+    /// Whether the amount of arguments is accepted by the function, determined once when the call is compiled
+    private final boolean arityIsValid;
+
+    /**
+     * Constructor of the FunctionCallNode
+     *
+     * @param function         The called function
+     * @param arguments        The arguments of the call
+     * @param argumentsContext The parsing context of the arguments
+     * @param context          The parsing context of the function call
+     */
+    public FunctionCallNode(BuiltinFunction function, ExpressionNode[] arguments,
+                            JBasicParser.FunctionCallArgsContext argumentsContext, ParserRuleContext context) {
+        super(context);
+        this.function = function;
+        this.arguments = arguments;
+        this.argumentsContext = argumentsContext;
+        this.arityIsValid = function.acceptsArgumentCount(arguments.length);
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        if (!this.arityIsValid) {
+            FunctionSafeguard.guaranteeArityIsNotViolated(this.function.name(), this.argumentsContext,
+                    this.function::acceptsArgumentCount);
+        }
+        JBasicValue[] values = new JBasicValue[this.arguments.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.arguments[i].evaluate(executionContext);
+        }
+        return this.call(executionContext, values);
+    }
+
+    /**
+     * Calls the function with evaluated arguments, the arity of the call has to be valid
+     *
+     * @param executionContext The runtime environment of the program
+     * @param values           The evaluated arguments
+     * @return The result of the function
+     */
+    public JBasicValue call(ExecutionContext executionContext, JBasicValue[] values) {
+        return this.function.invoke(values, this, executionContext);
+    }
+
+    /**
+     * Gets the called function
+     *
+     * @return The called function
+     */
+    public BuiltinFunction getFunction() {
+        return this.function;
+    }
+
+    /**
+     * Gets the arguments of the call
+     *
+     * @return The arguments
+     */
+    public ExpressionNode[] getArguments() {
+        return this.arguments;
+    }
+
+    /**
+     * Gets the parsing context of a specific argument
+     *
+     * @param index The index of the argument
+     * @return The parsing context of the argument
+     */
+    public ParserRuleContext getArgumentContext(int index) {
+        return this.arguments[index].getContext();
+    }
+
+    /**
+     * Determines whether the amount of arguments is accepted by the function
+     *
+     * @return true if the arity of the call is valid, false if not
+     */
+    public boolean isArityValid() {
+        return this.arityIsValid;
+    }
+
+    /**
+     * Gets the parsing context of the arguments
+     *
+     * @return The parsing context of the arguments
+     */
+    public JBasicParser.FunctionCallArgsContext getArgumentsContext() {
+        return this.argumentsContext;
+    }
+
+    /**
+     * Creates a call of the same function with other arguments
+     *
+     * @param arguments The new arguments
+     * @return The call with the new arguments
+     */
+    public FunctionCallNode withArguments(ExpressionNode[] arguments) {
+        return new FunctionCallNode(this.function, arguments, this.argumentsContext, this.context);
+    }
+}
@@ -0,0 +1,71 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file GotoStatementNode.java
+ * @brief Continues the execution at a labeled block.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+
+/**
+ * @brief Continues the execution at a labeled block.
+ * @details The statement only signals the jump, the unit that contains the label continues the execution at the
+ * label, after the enclosing statements were left.
+ */
+public class GotoStatementNode extends StatementNode {
+
+    /// The label of the block
+    private final String label;
+    /// The labeled block, that was bound to the statement when the program was compiled
+    private LabeledBlockNode target;
+
+    /**
+     * Constructor of the GotoStatementNode
+     *
+     * @param label   The label of the block
+     * @param context The parsing context of the goto statement
+     */
+    public GotoStatementNode(String label, ParserRuleContext context) {
+        super(context);
+        this.label = label;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        executionContext.jump(this.target, this.context);
+    }
+
+    /**
+     * Gets the label the statement jumps to
+     *
+     * @return The label
+     */
+    public String getLabel() {
+        return this.label;
+    }
+
+    /**
+     * Binds the statement to the labeled block it jumps to
+     *
+     * @param target The labeled block
+     */
+    public void setTarget(LabeledBlockNode target) {
+        this.target = target;
+    }
+}
@@ -0,0 +1,106 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file IfStatementNode.java
+ * @brief Conditionally executes one of several blocks.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.programFlow.Completion;
+
+/**
+ * @brief Conditionally executes one of several blocks.
+ * @details The 'if' and all 'else if' branches are stored as pairs of a condition and a block,
+ * the 'else' block is null if the statement has no 'else' branch.
+ */
+public class IfStatementNode extends StatementNode {
+
+    /// The conditions of the 'if' and the 'else if' branches
+    private final ExpressionNode[] conditions;
+    /// The blocks of the 'if' and the 'else if' branches
+    private final BlockNode[] blocks;
+    /// The block of the 'else' branch or null
+    private final BlockNode elseBlock;
+
+    /**
+     * Constructor of the IfStatementNode
+     *
+     * @param conditions The conditions of the 'if' and the 'else if' branches
+     * @param blocks     The blocks of the 'if' and the 'else if' branches
+     * @param elseBlock  The block of the 'else' branch or null
+     * @param context    The parsing context of the if statement
+     */
+    public IfStatementNode(ExpressionNode[] conditions, BlockNode[] blocks, BlockNode elseBlock, ParserRuleContext context) {
+        super(context);
+        this.conditions = conditions;
+        this.blocks = blocks;
+        this.elseBlock = elseBlock;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        for (int i = 0; i < this.conditions.length; i++) {
+            if (this.conditions[i].evaluateCondition(executionContext, this.context)) {
+                this.blocks[i].execute(executionContext);
+                return;
+            }
+            if (executionContext.getCompletion() != Completion.NORMAL) {
+                // A statement used as condition left the enclosing loop
+                return;
+            }
+        }
+        if (this.elseBlock != null) {
+            this.elseBlock.execute(executionContext);
+        }
+    }
+
+    @Override
+    public void resume(ExecutionContext executionContext, LabeledBlockNode target, int depth) {
+        int branch = target.getResumeIndex(depth);
+        BlockNode block = branch < this.blocks.length ? this.blocks[branch] : this.elseBlock;
+        block.resume(executionContext, target, depth + 1);
+    }
+
+    /**
+     * Gets the conditions of the 'if' and the 'else if' branches
+     *
+     * @return The conditions of the branches
+     */
+    public ExpressionNode[] getConditions() {
+        return this.conditions;
+    }
+
+    /**
+     * Gets the blocks of the 'if' and the 'else if' branches
+     *
+     * @return The blocks of the branches
+     */
+    public BlockNode[] getBlocks() {
+        return this.blocks;
+    }
+
+    /**
+     * Gets the block of the 'else' branch
+     *
+     * @return The 'else' block or null if the statement has no 'else' branch
+     */
+    public BlockNode getElseBlock() {
+        return this.elseBlock;
+    }
+}
@@ -0,0 +1,116 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file InlinedSubroutineNode.java
+ * @brief Executes the body of a subroutine, that was inlined at an invocation, in the stack frame of the caller.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.interpreter.StackFrame;
+
+/**
+ * @brief Executes the body of a subroutine, that was inlined at an invocation, in the stack frame of the caller.
+ * @details The variables of the subroutine are renamed to slots of their own in the frame of the caller. They are
+ * removed before the body is executed, so every invocation starts with undefined variables like in a new stack frame.
+ * The body starts with the assignments of the arguments to the parameters.
+ */
+public class InlinedSubroutineNode extends StatementNode {
+
+    /// The name of the inlined subroutine
+    private final String name;
+    /// The unique names of the variables of the subroutine in the frame of the caller
+    private final String[] variableNames;
+    /// The slots of the variables of the subroutine in the frame of the caller
+    private final int[] slots;
+    /// The body of the subroutine, that starts with the assignments of the parameters
+    private final BlockNode body;
+
+    /**
+     * Constructor of the InlinedSubroutineNode
+     *
+     * @param name          The name of the inlined subroutine
+     * @param variableNames The unique names of the variables of the subroutine in the frame of the caller
+     * @param slots         The slots of the variables of the subroutine in the frame of the caller
+     * @param body          The body of the subroutine, that starts with the assignments of the parameters
+     * @param context       The parsing context of the subroutine invocation
+     */
+    public InlinedSubroutineNode(String name, String[] variableNames, int[] slots, BlockNode body,
+                                 ParserRuleContext context) {
+        super(context);
+        this.name = name;
+        this.variableNames = variableNames;
+        this.slots = slots;
+        this.body = body;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        StackFrame frame = executionContext.getState().getFrame();
+        for (int slot : this.slots) {
+            frame.remove(slot);
+        }
+        this.body.execute(executionContext);
+    }
+
+    /**
+     * Creates a copy of the node with another body
+     *
+     * @param body The body of the copy
+     * @return The copy of the node
+     */
+    public InlinedSubroutineNode withBody(BlockNode body) {
+        return new InlinedSubroutineNode(this.name, this.variableNames, this.slots, body, this.context);
+    }
+
+    /**
+     * Gets the name of the inlined subroutine
+     *
+     * @return The name of the subroutine
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the unique names of the variables of the subroutine in the frame of the caller
+     *
+     * @return The names of the variables
+     */
+    public String[] getVariableNames() {
+        return this.variableNames;
+    }
+
+    /**
+     * Gets the slots of the variables of the subroutine in the frame of the caller
+     *
+     * @return The slots of the variables
+     */
+    public int[] getSlots() {
+        return this.slots;
+    }
+
+    /**
+     * Gets the body of the subroutine, that starts with the assignments of the parameters
+     *
+     * @return The body
+     */
+    public BlockNode getBody() {
+        return this.body;
+    }
+}
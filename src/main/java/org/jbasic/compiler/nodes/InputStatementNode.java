@@ -0,0 +1,98 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file InputStatementNode.java
+ * @brief Reads a line from the standard input into a variable.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.io.IOException;
+
+/**
+ * @brief Reads a line from the standard input into a variable.
+ */
+public class InputStatementNode extends StatementNode {
+
+    /// The prompt that is printed before the input is read
+    private final String prompt;
+    /// The name of the variable the input is assigned to
+    private final String variableName;
+    /// The slot of the variable in the stack frame, -1 if the input is not assigned to a variable
+    private final int slot;
+
+    /**
+     * Constructor of the InputStatementNode
+     *
+     * @param prompt       The prompt that is printed before the input is read
+     * @param variableName The name of the variable the input is assigned to
+     * @param slot         The slot of the variable in the stack frame or -1 if there is no variable
+     * @param context      The parsing context of the input statement
+     */
+    public InputStatementNode(String prompt, String variableName, int slot, ParserRuleContext context) {
+        super(context);
+        this.prompt = prompt;
+        this.variableName = variableName;
+        this.slot = slot;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        executionContext.getPrintStream().print(this.prompt + " ");
+        try {
+            String line = executionContext.getInputStream().readLine();
+            if (this.slot != -1) {
+                executionContext.getState().getFrame().set(this.slot, new JBasicValue(line));
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Gets the name of the variable the input is assigned to
+     *
+     * @return The name of the variable or null if the input is discarded
+     */
+    public String getVariableName() {
+        return this.variableName;
+    }
+
+    /**
+     * Gets the slot of the variable in the stack frame
+     *
+     * @return The slot of the variable or -1 if the input is discarded
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+
+    /**
+     * Creates an input statement, that assigns the input to another variable
+     *
+     * @param variableName The name of the variable
+     * @param slot         The slot of the variable in the stack frame
+     * @return The input statement with the other variable
+     */
+    public InputStatementNode withVariable(String variableName, int slot) {
+        return new InputStatementNode(this.prompt, variableName, slot, this.context);
+    }
+}
@@ -0,0 +1,100 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file InvariantExpressionNode.java
+ * @brief An expression, that does not change while a loop or a sequence of statements is executed.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.interpreter.StackFrame;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief An expression, that does not change while a loop or a sequence of statements is executed.
+ * @details The expression is evaluated the first time it is reached and stored in a hidden slot of the stack frame.
+ * Later iterations of the loop and repeated occurrences of the expression read the stored result, until the enclosing
+ * InvariantScopeNode removes it when the loop or the sequence is executed again. Because the expression is still evaluated at its original position, errors are reported
+ * exactly like without the optimization.
+ */
+public class InvariantExpressionNode extends ExpressionNode {
+
+    /// The invariant expression
+    private final ExpressionNode expression;
+    /// The hidden slot of the stack frame, that stores the result of the expression
+    private final int slot;
+
+    /**
+     * Constructor of the InvariantExpressionNode
+     *
+     * @param expression The invariant expression
+     * @param slot       The hidden slot of the stack frame, that stores the result of the expression
+     */
+    public InvariantExpressionNode(ExpressionNode expression, int slot) {
+        super(expression.getContext());
+        this.expression = expression;
+        this.slot = slot;
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        StackFrame frame = executionContext.getState().getFrame();
+        if (!frame.isDefined(this.slot)) {
+            frame.set(this.slot, this.expression.evaluate(executionContext));
+        }
+        return frame.get(this.slot, this.context);
+    }
+
+    @Override
+    public double evaluateNumber(ExecutionContext executionContext) {
+        StackFrame frame = executionContext.getState().getFrame();
+        if (!frame.isDefined(this.slot)) {
+            double number = this.expression.evaluateNumber(executionContext);
+            frame.setNumber(this.slot, number);
+            return number;
+        }
+        return frame.getNumber(this.slot, this.context);
+    }
+
+    /**
+     * Creates a copy of the node with another expression
+     *
+     * @param expression The invariant expression of the copy
+     * @return The copy of the node
+     */
+    public InvariantExpressionNode withExpression(ExpressionNode expression) {
+        return new InvariantExpressionNode(expression, this.slot);
+    }
+
+    /**
+     * Gets the invariant expression
+     *
+     * @return The invariant expression
+     */
+    public ExpressionNode getExpression() {
+        return this.expression;
+    }
+
+    /**
+     * Gets the hidden slot of the stack frame, that stores the result of the expression
+     *
+     * @return The slot of the result
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+}
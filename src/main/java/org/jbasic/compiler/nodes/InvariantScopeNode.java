@@ -0,0 +1,87 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file InvariantScopeNode.java
+ * @brief Removes the stored results of invariant expressions, before the statement they belong to is executed.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.interpreter.StackFrame;
+
+/**
+ * @brief Removes the stored results of invariant expressions, before the statement they belong to is executed.
+ * @details The variables an invariant expression reads can change between two executions of a loop or of a sequence
+ * of statements, so every execution computes the invariant expressions again. The statement is either a loop or the
+ * first statement of a sequence of statements, whose repeated expressions are computed once.
+ */
+public class InvariantScopeNode extends StatementNode {
+
+    /// The hidden slots of the invariant expressions
+    private final int[] slots;
+    /// The statement, that is executed after the results were removed
+    private final StatementNode statement;
+
+    /**
+     * Constructor of the InvariantScopeNode
+     *
+     * @param slots     The hidden slots of the invariant expressions
+     * @param statement The statement, that is executed after the results were removed
+     */
+    public InvariantScopeNode(int[] slots, StatementNode statement) {
+        super(statement.getContext());
+        this.slots = slots;
+        this.statement = statement;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        StackFrame frame = executionContext.getState().getFrame();
+        for (int slot : this.slots) {
+            frame.remove(slot);
+        }
+        this.statement.execute(executionContext);
+    }
+
+    /**
+     * Creates a copy of the node with another statement
+     *
+     * @param statement The statement of the copy
+     * @return The copy of the node
+     */
+    public InvariantScopeNode withStatement(StatementNode statement) {
+        return new InvariantScopeNode(this.slots, statement);
+    }
+
+    /**
+     * Gets the hidden slots of the invariant expressions
+     *
+     * @return The slots
+     */
+    public int[] getSlots() {
+        return this.slots;
+    }
+
+    /**
+     * Gets the statement, that is executed after the results were removed
+     *
+     * @return The statement
+     */
+    public StatementNode getStatement() {
+        return this.statement;
+    }
+}
@@ -0,0 +1,153 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file LabeledBlockNode.java
+ * @brief A block that can be the target of a goto statement.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.interpreter.FrameLayout;
+
+/**
+ * @brief A block that can be the target of a goto statement.
+ */
+public class LabeledBlockNode extends StatementNode {
+
+    /// The label of the block
+    private final String label;
+    /// Whether the label is a numerical label, meaning it has to be a whole number
+    private final boolean numerical;
+    /// The labeled block
+    private final BlockNode block;
+    /// The layout of the stack frame the block is executed in
+    private final FrameLayout layout;
+    /// The statements that enclose the block, starting with the body of the unit and ending with the block itself
+    private StatementNode[] resumePath;
+    /// The position of the next statement of the resume path in each of the enclosing statements
+    private int[] resumeIndices;
+
+    /**
+     * Constructor of the LabeledBlockNode
+     *
+     * @param label     The label of the block
+     * @param numerical Whether the label is a numerical label
+     * @param block     The labeled block
+     * @param layout    The layout of the stack frame the block is executed in
+     * @param context   The parsing context of the labeled block
+     */
+    public LabeledBlockNode(String label, boolean numerical, BlockNode block, FrameLayout layout,
+                            JBasicParser.LabeledBlockContext context) {
+        super(context);
+        this.label = label;
+        this.numerical = numerical;
+        this.block = block;
+        this.layout = layout;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        this.block.execute(executionContext);
+    }
+
+    @Override
+    public void resume(ExecutionContext executionContext, LabeledBlockNode target, int depth) {
+        if (target == this) {
+            this.execute(executionContext);
+            return;
+        }
+        this.block.resume(executionContext, target, depth + 1);
+    }
+
+    /**
+     * Continues the execution at the labeled block and executes the rest of the unit, that contains the block
+     *
+     * @param executionContext The runtime environment of the program
+     */
+    public void resumeExecution(ExecutionContext executionContext) {
+        this.resumePath[0].resume(executionContext, this, 0);
+    }
+
+    /**
+     * Sets the statements that enclose the block
+     *
+     * @param resumePath    The enclosing statements, starting with the body of the unit and ending with the block
+     * @param resumeIndices The position of the next statement of the path in each of the enclosing statements
+     */
+    public void setResumePath(StatementNode[] resumePath, int[] resumeIndices) {
+        this.resumePath = resumePath;
+        this.resumeIndices = resumeIndices;
+    }
+
+    /**
+     * Gets the position of the next statement of the resume path in an enclosing statement
+     *
+     * @param depth The position of the enclosing statement in the resume path
+     * @return The index of the block, branch or case, that contains the labeled block
+     */
+    public int getResumeIndex(int depth) {
+        return this.resumeIndices[depth];
+    }
+
+    /**
+     * Determines whether the label is a numerical label, meaning it has to be a whole number
+     *
+     * @return true if the label is numerical, false if not
+     */
+    public boolean isNumerical() {
+        return this.numerical;
+    }
+
+    /**
+     * Gets the label of the block
+     *
+     * @return The label
+     */
+    public String getLabel() {
+        return this.label;
+    }
+
+    /**
+     * Gets the labeled block
+     *
+     * @return The labeled block
+     */
+    public BlockNode getBlock() {
+        return this.block;
+    }
+
+    /**
+     * Gets the layout of the stack frame the block is executed in
+     *
+     * @return The frame layout
+     */
+    public FrameLayout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Creates the same labeled block with another block
+     *
+     * @param block The new block
+     * @return The labeled block with the new block
+     */
+    public LabeledBlockNode withBlock(BlockNode block) {
+        return new LabeledBlockNode(this.label, this.numerical, block, this.layout,
+                (JBasicParser.LabeledBlockContext) this.context);
+    }
+}
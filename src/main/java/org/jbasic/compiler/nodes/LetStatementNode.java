@@ -0,0 +1,222 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file LetStatementNode.java
+ * @brief Assigns a value to a variable.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.core.guard.VariableSafeguard;
+import org.jbasic.interpreter.StackFrame;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Assigns a value to a variable.
+ * @details Assignments like 'i = i + 1' or 'total = total + value' update a variable, that holds a number, in place.
+ * The number is read from the stack frame and the result is stored as a number, without creating values for the
+ * operands and the result. Variables with the suffix '%' are updated as 64 bit integers, as long as the operand is a
+ * whole number and the result does not overflow.
+ */
+public class LetStatementNode extends StatementNode {
+
+    /// The name of the variable, including the suffix
+    private final String variableName;
+    /// The slot of the variable in the stack frame
+    private final int slot;
+    /// The suffix of the variable or null if the variable has no suffix
+    private final JBasicParser.VariableSuffixContext suffix;
+    /// The assigned expression
+    private final ExpressionNode value;
+    /// The assigned expression, if it updates the variable in place, null otherwise
+    private final BinaryExpressionNode accumulation;
+    /// Whether the variable has the suffix '%', whole numbers are stored as integers
+    private final boolean integral;
+
+    /**
+     * Constructor of the LetStatementNode
+     *
+     * @param variableName The name of the variable, including the suffix
+     * @param slot         The slot of the variable in the stack frame
+     * @param suffix       The suffix of the variable or null if the variable has no suffix
+     * @param value        The assigned expression
+     * @param context      The parsing context of the let statement
+     */
+    public LetStatementNode(String variableName, int slot, JBasicParser.VariableSuffixContext suffix,
+                            ExpressionNode value, ParserRuleContext context) {
+        super(context);
+        this.variableName = variableName;
+        this.slot = slot;
+        this.suffix = suffix;
+        this.value = value;
+        this.accumulation = accumulation(slot, suffix, value);
+        this.integral = variableName.endsWith("%");
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        if (this.accumulation != null) {
+            this.accumulate(executionContext);
+        }
+        else {
+            this.assign(executionContext);
+        }
+    }
+
+    /**
+     * Updates a variable, that holds a number, in place. Other variables are assigned like every other expression,
+     * so undefined variables and strings are reported and concatenated as usual
+     *
+     * @param executionContext The runtime environment of the program
+     */
+    private void accumulate(ExecutionContext executionContext) {
+        StackFrame frame = executionContext.getState().getFrame();
+        if (this.integral) {
+            this.accumulateInteger(executionContext, frame);
+            return;
+        }
+        if (!frame.holdsNumber(this.slot) || frame.holdsInteger(this.slot)) {
+            this.assign(executionContext);
+            return;
+        }
+        double current = frame.getNumber(this.slot, this.context);
+        BinaryOperator operator = this.accumulation.getOperator();
+        if (this.accumulation instanceof NumericBinaryExpressionNode) {
+            frame.setNumber(this.slot, operator.applyToNumbers(current,
+                    this.accumulation.getRight().evaluateNumber(executionContext)));
+            return;
+        }
+        JBasicValue operand = this.accumulation.getRight().evaluate(executionContext);
+        if (operand.isANumericalValue()) {
+            frame.setNumber(this.slot, operator.applyToNumbers(current, operand.underlyingNumber()));
+        }
+        else {
+            this.store(executionContext, this.accumulation.combine(new JBasicValue(current), operand));
+        }
+    }
+
+    /**
+     * Updates a variable with the suffix '%', that holds an integer, in place. The result is computed like the binary
+     * expression computes it, if the operand has a fractional part or the integer operation overflows
+     *
+     * @param executionContext The runtime environment of the program
+     * @param frame            The stack frame of the variable
+     */
+    private void accumulateInteger(ExecutionContext executionContext, StackFrame frame) {
+        if (!frame.holdsInteger(this.slot)) {
+            this.assign(executionContext);
+            return;
+        }
+        long current = frame.getInteger(this.slot, this.context);
+        JBasicValue operand = this.accumulation.getRight().evaluate(executionContext);
+        JBasicValue integer = operand.asInteger();
+        if (integer.isAnIntegerValue()) {
+            try {
+                frame.setInteger(this.slot, this.accumulation.getOperator().applyToIntegers(current,
+                        integer.underlyingInteger()));
+                return;
+            }
+            catch (ArithmeticException overflow) {
+                // The result is promoted to a floating point number by the binary expression
+            }
+        }
+        this.store(executionContext, this.accumulation.combine(JBasicValue.ofInteger(current), operand));
+    }
+
+    /**
+     * Determines whether an assignment updates the variable in place
+     *
+     * @param slot   The slot of the variable
+     * @param suffix The suffix of the variable or null
+     * @param value  The assigned expression
+     * @return The assigned expression if it updates the variable in place, null otherwise
+     */
+    private static BinaryExpressionNode accumulation(int slot, JBasicParser.VariableSuffixContext suffix,
+                                                     ExpressionNode value) {
+        if (!(value instanceof BinaryExpressionNode) || suffix != null && "$".equals(suffix.getText())) {
+            return null;
+        }
+        BinaryExpressionNode binary = (BinaryExpressionNode) value;
+        boolean sameVariable = binary.getLeft() instanceof VariableNode &&
+                ((VariableNode) binary.getLeft()).getSlot() == slot;
+        return sameVariable && binary.accumulates() ? binary : null;
+    }
+
+    /**
+     * Evaluates the expression and assigns the result to the variable
+     *
+     * @param executionContext The runtime environment of the program
+     * @return The assigned value
+     */
+    public JBasicValue assign(ExecutionContext executionContext) {
+        return this.store(executionContext, this.value.evaluate(executionContext));
+    }
+
+    /**
+     * Assigns an evaluated value to the variable
+     *
+     * @param executionContext The runtime environment of the program
+     * @param result           The evaluated value
+     * @return The assigned value
+     */
+    public JBasicValue store(ExecutionContext executionContext, JBasicValue result) {
+        if (this.suffix != null) {
+            VariableSafeguard.guaranteeVariableSuffixIsNotViolated(result, this.suffix);
+        }
+        JBasicValue stored = this.integral ? result.asInteger() : result;
+        executionContext.getState().getFrame().set(this.slot, stored);
+        return stored;
+    }
+
+    /**
+     * Gets the name of the variable
+     *
+     * @return The name of the variable, including the suffix
+     */
+    public String getVariableName() {
+        return this.variableName;
+    }
+
+    /**
+     * Gets the suffix of the variable
+     *
+     * @return The suffix of the variable or null if the variable has no suffix
+     */
+    public JBasicParser.VariableSuffixContext getSuffix() {
+        return this.suffix;
+    }
+
+    /**
+     * Gets the assigned expression
+     *
+     * @return The assigned expression
+     */
+    public ExpressionNode getValue() {
+        return this.value;
+    }
+
+    /**
+     * Gets the slot of the variable in the stack frame
+     *
+     * @return The slot of the variable
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+}
@@ -0,0 +1,60 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file LiteralNode.java
+ * @brief A numerical or string literal.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief A numerical or string literal.
+ * @details The literal is decoded once when the program is compiled.
+ */
+public class LiteralNode extends ExpressionNode {
+
+    /// The decoded value of the literal
+    private final JBasicValue value;
+
+    /**
+     * Constructor of the LiteralNode
+     *
+     * @param value   The decoded value of the literal
+     * @param context The parsing context of the literal
+     */
+    public LiteralNode(JBasicValue value, ParserRuleContext context) {
+        super(context);
+        this.value = value;
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        return this.value;
+    }
+
+    /**
+     * Gets the decoded value of the literal
+     *
+     * @return The value of the literal
+     */
+    public JBasicValue getValue() {
+        return this.value;
+    }
+}
@@ -0,0 +1,101 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file NumericBinaryExpressionNode.java
+ * @brief Applies a binary operator to two operands, whose types were inferred to be numerical.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Applies a binary operator to two operands, whose types were inferred to be numerical.
+ * @details The operands are evaluated as numbers, so the operation needs no type checks and nested numerical
+ * expressions do not allocate intermediate values.
+ */
+public class NumericBinaryExpressionNode extends BinaryExpressionNode {
+
+    /**
+     * Constructor of the NumericBinaryExpressionNode
+     *
+     * @param operator The operator of the expression
+     * @param left     The left operand, its type has to be numerical
+     * @param right    The right operand, its type has to be numerical
+     * @param context  The parsing context of the binary expression
+     */
+    public NumericBinaryExpressionNode(BinaryOperator operator, ExpressionNode left, ExpressionNode right,
+                                       ParserRuleContext context) {
+        this(operator, left, right, false, context);
+    }
+
+    /**
+     * Constructor of the NumericBinaryExpressionNode
+     *
+     * @param operator     The operator of the expression
+     * @param left         The left operand, its type has to be numerical
+     * @param right        The right operand, its type has to be numerical
+     * @param shortCircuit Whether the right operand of an 'and' or 'or' expression is only evaluated, if the left
+     *                     operand does not decide the result
+     * @param context      The parsing context of the binary expression
+     */
+    public NumericBinaryExpressionNode(BinaryOperator operator, ExpressionNode left, ExpressionNode right,
+                                       boolean shortCircuit, ParserRuleContext context) {
+        super(operator, left, right, shortCircuit, context);
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        double result = this.evaluateNumber(executionContext);
+        if (this.getOperator().producesTruthValue()) {
+            return result != 0 ? JBasicValue.TrueValue : JBasicValue.FalseValue;
+        }
+        return new JBasicValue(result);
+    }
+
+    @Override
+    public double evaluateNumber(ExecutionContext executionContext) {
+        double left = this.getLeft().evaluateNumber(executionContext);
+        if (this.isShortCircuit()) {
+            if ((left != 0) == (this.getOperator() == BinaryOperator.OR)) {
+                return left != 0 ? 1 : 0;
+            }
+            return this.getRight().evaluateNumber(executionContext) != 0 ? 1 : 0;
+        }
+        return this.getOperator().applyToNumbers(left, this.getRight().evaluateNumber(executionContext));
+    }
+
+    @Override
+    public boolean evaluateCondition(ExecutionContext executionContext, ParserRuleContext context) {
+        return this.evaluateNumber(executionContext) != 0;
+    }
+
+    @Override
+    JBasicValue combine(JBasicValue leftValue, JBasicValue rightValue) {
+        double result = this.getOperator().applyToNumbers(leftValue.underlyingNumber(), rightValue.underlyingNumber());
+        if (this.getOperator().producesTruthValue()) {
+            return result != 0 ? JBasicValue.TrueValue : JBasicValue.FalseValue;
+        }
+        return new JBasicValue(result);
+    }
+
+    @Override
+    public BinaryExpressionNode withOperands(ExpressionNode left, ExpressionNode right) {
+        return new NumericBinaryExpressionNode(this.getOperator(), left, right, this.isShortCircuit(), this.context);
+    }
+}
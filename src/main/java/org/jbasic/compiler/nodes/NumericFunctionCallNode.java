@@ -0,0 +1,62 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file NumericFunctionCallNode.java
+ * @brief Calls a numerical builtin function with an argument, whose type was inferred to be numerical.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Calls a numerical builtin function with an argument, whose type was inferred to be numerical.
+ * @details The function has to accept exactly one number and the call has exactly one argument, so neither the
+ * arity nor the type of the argument are checked.
+ */
+public class NumericFunctionCallNode extends FunctionCallNode {
+
+    /**
+     * Constructor of the NumericFunctionCallNode
+     *
+     * @param function         The called numerical function
+     * @param arguments        The only argument of the call, its type has to be numerical
+     * @param argumentsContext The parsing context of the arguments
+     * @param context          The parsing context of the function call
+     */
+    public NumericFunctionCallNode(BuiltinFunction function, ExpressionNode[] arguments,
+                                   JBasicParser.FunctionCallArgsContext argumentsContext, ParserRuleContext context) {
+        super(function, arguments, argumentsContext, context);
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        return new JBasicValue(this.evaluateNumber(executionContext));
+    }
+
+    @Override
+    public double evaluateNumber(ExecutionContext executionContext) {
+        return this.getFunction().applyNumericalFunction(this.getArguments()[0].evaluateNumber(executionContext));
+    }
+
+    @Override
+    public FunctionCallNode withArguments(ExpressionNode[] arguments) {
+        return new NumericFunctionCallNode(this.getFunction(), arguments, this.getArgumentsContext(), this.context);
+    }
+}
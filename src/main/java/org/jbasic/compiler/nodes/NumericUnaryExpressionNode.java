@@ -0,0 +1,61 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file NumericUnaryExpressionNode.java
+ * @brief Applies a unary operator to an operand, whose type was inferred to be numerical.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Applies a unary operator to an operand, whose type was inferred to be numerical.
+ */
+public class NumericUnaryExpressionNode extends UnaryExpressionNode {
+
+    /**
+     * Constructor of the NumericUnaryExpressionNode
+     *
+     * @param operator The operator of the expression
+     * @param operand  The operand, its type has to be numerical
+     * @param context  The parsing context of the unary expression
+     */
+    public NumericUnaryExpressionNode(UnaryOperator operator, ExpressionNode operand, ParserRuleContext context) {
+        super(operator, operand, context);
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        double result = this.evaluateNumber(executionContext);
+        if (this.getOperator().producesTruthValue()) {
+            return result != 0 ? JBasicValue.TrueValue : JBasicValue.FalseValue;
+        }
+        return new JBasicValue(result);
+    }
+
+    @Override
+    public double evaluateNumber(ExecutionContext executionContext) {
+        return this.getOperator().applyToNumber(this.getOperand().evaluateNumber(executionContext));
+    }
+
+    @Override
+    public UnaryExpressionNode withOperand(ExpressionNode operand) {
+        return new NumericUnaryExpressionNode(this.getOperator(), operand, this.context);
+    }
+}
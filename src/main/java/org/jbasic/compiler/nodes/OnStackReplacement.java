@@ -0,0 +1,57 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file OnStackReplacement.java
+ * @brief Continues a running loop of the node tree in a faster tier.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.jbasic.compiler.ExecutionContext;
+
+/**
+ * @brief Continues a running loop of the node tree in a faster tier.
+ * @details The loop counts its iterations before each of them is executed. Once the loop became hot, the remaining
+ * iterations are executed by the faster tier with the variables that are stored in the current stack frame, so the
+ * loop switches over while it is running.
+ */
+public interface OnStackReplacement {
+
+    /**
+     * Counts an iteration of the loop, before the iteration is executed
+     *
+     * @param executionContext The runtime environment of the program
+     * @return true if the remaining iterations are executed by the faster tier, false if not
+     */
+    boolean countIteration(ExecutionContext executionContext);
+
+    /**
+     * Executes the remaining iterations of a for loop in the faster tier
+     *
+     * @param executionContext The runtime environment of the program
+     * @param counter          The value of the counter in the next iteration
+     * @param endValue         The last value of the counter
+     * @param stepValue        The value the counter is incremented by
+     */
+    void continueLoop(ExecutionContext executionContext, double counter, double endValue, double stepValue);
+
+    /**
+     * Executes the remaining iterations of a while, repeat or do loop in the faster tier
+     *
+     * @param executionContext The runtime environment of the program
+     */
+    void continueLoop(ExecutionContext executionContext);
+}
@@ -0,0 +1,72 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file PrintStatementNode.java
+ * @brief Prints the values of expressions.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Prints the values of expressions.
+ */
+public class PrintStatementNode extends StatementNode {
+
+    /// The printed expressions
+    private final ExpressionNode[] expressions;
+
+    /**
+     * Constructor of the PrintStatementNode
+     *
+     * @param expressions The printed expressions
+     * @param context     The parsing context of the print statement
+     */
+    public PrintStatementNode(ExpressionNode[] expressions, ParserRuleContext context) {
+        super(context);
+        this.expressions = expressions;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        for (ExpressionNode expression : this.expressions) {
+            this.print(executionContext, expression.evaluate(executionContext));
+        }
+    }
+
+    /**
+     * Prints an evaluated expression followed by a line break
+     *
+     * @param executionContext The runtime environment of the program
+     * @param value            The evaluated expression
+     */
+    public void print(ExecutionContext executionContext, JBasicValue value) {
+        value.printValue(executionContext.getPrintStream(), this.expressions.length != 1);
+        executionContext.getPrintStream().println();
+    }
+
+    /**
+     * Gets the printed expressions
+     *
+     * @return The printed expressions
+     */
+    public ExpressionNode[] getExpressions() {
+        return this.expressions;
+    }
+}
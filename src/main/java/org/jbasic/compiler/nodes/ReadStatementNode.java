@@ -0,0 +1,103 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ReadStatementNode.java
+ * @brief Reads values from the data segment into variables.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.core.guard.VariableSafeguard;
+import org.jbasic.interpreter.JBasicInterpreterState;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Reads values from the data segment into variables.
+ */
+public class ReadStatementNode extends StatementNode {
+
+    /// The names of the variables the values are assigned to
+    private final String[] variableNames;
+    /// The slots of the variables in the stack frame
+    private final int[] slots;
+    /// The suffixes of the variables, an element is null if the variable has no suffix
+    private final JBasicParser.VariableSuffixContext[] suffixes;
+
+    /**
+     * Constructor of the ReadStatementNode
+     *
+     * @param variableNames The names of the variables the values are assigned to
+     * @param slots         The slots of the variables in the stack frame
+     * @param suffixes      The suffixes of the variables
+     * @param context       The parsing context of the read statement
+     */
+    public ReadStatementNode(String[] variableNames, int[] slots, JBasicParser.VariableSuffixContext[] suffixes,
+                             ParserRuleContext context) {
+        super(context);
+        this.variableNames = variableNames;
+        this.slots = slots;
+        this.suffixes = suffixes;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        JBasicInterpreterState state = executionContext.getState();
+        for (int i = 0; i < this.variableNames.length; i++) {
+            if (state.getDataSegment().isEmpty()) {
+                executionContext.getPrintStream().println("!OUT OF DATA in line " + this.context.getStart().getLine());
+                break;
+            }
+            JBasicValue value = state.getDataSegment().remove();
+            state.getPoppedDataStack().add(value);
+            if (this.suffixes[i] != null) {
+                VariableSafeguard.guaranteeVariableSuffixIsNotViolated(value, this.suffixes[i]);
+            }
+            state.getFrame().set(this.slots[i], this.variableNames[i].endsWith("%") ? value.asInteger() : value);
+        }
+    }
+
+    /**
+     * Gets the names of the variables the data is assigned to
+     *
+     * @return The names of the variables
+     */
+    public String[] getVariableNames() {
+        return this.variableNames;
+    }
+
+    /**
+     * Gets the slots of the variables in the stack frame
+     *
+     * @return The slots of the variables
+     */
+    public int[] getSlots() {
+        return this.slots;
+    }
+
+    /**
+     * Creates a read statement, that assigns the data to other variables
+     *
+     * @param variableNames The names of the variables
+     * @param slots         The slots of the variables in the stack frame
+     * @return The read statement with the other variables
+     */
+    public ReadStatementNode withVariables(String[] variableNames, int[] slots) {
+        return new ReadStatementNode(variableNames, slots, this.suffixes, this.context);
+    }
+}
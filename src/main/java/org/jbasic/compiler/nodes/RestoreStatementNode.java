@@ -0,0 +1,79 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file RestoreStatementNode.java
+ * @brief Moves values that were read back into the data segment.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.core.guard.NumericalValueSafeguard;
+import org.jbasic.core.guard.ValueTypeSafeguard;
+import org.jbasic.interpreter.JBasicInterpreterState;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Moves values that were read back into the data segment.
+ */
+public class RestoreStatementNode extends StatementNode {
+
+    /// The index the data segment is restored to
+    private final ExpressionNode index;
+
+    /**
+     * Constructor of the RestoreStatementNode
+     *
+     * @param index   The index the data segment is restored to
+     * @param context The parsing context of the restore statement
+     */
+    public RestoreStatementNode(ExpressionNode index, ParserRuleContext context) {
+        super(context);
+        this.index = index;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        this.restore(executionContext, this.index.evaluate(executionContext));
+    }
+
+    /**
+     * Restores the data segment to the specified index
+     *
+     * @param executionContext The runtime environment of the program
+     * @param specifiedIndex   The evaluated index
+     */
+    public void restore(ExecutionContext executionContext, JBasicValue specifiedIndex) {
+        ValueTypeSafeguard.guaranteeValueIsNumerical("Index in a restore statement invalid", specifiedIndex,
+                this.index.getContext());
+        NumericalValueSafeguard.guaranteeIsWhole("Index in a restore statement invalid",
+                specifiedIndex.underlyingNumber(), this.index.getContext());
+        JBasicInterpreterState state = executionContext.getState();
+        for (int i = 0; i <= state.getPoppedDataStack().size() - (specifiedIndex.underlyingNumber() - 1); i++) {
+            state.getDataSegment().offerFirst(state.getPoppedDataStack().pop());
+        }
+    }
+
+    /**
+     * Gets the index the data segment is restored to
+     *
+     * @return The index expression
+     */
+    public ExpressionNode getIndex() {
+        return this.index;
+    }
+}
@@ -0,0 +1,69 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file StatementNode.java
+ * @brief Base class of all executable statement nodes.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+
+/**
+ * @brief Base class of all executable statement nodes.
+ */
+public abstract class StatementNode {
+
+    /// The parsing context of the statement, used to report errors
+    protected final ParserRuleContext context;
+
+    /**
+     * Constructor of the StatementNode
+     *
+     * @param context The parsing context of the statement
+     */
+    protected StatementNode(ParserRuleContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Executes the statement
+     *
+     * @param executionContext The runtime environment of the program
+     */
+    public abstract void execute(ExecutionContext executionContext);
+
+    /**
+     * Continues the execution at a label inside of the statement, after a 'goto' statement jumped to the label
+     *
+     * @param executionContext The runtime environment of the program
+     * @param target           The labeled block the execution continues at
+     * @param depth            The position of the statement in the resume path of the labeled block
+     */
+    public void resume(ExecutionContext executionContext, LabeledBlockNode target, int depth) {
+        throw new IllegalStateException("Can not continue the execution inside of " + this.getClass().getSimpleName());
+    }
+
+    /**
+     * Gets the parsing context of the statement
+     *
+     * @return The parsing context of the statement
+     */
+    public ParserRuleContext getContext() {
+        return this.context;
+    }
+}
@@ -0,0 +1,63 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file StatementValueNode.java
+ * @brief Executes a statement that is used as a condition.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Executes a statement that is used as a condition.
+ * @details The grammar uses a statement as the condition of an 'else if'. An assignment results in the assigned value,
+ * every other statement in a falsy value.
+ */
+public class StatementValueNode extends ExpressionNode {
+
+    /// The statement used as condition
+    private final StatementNode statement;
+
+    /**
+     * Constructor of the StatementValueNode
+     *
+     * @param statement The statement used as condition
+     */
+    public StatementValueNode(StatementNode statement) {
+        super(statement.getContext());
+        this.statement = statement;
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        if (this.statement instanceof LetStatementNode) {
+            return ((LetStatementNode) this.statement).assign(executionContext);
+        }
+        this.statement.execute(executionContext);
+        return JBasicValue.FalseValue;
+    }
+
+    /**
+     * Gets the statement used as condition
+     *
+     * @return The statement
+     */
+    public StatementNode getStatement() {
+        return this.statement;
+    }
+}
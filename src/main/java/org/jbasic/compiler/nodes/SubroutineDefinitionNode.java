@@ -0,0 +1,125 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file SubroutineDefinitionNode.java
+ * @brief Defines a subroutine.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.interpreter.FrameLayout;
+
+/**
+ * @brief Defines a subroutine.
+ * @details The node itself is the subroutine, it is collected when the program is compiled, so executing the definition
+ * has no effect.
+ */
+public class SubroutineDefinitionNode extends StatementNode {
+
+    /// The name of the subroutine
+    private final String name;
+    /// The names of the parameters of the subroutine
+    private final String[] parameters;
+    /// The slots of the parameters in the stack frame of an invocation
+    private final int[] parameterSlots;
+    /// The body of the subroutine
+    private final StatementNode body;
+    /// The layout of the stack frame of an invocation, the parameters occupy the first slots
+    private final FrameLayout layout;
+
+    /**
+     * Constructor of the SubroutineDefinitionNode
+     *
+     * @param name           The name of the subroutine
+     * @param parameters     The names of the parameters of the subroutine
+     * @param parameterSlots The slots of the parameters in the stack frame of an invocation
+     * @param body           The body of the subroutine
+     * @param layout         The layout of the stack frame of an invocation
+     * @param context        The parsing context of the subroutine definition
+     */
+    public SubroutineDefinitionNode(String name, String[] parameters, int[] parameterSlots, StatementNode body,
+                                    FrameLayout layout, JBasicParser.SubroutineDefinitionStatementContext context) {
+        super(context);
+        this.name = name;
+        this.parameters = parameters;
+        this.parameterSlots = parameterSlots;
+        this.body = body;
+        this.layout = layout;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        // The subroutine was defined when the program was compiled
+    }
+
+    /**
+     * Gets the name of the subroutine
+     *
+     * @return The name of the subroutine
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the names of the parameters
+     *
+     * @return The names of the parameters
+     */
+    public String[] getParameters() {
+        return this.parameters;
+    }
+
+    /**
+     * Gets the slots of the parameters
+     *
+     * @return The slots of the parameters in the stack frame of an invocation
+     */
+    public int[] getParameterSlots() {
+        return this.parameterSlots;
+    }
+
+    /**
+     * Gets the body of the subroutine
+     *
+     * @return The body of the subroutine
+     */
+    public StatementNode getBody() {
+        return this.body;
+    }
+
+    /**
+     * Creates a definition of the same subroutine with another body
+     *
+     * @param body The new body of the subroutine
+     * @return The subroutine definition with the new body
+     */
+    public SubroutineDefinitionNode withBody(StatementNode body) {
+        return new SubroutineDefinitionNode(this.name, this.parameters, this.parameterSlots, body, this.layout,
+                (JBasicParser.SubroutineDefinitionStatementContext) this.context);
+    }
+
+    /**
+     * Gets the layout of the stack frame of an invocation
+     *
+     * @return The frame layout
+     */
+    public FrameLayout getLayout() {
+        return this.layout;
+    }
+}
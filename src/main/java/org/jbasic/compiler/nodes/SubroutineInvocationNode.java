@@ -0,0 +1,218 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file SubroutineInvocationNode.java
+ * @brief Invokes a subroutine.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.error.subroutine.CallStackOverflowException;
+import org.jbasic.error.subroutine.SubroutineArityException;
+import org.jbasic.error.subroutine.SubroutineNotDefinedException;
+import org.jbasic.interpreter.JBasicInterpreterState;
+import org.jbasic.interpreter.StackFrame;
+import org.jbasic.languageModels.JBasicValue;
+import org.jbasic.programFlow.Completion;
+
+/**
+ * @brief Invokes a subroutine.
+ * @details An invocation in tail position does not invoke the subroutine itself, it signals the call to the
+ * invocation of the enclosing subroutine, that reuses its frame for the called subroutine.
+ */
+public class SubroutineInvocationNode extends StatementNode {
+
+    /// The name of the invoked subroutine
+    private final String name;
+    /// The arguments of the invocation
+    private final ExpressionNode[] arguments;
+    /// Whether the invocation is the last statement, that is executed by the enclosing subroutine
+    private final boolean tailCall;
+    /// The runtime environment, that the cached subroutine was looked up in
+    private ExecutionContext cachedContext;
+    /// The subroutine, that was looked up when the invocation was executed for the first time
+    private SubroutineDefinitionNode cachedSubroutine;
+
+    /**
+     * Constructor of the SubroutineInvocationNode
+     *
+     * @param name      The name of the invoked subroutine
+     * @param arguments The arguments of the invocation
+     * @param context   The parsing context of the subroutine invocation
+     */
+    public SubroutineInvocationNode(String name, ExpressionNode[] arguments, ParserRuleContext context) {
+        this(name, arguments, false, context);
+    }
+
+    /**
+     * Constructor of the SubroutineInvocationNode
+     *
+     * @param name      The name of the invoked subroutine
+     * @param arguments The arguments of the invocation
+     * @param tailCall  Whether the invocation is the last statement, that is executed by the enclosing subroutine
+     * @param context   The parsing context of the subroutine invocation
+     */
+    private SubroutineInvocationNode(String name, ExpressionNode[] arguments, boolean tailCall,
+                                     ParserRuleContext context) {
+        super(context);
+        this.name = name;
+        this.arguments = arguments;
+        this.tailCall = tailCall;
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext)
+            throws SubroutineNotDefinedException, SubroutineArityException, CallStackOverflowException {
+        JBasicValue[] values = new JBasicValue[this.arguments.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.arguments[i].evaluate(executionContext);
+        }
+        this.call(executionContext, values);
+    }
+
+    /**
+     * Calls the subroutine with evaluated arguments, a call in tail position is left to the enclosing invocation
+     *
+     * @param executionContext The runtime environment of the program
+     * @param values           The evaluated arguments
+     */
+    public void call(ExecutionContext executionContext, JBasicValue[] values)
+            throws SubroutineNotDefinedException, SubroutineArityException, CallStackOverflowException {
+        if (this.tailCall) {
+            executionContext.tailCall(this, values);
+        }
+        else {
+            this.invoke(executionContext, values);
+        }
+    }
+
+    /**
+     * Invokes the subroutine with evaluated arguments
+     *
+     * @param executionContext The runtime environment of the program
+     * @param values           The evaluated arguments
+     */
+    public void invoke(ExecutionContext executionContext, JBasicValue[] values)
+            throws SubroutineNotDefinedException, SubroutineArityException, CallStackOverflowException {
+        SubroutineDefinitionNode subroutine = this.lookup(executionContext, values);
+        JBasicInterpreterState state = executionContext.getState();
+        StackFrame frame = state.acquireFrame(subroutine.getLayout(), this.context);
+        StackFrame callerFrame = state.enterFrame(frame);
+        try {
+            while (true) {
+                int[] parameterSlots = subroutine.getParameterSlots();
+                for (int i = 0; i < values.length; i++) {
+                    frame.bind(parameterSlots[i], values[i]);
+                }
+                subroutine.getBody().execute(executionContext);
+                executionContext.dispatchJumps(subroutine.getLayout());
+                if (executionContext.getCompletion() != Completion.TAIL_CALL) {
+                    break;
+                }
+                // The subroutine ended with a call, the called subroutine is executed with the same frame
+                SubroutineInvocationNode tailCall = executionContext.getTailCall();
+                values = executionContext.getTailCallArguments();
+                executionContext.resume();
+                subroutine = tailCall.lookup(executionContext, values);
+                state.reuseFrame(frame, subroutine.getLayout());
+            }
+        }
+        catch (StackOverflowError error) {
+            throw state.stackOverflow(this.context);
+        }
+        finally {
+            state.restoreFrame(callerFrame);
+            state.releaseFrame(frame);
+        }
+    }
+
+    /**
+     * Looks up the invoked subroutine, subroutines can not be redefined so the subroutine is only looked up once for
+     * every runtime environment. Unlike the call sites of the visitor, the invocation is bound when it is executed for
+     * the first time, because the same compiled program can be executed with several runtime environments
+     *
+     * @param executionContext The runtime environment of the program
+     * @param values           The evaluated arguments
+     * @return The definition of the subroutine
+     */
+    private SubroutineDefinitionNode lookup(ExecutionContext executionContext, JBasicValue[] values)
+            throws SubroutineNotDefinedException, SubroutineArityException {
+        if (this.cachedContext == executionContext) {
+            return this.cachedSubroutine;
+        }
+        SubroutineDefinitionNode subroutine = executionContext.getSubroutines().get(this.name);
+        if (subroutine == null) {
+            throw new SubroutineNotDefinedException("A subroutine with the name" + this.name +
+                    " is not defined in the script", this.context);
+        }
+        String[] parameters = subroutine.getParameters();
+        if (parameters.length != values.length) {
+            throw new SubroutineArityException("Subroutine expects " + parameters.length +
+                    " arguments but was called with " + values.length, this.context);
+        }
+        this.cachedContext = executionContext;
+        this.cachedSubroutine = subroutine;
+        return subroutine;
+    }
+
+    /**
+     * Gets the name of the invoked subroutine
+     *
+     * @return The name of the subroutine
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the arguments of the invocation
+     *
+     * @return The argument expressions
+     */
+    public ExpressionNode[] getArguments() {
+        return this.arguments;
+    }
+
+    /**
+     * Determines whether the invocation is the last statement, that is executed by the enclosing subroutine
+     *
+     * @return true if the invocation is in tail position, false if not
+     */
+    public boolean isTailCall() {
+        return this.tailCall;
+    }
+
+    /**
+     * Creates an invocation of the same subroutine with other arguments
+     *
+     * @param arguments The new arguments
+     * @return The invocation with the new arguments
+     */
+    public SubroutineInvocationNode withArguments(ExpressionNode[] arguments) {
+        return new SubroutineInvocationNode(this.name, arguments, this.tailCall, this.context);
+    }
+
+    /**
+     * Creates the same invocation in tail position
+     *
+     * @return The invocation, that reuses the frame of the enclosing subroutine
+     */
+    public SubroutineInvocationNode asTailCall() {
+        return new SubroutineInvocationNode(this.name, this.arguments, true, this.context);
+    }
+}
@@ -0,0 +1,128 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file SwitchStatementNode.java
+ * @brief Executes the cases that match a value.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+import org.jbasic.programFlow.Completion;
+import org.jbasic.programFlow.SwitchTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @brief Executes the cases that match a value.
+ * @details The cases are found with a table, that maps the values of the cases to their positions.
+ */
+public class SwitchStatementNode extends StatementNode {
+
+    /// The expression that is matched against the cases
+    private final ExpressionNode value;
+    /// The decoded literals of the cases
+    private final JBasicValue[] caseValues;
+    /// The blocks of the cases
+    private final BlockNode[] caseBlocks;
+    /// Maps the values of the cases to the positions of the cases
+    private final SwitchTable<Integer> table;
+
+    /**
+     * Constructor of the SwitchStatementNode
+     *
+     * @param value      The expression that is matched against the cases
+     * @param caseValues The decoded literals of the cases
+     * @param caseBlocks The blocks of the cases
+     * @param context    The parsing context of the switch statement
+     */
+    public SwitchStatementNode(ExpressionNode value, JBasicValue[] caseValues, BlockNode[] caseBlocks,
+                               ParserRuleContext context) {
+        super(context);
+        this.value = value;
+        this.caseValues = caseValues;
+        this.caseBlocks = caseBlocks;
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < caseValues.length; i++) {
+            positions.add(i);
+        }
+        this.table = new SwitchTable<>(caseValues, positions);
+    }
+
+    @Override
+    public void execute(ExecutionContext executionContext) {
+        List<Integer> matching = this.matchingCases(this.value.evaluate(executionContext));
+        for (int i = 0; i < matching.size(); i++) {
+            executionContext.executeBody(this.caseBlocks[matching.get(i)]);
+            if (executionContext.getCompletion() == Completion.EXIT) {
+                executionContext.resume();
+                break;
+            }
+            if (executionContext.getCompletion() != Completion.NORMAL) {
+                // Continues the enclosing loop or jumps to a label
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the cases, that match a value
+     *
+     * @param value The value of the switch statement
+     * @return The positions of the matching cases in their order
+     */
+    public List<Integer> matchingCases(JBasicValue value) {
+        return this.table.lookup(value);
+    }
+
+    @Override
+    public void resume(ExecutionContext executionContext, LabeledBlockNode target, int depth) {
+        executionContext.resumeBody(this.caseBlocks[target.getResumeIndex(depth)], target, depth + 1);
+        if (executionContext.getCompletion() == Completion.EXIT) {
+            executionContext.resume();
+        }
+    }
+
+    /**
+     * Gets the expression that is matched against the cases
+     *
+     * @return The matched expression
+     */
+    public ExpressionNode getValue() {
+        return this.value;
+    }
+
+    /**
+     * Gets the decoded literals of the cases
+     *
+     * @return The values of the cases
+     */
+    public JBasicValue[] getCaseValues() {
+        return this.caseValues;
+    }
+
+    /**
+     * Gets the blocks of the cases
+     *
+     * @return The blocks of the cases
+     */
+    public BlockNode[] getCaseBlocks() {
+        return this.caseBlocks;
+    }
+}
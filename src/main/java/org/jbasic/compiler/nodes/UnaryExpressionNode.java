@@ -0,0 +1,82 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file UnaryExpressionNode.java
+ * @brief Applies a unary operator to an operand.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Applies a unary operator to an operand.
+ */
+public class UnaryExpressionNode extends ExpressionNode {
+
+    /// The operator of the expression
+    private final UnaryOperator operator;
+    /// The operand of the expression
+    private final ExpressionNode operand;
+
+    /**
+     * Constructor of the UnaryExpressionNode
+     *
+     * @param operator The operator of the expression
+     * @param operand  The operand of the expression
+     * @param context  The parsing context of the unary expression
+     */
+    public UnaryExpressionNode(UnaryOperator operator, ExpressionNode operand, ParserRuleContext context) {
+        super(context);
+        this.operator = operator;
+        this.operand = operand;
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        return this.operator.apply(this.operand.evaluate(executionContext), this.context);
+    }
+
+    /**
+     * Gets the operator of the expression
+     *
+     * @return The operator
+     */
+    public UnaryOperator getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * Gets the operand of the expression
+     *
+     * @return The operand
+     */
+    public ExpressionNode getOperand() {
+        return this.operand;
+    }
+
+    /**
+     * Creates the same expression with another operand
+     *
+     * @param operand The new operand
+     * @return The expression with the new operand
+     */
+    public UnaryExpressionNode withOperand(ExpressionNode operand) {
+        return new UnaryExpressionNode(this.operator, operand, this.context);
+    }
+}
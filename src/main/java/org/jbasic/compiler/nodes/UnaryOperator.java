@@ -0,0 +1,87 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file UnaryOperator.java
+ * @brief The unary operators of JBASIC.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief The unary operators of JBASIC.
+ */
+public enum UnaryOperator {
+
+    /// Arithmetic negation '-'
+    NEGATE {
+        @Override
+        public JBasicValue apply(JBasicValue operand, ParserRuleContext context) {
+            return operand.negate((JBasicParser.NegateExpressionContext) context);
+        }
+
+        @Override
+        public double applyToNumber(double operand) {
+            return -operand;
+        }
+    },
+    /// Logical inversion 'NOT'
+    NOT {
+        @Override
+        public JBasicValue apply(JBasicValue operand, ParserRuleContext context) {
+            return operand.not(context);
+        }
+
+        @Override
+        public double applyToNumber(double operand) {
+            return operand == 0 ? 1 : 0;
+        }
+
+        @Override
+        public boolean producesTruthValue() {
+            return true;
+        }
+    };
+
+    /**
+     * Applies the operator to a value
+     *
+     * @param operand The operand of the operator
+     * @param context The parsing context of the unary expression
+     * @return The result of the operation
+     */
+    public abstract JBasicValue apply(JBasicValue operand, ParserRuleContext context);
+
+    /**
+     * Applies the operator to a number, the type of the operand has to be numerical
+     *
+     * @param operand The operand
+     * @return The result of the operation
+     */
+    public abstract double applyToNumber(double operand);
+
+    /**
+     * Determines whether the result of the operator is a truth value
+     *
+     * @return true if the operator is a logical operator, false if not
+     */
+    public boolean producesTruthValue() {
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file VariableNode.java
+ * @brief Reads the value of a variable.
+ */
+
+package org.jbasic.compiler.nodes;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief Reads the value of a variable.
+ */
+public class VariableNode extends ExpressionNode {
+
+    /// The name of the variable, including the suffix
+    private final String name;
+    /// The slot of the variable in the stack frame
+    private final int slot;
+
+    /**
+     * Constructor of the VariableNode
+     *
+     * @param name    The name of the variable, including the suffix
+     * @param slot    The slot of the variable in the stack frame
+     * @param context The parsing context of the variable identifier
+     */
+    public VariableNode(String name, int slot, ParserRuleContext context) {
+        super(context);
+        this.name = name;
+        this.slot = slot;
+    }
+
+    @Override
+    public JBasicValue evaluate(ExecutionContext executionContext) {
+        return executionContext.getState().getFrame().get(this.slot, this.context);
+    }
+
+    @Override
+    public double evaluateNumber(ExecutionContext executionContext) {
+        return executionContext.getState().getFrame().getNumber(this.slot, this.context);
+    }
+
+    /**
+     * Gets the name of the variable
+     *
+     * @return The name of the variable
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the slot of the variable in the stack frame
+     *
+     * @return The slot of the variable
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+}
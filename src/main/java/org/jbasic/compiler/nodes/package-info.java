@@ -0,0 +1,5 @@
+/**
+ * @brief Contains the executable nodes the compiler translates a JBASIC program into
+ */
+
+package org.jbasic.compiler.nodes;
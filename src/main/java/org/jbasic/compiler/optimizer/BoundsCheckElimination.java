@@ -0,0 +1,305 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file BoundsCheckElimination.java
+ * @brief Removes the checks of array indices, that are proven to be in range by the for loops that enclose them.
+ */
+
+package org.jbasic.compiler.optimizer;
+
+import org.jbasic.compiler.nodes.ArrayDeclarationNode;
+import org.jbasic.compiler.nodes.ArrayGetAtIndexNode;
+import org.jbasic.compiler.nodes.ArraySetAtIndexNode;
+import org.jbasic.compiler.nodes.BinaryExpressionNode;
+import org.jbasic.compiler.nodes.BinaryOperator;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.ForStatementNode;
+import org.jbasic.compiler.nodes.LiteralNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.VariableNode;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @brief Removes the checks of array indices, that are proven to be in range by the for loops that enclose them.
+ * @details An array is known if it is declared exactly once in its unit, with literal sizes, and is neither a
+ * parameter nor assigned otherwise. The counter of a for loop, whose start, end and step are whole literals and whose
+ * counter is not assigned in the body, takes a known range of values in the body. An access of a known array, whose
+ * indices are all counters of enclosing loops, optionally plus or minus a whole literal, and whose ranges lie within
+ * the declared sizes, neither checks the array nor its indices. Units with labels are not changed, a 'goto' statement
+ * could enter a loop with a counter outside of its range.
+ */
+public class BoundsCheckElimination extends NodeTransformer {
+
+    /// The sizes of the known arrays of the unit, that is currently transformed
+    private Map<String, int[]> arrays = new HashMap<>();
+    /// The least and the greatest value of the counters of the enclosing loops, whose range is known
+    private Map<String, double[]> counters = new HashMap<>();
+
+    /**
+     * Removes the checks of the array accesses of a program, whose indices are proven to be in range
+     *
+     * @param main The top level block of the program
+     * @return The transformed program
+     */
+    public StatementNode transformProgram(StatementNode main) {
+        return this.transformUnit(main, new String[0]);
+    }
+
+    @Override
+    protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+        Map<String, int[]> enclosingArrays = this.arrays;
+        Map<String, double[]> enclosingCounters = this.counters;
+        this.counters = new HashMap<>();
+        StatementNode body = this.transformUnit(definition.getBody(), definition.getParameters());
+        this.arrays = enclosingArrays;
+        this.counters = enclosingCounters;
+        return definition.withBody(body);
+    }
+
+    @Override
+    protected StatementNode transformFor(ForStatementNode loop) {
+        ExpressionNode start = this.transform(loop.getStart());
+        ExpressionNode end = this.transform(loop.getEnd());
+        ExpressionNode step = loop.getStep() != null ? this.transform(loop.getStep()) : null;
+        double[] range = this.range(loop, start, end, step);
+        BlockNode body;
+        if (range == null) {
+            body = this.transformBlock(loop.getBody());
+        }
+        else {
+            this.counters.put(loop.getVariableName(), range);
+            body = this.transformBlock(loop.getBody());
+            this.counters.remove(loop.getVariableName());
+        }
+        return new ForStatementNode(loop.getVariableName(), loop.getSlot(), start, end, step, body,
+                loop.getContext());
+    }
+
+    @Override
+    protected StatementNode transformArraySetAtIndex(ArraySetAtIndexNode assignment) {
+        ArraySetAtIndexNode transformed = (ArraySetAtIndexNode) super.transformArraySetAtIndex(assignment);
+        return this.inRange(transformed.getArrayName(), transformed.getIndices())
+                ? transformed.withIndicesInRange()
+                : transformed;
+    }
+
+    @Override
+    protected ExpressionNode transformArrayGetAtIndex(ArrayGetAtIndexNode access) {
+        ArrayGetAtIndexNode transformed = (ArrayGetAtIndexNode) super.transformArrayGetAtIndex(access);
+        return this.inRange(transformed.getArrayName(), transformed.getIndices())
+                ? transformed.withIndicesInRange()
+                : transformed;
+    }
+
+    /**
+     * Transforms the main program or the body of a subroutine
+     *
+     * @param body       The body of the unit
+     * @param parameters The parameters of the unit
+     * @return The transformed body
+     */
+    private StatementNode transformUnit(StatementNode body, String[] parameters) {
+        this.arrays = new HashMap<>();
+        if (!LoopInvariantCodeMotion.containsLabels(body)) {
+            this.collectArrays(body, parameters);
+        }
+        return this.transform(body);
+    }
+
+    /**
+     * Collects the arrays of a unit, that are declared exactly once with literal sizes and never reassigned
+     *
+     * @param body       The body of the unit
+     * @param parameters The parameters of the unit
+     */
+    private void collectArrays(StatementNode body, String[] parameters) {
+        DeclarationCollector collector = new DeclarationCollector();
+        collector.transform(body);
+        Set<String> assignedVariables = LoopInvariantCodeMotion.assignedVariables(body);
+        assignedVariables.addAll(Arrays.asList(parameters));
+        collector.declarations.forEach((name, declarations) -> {
+            int[] sizes = declarations.size() == 1 ? literalSizes(declarations.get(0)) : null;
+            if (sizes != null && !assignedVariables.contains(name)) {
+                this.arrays.put(name, sizes);
+            }
+        });
+    }
+
+    /**
+     * Determines the range of the counter of a for loop
+     *
+     * @param loop  The loop
+     * @param start The start value of the loop
+     * @param end   The end value of the loop
+     * @param step  The step of the loop, null if the loop has no step
+     * @return The least and the greatest value of the counter, null if the range is not known
+     */
+    private double[] range(ForStatementNode loop, ExpressionNode start, ExpressionNode end, ExpressionNode step) {
+        Double startValue = wholeNumber(start);
+        Double endValue = literalNumber(end);
+        Double stepValue = step != null ? wholeNumber(step) : Double.valueOf(1);
+        if (startValue == null || endValue == null || stepValue == null || stepValue == 0
+                || LoopInvariantCodeMotion.assignedVariables(loop.getBody()).contains(loop.getVariableName())) {
+            return null;
+        }
+        double iterations = Math.floor((endValue - startValue) / stepValue);
+        if (iterations < 0) {
+            // The body is never executed
+            return null;
+        }
+        double last = startValue + iterations * stepValue;
+        return new double[] {Math.min(startValue, last), Math.max(startValue, last)};
+    }
+
+    /**
+     * Determines whether the indices of an access of an array are proven to be in range
+     *
+     * @param arrayName The name of the array
+     * @param indices   The index expressions
+     * @return true if every index is in range of the declared size, false if not
+     */
+    private boolean inRange(String arrayName, ExpressionNode[] indices) {
+        int[] sizes = this.arrays.get(arrayName);
+        if (sizes == null || sizes.length != indices.length) {
+            return false;
+        }
+        for (int i = 0; i < indices.length; i++) {
+            double[] range = this.indexRange(indices[i]);
+            if (range == null || range[0] < 1 || range[1] > sizes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines the range of an index, that is a counter of an enclosing loop plus or minus a whole literal
+     *
+     * @param index The index expression
+     * @return The least and the greatest value of the index, null if the range is not known
+     */
+    private double[] indexRange(ExpressionNode index) {
+        if (index instanceof VariableNode) {
+            return this.counters.get(((VariableNode) index).getName());
+        }
+        if (!(index instanceof BinaryExpressionNode)) {
+            return null;
+        }
+        BinaryExpressionNode binary = (BinaryExpressionNode) index;
+        if (binary.getOperator() == BinaryOperator.ADD && binary.getLeft() instanceof LiteralNode) {
+            return this.shiftedRange(binary.getRight(), wholeNumber(binary.getLeft()));
+        }
+        if (binary.getOperator() == BinaryOperator.ADD) {
+            return this.shiftedRange(binary.getLeft(), wholeNumber(binary.getRight()));
+        }
+        if (binary.getOperator() == BinaryOperator.SUBTRACT) {
+            Double offset = wholeNumber(binary.getRight());
+            return this.shiftedRange(binary.getLeft(), offset != null ? -offset : null);
+        }
+        return null;
+    }
+
+    /**
+     * Determines the range of a counter of an enclosing loop, that is shifted by a whole literal
+     *
+     * @param counter The expression, that reads the counter
+     * @param offset  The number the counter is shifted by, null if it is not a whole literal
+     * @return The least and the greatest value of the shifted counter, null if the range is not known
+     */
+    private double[] shiftedRange(ExpressionNode counter, Double offset) {
+        double[] range = counter instanceof VariableNode ? this.counters.get(((VariableNode) counter).getName()) : null;
+        if (range == null || offset == null) {
+            return null;
+        }
+        return new double[] {range[0] + offset, range[1] + offset};
+    }
+
+    /**
+     * Determines the sizes of an array declaration, whose sizes are all valid literals
+     *
+     * @param declaration The array declaration
+     * @return The sizes, null if a size is not a valid literal
+     */
+    private static int[] literalSizes(ArrayDeclarationNode declaration) {
+        ExpressionNode[] dimensions = declaration.getDimensions();
+        if (dimensions.length == 0 || dimensions.length > 3) {
+            return null;
+        }
+        int[] sizes = new int[dimensions.length];
+        for (int i = 0; i < sizes.length; i++) {
+            Double size = wholeNumber(dimensions[i]);
+            if (size == null || size < 1 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            sizes[i] = size.intValue();
+        }
+        return sizes;
+    }
+
+    /**
+     * Gets the number of a numerical literal
+     *
+     * @param expression The expression
+     * @return The number, null if the expression is not a numerical literal
+     */
+    private static Double literalNumber(ExpressionNode expression) {
+        if (!(expression instanceof LiteralNode)) {
+            return null;
+        }
+        JBasicValue value = ((LiteralNode) expression).getValue();
+        return value.isANumericalValue() ? value.underlyingNumber() : null;
+    }
+
+    /**
+     * Gets the number of a numerical literal without digits after the point
+     *
+     * @param expression The expression
+     * @return The number, null if the expression is not a whole numerical literal
+     */
+    private static Double wholeNumber(ExpressionNode expression) {
+        Double number = literalNumber(expression);
+        return number != null && number == Math.rint(number) && Math.abs(number) < Integer.MAX_VALUE ? number : null;
+    }
+
+    /**
+     * @brief Collects the array declarations of a unit, the bodies of nested subroutines are units of their own.
+     */
+    private static class DeclarationCollector extends NodeTransformer {
+
+        /// The declarations of every array
+        private final Map<String, List<ArrayDeclarationNode>> declarations = new HashMap<>();
+
+        @Override
+        protected StatementNode transformArrayDeclaration(ArrayDeclarationNode declaration) {
+            this.declarations.computeIfAbsent(declaration.getArrayName(), name -> new ArrayList<>()).add(declaration);
+            return declaration;
+        }
+
+        @Override
+        protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+            return definition;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file CommonSubexpressionElimination.java
+ * @brief Computes expressions, that are repeated in a sequence of statements without control flow, only once.
+ */
+
+package org.jbasic.compiler.optimizer;
+
+import org.jbasic.compiler.nodes.ArrayDeclarationNode;
+import org.jbasic.compiler.nodes.ArrayGetAtIndexNode;
+import org.jbasic.compiler.nodes.ArraySetAtIndexNode;
+import org.jbasic.compiler.nodes.BinaryExpressionNode;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.FunctionCallNode;
+import org.jbasic.compiler.nodes.InvariantExpressionNode;
+import org.jbasic.compiler.nodes.InvariantScopeNode;
+import org.jbasic.compiler.nodes.LetStatementNode;
+import org.jbasic.compiler.nodes.LiteralNode;
+import org.jbasic.compiler.nodes.PrintStatementNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.SubroutineInvocationNode;
+import org.jbasic.compiler.nodes.UnaryExpressionNode;
+import org.jbasic.compiler.nodes.VariableNode;
+import org.jbasic.interpreter.FrameLayout;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @brief Computes expressions, that are repeated in a sequence of statements without control flow, only once.
+ * @details A sequence consists of the consecutive let, print, array and call statements of a block. Two expressions
+ * of a sequence are equal if they have the same structure and no variable or array they read is assigned between
+ * them. Every array assignment and subroutine invocation changes all arrays, because arrays are passed by reference.
+ * The largest equal expressions, that occur at least twice and are expensive enough, are replaced by
+ * InvariantExpressionNodes that share a hidden slot of the stack frame, and the first statement of the sequence is
+ * wrapped in an InvariantScopeNode. The first occurrence, that is evaluated, computes the result, so operands that are
+ * skipped by short-circuit evaluation and errors behave exactly like without the optimization.
+ */
+public class CommonSubexpressionElimination extends NodeTransformer {
+
+    /// The least cost of an expression, that is computed once, cheaper expressions are faster to compute again
+    private static final int MINIMUM_COST = 3;
+    /// The cost of a function call or an array access, operators cost 1
+    private static final int CALL_COST = 5;
+
+    /// The layout of the stack frame of the unit, that is currently transformed, the hidden slots are added to it
+    private FrameLayout layout;
+
+    /**
+     * Constructor of the CommonSubexpressionElimination
+     *
+     * @param layout The layout of the stack frame of the main program
+     */
+    public CommonSubexpressionElimination(FrameLayout layout) {
+        this.layout = layout;
+    }
+
+    @Override
+    protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+        FrameLayout enclosingLayout = this.layout;
+        this.layout = definition.getLayout();
+        StatementNode transformed = super.transformSubroutineDefinition(definition);
+        this.layout = enclosingLayout;
+        return transformed;
+    }
+
+    @Override
+    protected BlockNode transformBlock(BlockNode block) {
+        StatementNode[] statements = super.transformBlock(block).getStatements().clone();
+        int start = 0;
+        for (int i = 0; i <= statements.length; i++) {
+            if (i == statements.length || !isStraightLine(statements[i])) {
+                this.eliminate(statements, start, i);
+                start = i + 1;
+            }
+        }
+        return new BlockNode(statements, block.getContext());
+    }
+
+    /**
+     * Replaces the repeated expressions of a sequence of statements
+     *
+     * @param statements The statements of the block, the sequence is replaced in place
+     * @param start      The position of the first statement of the sequence
+     * @param end        The position after the last statement of the sequence
+     */
+    private void eliminate(StatementNode[] statements, int start, int end) {
+        if (end - start == 0) {
+            return;
+        }
+        Sequence sequence = new Sequence();
+        for (int i = start; i < end; i++) {
+            sequence.statement(statements[i]);
+        }
+        Map<ExpressionNode, Integer> replaced = new IdentityHashMap<>();
+        int[] slots = sequence.select(replaced);
+        if (slots.length == 0) {
+            return;
+        }
+        Replacement replacement = new Replacement(replaced);
+        for (int i = start; i < end; i++) {
+            statements[i] = replacement.transform(statements[i]);
+        }
+        statements[start] = new InvariantScopeNode(slots, statements[start]);
+    }
+
+    /**
+     * Determines whether a statement can be part of a sequence
+     *
+     * @param statement The statement
+     * @return true if the statement neither contains control flow nor assigns variables by input, false if not
+     */
+    private static boolean isStraightLine(StatementNode statement) {
+        return statement instanceof LetStatementNode || statement instanceof PrintStatementNode ||
+                statement instanceof ArraySetAtIndexNode || statement instanceof ArrayDeclarationNode ||
+                statement instanceof SubroutineInvocationNode;
+    }
+
+    /**
+     * Finds the equal expressions of a sequence of statements
+     */
+    private class Sequence {
+
+        /// The number of assignments of every variable so far, expressions with other versions are not equal
+        private final Map<String, Integer> versions = new HashMap<>();
+        /// The number of statements so far, that could have changed the elements of an array
+        private int arrayVersion;
+        /// The expressions that are expensive enough, stored with their structure as key
+        private final Map<String, List<ExpressionNode>> occurrences = new LinkedHashMap<>();
+        /// The cost of every visited expression
+        private final Map<ExpressionNode, Integer> costs = new IdentityHashMap<>();
+        /// The enclosing expression of every visited expression
+        private final Map<ExpressionNode, ExpressionNode> enclosing = new IdentityHashMap<>();
+        /// The expressions, that enclose the expression that is visited
+        private final Deque<ExpressionNode> path = new ArrayDeque<>();
+
+        /**
+         * Visits the expressions of a statement in the order they are evaluated and applies the assignments of the
+         * statement afterwards
+         *
+         * @param statement The statement
+         */
+        void statement(StatementNode statement) {
+            if (statement instanceof LetStatementNode) {
+                LetStatementNode let = (LetStatementNode) statement;
+                this.expression(let.getValue());
+                this.assign(let.getVariableName());
+            }
+            else if (statement instanceof PrintStatementNode) {
+                this.expressions(((PrintStatementNode) statement).getExpressions());
+            }
+            else if (statement instanceof ArraySetAtIndexNode) {
+                ArraySetAtIndexNode assignment = (ArraySetAtIndexNode) statement;
+                this.expressions(assignment.getIndices());
+                this.expression(assignment.getValue());
+                this.arrayVersion++;
+            }
+            else if (statement instanceof ArrayDeclarationNode) {
+                ArrayDeclarationNode declaration = (ArrayDeclarationNode) statement;
+                this.expressions(declaration.getDimensions());
+                this.assign(declaration.getArrayName());
+                this.arrayVersion++;
+            }
+            else if (statement instanceof SubroutineInvocationNode) {
+                this.expressions(((SubroutineInvocationNode) statement).getArguments());
+                this.arrayVersion++;
+            }
+        }
+
+        /**
+         * Selects the expressions, that are computed once, the largest expressions are selected first
+         *
+         * @param replaced Receives the hidden slot of every selected expression
+         * @return The hidden slots of the selected expressions
+         */
+        int[] select(Map<ExpressionNode, Integer> replaced) {
+            List<List<ExpressionNode>> candidates = new ArrayList<>(this.occurrences.values());
+            candidates.sort(Comparator.comparingInt((List<ExpressionNode> equal) -> this.costs.get(equal.get(0)))
+                    .reversed());
+            List<Integer> slots = new ArrayList<>();
+            for (List<ExpressionNode> equal : candidates) {
+                List<ExpressionNode> remaining = new ArrayList<>();
+                for (ExpressionNode expression : equal) {
+                    if (!this.isPartOfReplaced(expression, replaced)) {
+                        remaining.add(expression);
+                    }
+                }
+                if (remaining.size() < 2) {
+                    continue;
+                }
+                // The name can not be used by a variable of the program
+                int slot = CommonSubexpressionElimination.this.layout.resolve(
+                        "#" + CommonSubexpressionElimination.this.layout.size());
+                slots.add(slot);
+                for (ExpressionNode expression : remaining) {
+                    replaced.put(expression, slot);
+                }
+            }
+            return slots.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Determines whether an expression is part of an expression, that is already replaced
+         *
+         * @param expression The expression
+         * @param replaced   The replaced expressions
+         * @return true if an enclosing expression is replaced, false if not
+         */
+        private boolean isPartOfReplaced(ExpressionNode expression, Map<ExpressionNode, Integer> replaced) {
+            ExpressionNode outer = this.enclosing.get(expression);
+            while (outer != null) {
+                if (replaced.containsKey(outer)) {
+                    return true;
+                }
+                outer = this.enclosing.get(outer);
+            }
+            return false;
+        }
+
+        /**
+         * Marks a variable as assigned
+         *
+         * @param name The name of the variable
+         */
+        private void assign(String name) {
+            this.versions.merge(name, 1, Integer::sum);
+        }
+
+        /**
+         * Visits several expressions
+         *
+         * @param expressions The expressions
+         * @return The keys of the expressions, joined by commas, or null if one of them can not be reused
+         */
+        private String expressions(ExpressionNode[] expressions) {
+            StringBuilder keys = new StringBuilder();
+            boolean reusable = true;
+            for (ExpressionNode expression : expressions) {
+                String key = this.expression(expression);
+                reusable &= key != null;
+                keys.append(key).append(',');
+            }
+            return reusable ? keys.toString() : null;
+        }
+
+        /**
+         * Visits an expression and its operands
+         *
+         * @param expression The expression
+         * @return The key that describes the structure of the expression, or null if the result of the expression
+         * can not be reused
+         */
+        private String expression(ExpressionNode expression) {
+            this.enclosing.put(expression, this.path.peek());
+            this.path.push(expression);
+            String key = null;
+            int cost = 0;
+            if (expression instanceof LiteralNode) {
+                JBasicValue value = ((LiteralNode) expression).getValue();
+                if (value.isAnIntegerValue()) {
+                    key = "I" + value.underlyingInteger();
+                }
+                else if (value.isANumericalValue()) {
+                    key = "N" + value.underlyingNumber();
+                }
+                else if (value.isAStringValue()) {
+                    key = "S" + value.underlyingString().length() + ":" + value.underlyingString();
+                }
+            }
+            else if (expression instanceof VariableNode) {
+                String name = ((VariableNode) expression).getName();
+                key = "V" + name + "@" + this.versions.getOrDefault(name, 0);
+            }
+            else if (expression instanceof InvariantExpressionNode) {
+                key = "I" + ((InvariantExpressionNode) expression).getSlot();
+            }
+            else if (expression instanceof UnaryExpressionNode) {
+                UnaryExpressionNode unary = (UnaryExpressionNode) expression;
+                String operand = this.expression(unary.getOperand());
+                key = operand != null ? "U" + unary.getOperator() + "(" + operand + ")" : null;
+                cost = 1 + this.costs.get(unary.getOperand());
+            }
+            else if (expression instanceof BinaryExpressionNode) {
+                BinaryExpressionNode binary = (BinaryExpressionNode) expression;
+                String left = this.expression(binary.getLeft());
+                String right = this.expression(binary.getRight());
+                key = left != null && right != null ?
+                        "B" + binary.getOperator() + (binary.isShortCircuit() ? "?" : "") + "(" + left + "," + right +
+                                ")" : null;
+                cost = 1 + this.costs.get(binary.getLeft()) + this.costs.get(binary.getRight());
+            }
+            else if (expression instanceof FunctionCallNode) {
+                FunctionCallNode call = (FunctionCallNode) expression;
+                String arguments = this.expressions(call.getArguments());
+                key = arguments != null && call.getFunction().isPure() ?
+                        "F" + call.getFunction() + "(" + arguments + ")" : null;
+                cost = CALL_COST + this.sumOfCosts(call.getArguments());
+            }
+            else if (expression instanceof ArrayGetAtIndexNode) {
+                ArrayGetAtIndexNode access = (ArrayGetAtIndexNode) expression;
+                String indices = this.expressions(access.getIndices());
+                String name = access.getArrayName();
+                key = indices != null ? "A" + name + "@" + this.versions.getOrDefault(name, 0) + "#" +
+                        this.arrayVersion + "[" + indices + "]" : null;
+                cost = CALL_COST + this.sumOfCosts(access.getIndices());
+            }
+            this.path.pop();
+            this.costs.put(expression, cost);
+            if (key != null && cost >= MINIMUM_COST) {
+                this.occurrences.computeIfAbsent(key, unused -> new ArrayList<>()).add(expression);
+            }
+            return key;
+        }
+
+        /**
+         * Sums the costs of several visited expressions
+         *
+         * @param expressions The expressions
+         * @return The total cost
+         */
+        private int sumOfCosts(ExpressionNode[] expressions) {
+            int cost = 0;
+            for (ExpressionNode expression : expressions) {
+                cost += this.costs.get(expression);
+            }
+            return cost;
+        }
+    }
+
+    /**
+     * Replaces the selected expressions of a sequence
+     */
+    private static class Replacement extends NodeTransformer {
+
+        /// The hidden slot of every selected expression
+        private final Map<ExpressionNode, Integer> slots;
+
+        /**
+         * Constructor of the Replacement
+         *
+         * @param slots The hidden slot of every selected expression
+         */
+        Replacement(Map<ExpressionNode, Integer> slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public ExpressionNode transform(ExpressionNode expression) {
+            Integer slot = this.slots.get(expression);
+            if (slot != null) {
+                return new InvariantExpressionNode(expression, slot);
+            }
+            return super.transform(expression);
+        }
+    }
+}
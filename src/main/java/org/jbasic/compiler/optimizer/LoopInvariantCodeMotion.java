@@ -0,0 +1,333 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file LoopInvariantCodeMotion.java
+ * @brief Computes the expressions of a loop, whose operands do not change while the loop runs, only once per execution
+ * of the loop.
+ */
+
+package org.jbasic.compiler.optimizer;
+
+import org.jbasic.compiler.nodes.BinaryExpressionNode;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.DoLoopStatementNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.ForStatementNode;
+import org.jbasic.compiler.nodes.FunctionCallNode;
+import org.jbasic.compiler.nodes.IfStatementNode;
+import org.jbasic.compiler.nodes.InputStatementNode;
+import org.jbasic.compiler.nodes.InvariantExpressionNode;
+import org.jbasic.compiler.nodes.InvariantScopeNode;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.LetStatementNode;
+import org.jbasic.compiler.nodes.LiteralNode;
+import org.jbasic.compiler.nodes.ReadStatementNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.SwitchStatementNode;
+import org.jbasic.compiler.nodes.UnaryExpressionNode;
+import org.jbasic.compiler.nodes.VariableNode;
+import org.jbasic.compiler.nodes.WhileStatementNode;
+import org.jbasic.interpreter.FrameLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @brief Computes the expressions of a loop, whose operands do not change while the loop runs, only once per execution
+ * of the loop.
+ * @details An expression is invariant if it only consists of literals, variables that are not assigned anywhere in
+ * the loop, operators and pure builtin functions. The largest invariant expressions of the conditions and bodies of a
+ * loop, that call at least one function, are replaced by InvariantExpressionNodes, which store their result in a
+ * hidden slot of the stack frame, and the loop is wrapped in an InvariantScopeNode, which removes the results before
+ * the loop starts. The expressions of nested loops, that are only invariant in the nested loop, are moved to the nested
+ * loop. Units with labels are not changed, a 'goto' statement could enter the loop without passing the scope.
+ */
+public class LoopInvariantCodeMotion extends NodeTransformer {
+
+    /// The layout of the stack frame of the unit, that is currently transformed, the hidden slots are added to it
+    private FrameLayout layout;
+    /// Whether the invariant expressions of the loops of the current unit are moved
+    private boolean movesInvariants;
+
+    /**
+     * Constructor of the LoopInvariantCodeMotion
+     *
+     * @param layout The layout of the stack frame of the main program
+     */
+    public LoopInvariantCodeMotion(FrameLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Moves the invariant expressions out of the loops of a program
+     *
+     * @param main The top level block of the program
+     * @return The transformed program
+     */
+    public StatementNode transformProgram(StatementNode main) {
+        return this.transformUnit(main);
+    }
+
+    @Override
+    protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+        FrameLayout enclosingLayout = this.layout;
+        this.layout = definition.getLayout();
+        StatementNode body = this.transformUnit(definition.getBody());
+        this.layout = enclosingLayout;
+        return definition.withBody(body);
+    }
+
+    @Override
+    protected StatementNode transformFor(ForStatementNode loop) {
+        if (!this.movesInvariants) {
+            return super.transformFor(loop);
+        }
+        // The start, the end and the step are evaluated once per execution of the loop anyway
+        Motion motion = new Motion(assignedVariables(loop));
+        ForStatementNode moved = new ForStatementNode(loop.getVariableName(), loop.getSlot(), loop.getStart(),
+                loop.getEnd(), loop.getStep(), motion.transformBlock(loop.getBody()), loop.getContext());
+        return motion.scope(super.transformFor(moved));
+    }
+
+    @Override
+    protected StatementNode transformWhile(WhileStatementNode loop) {
+        if (!this.movesInvariants) {
+            return super.transformWhile(loop);
+        }
+        Motion motion = new Motion(assignedVariables(loop));
+        return motion.scope(super.transformWhile((WhileStatementNode) motion.transform(loop)));
+    }
+
+    @Override
+    protected StatementNode transformDoLoop(DoLoopStatementNode loop) {
+        if (!this.movesInvariants) {
+            return super.transformDoLoop(loop);
+        }
+        Motion motion = new Motion(assignedVariables(loop));
+        return motion.scope(super.transformDoLoop((DoLoopStatementNode) motion.transform(loop)));
+    }
+
+    /**
+     * Transforms the main program or the body of a subroutine
+     *
+     * @param body The body of the unit
+     * @return The transformed body
+     */
+    private StatementNode transformUnit(StatementNode body) {
+        boolean enclosingMovesInvariants = this.movesInvariants;
+        this.movesInvariants = !containsLabels(body);
+        StatementNode transformed = this.transform(body);
+        this.movesInvariants = enclosingMovesInvariants;
+        return transformed;
+    }
+
+    /**
+     * Adds a hidden slot, that stores the result of an invariant expression, to the layout of the current unit
+     *
+     * @return The hidden slot
+     */
+    private int allocateSlot() {
+        // The name can not be used by a variable of the program
+        return this.layout.resolve("#" + this.layout.size());
+    }
+
+    /**
+     * Replaces the invariant expressions of a loop, including the ones of nested loops
+     */
+    private class Motion extends NodeTransformer {
+
+        /// The variables that are assigned inside of the loop
+        private final Set<String> assignedVariables;
+        /// The hidden slots of the replaced expressions
+        private final List<Integer> slots = new ArrayList<>();
+
+        /**
+         * Constructor of the Motion
+         *
+         * @param assignedVariables The variables that are assigned inside of the loop
+         */
+        Motion(Set<String> assignedVariables) {
+            this.assignedVariables = assignedVariables;
+        }
+
+        @Override
+        public ExpressionNode transform(ExpressionNode expression) {
+            if (expression instanceof InvariantExpressionNode) {
+                return expression;
+            }
+            if (containsCall(expression) && this.isInvariant(expression)) {
+                int slot = LoopInvariantCodeMotion.this.allocateSlot();
+                this.slots.add(slot);
+                return new InvariantExpressionNode(expression, slot);
+            }
+            return super.transform(expression);
+        }
+
+        @Override
+        protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+            return definition;
+        }
+
+        /**
+         * Wraps the loop in a scope, if expressions of the loop were replaced
+         *
+         * @param loop The transformed loop
+         * @return The scope or the loop itself
+         */
+        StatementNode scope(StatementNode loop) {
+            if (this.slots.isEmpty()) {
+                return loop;
+            }
+            return new InvariantScopeNode(this.slots.stream().mapToInt(Integer::intValue).toArray(), loop);
+        }
+
+        /**
+         * Determines whether an expression does not change while the loop runs
+         *
+         * @param expression The expression
+         * @return true if the expression is invariant, false if not
+         */
+        private boolean isInvariant(ExpressionNode expression) {
+            if (expression instanceof LiteralNode) {
+                return true;
+            }
+            if (expression instanceof VariableNode) {
+                return !this.assignedVariables.contains(((VariableNode) expression).getName());
+            }
+            if (expression instanceof UnaryExpressionNode) {
+                return this.isInvariant(((UnaryExpressionNode) expression).getOperand());
+            }
+            if (expression instanceof BinaryExpressionNode) {
+                BinaryExpressionNode binary = (BinaryExpressionNode) expression;
+                return this.isInvariant(binary.getLeft()) && this.isInvariant(binary.getRight());
+            }
+            if (expression instanceof FunctionCallNode) {
+                FunctionCallNode call = (FunctionCallNode) expression;
+                return call.getFunction().isPure() && Arrays.stream(call.getArguments()).allMatch(this::isInvariant);
+            }
+            // Array elements and assignments used as conditions change inside of the loop
+            return false;
+        }
+    }
+
+    /**
+     * Collects the variables, that are assigned inside of a loop. The transformed statements are discarded
+     */
+    private static class AssignmentCollector extends NodeTransformer {
+
+        /// The assigned variables
+        private final Set<String> assignedVariables = new HashSet<>();
+
+        @Override
+        protected StatementNode transformLet(LetStatementNode let) {
+            this.assignedVariables.add(let.getVariableName());
+            return super.transformLet(let);
+        }
+
+        @Override
+        protected StatementNode transformFor(ForStatementNode loop) {
+            this.assignedVariables.add(loop.getVariableName());
+            return super.transformFor(loop);
+        }
+
+        @Override
+        protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+            return definition;
+        }
+
+        @Override
+        protected StatementNode transformLeaf(StatementNode statement) {
+            if (statement instanceof InputStatementNode) {
+                this.assignedVariables.add(((InputStatementNode) statement).getVariableName());
+            }
+            else if (statement instanceof ReadStatementNode) {
+                this.assignedVariables.addAll(Arrays.asList(((ReadStatementNode) statement).getVariableNames()));
+            }
+            return statement;
+        }
+    }
+
+    /**
+     * Collects the variables, that are assigned inside of a loop or a unit
+     *
+     * @param loop The loop or the body of the unit
+     * @return The names of the assigned variables
+     */
+    static Set<String> assignedVariables(StatementNode loop) {
+        AssignmentCollector collector = new AssignmentCollector();
+        collector.transform(loop);
+        return collector.assignedVariables;
+    }
+
+    /**
+     * Determines whether an expression calls a function, cheaper expressions are not worth storing
+     *
+     * @param expression The expression
+     * @return true if the expression contains a function call, false if not
+     */
+    private static boolean containsCall(ExpressionNode expression) {
+        if (expression instanceof FunctionCallNode) {
+            return true;
+        }
+        if (expression instanceof UnaryExpressionNode) {
+            return containsCall(((UnaryExpressionNode) expression).getOperand());
+        }
+        if (expression instanceof BinaryExpressionNode) {
+            BinaryExpressionNode binary = (BinaryExpressionNode) expression;
+            return containsCall(binary.getLeft()) || containsCall(binary.getRight());
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether a unit contains a label, the bodies of nested subroutines are units of their own
+     *
+     * @param statement A statement of the unit
+     * @return true if the statement contains a label, false if not
+     */
+    static boolean containsLabels(StatementNode statement) {
+        if (statement instanceof LabeledBlockNode) {
+            return true;
+        }
+        if (statement instanceof BlockNode) {
+            return Arrays.stream(((BlockNode) statement).getStatements())
+                    .anyMatch(LoopInvariantCodeMotion::containsLabels);
+        }
+        if (statement instanceof IfStatementNode) {
+            IfStatementNode ifStatement = (IfStatementNode) statement;
+            return Arrays.stream(ifStatement.getBlocks()).anyMatch(LoopInvariantCodeMotion::containsLabels) ||
+                    ifStatement.getElseBlock() != null && containsLabels(ifStatement.getElseBlock());
+        }
+        if (statement instanceof ForStatementNode) {
+            return containsLabels(((ForStatementNode) statement).getBody());
+        }
+        if (statement instanceof WhileStatementNode) {
+            return containsLabels(((WhileStatementNode) statement).getBody());
+        }
+        if (statement instanceof DoLoopStatementNode) {
+            return containsLabels(((DoLoopStatementNode) statement).getBody());
+        }
+        if (statement instanceof SwitchStatementNode) {
+            return Arrays.stream(((SwitchStatementNode) statement).getCaseBlocks())
+                    .anyMatch(LoopInvariantCodeMotion::containsLabels);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,285 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file NodeTransformer.java
+ * @brief Base class of the passes that rewrite the node tree of a compiled program.
+ */
+
+package org.jbasic.compiler.optimizer;
+
+import org.jbasic.compiler.nodes.ArrayDeclarationNode;
+import org.jbasic.compiler.nodes.ArrayGetAtIndexNode;
+import org.jbasic.compiler.nodes.ArraySetAtIndexNode;
+import org.jbasic.compiler.nodes.BinaryExpressionNode;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.DataStatementNode;
+import org.jbasic.compiler.nodes.DoLoopStatementNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.ForStatementNode;
+import org.jbasic.compiler.nodes.FunctionCallNode;
+import org.jbasic.compiler.nodes.IfStatementNode;
+import org.jbasic.compiler.nodes.InlinedSubroutineNode;
+import org.jbasic.compiler.nodes.InvariantExpressionNode;
+import org.jbasic.compiler.nodes.InvariantScopeNode;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.LetStatementNode;
+import org.jbasic.compiler.nodes.PrintStatementNode;
+import org.jbasic.compiler.nodes.RestoreStatementNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.StatementValueNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.SubroutineInvocationNode;
+import org.jbasic.compiler.nodes.SwitchStatementNode;
+import org.jbasic.compiler.nodes.UnaryExpressionNode;
+import org.jbasic.compiler.nodes.WhileStatementNode;
+
+/**
+ * @brief Base class of the passes that rewrite the node tree of a compiled program.
+ * @details The statements are visited in the order they appear in the program. By default every node is rebuilt
+ * with its transformed children, passes override the methods of the nodes they rewrite. Statements and expressions
+ * without children are returned unchanged.
+ */
+public abstract class NodeTransformer {
+
+    /**
+     * Transforms a statement
+     *
+     * @param statement The statement that is transformed
+     * @return The transformed statement
+     */
+    public StatementNode transform(StatementNode statement) {
+        if (statement instanceof BlockNode) {
+            return this.transformBlock((BlockNode) statement);
+        }
+        if (statement instanceof LetStatementNode) {
+            return this.transformLet((LetStatementNode) statement);
+        }
+        if (statement instanceof PrintStatementNode) {
+            return this.transformPrint((PrintStatementNode) statement);
+        }
+        if (statement instanceof IfStatementNode) {
+            return this.transformIf((IfStatementNode) statement);
+        }
+        if (statement instanceof ForStatementNode) {
+            return this.transformFor((ForStatementNode) statement);
+        }
+        if (statement instanceof WhileStatementNode) {
+            return this.transformWhile((WhileStatementNode) statement);
+        }
+        if (statement instanceof DoLoopStatementNode) {
+            return this.transformDoLoop((DoLoopStatementNode) statement);
+        }
+        if (statement instanceof SwitchStatementNode) {
+            return this.transformSwitch((SwitchStatementNode) statement);
+        }
+        if (statement instanceof LabeledBlockNode) {
+            return this.transformLabeledBlock((LabeledBlockNode) statement);
+        }
+        if (statement instanceof ArrayDeclarationNode) {
+            return this.transformArrayDeclaration((ArrayDeclarationNode) statement);
+        }
+        if (statement instanceof ArraySetAtIndexNode) {
+            return this.transformArraySetAtIndex((ArraySetAtIndexNode) statement);
+        }
+        if (statement instanceof DataStatementNode) {
+            DataStatementNode data = (DataStatementNode) statement;
+            return new DataStatementNode(this.transformAll(data.getExpressions()), data.getContext());
+        }
+        if (statement instanceof RestoreStatementNode) {
+            RestoreStatementNode restore = (RestoreStatementNode) statement;
+            return new RestoreStatementNode(this.transform(restore.getIndex()), restore.getContext());
+        }
+        if (statement instanceof SubroutineInvocationNode) {
+            return this.transformSubroutineInvocation((SubroutineInvocationNode) statement);
+        }
+        if (statement instanceof SubroutineDefinitionNode) {
+            return this.transformSubroutineDefinition((SubroutineDefinitionNode) statement);
+        }
+        if (statement instanceof InlinedSubroutineNode) {
+            return this.transformInlinedSubroutine((InlinedSubroutineNode) statement);
+        }
+        if (statement instanceof InvariantScopeNode) {
+            InvariantScopeNode scope = (InvariantScopeNode) statement;
+            return scope.withStatement(this.transform(scope.getStatement()));
+        }
+        return this.transformLeaf(statement);
+    }
+
+    /**
+     * Transforms an expression
+     *
+     * @param expression The expression that is transformed
+     * @return The transformed expression
+     */
+    public ExpressionNode transform(ExpressionNode expression) {
+        if (expression instanceof BinaryExpressionNode) {
+            return this.transformBinary((BinaryExpressionNode) expression);
+        }
+        if (expression instanceof UnaryExpressionNode) {
+            return this.transformUnary((UnaryExpressionNode) expression);
+        }
+        if (expression instanceof FunctionCallNode) {
+            return this.transformFunctionCall((FunctionCallNode) expression);
+        }
+        if (expression instanceof ArrayGetAtIndexNode) {
+            return this.transformArrayGetAtIndex((ArrayGetAtIndexNode) expression);
+        }
+        if (expression instanceof StatementValueNode) {
+            return new StatementValueNode(this.transform(((StatementValueNode) expression).getStatement()));
+        }
+        if (expression instanceof InvariantExpressionNode) {
+            InvariantExpressionNode invariant = (InvariantExpressionNode) expression;
+            return invariant.withExpression(this.transform(invariant.getExpression()));
+        }
+        return this.transformLeaf(expression);
+    }
+
+    /**
+     * Transforms a list of expressions in order
+     *
+     * @param expressions The expressions that are transformed
+     * @return The transformed expressions
+     */
+    protected ExpressionNode[] transformAll(ExpressionNode[] expressions) {
+        ExpressionNode[] transformed = new ExpressionNode[expressions.length];
+        for (int i = 0; i < transformed.length; i++) {
+            transformed[i] = this.transform(expressions[i]);
+        }
+        return transformed;
+    }
+
+    protected BlockNode transformBlock(BlockNode block) {
+        StatementNode[] statements = block.getStatements();
+        StatementNode[] transformed = new StatementNode[statements.length];
+        for (int i = 0; i < transformed.length; i++) {
+            transformed[i] = this.transform(statements[i]);
+        }
+        return new BlockNode(transformed, block.getContext());
+    }
+
+    protected StatementNode transformLet(LetStatementNode let) {
+        return new LetStatementNode(let.getVariableName(), let.getSlot(), let.getSuffix(),
+                this.transform(let.getValue()), let.getContext());
+    }
+
+    protected StatementNode transformPrint(PrintStatementNode print) {
+        return new PrintStatementNode(this.transformAll(print.getExpressions()), print.getContext());
+    }
+
+    protected StatementNode transformIf(IfStatementNode ifStatement) {
+        ExpressionNode[] conditions = ifStatement.getConditions();
+        BlockNode[] blocks = ifStatement.getBlocks();
+        ExpressionNode[] transformedConditions = new ExpressionNode[conditions.length];
+        BlockNode[] transformedBlocks = new BlockNode[blocks.length];
+        for (int i = 0; i < conditions.length; i++) {
+            transformedConditions[i] = this.transform(conditions[i]);
+            transformedBlocks[i] = this.transformBlock(blocks[i]);
+        }
+        BlockNode elseBlock = ifStatement.getElseBlock() != null ? this.transformBlock(ifStatement.getElseBlock()) : null;
+        return new IfStatementNode(transformedConditions, transformedBlocks, elseBlock, ifStatement.getContext());
+    }
+
+    protected StatementNode transformFor(ForStatementNode loop) {
+        ExpressionNode start = this.transform(loop.getStart());
+        ExpressionNode end = this.transform(loop.getEnd());
+        ExpressionNode step = loop.getStep() != null ? this.transform(loop.getStep()) : null;
+        return new ForStatementNode(loop.getVariableName(), loop.getSlot(), start, end, step,
+                this.transformBlock(loop.getBody()), loop.getContext());
+    }
+
+    protected StatementNode transformWhile(WhileStatementNode loop) {
+        return new WhileStatementNode(this.transform(loop.getCondition()), this.transformBlock(loop.getBody()),
+                loop.isUntil(), loop.getContext());
+    }
+
+    protected StatementNode transformDoLoop(DoLoopStatementNode loop) {
+        BlockNode body = this.transformBlock(loop.getBody());
+        return new DoLoopStatementNode(this.transform(loop.getCondition()), body, loop.isUntil(), loop.getContext());
+    }
+
+    protected StatementNode transformSwitch(SwitchStatementNode switchStatement) {
+        ExpressionNode value = this.transform(switchStatement.getValue());
+        BlockNode[] caseBlocks = switchStatement.getCaseBlocks();
+        BlockNode[] transformedBlocks = new BlockNode[caseBlocks.length];
+        for (int i = 0; i < caseBlocks.length; i++) {
+            transformedBlocks[i] = this.transformBlock(caseBlocks[i]);
+        }
+        return new SwitchStatementNode(value, switchStatement.getCaseValues(), transformedBlocks,
+                switchStatement.getContext());
+    }
+
+    protected StatementNode transformLabeledBlock(LabeledBlockNode labeledBlock) {
+        return labeledBlock.withBlock(this.transformBlock(labeledBlock.getBlock()));
+    }
+
+    protected StatementNode transformArrayDeclaration(ArrayDeclarationNode declaration) {
+        return declaration.withDimensions(this.transformAll(declaration.getDimensions()));
+    }
+
+    protected StatementNode transformArraySetAtIndex(ArraySetAtIndexNode assignment) {
+        ExpressionNode[] indices = this.transformAll(assignment.getIndices());
+        return assignment.withOperands(indices, this.transform(assignment.getValue()));
+    }
+
+    protected StatementNode transformSubroutineInvocation(SubroutineInvocationNode invocation) {
+        return invocation.withArguments(this.transformAll(invocation.getArguments()));
+    }
+
+    protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+        return definition.withBody(this.transform(definition.getBody()));
+    }
+
+    protected StatementNode transformInlinedSubroutine(InlinedSubroutineNode inlined) {
+        return inlined.withBody(this.transformBlock(inlined.getBody()));
+    }
+
+    /**
+     * Transforms a statement without children, like 'goto', 'input', 'read', 'continue' or 'exit'
+     *
+     * @param statement The statement that is transformed
+     * @return The statement itself
+     */
+    protected StatementNode transformLeaf(StatementNode statement) {
+        return statement;
+    }
+
+    protected ExpressionNode transformBinary(BinaryExpressionNode binary) {
+        ExpressionNode left = this.transform(binary.getLeft());
+        return binary.withOperands(left, this.transform(binary.getRight()));
+    }
+
+    protected ExpressionNode transformUnary(UnaryExpressionNode unary) {
+        return unary.withOperand(this.transform(unary.getOperand()));
+    }
+
+    protected ExpressionNode transformArrayGetAtIndex(ArrayGetAtIndexNode access) {
+        return access.withIndices(this.transformAll(access.getIndices()));
+    }
+
+    protected ExpressionNode transformFunctionCall(FunctionCallNode call) {
+        return call.withArguments(this.transformAll(call.getArguments()));
+    }
+
+    /**
+     * Transforms an expression without children, like a literal or a variable
+     *
+     * @param expression The expression that is transformed
+     * @return The expression itself
+     */
+    protected ExpressionNode transformLeaf(ExpressionNode expression) {
+        return expression;
+    }
+}
@@ -0,0 +1,79 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file StaticType.java
+ * @brief The type of a value, that is known when a program is compiled.
+ */
+
+package org.jbasic.compiler.optimizer;
+
+import org.jbasic.languageModels.JBasicValue;
+
+/**
+ * @brief The type of a value, that is known when a program is compiled.
+ * @details The types form a lattice, UNDEFINED is the type of a variable that was not assigned yet and UNKNOWN the type
+ * of a value that can have any type.
+ */
+enum StaticType {
+    /// The variable has not been assigned a value yet
+    UNDEFINED,
+    /// The value is always a floating point number
+    NUMBER,
+    /// The value is always a number, that can be an integer of a variable with the suffix '%'
+    INTEGER,
+    /// The value is always a string
+    STRING,
+    /// The value can have any type
+    UNKNOWN;
+
+    /**
+     * Determines the type of a value
+     *
+     * @param value The value
+     * @return The type of the value
+     */
+    static StaticType of(JBasicValue value) {
+        if (value.isANumericalValue()) {
+            return value.isAnIntegerValue() ? INTEGER : NUMBER;
+        }
+        return value.isAStringValue() ? STRING : UNKNOWN;
+    }
+
+    /**
+     * Determines whether values of the type are numbers
+     *
+     * @return true if the type is NUMBER or INTEGER, false if not
+     */
+    boolean isNumerical() {
+        return this == NUMBER || this == INTEGER;
+    }
+
+    /**
+     * Determines the type that includes this and another type
+     *
+     * @param other The other type
+     * @return The least type that includes both types
+     */
+    StaticType join(StaticType other) {
+        if (this == other || other == UNDEFINED) {
+            return this;
+        }
+        if (this == NUMBER && other == INTEGER || this == INTEGER && other == NUMBER) {
+            return INTEGER;
+        }
+        return this == UNDEFINED ? other : UNKNOWN;
+    }
+}
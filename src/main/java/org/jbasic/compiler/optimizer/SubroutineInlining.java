@@ -0,0 +1,350 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file SubroutineInlining.java
+ * @brief Replaces the invocations of small subroutines with the body of the subroutine.
+ */
+
+package org.jbasic.compiler.optimizer;
+
+import org.jbasic.compiler.nodes.ArrayDeclarationNode;
+import org.jbasic.compiler.nodes.ArrayGetAtIndexNode;
+import org.jbasic.compiler.nodes.ArraySetAtIndexNode;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.ContinueStatementNode;
+import org.jbasic.compiler.nodes.DataStatementNode;
+import org.jbasic.compiler.nodes.DoLoopStatementNode;
+import org.jbasic.compiler.nodes.ExitStatementNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.ForStatementNode;
+import org.jbasic.compiler.nodes.GotoStatementNode;
+import org.jbasic.compiler.nodes.InlinedSubroutineNode;
+import org.jbasic.compiler.nodes.InputStatementNode;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.LetStatementNode;
+import org.jbasic.compiler.nodes.ReadStatementNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.SubroutineInvocationNode;
+import org.jbasic.compiler.nodes.VariableNode;
+import org.jbasic.compiler.nodes.WhileStatementNode;
+import org.jbasic.interpreter.FrameLayout;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @brief Replaces the invocations of small subroutines with the body of the subroutine.
+ * @details A subroutine is inlined if its body consists of at most as many statements and expressions as the
+ * threshold allows, it is not recursive and it contains no labels, 'goto' or 'data' statements and no 'exit' or
+ * 'continue' statements outside of a loop. The variables of the subroutine get slots of their own in the frame of the
+ * caller under names, that are unique for every inlined invocation, so the other passes do not confuse them with
+ * the variables of the caller. The InlinedSubroutineNode removes the variables before every execution and the
+ * arguments are assigned to the parameters by let statements, so every execution starts like an invocation with a
+ * new stack frame. Invocations of other subroutines inside of an inlined body are inlined as well. The pass runs
+ * before all other passes, so they optimize the inlined bodies together with the statements of the caller.
+ */
+public class SubroutineInlining extends NodeTransformer {
+
+    /// The largest amount of statements and expressions of a subroutine, that is inlined
+    private final int threshold;
+    /// The subroutines that are inlined, stored with their name as key
+    private final Map<String, SubroutineDefinitionNode> inlined = new HashMap<>();
+    /// The layout of the stack frame of the unit, that is currently transformed, the inlined variables are added to it
+    private FrameLayout layout;
+    /// The amount of invocations, that were inlined, used to give the inlined variables unique names
+    private int inlinedInvocations;
+
+    /**
+     * Constructor of the SubroutineInlining
+     *
+     * @param layout    The layout of the stack frame of the main program
+     * @param threshold The largest amount of statements and expressions of a subroutine, that is inlined
+     */
+    public SubroutineInlining(FrameLayout layout, int threshold) {
+        this.layout = layout;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Inlines the invocations of the small subroutines of a program
+     *
+     * @param main The top level block of the program
+     * @return The transformed program
+     */
+    public StatementNode transformProgram(StatementNode main) {
+        Inspection inspection = new Inspection();
+        inspection.transform(main);
+        for (SubroutineDefinitionNode definition : inspection.definitions.values()) {
+            Inspection body = new Inspection();
+            body.transform(definition.getBody());
+            if (body.size <= this.threshold && body.inlinable
+                    && !isRecursive(definition.getName(), inspection.invocations)) {
+                this.inlined.put(definition.getName(), definition);
+            }
+        }
+        // A subroutine, that is defined several times, is reported as an error
+        this.inlined.keySet().removeAll(inspection.redefinitions);
+        return this.inlined.isEmpty() ? main : this.transform(main);
+    }
+
+    @Override
+    protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+        FrameLayout enclosingLayout = this.layout;
+        this.layout = definition.getLayout();
+        StatementNode body = this.transform(definition.getBody());
+        this.layout = enclosingLayout;
+        return definition.withBody(body);
+    }
+
+    @Override
+    protected StatementNode transformSubroutineInvocation(SubroutineInvocationNode invocation) {
+        SubroutineInvocationNode transformed = (SubroutineInvocationNode) super.transformSubroutineInvocation(invocation);
+        SubroutineDefinitionNode definition = this.inlined.get(transformed.getName());
+        if (definition == null || definition.getParameters().length != transformed.getArguments().length) {
+            // An invocation with the wrong amount of arguments is reported as an error
+            return transformed;
+        }
+        return this.inline(definition, transformed);
+    }
+
+    /**
+     * Replaces an invocation with the body of the invoked subroutine
+     *
+     * @param definition The invoked subroutine
+     * @param invocation The invocation
+     * @return The inlined body
+     */
+    private StatementNode inline(SubroutineDefinitionNode definition, SubroutineInvocationNode invocation) {
+        FrameLayout subroutineLayout = definition.getLayout();
+        String prefix = definition.getName() + "#" + ++this.inlinedInvocations + ".";
+        String[] variableNames = new String[subroutineLayout.size()];
+        int[] slots = new int[variableNames.length];
+        for (int slot = 0; slot < slots.length; slot++) {
+            String name = subroutineLayout.nameOf(slot);
+            variableNames[slot] = prefix + name;
+            slots[slot] = this.layout.resolveInlined(variableNames[slot], name);
+        }
+        List<StatementNode> statements = new ArrayList<>();
+        int[] parameterSlots = definition.getParameterSlots();
+        ExpressionNode[] arguments = invocation.getArguments();
+        for (int i = 0; i < arguments.length; i++) {
+            // Parameters are assigned without checking their suffix, whole numbers bound to a parameter with the
+            // suffix '%' become integers, like the parameters of an invocation
+            statements.add(new LetStatementNode(variableNames[parameterSlots[i]], slots[parameterSlots[i]], null,
+                    arguments[i], invocation.getContext()));
+        }
+        statements.add(new Renaming(variableNames, slots).transform(definition.getBody()));
+        BlockNode body = new BlockNode(statements.toArray(new StatementNode[0]), definition.getBody().getContext());
+        // The invocations of the inlined body are inlined too, which ends because the subroutines are not recursive
+        return new InlinedSubroutineNode(definition.getName(), variableNames, slots, this.transformBlock(body),
+                invocation.getContext());
+    }
+
+    /**
+     * Determines whether a subroutine can invoke itself, directly or through other subroutines
+     *
+     * @param name        The name of the subroutine
+     * @param invocations The names of the subroutines, that each subroutine invokes
+     * @return true if the subroutine is recursive, false if not
+     */
+    private static boolean isRecursive(String name, Map<String, Set<String>> invocations) {
+        Set<String> visited = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(invocations.getOrDefault(name, Set.of()));
+        while (!pending.isEmpty()) {
+            String invoked = pending.pop();
+            if (invoked.equals(name)) {
+                return true;
+            }
+            if (visited.add(invoked)) {
+                pending.addAll(invocations.getOrDefault(invoked, Set.of()));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @brief Collects the subroutines of a program and determines the size of a body and whether it can be inlined.
+     */
+    private static class Inspection extends NodeTransformer {
+
+        /// The subroutines of the program, stored with their name as key
+        private final Map<String, SubroutineDefinitionNode> definitions = new HashMap<>();
+        /// The names of the subroutines, that are defined more than once
+        private final Set<String> redefinitions = new HashSet<>();
+        /// The names of the subroutines, that each subroutine invokes
+        private final Map<String, Set<String>> invocations = new HashMap<>();
+        /// The name of the subroutine, whose body is currently inspected, null for the main program
+        private String subroutine;
+        /// The amount of statements and expressions
+        private int size;
+        /// The amount of loops, that enclose the current statement
+        private int loopDepth;
+        /// Whether the inspected body can be inlined
+        private boolean inlinable = true;
+
+        @Override
+        public StatementNode transform(StatementNode statement) {
+            this.size++;
+            if (statement instanceof LabeledBlockNode || statement instanceof GotoStatementNode
+                    || statement instanceof DataStatementNode) {
+                this.inlinable = false;
+            }
+            else if (statement instanceof ExitStatementNode || statement instanceof ContinueStatementNode) {
+                // Outside of a loop the statement would leave the subroutine
+                this.inlinable &= this.loopDepth > 0;
+            }
+            else if (statement instanceof SubroutineInvocationNode) {
+                this.invocations.computeIfAbsent(this.subroutine, name -> new HashSet<>())
+                        .add(((SubroutineInvocationNode) statement).getName());
+            }
+            return super.transform(statement);
+        }
+
+        @Override
+        public ExpressionNode transform(ExpressionNode expression) {
+            this.size++;
+            return super.transform(expression);
+        }
+
+        @Override
+        protected StatementNode transformFor(ForStatementNode loop) {
+            this.loopDepth++;
+            super.transformFor(loop);
+            this.loopDepth--;
+            return loop;
+        }
+
+        @Override
+        protected StatementNode transformWhile(WhileStatementNode loop) {
+            this.loopDepth++;
+            super.transformWhile(loop);
+            this.loopDepth--;
+            return loop;
+        }
+
+        @Override
+        protected StatementNode transformDoLoop(DoLoopStatementNode loop) {
+            this.loopDepth++;
+            super.transformDoLoop(loop);
+            this.loopDepth--;
+            return loop;
+        }
+
+        @Override
+        protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+            if (this.definitions.putIfAbsent(definition.getName(), definition) != null) {
+                this.redefinitions.add(definition.getName());
+            }
+            // Nested definitions can not be inlined
+            this.inlinable = false;
+            String enclosingSubroutine = this.subroutine;
+            this.subroutine = definition.getName();
+            this.transform(definition.getBody());
+            this.subroutine = enclosingSubroutine;
+            return definition;
+        }
+    }
+
+    /**
+     * @brief Renames the variables of an inlined subroutine to the slots they have in the frame of the caller.
+     */
+    private static class Renaming extends NodeTransformer {
+
+        /// The unique names of the variables, stored at the slot they have in the subroutine
+        private final String[] variableNames;
+        /// The slots of the variables in the frame of the caller, stored at the slot they have in the subroutine
+        private final int[] slots;
+
+        /**
+         * Constructor of the Renaming
+         *
+         * @param variableNames The unique names of the variables, stored at the slot they have in the subroutine
+         * @param slots         The slots in the frame of the caller, stored at the slot they have in the subroutine
+         */
+        Renaming(String[] variableNames, int[] slots) {
+            this.variableNames = variableNames;
+            this.slots = slots;
+        }
+
+        @Override
+        protected StatementNode transformLet(LetStatementNode let) {
+            return new LetStatementNode(this.variableNames[let.getSlot()], this.slots[let.getSlot()], let.getSuffix(),
+                    this.transform(let.getValue()), let.getContext());
+        }
+
+        @Override
+        protected StatementNode transformFor(ForStatementNode loop) {
+            ForStatementNode transformed = (ForStatementNode) super.transformFor(loop);
+            return new ForStatementNode(this.variableNames[loop.getSlot()], this.slots[loop.getSlot()],
+                    transformed.getStart(), transformed.getEnd(), transformed.getStep(), transformed.getBody(),
+                    loop.getContext());
+        }
+
+        @Override
+        protected StatementNode transformArrayDeclaration(ArrayDeclarationNode declaration) {
+            ArrayDeclarationNode transformed = (ArrayDeclarationNode) super.transformArrayDeclaration(declaration);
+            return transformed.withArray(this.variableNames[declaration.getSlot()], this.slots[declaration.getSlot()]);
+        }
+
+        @Override
+        protected StatementNode transformArraySetAtIndex(ArraySetAtIndexNode assignment) {
+            ArraySetAtIndexNode transformed = (ArraySetAtIndexNode) super.transformArraySetAtIndex(assignment);
+            return transformed.withArray(this.variableNames[assignment.getSlot()], this.slots[assignment.getSlot()]);
+        }
+
+        @Override
+        protected StatementNode transformLeaf(StatementNode statement) {
+            if (statement instanceof InputStatementNode && ((InputStatementNode) statement).getSlot() >= 0) {
+                InputStatementNode input = (InputStatementNode) statement;
+                return input.withVariable(this.variableNames[input.getSlot()], this.slots[input.getSlot()]);
+            }
+            if (statement instanceof ReadStatementNode) {
+                int[] readSlots = ((ReadStatementNode) statement).getSlots();
+                String[] names = new String[readSlots.length];
+                int[] slots = new int[readSlots.length];
+                for (int i = 0; i < readSlots.length; i++) {
+                    names[i] = this.variableNames[readSlots[i]];
+                    slots[i] = this.slots[readSlots[i]];
+                }
+                return ((ReadStatementNode) statement).withVariables(names, slots);
+            }
+            return statement;
+        }
+
+        @Override
+        protected ExpressionNode transformArrayGetAtIndex(ArrayGetAtIndexNode access) {
+            ArrayGetAtIndexNode transformed = (ArrayGetAtIndexNode) super.transformArrayGetAtIndex(access);
+            return transformed.withArray(this.variableNames[access.getSlot()], this.slots[access.getSlot()]);
+        }
+
+        @Override
+        protected ExpressionNode transformLeaf(ExpressionNode expression) {
+            if (expression instanceof VariableNode) {
+                VariableNode variable = (VariableNode) expression;
+                return new VariableNode(this.variableNames[variable.getSlot()], this.slots[variable.getSlot()],
+                        variable.getContext());
+            }
+            return expression;
+        }
+    }
+}
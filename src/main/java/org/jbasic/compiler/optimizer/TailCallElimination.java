@@ -0,0 +1,105 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file TailCallElimination.java
+ * @brief Marks the subroutine invocations in tail position, so they reuse the frame of the enclosing subroutine.
+ */
+
+package org.jbasic.compiler.optimizer;
+
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.IfStatementNode;
+import org.jbasic.compiler.nodes.InvariantScopeNode;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.SubroutineInvocationNode;
+
+/**
+ * @brief Marks the subroutine invocations in tail position, so they reuse the frame of the enclosing subroutine.
+ * @details An invocation is in tail position if it is the last statement of a subroutine body or the last statement
+ * of a branch of an if statement in tail position. Subroutines with labels are not changed, a 'goto' statement of the
+ * called subroutine could jump back into the frame, that is reused.
+ */
+public class TailCallElimination extends NodeTransformer {
+
+    /// Whether the subroutine, that is currently transformed, contains a label
+    private boolean containsLabels;
+
+    @Override
+    protected StatementNode transformLabeledBlock(LabeledBlockNode labeledBlock) {
+        this.containsLabels = true;
+        return super.transformLabeledBlock(labeledBlock);
+    }
+
+    @Override
+    protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+        boolean enclosingContainsLabels = this.containsLabels;
+        this.containsLabels = false;
+        StatementNode body = this.transform(definition.getBody());
+        if (!this.containsLabels) {
+            body = tail(body);
+        }
+        this.containsLabels = enclosingContainsLabels;
+        return definition.withBody(body);
+    }
+
+    /**
+     * Marks the invocations of a statement in tail position
+     *
+     * @param statement The statement in tail position
+     * @return The statement with the invocations in tail position marked
+     */
+    private static StatementNode tail(StatementNode statement) {
+        if (statement instanceof SubroutineInvocationNode) {
+            return ((SubroutineInvocationNode) statement).asTailCall();
+        }
+        if (statement instanceof BlockNode) {
+            return tail((BlockNode) statement);
+        }
+        if (statement instanceof InvariantScopeNode) {
+            InvariantScopeNode scope = (InvariantScopeNode) statement;
+            return scope.withStatement(tail(scope.getStatement()));
+        }
+        if (statement instanceof IfStatementNode) {
+            IfStatementNode ifStatement = (IfStatementNode) statement;
+            BlockNode[] blocks = ifStatement.getBlocks();
+            BlockNode[] tailBlocks = new BlockNode[blocks.length];
+            for (int i = 0; i < blocks.length; i++) {
+                tailBlocks[i] = tail(blocks[i]);
+            }
+            BlockNode elseBlock = ifStatement.getElseBlock() != null ? tail(ifStatement.getElseBlock()) : null;
+            return new IfStatementNode(ifStatement.getConditions(), tailBlocks, elseBlock, ifStatement.getContext());
+        }
+        return statement;
+    }
+
+    /**
+     * Marks the invocations of the last statement of a block
+     *
+     * @param block The block in tail position
+     * @return The block with the invocations in tail position marked
+     */
+    private static BlockNode tail(BlockNode block) {
+        StatementNode[] statements = block.getStatements();
+        if (statements.length == 0) {
+            return block;
+        }
+        StatementNode[] tailStatements = statements.clone();
+        tailStatements[tailStatements.length - 1] = tail(statements[statements.length - 1]);
+        return new BlockNode(tailStatements, block.getContext());
+    }
+}
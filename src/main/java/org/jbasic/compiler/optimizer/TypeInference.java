@@ -0,0 +1,437 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file TypeInference.java
+ * @brief Infers the types of variables and expressions and specializes the nodes, whose operands are numbers.
+ */
+
+package org.jbasic.compiler.optimizer;
+
+import org.jbasic.compiler.nodes.ArrayDeclarationNode;
+import org.jbasic.compiler.nodes.ArrayGetAtIndexNode;
+import org.jbasic.compiler.nodes.ArraySetAtIndexNode;
+import org.jbasic.compiler.nodes.BinaryExpressionNode;
+import org.jbasic.compiler.nodes.BinaryOperator;
+import org.jbasic.compiler.nodes.BlockNode;
+import org.jbasic.compiler.nodes.BuiltinFunction;
+import org.jbasic.compiler.nodes.DoLoopStatementNode;
+import org.jbasic.compiler.nodes.ExpressionNode;
+import org.jbasic.compiler.nodes.ForStatementNode;
+import org.jbasic.compiler.nodes.FunctionCallNode;
+import org.jbasic.compiler.nodes.GotoStatementNode;
+import org.jbasic.compiler.nodes.IfStatementNode;
+import org.jbasic.compiler.nodes.InlinedSubroutineNode;
+import org.jbasic.compiler.nodes.InputStatementNode;
+import org.jbasic.compiler.nodes.LabeledBlockNode;
+import org.jbasic.compiler.nodes.LetStatementNode;
+import org.jbasic.compiler.nodes.LiteralNode;
+import org.jbasic.compiler.nodes.NumericBinaryExpressionNode;
+import org.jbasic.compiler.nodes.NumericFunctionCallNode;
+import org.jbasic.compiler.nodes.NumericUnaryExpressionNode;
+import org.jbasic.compiler.nodes.ReadStatementNode;
+import org.jbasic.compiler.nodes.StatementNode;
+import org.jbasic.compiler.nodes.StatementValueNode;
+import org.jbasic.compiler.nodes.SubroutineDefinitionNode;
+import org.jbasic.compiler.nodes.SwitchStatementNode;
+import org.jbasic.compiler.nodes.UnaryExpressionNode;
+import org.jbasic.compiler.nodes.UnaryOperator;
+import org.jbasic.compiler.nodes.VariableNode;
+import org.jbasic.compiler.nodes.WhileStatementNode;
+import org.jbasic.interpreter.FrameLayout;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * @brief Infers the types of variables and expressions and specializes the nodes, whose operands are numbers.
+ * @details The pass follows the statements in the order they are executed and tracks the type of every slot of the
+ * stack frame. Loops and switch statements are analyzed until the types of the slots no longer change. Unary, binary
+ * and function call expressions, whose operands are proven to be numbers, are replaced by nodes that compute with
+ * primitive numbers, and the suffix checks of assignments, whose value is proven to match the suffix, are removed.
+ * Labels and 'goto' statements make the types of all variables of a unit unknown.
+ */
+public class TypeInference extends NodeTransformer {
+
+    /// The types of the slots of the current stack frame
+    private StaticType[] state;
+    /// The types assigned to the slots inside of the enclosing loops and switch statements
+    private Deque<StaticType[]> regions = new ArrayDeque<>();
+    /// The type of the last transformed expression
+    private StaticType type = StaticType.UNKNOWN;
+
+    /**
+     * Constructor of the TypeInference
+     *
+     * @param layout The layout of the stack frame of the main program
+     */
+    public TypeInference(FrameLayout layout) {
+        this.state = undefined(layout.size());
+    }
+
+    @Override
+    protected StatementNode transformLet(LetStatementNode let) {
+        ExpressionNode value = this.transform(let.getValue());
+        StaticType suffixType = suffixType(let.getVariableName());
+        boolean checked = let.getSuffix() != null && this.type != suffixType
+                && !(suffixType == StaticType.INTEGER && this.type == StaticType.NUMBER);
+        // Whole numbers assigned to a variable with the suffix '%' become integers
+        this.assign(let.getSlot(), checked || suffixType == StaticType.INTEGER ? suffixType : this.type);
+        return new LetStatementNode(let.getVariableName(), let.getSlot(), checked ? let.getSuffix() : null, value,
+                let.getContext());
+    }
+
+    @Override
+    protected StatementNode transformIf(IfStatementNode ifStatement) {
+        ExpressionNode[] conditions = ifStatement.getConditions();
+        BlockNode[] blocks = ifStatement.getBlocks();
+        ExpressionNode[] transformedConditions = new ExpressionNode[conditions.length];
+        BlockNode[] transformedBlocks = new BlockNode[blocks.length];
+        StaticType[] result = undefined(this.state.length);
+        for (int i = 0; i < conditions.length; i++) {
+            transformedConditions[i] = this.transform(conditions[i]);
+            StaticType[] conditionFailed = this.state.clone();
+            transformedBlocks[i] = this.transformBlock(blocks[i]);
+            join(result, this.state);
+            this.state = conditionFailed;
+        }
+        BlockNode elseBlock = ifStatement.getElseBlock() != null ? this.transformBlock(ifStatement.getElseBlock()) : null;
+        join(result, this.state);
+        this.state = result;
+        return new IfStatementNode(transformedConditions, transformedBlocks, elseBlock, ifStatement.getContext());
+    }
+
+    @Override
+    protected StatementNode transformFor(ForStatementNode loop) {
+        ExpressionNode start = this.transform(loop.getStart());
+        ExpressionNode end = this.transform(loop.getEnd());
+        ExpressionNode step = loop.getStep() != null ? this.transform(loop.getStep()) : null;
+        StaticType[] entry = this.state.clone();
+        this.assign(loop.getSlot(), StaticType.NUMBER);
+        BlockNode body = this.loop(entry, () -> {
+            this.state[loop.getSlot()] = StaticType.NUMBER;
+            return this.transformBlock(loop.getBody());
+        });
+        this.state[loop.getSlot()] = this.state[loop.getSlot()].join(StaticType.NUMBER);
+        return new ForStatementNode(loop.getVariableName(), loop.getSlot(), start, end, step, body, loop.getContext());
+    }
+
+    @Override
+    protected StatementNode transformWhile(WhileStatementNode loop) {
+        ExpressionNode[] condition = new ExpressionNode[1];
+        BlockNode body = this.loop(this.state.clone(), () -> {
+            condition[0] = this.transform(loop.getCondition());
+            return this.transformBlock(loop.getBody());
+        });
+        return new WhileStatementNode(condition[0], body, loop.isUntil(), loop.getContext());
+    }
+
+    @Override
+    protected StatementNode transformDoLoop(DoLoopStatementNode loop) {
+        ExpressionNode[] condition = new ExpressionNode[1];
+        BlockNode body = this.loop(this.state.clone(), () -> {
+            BlockNode transformedBody = this.transformBlock(loop.getBody());
+            condition[0] = this.transform(loop.getCondition());
+            return transformedBody;
+        });
+        return new DoLoopStatementNode(condition[0], body, loop.isUntil(), loop.getContext());
+    }
+
+    @Override
+    protected StatementNode transformSwitch(SwitchStatementNode switchStatement) {
+        ExpressionNode value = this.transform(switchStatement.getValue());
+        StaticType[] entry = this.state.clone();
+        StaticType[] region = undefined(this.state.length);
+        this.regions.push(region);
+        BlockNode[] caseBlocks = switchStatement.getCaseBlocks();
+        BlockNode[] transformedBlocks = new BlockNode[caseBlocks.length];
+        // Several cases can match, so every case can be entered with the types assigned by the previous cases
+        for (int i = 0; i < caseBlocks.length; i++) {
+            this.state = entry.clone();
+            join(this.state, region);
+            transformedBlocks[i] = this.transformBlock(caseBlocks[i]);
+        }
+        this.regions.pop();
+        this.state = entry;
+        join(this.state, region);
+        return new SwitchStatementNode(value, switchStatement.getCaseValues(), transformedBlocks,
+                switchStatement.getContext());
+    }
+
+    @Override
+    protected StatementNode transformLabeledBlock(LabeledBlockNode labeledBlock) {
+        // The block can be the target of a 'goto' statement, that is executed with any types
+        this.forget();
+        return super.transformLabeledBlock(labeledBlock);
+    }
+
+    @Override
+    protected StatementNode transformArrayDeclaration(ArrayDeclarationNode declaration) {
+        StatementNode transformed = super.transformArrayDeclaration(declaration);
+        this.assign(declaration.getSlot(), StaticType.UNKNOWN);
+        return transformed;
+    }
+
+    @Override
+    protected StatementNode transformArraySetAtIndex(ArraySetAtIndexNode assignment) {
+        StatementNode transformed = super.transformArraySetAtIndex(assignment);
+        this.assign(assignment.getSlot(), StaticType.UNKNOWN);
+        return transformed;
+    }
+
+    @Override
+    protected StatementNode transformSubroutineDefinition(SubroutineDefinitionNode definition) {
+        StaticType[] callerState = this.state;
+        Deque<StaticType[]> callerRegions = this.regions;
+        this.state = undefined(definition.getLayout().size());
+        this.regions = new ArrayDeque<>();
+        for (int parameterSlot : definition.getParameterSlots()) {
+            this.state[parameterSlot] = StaticType.UNKNOWN;
+        }
+        StatementNode body = this.transform(definition.getBody());
+        this.state = callerState;
+        this.regions = callerRegions;
+        return definition.withBody(body);
+    }
+
+    @Override
+    protected StatementNode transformInlinedSubroutine(InlinedSubroutineNode inlined) {
+        // Every invocation starts with undefined variables
+        for (int slot : inlined.getSlots()) {
+            this.assign(slot, StaticType.UNDEFINED);
+        }
+        return super.transformInlinedSubroutine(inlined);
+    }
+
+    @Override
+    protected StatementNode transformLeaf(StatementNode statement) {
+        if (statement instanceof GotoStatementNode) {
+            // The statements after the jump are not reached, the label itself is entered with unknown types
+            this.state = undefined(this.state.length);
+        }
+        else if (statement instanceof InputStatementNode) {
+            int slot = ((InputStatementNode) statement).getSlot();
+            if (slot != -1) {
+                this.assign(slot, StaticType.STRING);
+            }
+        }
+        else if (statement instanceof ReadStatementNode) {
+            ReadStatementNode read = (ReadStatementNode) statement;
+            // A read statement stops assigning values, if the data segment is empty
+            for (int i = 0; i < read.getSlots().length; i++) {
+                int slot = read.getSlots()[i];
+                StaticType suffixType = suffixType(read.getVariableNames()[i]);
+                this.assign(slot, this.state[slot].join(suffixType != null ? suffixType : StaticType.UNKNOWN));
+            }
+        }
+        return statement;
+    }
+
+    @Override
+    public ExpressionNode transform(ExpressionNode expression) {
+        ExpressionNode transformed = super.transform(expression);
+        if (!(transformed instanceof StatementValueNode)) {
+            return transformed;
+        }
+        // A statement used as condition evaluates to the assigned value or to false
+        StatementNode statement = ((StatementValueNode) transformed).getStatement();
+        if (!(statement instanceof LetStatementNode)) {
+            this.type = StaticType.NUMBER;
+        }
+        else {
+            this.type = this.state[((LetStatementNode) statement).getSlot()];
+        }
+        return transformed;
+    }
+
+    @Override
+    protected ExpressionNode transformBinary(BinaryExpressionNode binary) {
+        ExpressionNode left = this.transform(binary.getLeft());
+        StaticType leftType = this.type;
+        ExpressionNode right = this.transform(binary.getRight());
+        StaticType rightType = this.type;
+        if (leftType == StaticType.NUMBER && rightType == StaticType.NUMBER) {
+            this.type = StaticType.NUMBER;
+            return new NumericBinaryExpressionNode(binary.getOperator(), left, right, binary.isShortCircuit(),
+                    binary.getContext());
+        }
+        boolean integral = leftType == StaticType.INTEGER || rightType == StaticType.INTEGER;
+        if (binary.getOperator().producesTruthValue() || binary.isShortCircuit()) {
+            this.type = StaticType.NUMBER;
+        }
+        else if (binary.getOperator() != BinaryOperator.ADD) {
+            // Integers stay exact, unless the other operand has a fractional part
+            this.type = integral ? StaticType.INTEGER : StaticType.NUMBER;
+        }
+        else if (leftType == StaticType.STRING && (rightType == StaticType.STRING || rightType.isNumerical())
+                || rightType == StaticType.STRING && leftType.isNumerical()) {
+            this.type = StaticType.STRING;
+        }
+        else if (leftType.isNumerical() && rightType.isNumerical()) {
+            this.type = StaticType.INTEGER;
+        }
+        else {
+            this.type = StaticType.UNKNOWN;
+        }
+        return binary.withOperands(left, right);
+    }
+
+    @Override
+    protected ExpressionNode transformUnary(UnaryExpressionNode unary) {
+        ExpressionNode operand = this.transform(unary.getOperand());
+        boolean numerical = this.type == StaticType.NUMBER;
+        boolean integral = this.type == StaticType.INTEGER && unary.getOperator() == UnaryOperator.NEGATE;
+        this.type = integral ? StaticType.INTEGER : StaticType.NUMBER;
+        if (numerical) {
+            return new NumericUnaryExpressionNode(unary.getOperator(), operand, unary.getContext());
+        }
+        return unary.withOperand(operand);
+    }
+
+    @Override
+    protected ExpressionNode transformFunctionCall(FunctionCallNode call) {
+        ExpressionNode[] arguments = this.transformAll(call.getArguments());
+        StaticType argumentType = arguments.length == 1 ? this.type : StaticType.UNKNOWN;
+        BuiltinFunction function = call.getFunction();
+        if (function.returnsNumber()) {
+            this.type = StaticType.NUMBER;
+        }
+        else if (function == BuiltinFunction.STR) {
+            boolean convertible = argumentType.isNumerical() || argumentType == StaticType.STRING;
+            this.type = convertible ? StaticType.STRING : StaticType.UNKNOWN;
+        }
+        else {
+            this.type = function == BuiltinFunction.NUM && argumentType.isNumerical() ? argumentType
+                    : StaticType.UNKNOWN;
+        }
+        if (function.isNumericalFunction() && call.isArityValid() && argumentType == StaticType.NUMBER) {
+            return new NumericFunctionCallNode(function, arguments, call.getArgumentsContext(), call.getContext());
+        }
+        return call.withArguments(arguments);
+    }
+
+    @Override
+    protected ExpressionNode transformArrayGetAtIndex(ArrayGetAtIndexNode access) {
+        ExpressionNode transformed = super.transformArrayGetAtIndex(access);
+        this.type = StaticType.UNKNOWN;
+        return transformed;
+    }
+
+    @Override
+    protected ExpressionNode transformLeaf(ExpressionNode expression) {
+        if (expression instanceof LiteralNode) {
+            this.type = StaticType.of(((LiteralNode) expression).getValue());
+        }
+        else if (expression instanceof VariableNode) {
+            StaticType variableType = this.state[((VariableNode) expression).getSlot()];
+            this.type = variableType == StaticType.UNDEFINED ? StaticType.UNKNOWN : variableType;
+        }
+        else {
+            this.type = StaticType.UNKNOWN;
+        }
+        return expression;
+    }
+
+    /**
+     * Analyzes a loop until the types of the variables no longer change and transforms its body
+     *
+     * @param entry The types of the variables before the loop is entered
+     * @param body  Transforms the body of the loop with the current types
+     * @return The transformed body of the loop
+     */
+    private BlockNode loop(StaticType[] entry, Supplier<BlockNode> body) {
+        StaticType[] assigned = undefined(entry.length);
+        while (true) {
+            StaticType[] iteration = entry.clone();
+            join(iteration, assigned);
+            StaticType[] region = undefined(entry.length);
+            this.regions.push(region);
+            this.state = iteration.clone();
+            BlockNode transformed = body.get();
+            this.regions.pop();
+            if (!join(assigned, region)) {
+                // Leaving the loop with 'exit' or after the condition can happen with the types of any iteration
+                this.state = iteration;
+                return transformed;
+            }
+        }
+    }
+
+    /**
+     * Assigns a type to a slot
+     *
+     * @param slot The slot of the variable
+     * @param assignedType The assigned type
+     */
+    private void assign(int slot, StaticType assignedType) {
+        this.state[slot] = assignedType;
+        for (StaticType[] region : this.regions) {
+            region[slot] = region[slot].join(assignedType);
+        }
+    }
+
+    /**
+     * Makes the types of all variables of the current stack frame unknown
+     */
+    private void forget() {
+        for (int slot = 0; slot < this.state.length; slot++) {
+            this.assign(slot, StaticType.UNKNOWN);
+        }
+    }
+
+    /**
+     * Joins types into the types of the slots
+     *
+     * @param target The types that are extended
+     * @param source The types that are joined into the target
+     * @return true if one of the target types changed, false if not
+     */
+    private static boolean join(StaticType[] target, StaticType[] source) {
+        boolean changed = false;
+        for (int slot = 0; slot < target.length; slot++) {
+            StaticType joined = target[slot].join(source[slot]);
+            changed |= joined != target[slot];
+            target[slot] = joined;
+        }
+        return changed;
+    }
+
+    /**
+     * Creates the types of a stack frame, whose variables are not assigned yet
+     *
+     * @param size The amount of slots in the stack frame
+     * @return The types of the slots
+     */
+    private static StaticType[] undefined(int size) {
+        StaticType[] types = new StaticType[size];
+        Arrays.fill(types, StaticType.UNDEFINED);
+        return types;
+    }
+
+    /**
+     * Determines the type a suffix of a variable enforces
+     *
+     * @param variableName The name of the variable, including the suffix
+     * @return The type enforced by the suffix or null if the variable has no suffix
+     */
+    private static StaticType suffixType(String variableName) {
+        if (variableName.endsWith("$")) {
+            return StaticType.STRING;
+        }
+        return variableName.endsWith("%") ? StaticType.INTEGER : null;
+    }
+}
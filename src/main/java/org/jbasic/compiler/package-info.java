@@ -0,0 +1,5 @@
+/**
+ * @brief Contains the compiler that translates the abstract syntax tree into an executable node tree
+ */
+
+package org.jbasic.compiler;
@@ -25,6 +25,7 @@ import org.antlr.v4.runtime.ParserRuleContext;
 import org.jbasic.languageModels.JBasicValue;
 import org.jbasic.error.arrays.ArrayDimensionMismatchException;
 import org.jbasic.error.arrays.ArrayDimensionUnsupportedException;
+import org.jbasic.error.arrays.ArrayIndexOutOfRangeException;
 
 import java.util.List;
 
@@ -49,6 +50,21 @@ public class ArraySafeguard {
                 argument.underlyingNumber(), context);
     }
 
+    /**
+     * Ensures that an array index lies within the size of the accessed dimension
+     *
+     * @param index The zero based index that is safeguarded
+     * @param size The amount of elements of the accessed dimension
+     * @param context The parsing context of the expression that specified the index
+     */
+    public static void guaranteeArrayIndexIsInRange(int index, int size, ParserRuleContext context)
+            throws ArrayIndexOutOfRangeException {
+        if (index >= size) {
+            throw new ArrayIndexOutOfRangeException("Index " + (index + 1)
+                    + " exceeds the size " + size + " of the dimension", context);
+        }
+    }
+
     /**
      * Ensures the array dimension count in an expression is valid
      *
@@ -0,0 +1,33 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ArrayIndexOutOfRangeException.java
+ * @brief Error for array indices that exceed the size of a dimension ...
+ */
+package org.jbasic.error.arrays;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.error.InterpreterBaseException;
+
+/**
+ * @brief Error for array indices that exceed the size of a dimension ...
+ */
+@SuppressWarnings("serial")
+public class ArrayIndexOutOfRangeException extends InterpreterBaseException {
+    public ArrayIndexOutOfRangeException(String message, ParserRuleContext context) {
+        super(message, context);
+    }
+}
@@ -0,0 +1,116 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file CallSite.java
+ * @brief A subroutine invocation of the program, that caches the subroutine it is bound to.
+ */
+
+package org.jbasic.interpreter;
+
+import jbasic.JBasicParser;
+import org.jbasic.languageModels.JBasicSubroutine;
+
+/**
+ * @brief A subroutine invocation of the program, that caches the subroutine it is bound to.
+ * @details The invocation is bound after the subroutines of the program were defined and before the program is
+ * executed, the arity was already validated when the program was linked. Subroutines can not be redefined, so the
+ * binding stays valid for the rest of the execution. An invocation of an undefined subroutine stays unbound.
+ */
+public class CallSite {
+
+    /// The parsing context of the subroutine invocation
+    private final JBasicParser.SubroutineInvocationStatementContext context;
+    /// The name of the invoked subroutine
+    private final String name;
+    /// The amount of arguments of the invocation
+    private final int arity;
+    /// Whether the invocation is the last statement, that is executed by its subroutine
+    private boolean tailCall;
+    /// The subroutine the invocation is bound to or null if the subroutine is not defined
+    private JBasicSubroutine target;
+
+    /**
+     * Constructor of the CallSite
+     *
+     * @param context The parsing context of the subroutine invocation
+     */
+    CallSite(JBasicParser.SubroutineInvocationStatementContext context) {
+        this.context = context;
+        this.name = context.IDENTIFIER().getText();
+        this.arity = context.expression().size();
+    }
+
+    /**
+     * Gets the parsing context of the subroutine invocation
+     *
+     * @return The parsing context
+     */
+    public JBasicParser.SubroutineInvocationStatementContext getContext() {
+        return this.context;
+    }
+
+    /**
+     * Gets the name of the invoked subroutine
+     *
+     * @return The name of the subroutine
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the amount of arguments of the invocation
+     *
+     * @return The amount of arguments
+     */
+    public int getArity() {
+        return this.arity;
+    }
+
+    /**
+     * Determines whether the invocation is the last statement, that is executed by its subroutine
+     *
+     * @return true if the invocation is in tail position, false if not
+     */
+    public boolean isTailCall() {
+        return this.tailCall;
+    }
+
+    /**
+     * Marks the invocation as the last statement, that is executed by its subroutine
+     */
+    void markTailCall() {
+        this.tailCall = true;
+    }
+
+    /**
+     * Gets the subroutine the invocation is bound to
+     *
+     * @return The subroutine or null if the subroutine is not defined
+     */
+    JBasicSubroutine getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Binds the invocation to a subroutine
+     *
+     * @param target The invoked subroutine
+     */
+    void bind(JBasicSubroutine target) {
+        this.target = target;
+    }
+}
@@ -0,0 +1,34 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ExecutionMode.java
+ * @brief The different ways the interpreter can execute a program
+ */
+package org.jbasic.interpreter;
+
+/**
+ * @brief The different ways the interpreter can execute a program
+ */
+public enum ExecutionMode {
+    /// Executes the program by visiting the abstract syntax tree, this is the reference implementation
+    VISITOR,
+    /// Compiles the abstract syntax tree into a tree of executable nodes first and executes them afterwards
+    COMPILED,
+    /// Compiles the abstract syntax tree into executable nodes and translates them into JVM bytecode
+    BYTECODE,
+    /// Starts executing the node tree and compiles the loops and subroutines to bytecode once they become hot
+    TIERED
+}
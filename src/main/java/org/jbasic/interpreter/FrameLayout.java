@@ -0,0 +1,100 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file FrameLayout.java
+ * @brief Assigns the variables of a subroutine or the main program to the slots of a stack frame.
+ */
+
+package org.jbasic.interpreter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @brief Assigns the variables of a subroutine or the main program to the slots of a stack frame.
+ * @details The layout is filled while the scope is compiled, every distinct variable name - including the suffix -
+ * gets the next free slot. The parameters of a subroutine are resolved first, so they occupy the first slots.
+ */
+public class FrameLayout {
+
+    /// The slots of the variables, stored with the name of the variable as key
+    private final Map<String, Integer> slots = new HashMap<>();
+    /// The names of the variables, ordered by their slot, as they are reported in errors
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * Gets the slot of a variable, the variable is assigned to a new slot if it was not resolved before
+     *
+     * @param name The name of the variable, including the suffix
+     * @return The slot of the variable
+     */
+    public int resolve(String name) {
+        Integer slot = this.slots.get(name);
+        if (slot == null) {
+            slot = this.names.size();
+            this.slots.put(name, slot);
+            this.names.add(name);
+        }
+        return slot;
+    }
+
+    /**
+     * Assigns a variable of an inlined subroutine to a new slot. The variable is resolved with a name, that is unique
+     * in the layout, but is reported with the name it has in the subroutine
+     *
+     * @param name         The unique name of the variable, including the suffix
+     * @param originalName The name of the variable in the subroutine, including the suffix
+     * @return The slot of the variable
+     */
+    public int resolveInlined(String name, String originalName) {
+        int slot = this.names.size();
+        this.slots.put(name, slot);
+        this.names.add(originalName);
+        return slot;
+    }
+
+    /**
+     * Gets the slot of a variable without resolving it
+     *
+     * @param name The name of the variable, including the suffix
+     * @return The slot of the variable or -1 if the variable is not part of the layout
+     */
+    public int find(String name) {
+        Integer slot = this.slots.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Gets the name of the variable stored in a slot
+     *
+     * @param slot The slot of the variable
+     * @return The name of the variable, including the suffix
+     */
+    public String nameOf(int slot) {
+        return this.names.get(slot);
+    }
+
+    /**
+     * Gets the amount of slots a frame with this layout has
+     *
+     * @return The amount of slots
+     */
+    public int size() {
+        return this.names.size();
+    }
+}
@@ -28,28 +28,51 @@ import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.InputMismatchException;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.misc.ParseCancellationException;
-import org.antlr.v4.runtime.tree.ParseTree;
+import org.jbasic.compiler.CompiledProgram;
+import org.jbasic.compiler.ExecutionContext;
+import org.jbasic.compiler.ExecutionProfile;
+import org.jbasic.compiler.JBasicCompiler;
+import org.jbasic.compiler.bytecode.BytecodeCompiler;
+import org.jbasic.compiler.bytecode.TieredCompiler;
 import org.jbasic.core.IOFormatter;
 import org.jbasic.visitor.JBasicVisitor;
 import org.jbasic.error.ErrorListener;
 import org.jbasic.error.InterpreterBaseException;
+import org.jbasic.programFlow.StopException;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @brief The JBASIC interpreter
  */
 public class JBasicInterpreter {
 
+    /// The stack space reserved for every nested subroutine invocation, enough for the statements of the visitor
+    private static final long STACK_BYTES_PER_CALL = 16 * 1024;
+    /// The stack space reserved for the program itself
+    private static final long BASE_STACK_BYTES = 4 * 1024 * 1024;
+    /// The interpreter threads with the size of their stack as the key, the threads are reused by later runs
+    private static final Map<Long, ExecutorService> INTERPRETER_THREADS = new ConcurrentHashMap<>();
+
     /// The standard input stream used by the interpreter
     private final InputStream stdin;
     /// The standard output stream used by the interpreter
     private final PrintStream stdoutPrint;
     /// The standard error output stream used by the interpreter
     private final PrintStream stderrPrint;
+    /// The options that configure how programs are executed
+    private final JBasicInterpreterOptions options;
     /// The Memory object instance used to store variables
     private JBasicInterpreterState state;
 
@@ -60,9 +83,22 @@ public class JBasicInterpreter {
      * @param stderr The standard error stream used by the interpreter
      */
     public JBasicInterpreter(InputStream stdin, OutputStream stdout, OutputStream stderr) {
+        this(stdin, stdout, stderr, new JBasicInterpreterOptions());
+    }
+
+    /**
+     * @brief Constructor a new Interpreter object instance
+     * @param stdin The standard input stream used by the interpreter
+     * @param stdout The standard output stream used by the interpreter
+     * @param stderr The standard error stream used by the interpreter
+     * @param options The options that configure how programs are executed
+     */
+    public JBasicInterpreter(InputStream stdin, OutputStream stdout, OutputStream stderr,
+                             JBasicInterpreterOptions options) {
         this.stdin = stdin;
-        this.stdoutPrint = new PrintStream(stdout, true);
+        this.stdoutPrint = new PrintStream(new StoppableOutputStream(stdout), true);
         this.stderrPrint = new PrintStream(stderr, true);
+        this.options = options;
     }
 
     /**
@@ -86,14 +122,12 @@ public class JBasicInterpreter {
         parser.addErrorListener(new ErrorListener(this.stderrPrint));
         try {
             // We create an abstract syntax tree from the tokens
-            ParseTree tree = parser.program();
+            JBasicParser.ProgramContext tree = parser.program();
             // Memory used by the program
             this.state = new JBasicInterpreterState();
             this.state.setCurrentScript(input.toString());
-            // Creating the visitor to visit the nodes in the abstract syntax tree
-            JBasicVisitor visitor = new JBasicVisitor(this.state, this.stdin, this.stdoutPrint);
-            // Executing the program with the visitor
-            visitor.visit(tree);
+            this.state.setMaxCallDepth(this.options.getMaxCallDepth());
+            this.executeOnInterpreterThread(tree);
         }
         catch (InterpreterBaseException exception) {
             this.stderrPrint.println(exception.getMessage());
@@ -110,6 +144,166 @@ public class JBasicInterpreter {
         }
     }
 
+    /**
+     * @brief Executes a program on a thread, whose stack can hold the maximum depth of nested subroutine invocations
+     * @details The variables of the invocations are stored in the frame stack of the interpreter state, the thread
+     * only has to hold the nested statements. The threads are taken from a pool per stack size, so a run only starts a
+     * thread if no idle thread with the same stack size is left by an earlier run. Every failure of the program is
+     * rethrown on the calling thread. If the calling thread is interrupted, the program is stopped at its next loop
+     * iteration, jump, subroutine invocation or output and the interrupt is restored after the program stopped
+     * @param tree The abstract syntax tree of the program
+     */
+    private void executeOnInterpreterThread(JBasicParser.ProgramContext tree) {
+        long stackSize = BASE_STACK_BYTES + STACK_BYTES_PER_CALL * this.options.getMaxCallDepth();
+        Future<?> execution = interpreterThreads(stackSize).submit(() -> this.execute(tree));
+        boolean interrupted = false;
+        Throwable failure = null;
+        while (true) {
+            try {
+                execution.get();
+                break;
+            }
+            catch (InterruptedException exception) {
+                // The program must not outlive the run, it is stopped and its completion is awaited
+                interrupted = true;
+                this.state.requestStop();
+            }
+            catch (ExecutionException exception) {
+                failure = exception.getCause();
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure == null || failure instanceof StopException) {
+            return;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new UndeclaredThrowableException(failure);
+    }
+
+    /**
+     * @brief Gets the pool of interpreter threads with a stack size
+     * @details The threads are daemon threads, that end after they were idle for a minute
+     * @param stackSize The size of the stack of the threads
+     * @return The pool of the threads
+     */
+    private static ExecutorService interpreterThreads(long stackSize) {
+        return INTERPRETER_THREADS.computeIfAbsent(stackSize, size -> Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(null, runnable, "jbasic-interpreter", size);
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * @brief Executes the abstract syntax tree of a program in the configured execution mode
+     * @param tree The abstract syntax tree of the program
+     */
+    private void execute(JBasicParser.ProgramContext tree) {
+        // Binding the subroutine invocations to call sites and validating their arity before anything is executed
+        new ProgramLinker(this.state).link(tree);
+        switch (this.options.getExecutionMode()) {
+            case COMPILED:
+                // Translating the tree into executable nodes and executing them
+                this.executeProfiled(new JBasicCompiler(this.options).compile(tree));
+                break;
+            case BYTECODE:
+                // Translating the executable nodes into bytecode and executing it
+                new BytecodeCompiler().compile(new JBasicCompiler(this.options).compile(tree))
+                        .execute(new ExecutionContext(this.state, this.stdin, this.stdoutPrint));
+                break;
+            case TIERED:
+                // Starting in the node tree and promoting the hot loops and subroutines to bytecode
+                this.executeTiered(tree);
+                break;
+            case VISITOR:
+            default:
+                // Creating the visitor to visit the nodes in the abstract syntax tree
+                JBasicVisitor visitor = new JBasicVisitor(this.state, this.stdin, this.stdoutPrint,
+                        this.options.isShortCircuitEvaluation());
+                // Executing the program with the visitor
+                visitor.visit(tree);
+                break;
+        }
+    }
+
+    /**
+     * Executes a program, that was compiled into a node tree, with the profile of the earlier runs
+     * @param program The compiled program
+     */
+    private void executeProfiled(CompiledProgram program) {
+        ExecutionProfile profile = this.loadProfile();
+        if (profile != null) {
+            profile.specialize(program);
+        }
+        try {
+            program.execute(new ExecutionContext(this.state, this.stdin, this.stdoutPrint));
+        }
+        finally {
+            if (profile != null) {
+                profile.record(program);
+                this.saveProfile(profile);
+            }
+        }
+    }
+
+    /**
+     * Executes a program in the node tree, that promotes its hot loops and subroutines to bytecode
+     * @param tree The abstract syntax tree of the program
+     */
+    private void executeTiered(JBasicParser.ProgramContext tree) {
+        ExecutionProfile profile = this.loadProfile();
+        TieredCompiler tieredCompiler = new TieredCompiler(this.options.getLoopCompilationThreshold(),
+                this.options.getInvocationCompilationThreshold(),
+                this.options.isTierLogging() ? this.stderrPrint : null, profile);
+        try {
+            tieredCompiler.compile(new JBasicCompiler(this.options).compile(tree))
+                    .execute(new ExecutionContext(this.state, this.stdin, this.stdoutPrint));
+        }
+        finally {
+            if (profile != null) {
+                tieredCompiler.recordProfile();
+                this.saveProfile(profile);
+            }
+        }
+    }
+
+    /**
+     * Loads the profile of the earlier runs of the program, if the options configure a profile file
+     * @return The profile or null if no profile is used
+     */
+    private ExecutionProfile loadProfile() {
+        if (this.options.getProfileFile() == null) {
+            return null;
+        }
+        ExecutionProfile profile = ExecutionProfile.load(this.options.getProfileFile(), this.state.getCurrentScript());
+        if (profile.isStale() && this.options.isTierLogging()) {
+            this.stderrPrint.println("Tiered compilation: discarded the profile " + profile.getFile() +
+                    " of another version of the script");
+        }
+        return profile;
+    }
+
+    /**
+     * Stores the profile for the next run of the program, a profile that can not be stored is reported
+     * @param profile The profile
+     */
+    private void saveProfile(ExecutionProfile profile) {
+        try {
+            profile.save();
+        }
+        catch (IOException exception) {
+            this.stderrPrint.println("Could not store the profile " + profile.getFile() + ": " + exception.getMessage());
+        }
+    }
+
     /**
      * @return The memory of the interpreter
      * @brief Gets the memory associated with the interpreter
@@ -128,4 +322,40 @@ public class JBasicInterpreter {
         this.state.eraseLabels();
         this.state.eraseSubroutines();
     }
+
+    /**
+     * @brief The standard output stream of a program, that stops the program if it should stop
+     */
+    private class StoppableOutputStream extends FilterOutputStream {
+
+        /**
+         * @brief Constructs a new StoppableOutputStream object instance
+         * @param out The standard output stream used by the interpreter
+         */
+        StoppableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.checkStopRequested();
+            this.out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.checkStopRequested();
+            this.out.write(b, off, len);
+        }
+
+        /**
+         * @brief Stops the program before it writes to the stream, if the calling thread asked it to stop
+         */
+        private void checkStopRequested() {
+            JBasicInterpreterState state = JBasicInterpreter.this.state;
+            if (state != null) {
+                state.checkStopRequested();
+            }
+        }
+    }
 }
@@ -0,0 +1,368 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file JBasicInterpreterOptions.java
+ * @brief Options that configure how the interpreter executes a program
+ */
+package org.jbasic.interpreter;
+
+import java.nio.file.Path;
+
+/**
+ * @brief Options that configure how the interpreter executes a program
+ */
+public class JBasicInterpreterOptions {
+
+    /// The default maximum depth of nested subroutine invocations
+    public static final int DEFAULT_MAX_CALL_DEPTH = 10000;
+    /// The largest maximum depth of nested subroutine invocations, the interpreter reserves 16KB of stack per level
+    public static final int MAX_CALL_DEPTH = 65536;
+    /// The default size of the largest subroutine, that is inlined
+    public static final int DEFAULT_INLINING_THRESHOLD = 30;
+    /// The default amount of iterations after which the tiered execution mode compiles a loop
+    public static final int DEFAULT_LOOP_COMPILATION_THRESHOLD = 1000;
+    /// The default amount of invocations after which the tiered execution mode compiles a subroutine
+    public static final int DEFAULT_INVOCATION_COMPILATION_THRESHOLD = 100;
+
+    /// The way programs are executed
+    private ExecutionMode executionMode = ExecutionMode.VISITOR;
+    /// Whether the compiler folds constant expressions and removes branches with constant conditions
+    private boolean constantFolding = true;
+    /// Whether the compiler computes the invariant expressions of a loop only once per execution of the loop
+    private boolean loopInvariantCodeMotion = true;
+    /// Whether the compiler computes expressions, that are repeated in a sequence of statements, only once
+    private boolean commonSubexpressionElimination = true;
+    /// Whether the compiler removes the checks of array indices, that are proven to be in range
+    private boolean boundsCheckElimination = true;
+    /// The largest amount of statements and expressions of a subroutine, that is inlined at its invocations
+    private int inliningThreshold = DEFAULT_INLINING_THRESHOLD;
+    /// The amount of iterations after which the tiered execution mode compiles a loop
+    private int loopCompilationThreshold = DEFAULT_LOOP_COMPILATION_THRESHOLD;
+    /// The amount of invocations after which the tiered execution mode compiles a subroutine
+    private int invocationCompilationThreshold = DEFAULT_INVOCATION_COMPILATION_THRESHOLD;
+    /// Whether the tiered execution mode logs its thresholds and decisions to the standard error stream
+    private boolean tierLogging;
+    /// The file the profile of the program is stored in, null if no profile is used
+    private Path profileFile;
+    /// The maximum depth of nested subroutine invocations
+    private int maxCallDepth = DEFAULT_MAX_CALL_DEPTH;
+    /// Whether 'and' and 'or' expressions only evaluate their right operand if the left operand does not decide the
+    /// result, null if the default of the execution mode is used
+    private Boolean shortCircuitEvaluation;
+    /// Whether 'continue' and 'exit' statements of the compiled execution mode throw exceptions like earlier versions
+    private boolean loopControlExceptions;
+
+    /**
+     * Gets the way programs are executed
+     *
+     * @return The execution mode
+     */
+    public ExecutionMode getExecutionMode() {
+        return this.executionMode;
+    }
+
+    /**
+     * Sets the way programs are executed
+     *
+     * @param executionMode The execution mode
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+        return this;
+    }
+
+    /**
+     * Determines whether the compiler folds constant expressions and removes branches with constant conditions
+     *
+     * @return true if constant folding is enabled, false if not
+     * @note Only used by the compiled execution modes
+     */
+    public boolean isConstantFolding() {
+        return this.constantFolding;
+    }
+
+    /**
+     * Enables or disables constant folding, disabling it allows to compare the results with the unoptimized program
+     *
+     * @param constantFolding Whether constant folding is enabled
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setConstantFolding(boolean constantFolding) {
+        this.constantFolding = constantFolding;
+        return this;
+    }
+
+    /**
+     * Determines whether the compiler computes the invariant expressions of a loop only once per execution of the loop
+     *
+     * @return true if loop invariant code motion is enabled, false if not
+     * @note Only used by the compiled execution modes
+     */
+    public boolean isLoopInvariantCodeMotion() {
+        return this.loopInvariantCodeMotion;
+    }
+
+    /**
+     * Enables or disables loop invariant code motion, disabling it allows to measure the effect of the optimization
+     *
+     * @param loopInvariantCodeMotion Whether loop invariant code motion is enabled
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setLoopInvariantCodeMotion(boolean loopInvariantCodeMotion) {
+        this.loopInvariantCodeMotion = loopInvariantCodeMotion;
+        return this;
+    }
+
+    /**
+     * Determines whether the compiler computes expressions, that are repeated in a sequence of statements without
+     * control flow, only once
+     *
+     * @return true if common subexpression elimination is enabled, false if not
+     * @note Only used by the compiled execution modes
+     */
+    public boolean isCommonSubexpressionElimination() {
+        return this.commonSubexpressionElimination;
+    }
+
+    /**
+     * Enables or disables common subexpression elimination, disabling it allows to measure the effect of the
+     * optimization
+     *
+     * @param commonSubexpressionElimination Whether common subexpression elimination is enabled
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setCommonSubexpressionElimination(boolean commonSubexpressionElimination) {
+        this.commonSubexpressionElimination = commonSubexpressionElimination;
+        return this;
+    }
+
+    /**
+     * Determines whether the compiler removes the checks of array indices, that are proven to be in range by the for
+     * loops that enclose them
+     *
+     * @return true if bounds check elimination is enabled, false if not
+     * @note Only used by the compiled execution modes
+     */
+    public boolean isBoundsCheckElimination() {
+        return this.boundsCheckElimination;
+    }
+
+    /**
+     * Enables or disables bounds check elimination, disabling it allows to measure the effect of the optimization
+     *
+     * @param boundsCheckElimination Whether bounds check elimination is enabled
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setBoundsCheckElimination(boolean boundsCheckElimination) {
+        this.boundsCheckElimination = boundsCheckElimination;
+        return this;
+    }
+
+    /**
+     * Gets the largest amount of statements and expressions of a subroutine, that the compiler inlines at its
+     * invocations
+     *
+     * @return The inlining threshold
+     * @note Only used by the compiled execution modes
+     */
+    public int getInliningThreshold() {
+        return this.inliningThreshold;
+    }
+
+    /**
+     * Sets the largest amount of statements and expressions of a subroutine, that the compiler inlines at its
+     * invocations, larger thresholds save more invocations but make the compiled program larger and 0 disables
+     * inlining
+     *
+     * @param inliningThreshold The inlining threshold
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setInliningThreshold(int inliningThreshold) {
+        this.inliningThreshold = inliningThreshold;
+        return this;
+    }
+
+    /**
+     * Gets the amount of iterations after which a loop is compiled to bytecode, while the loop is running
+     *
+     * @return The loop compilation threshold
+     * @note Only used by the tiered execution mode
+     */
+    public int getLoopCompilationThreshold() {
+        return this.loopCompilationThreshold;
+    }
+
+    /**
+     * Sets the amount of iterations after which a loop is compiled to bytecode, while the loop is running. Lower
+     * thresholds reach the bytecode sooner but compile loops, that would have ended soon anyway
+     *
+     * @param loopCompilationThreshold The loop compilation threshold
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setLoopCompilationThreshold(int loopCompilationThreshold) {
+        if (loopCompilationThreshold < 1) {
+            throw new IllegalArgumentException("The loop compilation threshold has to be positive");
+        }
+        this.loopCompilationThreshold = loopCompilationThreshold;
+        return this;
+    }
+
+    /**
+     * Gets the amount of invocations after which the body of a subroutine is compiled to bytecode
+     *
+     * @return The invocation compilation threshold
+     * @note Only used by the tiered execution mode
+     */
+    public int getInvocationCompilationThreshold() {
+        return this.invocationCompilationThreshold;
+    }
+
+    /**
+     * Sets the amount of invocations after which the body of a subroutine is compiled to bytecode
+     *
+     * @param invocationCompilationThreshold The invocation compilation threshold
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setInvocationCompilationThreshold(int invocationCompilationThreshold) {
+        if (invocationCompilationThreshold < 1) {
+            throw new IllegalArgumentException("The invocation compilation threshold has to be positive");
+        }
+        this.invocationCompilationThreshold = invocationCompilationThreshold;
+        return this;
+    }
+
+    /**
+     * Determines whether the thresholds and the tier decisions are logged to the standard error stream
+     *
+     * @return true if the tier decisions are logged, false if not
+     * @note Only used by the tiered execution mode
+     */
+    public boolean isTierLogging() {
+        return this.tierLogging;
+    }
+
+    /**
+     * Enables or disables logging the thresholds and the tier decisions to the standard error stream, that helps
+     * tuning the thresholds
+     *
+     * @param tierLogging Whether the tier decisions are logged
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setTierLogging(boolean tierLogging) {
+        this.tierLogging = tierLogging;
+        return this;
+    }
+
+    /**
+     * Gets the file the type feedback and the hot loops and subroutines of the program are stored in
+     *
+     * @return The profile file or null if no profile is used
+     * @note Only used by the compiled and the tiered execution mode
+     */
+    public Path getProfileFile() {
+        return this.profileFile;
+    }
+
+    /**
+     * Sets the file the type feedback and the hot loops and subroutines of the program are stored in. The next run of
+     * the same program starts with the specialized expressions and compiles the hot loops and subroutines right away,
+     * a profile of another version of the program is discarded
+     *
+     * @param profileFile The profile file or null if no profile is used
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setProfileFile(Path profileFile) {
+        this.profileFile = profileFile;
+        return this;
+    }
+
+    /**
+     * Gets the maximum depth of nested subroutine invocations
+     *
+     * @return The maximum call depth
+     */
+    public int getMaxCallDepth() {
+        return this.maxCallDepth;
+    }
+
+    /**
+     * Sets the maximum depth of nested subroutine invocations, deeper recursions are reported as an error. The frames
+     * of the invocations are stored on the heap, but the statements of every invocation are executed on the stack of
+     * the interpreter thread. The interpreter reserves 16KB of stack per level, so the depth is limited to
+     * MAX_CALL_DEPTH levels. A subroutine, whose nested statements need more stack, can exhaust the stack before the
+     * maximum call depth is reached, which is reported as a stack overflow
+     *
+     * @param maxCallDepth The maximum call depth, between 1 and MAX_CALL_DEPTH
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setMaxCallDepth(int maxCallDepth) {
+        if (maxCallDepth < 1 || maxCallDepth > MAX_CALL_DEPTH) {
+            throw new IllegalArgumentException("The maximum call depth has to be between 1 and " + MAX_CALL_DEPTH);
+        }
+        this.maxCallDepth = maxCallDepth;
+        return this;
+    }
+
+    /**
+     * Determines whether 'and' and 'or' expressions only evaluate their right operand if the left operand does not
+     * decide the result
+     *
+     * @return true if short-circuit evaluation is enabled, false if both operands are always evaluated
+     * @note Enabled by default for the compiled execution modes
+     */
+    public boolean isShortCircuitEvaluation() {
+        if (this.shortCircuitEvaluation != null) {
+            return this.shortCircuitEvaluation;
+        }
+        return this.executionMode != ExecutionMode.VISITOR;
+    }
+
+    /**
+     * Enables or disables short-circuit evaluation of 'and' and 'or' expressions for every execution mode. Disabling it
+     * evaluates both operands like earlier versions, so the errors of the right operand are reported
+     *
+     * @param shortCircuitEvaluation Whether short-circuit evaluation is enabled
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setShortCircuitEvaluation(boolean shortCircuitEvaluation) {
+        this.shortCircuitEvaluation = shortCircuitEvaluation;
+        return this;
+    }
+
+    /**
+     * Determines whether 'continue' and 'exit' statements throw an exception with a stack trace instead of signaling
+     * their completion
+     *
+     * @return true if loop control exceptions are enabled, false if the statements signal their completion
+     * @note Only used by the compiled execution mode, the bytecode of the other compiled modes jumps to the loop
+     */
+    public boolean isLoopControlExceptions() {
+        return this.loopControlExceptions && this.executionMode == ExecutionMode.COMPILED;
+    }
+
+    /**
+     * Enables or disables loop control exceptions. Enabling them executes 'continue' and 'exit' statements like
+     * earlier versions, which serves as the baseline of the loop control benchmark
+     *
+     * @param loopControlExceptions Whether 'continue' and 'exit' statements throw exceptions
+     * @return The options object instance
+     */
+    public JBasicInterpreterOptions setLoopControlExceptions(boolean loopControlExceptions) {
+        this.loopControlExceptions = loopControlExceptions;
+        return this;
+    }
+}
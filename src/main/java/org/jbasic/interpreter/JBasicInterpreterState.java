@@ -22,6 +22,7 @@
 package org.jbasic.interpreter;
 
 import jbasic.JBasicParser.BlockContext;
+import jbasic.JBasicParser.LabeledBlockContext;
 import jbasic.JBasicParser.SubroutineDefinitionStatementContext;
 import jbasic.JBasicParser.SubroutineInvocationStatementContext;
 import org.antlr.v4.runtime.ParserRuleContext;
@@ -29,18 +30,21 @@ import org.jbasic.error.variable.UndefinedVariableException;
 import org.jbasic.visitor.JBasicVisitor;
 import org.jbasic.languageModels.JBasicSubroutine;
 import org.jbasic.error.labels.UndefinedLabelException;
+import org.jbasic.error.subroutine.CallStackOverflowException;
 import org.jbasic.error.subroutine.SubroutineArityException;
 import org.jbasic.error.subroutine.SubroutineNotDefinedException;
 import org.jbasic.error.subroutine.SubroutineRedefinitionException;
 import org.jbasic.languageModels.JBasicValue;
+import org.jbasic.programFlow.JumpException;
+import org.jbasic.programFlow.StopException;
+import org.jbasic.programFlow.TailCallException;
 
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Stack;
-import java.util.stream.IntStream;
 
 /**
  * @brief Stores the state of the interpreter.
@@ -48,8 +52,32 @@ import java.util.stream.IntStream;
  */
 public class JBasicInterpreterState {
 
-    /// The hashtable, that stores all the variables with the name of the variable as the key of the entry
-    private Map<String, JBasicValue> memory = new HashMap<>();
+    /// The hashtable, that stores the variables of the main program with the name of the variable as the key of the entry
+    private final Map<String, JBasicValue> memory = new HashMap<>();
+
+    /// The stack frame of the subroutine or compiled main program that is currently executed
+    private StackFrame frame;
+
+    /// The frames of the subroutine invocations, the frame of an invocation is reused by the next invocation at the same depth
+    private StackFrame[] frameStack = new StackFrame[16];
+
+    /// The amount of frames of the frame stack, that are used by the active subroutine invocations
+    private int frameDepth;
+
+    /// The maximum depth of nested subroutine invocations
+    private int maxCallDepth = JBasicInterpreterOptions.DEFAULT_MAX_CALL_DEPTH;
+
+    /// Whether the program should stop, set by the calling thread after it was interrupted
+    private volatile boolean stopRequested;
+
+    /// The call sites of the subroutine invocations, stored with the parsing context of the invocation as key
+    private final Map<SubroutineInvocationStatementContext, CallSite> callSites = new IdentityHashMap<>();
+
+    /// The call site of the pending tail call
+    private CallSite tailCallSite;
+
+    /// The arguments of the pending tail call
+    private JBasicValue[] tailCallArguments;
 
     /// Stores the defined functions of the executed script
     private final Map<String, JBasicSubroutine> subroutines = new HashMap<>();
@@ -70,12 +98,20 @@ public class JBasicInterpreterState {
         this.labeledBlocks.put(labelName, blockContext);
     }
 
-    public JBasicValue gotoLabel(String labelName, JBasicVisitor visitor, ParserRuleContext context) throws UndefinedLabelException {
+    /**
+     * Jumps to a labeled block
+     *
+     * @param labelName The label of the block
+     * @param context   The parsing context of the 'goto' statement
+     * @throws JumpException that is caught by the program or subroutine, that contains the label
+     */
+    public void gotoLabel(String labelName, ParserRuleContext context) throws UndefinedLabelException, JumpException {
+        this.checkStopRequested();
         BlockContext blockContext = this.labeledBlocks.get(labelName);
         if (blockContext == null) {
             throw new UndefinedLabelException("A label called " + labelName + " is not defined", context);
         }
-        return visitor.visit(blockContext);
+        throw new JumpException((LabeledBlockContext) blockContext.getParent(), labelName, context);
     }
 
     /**
@@ -85,7 +121,143 @@ public class JBasicInterpreterState {
      * @param value The new value of the variable
      */
     public void assignToVariable(String name, JBasicValue value) {
-        this.memory.put(name, value);
+        if (this.frame != null) {
+            this.frame.assign(name, value);
+        }
+        else {
+            this.memory.put(name, value);
+        }
+    }
+
+    /**
+     * Gets the stack frame of the compiled subroutine or main program that is currently executed
+     *
+     * @return The current stack frame or null if no compiled program was executed
+     */
+    public StackFrame getFrame() {
+        return this.frame;
+    }
+
+    /**
+     * Replaces the current stack frame, used when a compiled program or subroutine is entered
+     *
+     * @param frame The stack frame that is entered
+     * @return The stack frame of the caller, that is restored when the subroutine returns
+     */
+    public StackFrame enterFrame(StackFrame frame) {
+        final StackFrame callerFrame = this.frame;
+        this.frame = frame;
+        return callerFrame;
+    }
+
+    /**
+     * Restores the stack frame of the caller, after a compiled subroutine returned
+     *
+     * @param callerFrame The stack frame of the caller
+     */
+    public void restoreFrame(StackFrame callerFrame) {
+        this.frame = callerFrame;
+    }
+
+    /**
+     * Takes the frame for a subroutine invocation from the frame stack, the frame is allocated on the first
+     * invocation at a depth and reused afterwards
+     *
+     * @param layout  The layout of the invoked subroutine
+     * @param context The parsing context of the subroutine invocation
+     * @return The frame of the invocation, all of its variables are undefined
+     * @throws CallStackOverflowException if the invocation exceeds the maximum call depth
+     */
+    public StackFrame acquireFrame(FrameLayout layout, ParserRuleContext context) throws CallStackOverflowException {
+        this.checkStopRequested();
+        if (this.frameDepth == this.maxCallDepth) {
+            throw this.callStackOverflow(context);
+        }
+        if (this.frameDepth == this.frameStack.length) {
+            this.frameStack = Arrays.copyOf(this.frameStack, this.frameDepth * 2);
+        }
+        StackFrame frame = this.frameStack[this.frameDepth];
+        if (frame == null) {
+            frame = new StackFrame(layout);
+            this.frameStack[this.frameDepth] = frame;
+        }
+        else {
+            frame.reset(layout);
+        }
+        this.frameDepth++;
+        return frame;
+    }
+
+    /**
+     * Prepares the frame of an invocation for the subroutine, that is called in tail position
+     *
+     * @param frame  The frame of the invocation
+     * @param layout The layout of the called subroutine
+     */
+    public void reuseFrame(StackFrame frame, FrameLayout layout) {
+        this.checkStopRequested();
+        frame.clear();
+        frame.reset(layout);
+    }
+
+    /**
+     * Creates the error, that is reported if the nested subroutine invocations exceed the maximum call depth
+     *
+     * @param context The parsing context of the subroutine invocation
+     * @return The exception, that reports the overflow
+     */
+    public CallStackOverflowException callStackOverflow(ParserRuleContext context) {
+        return new CallStackOverflowException("Call stack overflow, subroutine invocations are nested more than " +
+                this.maxCallDepth + " levels deep", context);
+    }
+
+    /**
+     * Creates the error, that is reported if the statements of the nested subroutine invocations exhaust the stack of
+     * the interpreter thread before the maximum call depth is reached
+     *
+     * @param context The parsing context of the subroutine invocation
+     * @return The exception, that reports the overflow
+     */
+    public CallStackOverflowException stackOverflow(ParserRuleContext context) {
+        return new CallStackOverflowException("Stack overflow, the statements of the nested subroutine invocations " +
+                "exceed the stack of the interpreter", context);
+    }
+
+    /**
+     * Sets the maximum depth of nested subroutine invocations
+     *
+     * @param maxCallDepth The maximum call depth
+     */
+    public void setMaxCallDepth(int maxCallDepth) {
+        this.maxCallDepth = maxCallDepth;
+    }
+
+    /**
+     * Asks the program to stop at its next subroutine invocation, tail call, loop iteration, jump or output
+     */
+    public void requestStop() {
+        this.stopRequested = true;
+    }
+
+    /**
+     * Stops the program, if the calling thread asked it to stop
+     *
+     * @throws StopException if the program should stop
+     */
+    public void checkStopRequested() throws StopException {
+        if (this.stopRequested) {
+            throw StopException.INSTANCE;
+        }
+    }
+
+    /**
+     * Returns the frame of a subroutine invocation to the frame stack, after the subroutine returned
+     *
+     * @param frame The frame of the invocation
+     */
+    public void releaseFrame(StackFrame frame) {
+        frame.clear();
+        this.frameDepth--;
     }
 
     /**
@@ -102,12 +274,28 @@ public class JBasicInterpreterState {
         this.subroutines.put(subroutineName, subroutine);
     }
 
+    /**
+     * Binds the call sites of the program to the subroutines they invoke, after the subroutines were defined and
+     * before the program is executed. The arity was validated by the linker, call sites of undefined subroutines stay
+     * unbound and are reported when they are executed
+     */
+    public void bindCallSites() {
+        for (CallSite callSite : this.callSites.values()) {
+            JBasicSubroutine subroutine = this.subroutines.get(callSite.getName());
+            if (subroutine != null && subroutine.getArity() == callSite.getArity()) {
+                callSite.bind(subroutine);
+            }
+        }
+    }
+
     /**
      * @brief Free's the memory
      * @details Deallocates all the memory used by a memory object instance
      */
     public void freeMemory() {
         this.memory.clear();
+        this.frame = null;
+        this.frameDepth = 0;
     }
 
     /**
@@ -124,6 +312,7 @@ public class JBasicInterpreterState {
      */
     public void eraseSubroutines() {
         this.subroutines.clear();
+        this.callSites.clear();
     }
 
     /**
@@ -133,38 +322,100 @@ public class JBasicInterpreterState {
      * @note Throws an UndefinedVariableException if the variable is not defined
      */
     public JBasicValue getVariableValue(String name, ParserRuleContext context) throws UndefinedVariableException {
-        JBasicValue value = this.memory.get(name);
+        JBasicValue value = this.frame != null ? this.frame.lookup(name) : this.memory.get(name);
         if(value == null)
             throw new UndefinedVariableException(name + " is not defined", context);
         return value;
     }
 
     /**
-     * Invokes a subroutine
+     * Gets the call site of a subroutine invocation
      *
-     * @param subroutineName The name of the subroutine
-     * @param arguments      The arguments of the subroutine call
-     * @param visitor        The visitor of the subroutine call. Used to visit the subroutine body
+     * @param context The parsing context of the subroutine invocation
+     * @return The call site, that caches the invoked subroutine
+     */
+    public CallSite callSite(SubroutineInvocationStatementContext context) {
+        return this.callSites.computeIfAbsent(context, CallSite::new);
+    }
+
+    /**
+     * Marks a subroutine invocation, that is the last statement executed by its subroutine
+     *
+     * @param context The parsing context of the subroutine invocation
+     */
+    public void addTailCall(SubroutineInvocationStatementContext context) {
+        this.callSite(context).markTailCall();
+    }
+
+    /**
+     * Invokes a subroutine, an invocation in tail position returns from the enclosing subroutine, whose invocation
+     * executes the called subroutine with the same frame
+     *
+     * @param callSite  The call site of the invocation
+     * @param arguments The arguments of the subroutine call
+     * @param visitor   The visitor of the subroutine call. Used to visit the subroutine body
+     */
+    public void invokeSubroutine(CallSite callSite, JBasicValue[] arguments, JBasicVisitor visitor)
+            throws SubroutineNotDefinedException, SubroutineArityException, CallStackOverflowException {
+        if (callSite.isTailCall()) {
+            this.tailCallSite = callSite;
+            this.tailCallArguments = arguments;
+            throw TailCallException.INSTANCE;
+        }
+        JBasicSubroutine subroutine = this.resolve(callSite);
+        // The variables of the subroutine are stored in a frame from the frame stack
+        StackFrame frame = this.acquireFrame(subroutine.getLayout(), callSite.getContext());
+        StackFrame callerFrame = this.enterFrame(frame);
+        try {
+            while (true) {
+                int[] parameterSlots = subroutine.getParameterSlots();
+                for (int i = 0; i < arguments.length; i++) {
+                    frame.bind(parameterSlots[i], arguments[i]);
+                }
+                try {
+                    visitor.executeSubroutineBody(subroutine.getSubroutineBody());
+                    break;
+                }
+                catch (TailCallException tailCall) {
+                    // The subroutine ended with a call, the called subroutine is executed with the same frame
+                    arguments = this.tailCallArguments;
+                    subroutine = this.resolve(this.tailCallSite);
+                    this.tailCallArguments = null;
+                    this.reuseFrame(frame, subroutine.getLayout());
+                }
+            }
+        }
+        catch (StackOverflowError error) {
+            throw this.stackOverflow(callSite.getContext());
+        }
+        finally {
+            this.restoreFrame(callerFrame);
+            this.releaseFrame(frame);
+        }
+    }
+
+    /**
+     * Gets the subroutine a call site is bound to, the call sites are bound before the program is executed. A call site,
+     * that is not bound, is looked up again, so its errors are reported with the invocation
+     *
+     * @param callSite The call site of the invocation
+     * @return The invoked subroutine
      */
-    public void invokeSubroutine(String subroutineName, List<JBasicValue> arguments, JBasicVisitor visitor,
-                                 SubroutineInvocationStatementContext context)
-                                 throws SubroutineNotDefinedException, SubroutineArityException  {
-        if (!this.subroutines.containsKey(subroutineName)) {
-            throw new SubroutineNotDefinedException("A subroutine with the name" + subroutineName + " is not defined in the script", context);
+    private JBasicSubroutine resolve(CallSite callSite) throws SubroutineNotDefinedException, SubroutineArityException {
+        JBasicSubroutine subroutine = callSite.getTarget();
+        if (subroutine != null) {
+            return subroutine;
+        }
+        subroutine = this.subroutines.get(callSite.getName());
+        if (subroutine == null) {
+            throw new SubroutineNotDefinedException("A subroutine with the name" + callSite.getName() + " is not defined in the script", callSite.getContext());
         }
-        JBasicSubroutine subroutine = this.subroutines.get(subroutineName);
-        if (subroutine.getArity() != arguments.size()) {
+        if (subroutine.getArity() != callSite.getArity()) {
             throw new SubroutineArityException("Subroutine expects " + subroutine.getArguments().length +
-                    " arguments but was called with " + arguments.size(), context);
-        }
-        final Map<String, JBasicValue> oldMemoryState = this.memory;
-        // Prepare subroutine memory
-        this.memory = new HashMap<>();
-        IntStream.range(0, subroutine.getArity())
-                .forEach(i -> this.assignToVariable(subroutine.getArguments()[i], arguments.get(i)));
-        Arrays.stream(subroutine.getSubroutineBody()).forEach(visitor::visit);
-        // Reset memory to the old state
-        this.memory = oldMemoryState;
+                    " arguments but was called with " + callSite.getArity(), callSite.getContext());
+        }
+        callSite.bind(subroutine);
+        return subroutine;
     }
 
     public String getCurrentScript() {
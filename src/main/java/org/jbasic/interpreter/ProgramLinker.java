@@ -0,0 +1,135 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file ProgramLinker.java
+ * @brief Links the labels and subroutines of a program before it is executed.
+ */
+
+package org.jbasic.interpreter;
+
+import jbasic.JBasicParser;
+import jbasic.LBExpressionParser;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.jbasic.core.guard.NumericalValueSafeguard;
+import org.jbasic.error.labels.UndefinedLabelException;
+import org.jbasic.error.subroutine.SubroutineArityException;
+import org.jbasic.error.subroutine.SubroutineRedefinitionException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @brief Links the labels and subroutines of a program before it is executed.
+ * @details The labeled blocks of the whole program are registered in the interpreter state, so a 'goto' statement can
+ * jump forward, and every 'goto' statement is validated to jump to a defined label. Subroutines are defined once per
+ * program, every invocation gets a call site in the interpreter state and the arity of all invocations is validated.
+ * Errors are therefore reported before the program starts.
+ */
+public class ProgramLinker {
+
+    /// The state of the interpreter, that stores the call sites
+    private final JBasicInterpreterState state;
+    /// The labels of the labeled blocks of the program
+    private final Set<String> labels = new HashSet<>();
+    /// The 'goto' statements of the program, in the order they appear in the program
+    private final List<JBasicParser.GotoStatementContext> gotoStatements = new ArrayList<>();
+    /// The subroutine definitions of the program, stored with the name of the subroutine as key
+    private final Map<String, JBasicParser.SubroutineDefinitionStatementContext> definitions = new HashMap<>();
+    /// The subroutine invocations of the program, in the order they appear in the program
+    private final List<JBasicParser.SubroutineInvocationStatementContext> invocations = new ArrayList<>();
+
+    /**
+     * Constructor of the ProgramLinker
+     *
+     * @param state The state of the interpreter, that stores the call sites
+     */
+    public ProgramLinker(JBasicInterpreterState state) {
+        this.state = state;
+    }
+
+    /**
+     * Links a program
+     *
+     * @param program The parsing context of the program
+     * @throws SubroutineRedefinitionException if a subroutine is defined more than once
+     * @throws UndefinedLabelException if a 'goto' statement jumps to a label, that is not defined
+     * @throws SubroutineArityException if a subroutine is invoked with the wrong amount of arguments
+     */
+    public void link(JBasicParser.ProgramContext program)
+            throws SubroutineRedefinitionException, UndefinedLabelException, SubroutineArityException {
+        this.collect(program);
+        for (JBasicParser.GotoStatementContext gotoStatement : this.gotoStatements) {
+            String label = gotoStatement.lab.getText();
+            if (!this.labels.contains(label)) {
+                throw new UndefinedLabelException("A label called " + label + " is not defined", gotoStatement);
+            }
+        }
+        for (JBasicParser.SubroutineInvocationStatementContext invocation : this.invocations) {
+            CallSite callSite = this.state.callSite(invocation);
+            JBasicParser.SubroutineDefinitionStatementContext definition = this.definitions.get(callSite.getName());
+            // Invocations of undefined subroutines are reported when they are executed
+            if (definition == null) {
+                continue;
+            }
+            int parameters = definition.subroutineSignature().variableIdentifier().size();
+            if (parameters != callSite.getArity()) {
+                throw new SubroutineArityException("Subroutine expects " + parameters +
+                        " arguments but was called with " + callSite.getArity(), invocation);
+            }
+        }
+    }
+
+    /**
+     * Collects the labels, 'goto' statements, subroutine definitions and invocations of a part of the abstract syntax
+     * tree. The labeled blocks are registered, if a label is used twice the last block in the program is registered
+     *
+     * @param tree The part of the abstract syntax tree
+     */
+    private void collect(ParseTree tree) throws SubroutineRedefinitionException {
+        if (tree instanceof JBasicParser.LabeledBlockContext) {
+            JBasicParser.LabeledBlockContext labeledBlock = (JBasicParser.LabeledBlockContext) tree;
+            if (labeledBlock.lab.getType() == LBExpressionParser.NUMERIC_LITERAL) {
+                NumericalValueSafeguard.guaranteeIsWhole("Digits are not allowed in a label",
+                        Double.parseDouble(labeledBlock.NUMERIC_LITERAL().getText()), labeledBlock);
+            }
+            String label = labeledBlock.lab.getText();
+            this.labels.add(label);
+            this.state.addLabel(label, labeledBlock.block());
+        }
+        else if (tree instanceof JBasicParser.GotoStatementContext) {
+            this.gotoStatements.add((JBasicParser.GotoStatementContext) tree);
+        }
+        else if (tree instanceof JBasicParser.SubroutineDefinitionStatementContext) {
+            JBasicParser.SubroutineDefinitionStatementContext definition =
+                    (JBasicParser.SubroutineDefinitionStatementContext) tree;
+            String name = definition.subroutineSignature().IDENTIFIER().getText();
+            if (this.definitions.putIfAbsent(name, definition) != null) {
+                throw new SubroutineRedefinitionException("A subroutine with the name " + name +
+                        " is already defined in the script", definition);
+            }
+        }
+        else if (tree instanceof JBasicParser.SubroutineInvocationStatementContext) {
+            this.invocations.add((JBasicParser.SubroutineInvocationStatementContext) tree);
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            this.collect(tree.getChild(i));
+        }
+    }
+}
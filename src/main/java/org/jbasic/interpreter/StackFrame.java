@@ -0,0 +1,273 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file StackFrame.java
+ * @brief Stores the variables of a compiled subroutine invocation or the main program in a flat array.
+ */
+
+package org.jbasic.interpreter;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.jbasic.error.variable.UndefinedVariableException;
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.Arrays;
+
+/**
+ * @brief Stores the variables of a compiled subroutine invocation or the main program in a flat array.
+ * @details The variables are accessed by the slot that the compiler resolved, a slot is null as long as the variable
+ * is not defined. The frames of subroutine invocations are reused, so a frame can hold more slots than its layout.
+ * The counter of a for loop is stored as a primitive number, the value of the variable is only created when the
+ * variable is read as a value.
+ */
+public class StackFrame {
+
+    /// The layout that maps the variable names to the slots
+    private FrameLayout layout;
+    /// The values of the variables, stored by their slot
+    private JBasicValue[] slots;
+    /// The numbers of the variables, that were assigned as primitive numbers, stored by their slot
+    private double[] numbers;
+    /// Whether the number of a slot is the current value of the variable
+    private boolean[] numerical;
+    /// The integers of the variables with the suffix '%', that were assigned as primitive integers, stored by their slot
+    private long[] integers;
+    /// Whether the integer of a slot is the current value of the variable
+    private boolean[] integral;
+
+    /**
+     * Constructor of the StackFrame
+     *
+     * @param layout The layout of the frame
+     */
+    public StackFrame(FrameLayout layout) {
+        this.layout = layout;
+        this.slots = new JBasicValue[layout.size()];
+        this.numbers = new double[layout.size()];
+        this.numerical = new boolean[layout.size()];
+        this.integers = new long[layout.size()];
+        this.integral = new boolean[layout.size()];
+    }
+
+    /**
+     * Gets the value of a variable
+     *
+     * @param slot    The slot of the variable
+     * @param context The parsing context of the variable
+     * @return The value of the variable
+     * @note Throws an UndefinedVariableException if the variable is not defined
+     */
+    public JBasicValue get(int slot, ParserRuleContext context) throws UndefinedVariableException {
+        JBasicValue value = this.slots[slot];
+        if (value == null) {
+            if (!this.numerical[slot] && !this.integral[slot]) {
+                throw new UndefinedVariableException(this.layout.nameOf(slot) + " is not defined", context);
+            }
+            // The number is materialized once and kept until the variable is assigned again
+            value = this.numerical[slot] ? new JBasicValue(this.numbers[slot])
+                    : JBasicValue.ofInteger(this.integers[slot]);
+            this.slots[slot] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Gets the value of a variable as a number, without creating a value for a number that was assigned as a number
+     *
+     * @param slot    The slot of the variable
+     * @param context The parsing context of the variable
+     * @return The number of the variable
+     * @note Throws an UndefinedVariableException if the variable is not defined
+     */
+    public double getNumber(int slot, ParserRuleContext context) throws UndefinedVariableException {
+        if (this.numerical[slot]) {
+            return this.numbers[slot];
+        }
+        if (this.integral[slot]) {
+            return this.integers[slot];
+        }
+        return this.get(slot, context).underlyingNumber();
+    }
+
+    /**
+     * Gets the value of a variable, that holds an integer, without creating a value for an integer that was assigned
+     * as an integer
+     *
+     * @param slot    The slot of the variable
+     * @param context The parsing context of the variable
+     * @return The integer of the variable
+     * @note Throws an UndefinedVariableException if the variable is not defined
+     */
+    public long getInteger(int slot, ParserRuleContext context) throws UndefinedVariableException {
+        if (this.integral[slot]) {
+            return this.integers[slot];
+        }
+        return this.get(slot, context).underlyingInteger();
+    }
+
+    /**
+     * Determines whether a variable is defined
+     *
+     * @param slot The slot of the variable
+     * @return true if the variable has a value or a number, false if not
+     */
+    public boolean isDefined(int slot) {
+        return this.slots[slot] != null || this.numerical[slot] || this.integral[slot];
+    }
+
+    /**
+     * Determines whether a variable holds a number
+     *
+     * @param slot The slot of the variable
+     * @return true if the variable was assigned a number or a numerical value, false if not
+     */
+    public boolean holdsNumber(int slot) {
+        return this.numerical[slot] || this.integral[slot]
+                || this.slots[slot] != null && this.slots[slot].isANumericalValue();
+    }
+
+    /**
+     * Determines whether a variable holds a 64 bit integer
+     *
+     * @param slot The slot of the variable
+     * @return true if the variable was assigned an integer, false if not
+     */
+    public boolean holdsInteger(int slot) {
+        return this.integral[slot] || this.slots[slot] != null && this.slots[slot].isAnIntegerValue();
+    }
+
+    /**
+     * Assigns another value to a variable
+     *
+     * @param slot  The slot of the variable
+     * @param value The new value of the variable
+     */
+    public void set(int slot, JBasicValue value) {
+        this.slots[slot] = value;
+        this.numerical[slot] = false;
+        this.integral[slot] = false;
+    }
+
+    /**
+     * Binds an argument to a parameter of a subroutine. Whole numbers bound to a parameter with the suffix '%' are
+     * stored as integers, like they are by an assignment
+     *
+     * @param slot     The slot of the parameter
+     * @param argument The evaluated argument
+     */
+    public void bind(int slot, JBasicValue argument) {
+        this.set(slot, this.layout.nameOf(slot).endsWith("%") ? argument.asInteger() : argument);
+    }
+
+    /**
+     * Assigns a number to a variable, the value of the variable is created when it is read as a value
+     *
+     * @param slot   The slot of the variable
+     * @param number The new number of the variable
+     */
+    public void setNumber(int slot, double number) {
+        this.slots[slot] = null;
+        this.numbers[slot] = number;
+        this.numerical[slot] = true;
+        this.integral[slot] = false;
+    }
+
+    /**
+     * Assigns an integer to a variable, the value of the variable is created when it is read as a value
+     *
+     * @param slot    The slot of the variable
+     * @param integer The new integer of the variable
+     */
+    public void setInteger(int slot, long integer) {
+        this.slots[slot] = null;
+        this.integers[slot] = integer;
+        this.integral[slot] = true;
+        this.numerical[slot] = false;
+    }
+
+    /**
+     * Removes the value of a variable, so the variable is not defined anymore
+     *
+     * @param slot The slot of the variable
+     */
+    public void remove(int slot) {
+        this.slots[slot] = null;
+        this.numerical[slot] = false;
+        this.integral[slot] = false;
+    }
+
+    /**
+     * Assigns another value to a variable by its name
+     *
+     * @param name  The name of the variable, including the suffix
+     * @param value The new value of the variable
+     */
+    public void assign(String name, JBasicValue value) {
+        int slot = this.layout.find(name);
+        if (slot == -1) {
+            throw new IllegalStateException("The variable " + name + " is not part of the frame layout");
+        }
+        this.set(slot, value);
+    }
+
+    /**
+     * Gets the value of a variable by its name
+     *
+     * @param name The name of the variable, including the suffix
+     * @return The value of the variable or null if the variable is not defined
+     */
+    public JBasicValue lookup(String name) {
+        int slot = this.layout.find(name);
+        if (slot == -1 || !this.isDefined(slot)) {
+            return null;
+        }
+        return this.get(slot, null);
+    }
+
+    /**
+     * Prepares the frame for another invocation, the frame has to be cleared before
+     *
+     * @param layout The layout of the invoked subroutine
+     */
+    void reset(FrameLayout layout) {
+        this.layout = layout;
+        if (this.slots.length < layout.size()) {
+            this.slots = new JBasicValue[layout.size()];
+            this.numbers = new double[layout.size()];
+            this.numerical = new boolean[layout.size()];
+            this.integers = new long[layout.size()];
+            this.integral = new boolean[layout.size()];
+        }
+    }
+
+    /**
+     * Removes the values of all variables, so the frame does not keep them alive while it is not used
+     */
+    void clear() {
+        Arrays.fill(this.slots, 0, this.layout.size(), null);
+        Arrays.fill(this.numerical, 0, this.layout.size(), false);
+        Arrays.fill(this.integral, 0, this.layout.size(), false);
+    }
+
+    /**
+     * Gets the layout of the frame
+     *
+     * @return The layout of the frame
+     */
+    public FrameLayout getLayout() {
+        return this.layout;
+    }
+}
@@ -21,6 +21,7 @@
 package org.jbasic.languageModels;
 
 import jbasic.JBasicParser;
+import org.jbasic.interpreter.FrameLayout;
 
 /**
  * @brief Stores the metadata associated with a subroutine, and it's block parsing context so the subroutine can be invoked later.
@@ -33,15 +34,28 @@ public class JBasicSubroutine {
     /// Stores the parsing context of the functionBody, so we can execute it later
     private final JBasicParser.StatementContext [] statementsInBodyContexts;
 
+    /// The layout of the frames the invocations of the subroutine store their variables in
+    private final FrameLayout layout;
+
+    /// The slots of the arguments in the frame of an invocation
+    private final int[] parameterSlots;
+
     /**
      * Constructor of the JBASICSubroutine class
      *
      * @param arguments                   The names of the arguments of the subroutine
      * @param statementsInBodyContexts The parsing context of the body of the subroutine
+     * @param layout                      The layout of the frames, that contains every variable of the subroutine
      */
-    public JBasicSubroutine(String[] arguments, JBasicParser.StatementContext[] statementsInBodyContexts) {
+    public JBasicSubroutine(String[] arguments, JBasicParser.StatementContext[] statementsInBodyContexts,
+                            FrameLayout layout) {
         this.arguments = arguments;
         this.statementsInBodyContexts = statementsInBodyContexts;
+        this.layout = layout;
+        this.parameterSlots = new int[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            this.parameterSlots[i] = layout.find(arguments[i]);
+        }
     }
 
     /**
@@ -61,6 +75,24 @@ public class JBasicSubroutine {
         return this.statementsInBodyContexts;
     }
 
+    /**
+     * Gets the layout of the frames the invocations of the subroutine store their variables in
+     *
+     * @return The frame layout
+     */
+    public FrameLayout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Gets the slots of the arguments in the frame of an invocation
+     *
+     * @return The slots of the arguments, ordered like the arguments
+     */
+    public int[] getParameterSlots() {
+        return this.parameterSlots;
+    }
+
     /**
      * Gets the arity, meaning the amount arguments the subroutine expects
      * @return The arity of the subroutine
@@ -28,29 +28,51 @@ import org.jbasic.core.guard.ValueTypeSafeguard;
 import java.io.PrintStream;
 import java.util.Arrays;
 import java.util.Objects;
-import java.util.function.BiFunction;
 
 /**
  * @brief Value class 
  * @details The class encapsulates arrays, numerical and string values and their corresponding operations.
+ * Numbers are stored in a primitive field and every value carries a tag of its type, so arithmetic, comparisons and
+ * type checks neither box nor unbox the operands.
+ * Whole numbers assigned to variables with the suffix '%' are stored as 64 bit integers. Additions, subtractions,
+ * multiplications, divisions without remainder, 'MOD' and comparisons of an integer with another integer or a whole
+ * number are exact. The result is promoted to a floating point number, if the other operand has a fractional part or
+ * the integer operation overflows.
  */
 public class JBasicValue {
 
+    /// The types a value can have
+    private enum Type {
+        NUMBER,
+        INTEGER,
+        STRING,
+        ONE_DIMENSIONAL_ARRAY,
+        TWO_DIMENSIONAL_ARRAY,
+        THREE_DIMENSIONAL_ARRAY,
+        NULL
+    }
+
     /// False value constant
     public static final JBasicValue FalseValue = new JBasicValue(0);
     /// False value constant
     public static final JBasicValue TrueValue = new JBasicValue(1);
     /// null value constant
-    public static final JBasicValue NullValue = new JBasicValue((Object)null);
+    public static final JBasicValue NullValue = new JBasicValue(Type.NULL, 0, null);
 
-    /// Underlying value
-    private final Object value;
+    /// The type of the value
+    private final Type type;
+    /// Underlying number, only used by numerical values
+    private final double number;
+    /// Underlying integer, only used by integer values
+    private final long integer;
+    /// Underlying string or array, null for numerical values
+    private final Object reference;
 
     /** Creates a new Value object instance that has a string as the underlying value
-     * @param value The underlying string value of the newly created value
+     * @param value The underlying string value of the newly created value, a null string creates a null value
      */
     public JBasicValue(String value) {
-        this.value = value;
+        this(value == null ? Type.NULL : Type.STRING, 0, value);
     }
 
     /**
@@ -59,28 +81,55 @@ public class JBasicValue {
      */
 
     public JBasicValue(double value) {
-        this.value = value;
+        this(Type.NUMBER, value, null);
     }
 
     /**
-     * @param value The underlying double of the newly created value
-     * @brief Creates a new Value object instance that has an object as the underlying value
-     * @details This method is only called by the two other public constructors of this class
+     * @param type      The type of the newly created value
+     * @param number    The underlying number, only used if the value is numerical
+     * @param reference The underlying string or array
+     * @brief Creates a new Value object instance
+     * @details This method is called by the public constructors of this class
+     */
+    private JBasicValue(Type type, double number, Object reference) {
+        this.type = type;
+        this.number = number;
+        this.integer = 0;
+        this.reference = reference;
+    }
+
+    /**
+     * @param integer The underlying integer
+     * @param number  The underlying integer converted to a floating point number
+     * @brief Creates a new integer value
+     */
+    private JBasicValue(long integer, double number) {
+        this.type = Type.INTEGER;
+        this.number = number;
+        this.integer = integer;
+        this.reference = null;
+    }
+
+    /**
+     * Creates a new Value object instance that has a 64 bit integer as the underlying value
+     *
+     * @param integer The underlying integer of the newly created value
+     * @return The integer value
      */
-    private JBasicValue(Object value) {
-        this.value = value;
+    public static JBasicValue ofInteger(long integer) {
+        return new JBasicValue(integer, integer);
     }
 
     public JBasicValue(JBasicValue[] values) {
-        this.value = values;
+        this(Type.ONE_DIMENSIONAL_ARRAY, 0, values);
     }
 
     public JBasicValue(JBasicValue[][] values) {
-        this.value = values;
+        this(Type.TWO_DIMENSIONAL_ARRAY, 0, values);
     }
 
     public JBasicValue(JBasicValue[][][] values) {
-        this.value = values;
+        this(Type.THREE_DIMENSIONAL_ARRAY, 0, values);
     }
 
     /**
@@ -95,13 +144,22 @@ public class JBasicValue {
             return new JBasicValue(this.underlyingString() + right.underlyingString());
         }
         else if (this.isAStringValue() && right.isANumericalValue()) {
-            return new JBasicValue(this.underlyingString() + IOFormatter.numericalOutputFormat.format(right.underlyingNumber()));
+            return new JBasicValue(this.underlyingString() + right.formatNumber());
         }
         else if (this.isANumericalValue() && right.isAStringValue()) {
-            return new JBasicValue(IOFormatter.numericalOutputFormat.format(this.underlyingNumber()) + right.underlyingString());
+            return new JBasicValue(this.formatNumber() + right.underlyingString());
         }
         else {
-            return this.arithmeticEvaluation(right, Double::sum, context);
+            this.guaranteeOperandsAreNumerical(right, context);
+            if (this.isExactWith(right)) {
+                try {
+                    return ofInteger(Math.addExact(this.exactInteger(), right.exactInteger()));
+                }
+                catch (ArithmeticException overflow) {
+                    // The sum is promoted to a floating point number
+                }
+            }
+            return new JBasicValue(this.number + right.number);
         }
     }
 
@@ -117,16 +175,13 @@ public class JBasicValue {
     }
 
     /**
-     * Performs an arithmetic evaluation on a binary expression
+     * Ensures that both operands of an arithmetic expression are numerical
      * @param right The right operand in the expression
-     * @param operator The operator of the expression
      * @param context The parsing context of the binary expression
-     * @return The result of the arithmetic evaluation
      */
-    private JBasicValue arithmeticEvaluation(JBasicValue right, BiFunction<Double, Double, Double> operator, ParserRuleContext context) {
+    private void guaranteeOperandsAreNumerical(JBasicValue right, ParserRuleContext context) {
         ValueTypeSafeguard.guaranteeValueIsNumerical("Could not evaluate arithmetic expression", this, context);
         ValueTypeSafeguard.guaranteeValueIsNumerical("Could not evaluate arithmetic expression", right, context);
-        return new JBasicValue(operator.apply(this.underlyingNumber(), right.underlyingNumber()));
     }
 
     /**
@@ -137,7 +192,12 @@ public class JBasicValue {
      * @return This Value object instance divided by the divisor 'right'
      */
     public JBasicValue divide(JBasicValue right, ParserRuleContext context) {
-        return this.arithmeticEvaluation(right, (l, r) -> l / r, context);
+        this.guaranteeOperandsAreNumerical(right, context);
+        if (this.isExactWith(right) && right.exactInteger() != 0 && this.exactInteger() % right.exactInteger() == 0
+                && (this.exactInteger() != Long.MIN_VALUE || right.exactInteger() != -1)) {
+            return ofInteger(this.exactInteger() / right.exactInteger());
+        }
+        return new JBasicValue(this.number / right.number);
     }
 
     /**
@@ -148,8 +208,12 @@ public class JBasicValue {
      * @return true if both values are equal, false if not
      */
     public JBasicValue equal(JBasicValue right, ParserRuleContext context) {
-        if (this.isANumericalValue() && right.isANumericalValue()) {
-            return this.compare(right, Objects::equals, context);
+        if (this.isExactWith(right)) {
+            return this.exactInteger() == right.exactInteger() ? TrueValue : FalseValue;
+        }
+        else if (this.isANumericalValue() && right.isANumericalValue()) {
+            // Compares like Double.equals, so NaN is equal to itself and 0 is not equal to -0
+            return Double.doubleToLongBits(this.number) == Double.doubleToLongBits(right.number) ? TrueValue : FalseValue;
         }
         else if (this.isAStringValue() && right.isAStringValue()) {
             return this.underlyingString().equals(right.underlyingString()) ? TrueValue : FalseValue;
@@ -189,7 +253,13 @@ public class JBasicValue {
         if (this.isNotANumericalValue() != otherValue.isNotANumericalValue()) {
             return false;
         }
-        return Objects.equals(this.value, otherValue.value);
+        if (this.isExactWith(otherValue)) {
+            return this.exactInteger() == otherValue.exactInteger();
+        }
+        if (this.isANumericalValue()) {
+            return Double.doubleToLongBits(this.number) == Double.doubleToLongBits(otherValue.number);
+        }
+        return Objects.equals(this.reference, otherValue.reference);
     }
 
     /**
@@ -200,7 +270,11 @@ public class JBasicValue {
      * @return true if this Value object instance is greater than the other Value object instance, false if not
      */
     public JBasicValue greaterThen(JBasicValue right, ParserRuleContext context) {
-        return this.compare(right, (l, r) -> l > r, context);
+        this.guaranteeOperandsAreComparable(right, context);
+        if (this.isExactWith(right)) {
+            return this.exactInteger() > right.exactInteger() ? TrueValue : FalseValue;
+        }
+        return this.number > right.number ? TrueValue : FalseValue;
     }
 
     /**
@@ -211,7 +285,11 @@ public class JBasicValue {
      * @return true if this Value object instance is greater or equal to the other Value object instance, false if not
      */
     public JBasicValue greaterThenEqual(JBasicValue right, ParserRuleContext context) {
-        return this.compare(right, (l, r) -> l >= r, context);
+        this.guaranteeOperandsAreComparable(right, context);
+        if (this.isExactWith(right)) {
+            return this.exactInteger() >= right.exactInteger() ? TrueValue : FalseValue;
+        }
+        return this.number >= right.number ? TrueValue : FalseValue;
     }
 
     /// Computes the hashcode of a value instance
@@ -227,7 +305,7 @@ public class JBasicValue {
      * @return true if the underlying value is a string, false if not
      */
     public boolean isAStringValue() {
-        return this.value instanceof String;
+        return this.type == Type.STRING;
     }
 
     /**
@@ -236,7 +314,63 @@ public class JBasicValue {
      * @return true if the value is numerical, false if not
      */
     public boolean isANumericalValue() {
-        return this.value instanceof Double;
+        return this.type == Type.NUMBER || this.type == Type.INTEGER;
+    }
+
+    /**
+     * Determines if this Value object instance is a 64 bit integer value
+     *
+     * @return true if the value is an integer, false if not
+     */
+    public boolean isAnIntegerValue() {
+        return this.type == Type.INTEGER;
+    }
+
+    /**
+     * Determines whether an arithmetic operation with another value is computed exactly with 64 bit integers
+     *
+     * @param right The other operand of the operation
+     * @return true if one operand is an integer and the other one is an integer or a whole number, false if not
+     */
+    public boolean isExactWith(JBasicValue right) {
+        return (this.type == Type.INTEGER || right.type == Type.INTEGER) && this.isWhole() && right.isWhole();
+    }
+
+    /**
+     * Decodes a numeric literal. Literals without a fraction or an exponent are parsed as 64 bit integers, an integer
+     * becomes an integer value if a floating point number would round it
+     *
+     * @param literal The text of the literal
+     * @return The value of the literal
+     */
+    public static JBasicValue parseNumber(String literal) {
+        long integer;
+        try {
+            integer = Long.parseLong(literal);
+        }
+        catch (NumberFormatException notAnInteger) {
+            return new JBasicValue(Double.parseDouble(literal));
+        }
+        return Math.abs(integer) > 1L << 53 ? ofInteger(integer) : new JBasicValue((double) integer);
+    }
+
+    /**
+     * Determines whether the value is an integer or a whole floating point number in the range of 64 bit integers
+     *
+     * @return true if the number has no fractional part, false if not
+     */
+    private boolean isWhole() {
+        return this.type == Type.INTEGER || this.type == Type.NUMBER && this.number == Math.rint(this.number)
+                && Math.abs(this.number) < 0x1p63;
+    }
+
+    /**
+     * Gets the value of an integer or a whole number as a 64 bit integer
+     *
+     * @return The underlying integer
+     */
+    private long exactInteger() {
+        return this.type == Type.INTEGER ? this.integer : (long) this.number;
     }
 
     /**
@@ -256,7 +390,7 @@ public class JBasicValue {
      * @return true if the value is a one-dimensional array value, false if not
      */
     public boolean isAnOneDimensionalArrayValue() {
-        return this.value instanceof JBasicValue[];
+        return this.type == Type.ONE_DIMENSIONAL_ARRAY;
     }
 
     /**
@@ -265,7 +399,7 @@ public class JBasicValue {
      * @return true if the value is a two-dimensional array value, false if not
      */
     public boolean isATwoDimensionalArrayValue() {
-        return this.value instanceof JBasicValue[][];
+        return this.type == Type.TWO_DIMENSIONAL_ARRAY;
     }
 
     /**
@@ -274,7 +408,7 @@ public class JBasicValue {
      * @return true if the value is a three-dimensional array value, false if not
      */
     public boolean isAThreeDimensionalArrayValue() {
-        return this.value instanceof JBasicValue[][][];
+        return this.type == Type.THREE_DIMENSIONAL_ARRAY;
     }
 
     /**
@@ -285,7 +419,7 @@ public class JBasicValue {
      */
     public boolean isFalsy(ParserRuleContext context) {
         ValueTypeSafeguard.guaranteeValueIsNumerical("Only numerical can be used as conditions", this, context);
-        return this.underlyingNumber() == 0;
+        return this.number == 0;
     }
 
     /**
@@ -294,7 +428,7 @@ public class JBasicValue {
      * @return false if the value is numerical, true if not
      */
     public boolean isNotANumericalValue() {
-        return !(this.value instanceof Double);
+        return !this.isANumericalValue();
     }
 
     /**
@@ -305,7 +439,7 @@ public class JBasicValue {
      */
     public boolean isTruthy(ParserRuleContext context) {
         ValueTypeSafeguard.guaranteeValueIsNumerical("Only numerical can be used as conditions", this, context);
-        return this.underlyingNumber() != 0;
+        return this.number != 0;
     }
 
     /**
@@ -316,7 +450,11 @@ public class JBasicValue {
      * @return true if this Value object instance is less than the other Value object instance, false if not
      */
     public JBasicValue lessThen(JBasicValue right, ParserRuleContext context) {
-        return this.compare(right, (l, r) -> l < r, context);
+        this.guaranteeOperandsAreComparable(right, context);
+        if (this.isExactWith(right)) {
+            return this.exactInteger() < right.exactInteger() ? TrueValue : FalseValue;
+        }
+        return this.number < right.number ? TrueValue : FalseValue;
     }
 
     /**
@@ -326,7 +464,11 @@ public class JBasicValue {
      * @return true if this Value object instance is less or equal to the other Value object instance, false if not
      */
     public JBasicValue lessThenEqual(JBasicValue right, ParserRuleContext context) {
-        return this.compare(right, (l, r) -> l <= r, context);
+        this.guaranteeOperandsAreComparable(right, context);
+        if (this.isExactWith(right)) {
+            return this.exactInteger() <= right.exactInteger() ? TrueValue : FalseValue;
+        }
+        return this.number <= right.number ? TrueValue : FalseValue;
     }
 
     /**
@@ -337,7 +479,11 @@ public class JBasicValue {
      * @return This Value object instance divided by the divisor 'right'
      */
     public JBasicValue modulo(JBasicValue right, ParserRuleContext context) {
-        return this.arithmeticEvaluation(right, (l, r) -> l % r, context);
+        this.guaranteeOperandsAreNumerical(right, context);
+        if (this.isExactWith(right) && right.exactInteger() != 0) {
+            return ofInteger(this.exactInteger() % right.exactInteger());
+        }
+        return new JBasicValue(this.number % right.number);
     }
 
     /**
@@ -348,7 +494,16 @@ public class JBasicValue {
      * @return This Value object instance multiplied by the divisor 'right'
      */
     public JBasicValue multiply(JBasicValue right, ParserRuleContext context) {
-        return this.arithmeticEvaluation(right, (l, r) -> l * r, context);
+        this.guaranteeOperandsAreNumerical(right, context);
+        if (this.isExactWith(right)) {
+            try {
+                return ofInteger(Math.multiplyExact(this.exactInteger(), right.exactInteger()));
+            }
+            catch (ArithmeticException overflow) {
+                // The product is promoted to a floating point number
+            }
+        }
+        return new JBasicValue(this.number * right.number);
     }
 
     /**
@@ -364,19 +519,13 @@ public class JBasicValue {
     }
 
     /**
-     * Performs a relative evaluation on this Value object instance and another Value object instance
+     * Ensures that this Value object instance and another Value object instance can be compared
      * @param right The other Value object instance
-     * @param comparison The comparison operator
      * @param context The parsing context of the relative Evaluation
-     * @return The result of the relative evaluation
      */
-    private JBasicValue compare(JBasicValue right, BiFunction<Double, Double, Boolean> comparison, ParserRuleContext context) {
+    private void guaranteeOperandsAreComparable(JBasicValue right, ParserRuleContext context) {
         ValueTypeSafeguard.guaranteeValueIsNumerical("Only numerical values can be compared", this, context);
         ValueTypeSafeguard.guaranteeValueIsNumerical("Only numerical values can be compared", right, context);
-        if (comparison.apply(this.underlyingNumber(), right.underlyingNumber())) {
-            return TrueValue;
-        }
-        return FalseValue;
     }
 
     /**
@@ -387,7 +536,10 @@ public class JBasicValue {
      */
     public JBasicValue negate(NegateExpressionContext context) {
         ValueTypeSafeguard.guaranteeValueIsNumerical("Only numerical values can be negated", this, context);
-        return new JBasicValue(-this.underlyingNumber());
+        if (this.type == Type.INTEGER && this.integer != Long.MIN_VALUE) {
+            return ofInteger(-this.integer);
+        }
+        return new JBasicValue(-this.number);
     }
 
     /**
@@ -398,7 +550,7 @@ public class JBasicValue {
      */
     public JBasicValue not(ParserRuleContext context) {
         ValueTypeSafeguard.guaranteeValueIsNumerical("Only numerical values can be logically inverted", this, context);
-        return this.underlyingNumber() == 0 ? TrueValue : FalseValue;
+        return this.number == 0 ? TrueValue : FalseValue;
     }
 
     /**
@@ -420,7 +572,7 @@ public class JBasicValue {
     public void printValue(PrintStream printStream, boolean aligned) {
         StringBuilder outputBuilder = new StringBuilder();
         if (this.isANumericalValue()) {
-            String formattedValue = IOFormatter.numericalOutputFormat.format(this.underlyingNumber());
+            String formattedValue = this.formatNumber();
             if ("-0".equals(formattedValue)) {
                 outputBuilder = new StringBuilder("0");
             } else {
@@ -479,7 +631,16 @@ public class JBasicValue {
      * @return The underlying numerical value of this Value object instance subtracted with the underlying numerical value of the other Value object instance
      */
     public JBasicValue subtract(JBasicValue right, ParserRuleContext context) {
-        return this.arithmeticEvaluation(right, (l, r) -> l - r, context);
+        this.guaranteeOperandsAreNumerical(right, context);
+        if (this.isExactWith(right)) {
+            try {
+                return ofInteger(Math.subtractExact(this.exactInteger(), right.exactInteger()));
+            }
+            catch (ArithmeticException overflow) {
+                // The difference is promoted to a floating point number
+            }
+        }
+        return new JBasicValue(this.number - right.number);
     }
 
     /**
@@ -488,7 +649,41 @@ public class JBasicValue {
      * @return The underlying numerical value
      */
     public double underlyingNumber() {
-        return (double) this.value;
+        if (!this.isANumericalValue()) {
+            throw new ClassCastException("The value is not numerical");
+        }
+        return this.number;
+    }
+
+    /**
+     * Gets the underlying integer from the value
+     *
+     * @return The underlying 64 bit integer
+     */
+    public long underlyingInteger() {
+        if (this.type != Type.INTEGER) {
+            throw new ClassCastException("The value is not an integer");
+        }
+        return this.integer;
+    }
+
+    /**
+     * Converts a whole number into an integer value, so it can be stored in a variable with the suffix '%'
+     *
+     * @return The integer value of a whole number, the value itself for integers, fractional numbers and strings
+     */
+    public JBasicValue asInteger() {
+        return this.type == Type.NUMBER && this.isWhole() ? ofInteger((long) this.number) : this;
+    }
+
+    /**
+     * Formats the underlying number like it is printed, integers are formatted with all of their digits
+     *
+     * @return The formatted number
+     */
+    public String formatNumber() {
+        return this.type == Type.INTEGER ? IOFormatter.numericalOutputFormat.format(this.integer)
+                : IOFormatter.numericalOutputFormat.format(this.number);
     }
 
     /**
@@ -496,7 +691,10 @@ public class JBasicValue {
      * @return The underlying string value
      */
     public String underlyingString() {
-        return (String) this.value;
+        if (this.isANumericalValue()) {
+            throw new ClassCastException("The value is not a string");
+        }
+        return (String) this.reference;
     }
 
     /**
@@ -504,7 +702,7 @@ public class JBasicValue {
      * @return The underlying one-dimensional array value
      */
     public JBasicValue[] underlyingOneDimensionalArray() {
-        return (JBasicValue[]) this.value;
+        return (JBasicValue[]) this.reference;
     }
 
     /**
@@ -512,7 +710,7 @@ public class JBasicValue {
      * @return The underlying two-dimensional array value
      */
     public JBasicValue[][] underlyingTwoDimensionalArray() {
-        return (JBasicValue[][]) this.value;
+        return (JBasicValue[][]) this.reference;
     }
 
     /**
@@ -520,7 +718,7 @@ public class JBasicValue {
      * @return The underlying three-dimensional array value
      */
     public JBasicValue[][][] underlyingThreeDimensionalArray() {
-        return (JBasicValue[][][]) this.value;
+        return (JBasicValue[][][]) this.reference;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file Completion.java
+ * @brief The way the execution of a statement of a compiled program completed.
+ */
+
+package org.jbasic.programFlow;
+
+/**
+ * @brief The way the execution of a statement of a compiled program completed.
+ * @details A 'continue', 'exit' or 'goto' statement or a subroutine invocation in tail position signals its
+ * completion to the enclosing statements, that stop executing until a loop, a switch statement, the unit that
+ * contains the label or the invocation of the enclosing subroutine resumes the normal execution.
+ */
+public enum Completion {
+    /// The execution continues with the next statement
+    NORMAL,
+    /// The execution continues with the next iteration of the enclosing loop
+    CONTINUE,
+    /// The execution continues after the enclosing loop or switch statement
+    EXIT,
+    /// The execution continues at the label a 'goto' statement jumped to
+    JUMP,
+    /// The enclosing subroutine returns and the called subroutine is executed with its frame
+    TAIL_CALL
+}
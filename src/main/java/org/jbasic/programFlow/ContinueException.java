@@ -26,4 +26,23 @@ package org.jbasic.programFlow;
 @SuppressWarnings("serial")
 public class ContinueException extends RuntimeException {
 
+    /// The only instance, the exception is thrown on every continue and has no stack trace
+    public static final ContinueException INSTANCE = new ContinueException(false);
+
+    /**
+     * Constructor of a ContinueException with a stack trace, thrown by the compiled program on every continue if loop control
+     * exceptions are enabled
+     */
+    public ContinueException() {
+        this(true);
+    }
+
+    /**
+     * Private constructor of the ContinueException
+     *
+     * @param writableStackTrace Whether the stack trace is filled in
+     */
+    private ContinueException(boolean writableStackTrace) {
+        super(null, null, false, writableStackTrace);
+    }
 }
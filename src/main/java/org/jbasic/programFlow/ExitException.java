@@ -25,4 +25,24 @@ package org.jbasic.programFlow;
  */
 @SuppressWarnings("serial")
 public class ExitException extends RuntimeException {
+
+    /// The only instance, the exception is thrown on every exit and has no stack trace
+    public static final ExitException INSTANCE = new ExitException(false);
+
+    /**
+     * Constructor of a ExitException with a stack trace, thrown by the compiled program on every exit if loop control
+     * exceptions are enabled
+     */
+    public ExitException() {
+        this(true);
+    }
+
+    /**
+     * Private constructor of the ExitException
+     *
+     * @param writableStackTrace Whether the stack trace is filled in
+     */
+    private ExitException(boolean writableStackTrace) {
+        super(null, null, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,81 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file JumpException.java
+ * @brief Leaves the executed statements, so the execution can continue at a label.
+ */
+
+package org.jbasic.programFlow;
+
+import jbasic.JBasicParser;
+import org.antlr.v4.runtime.ParserRuleContext;
+
+/**
+ * @brief Leaves the executed statements, so the execution can continue at a label.
+ * @details The exception is caught by the program or the subroutine that contains the label, which continues the
+ * execution at the label.
+ */
+@SuppressWarnings("serial")
+public class JumpException extends RuntimeException {
+
+    /// The labeled block the execution continues at
+    private final JBasicParser.LabeledBlockContext target;
+    /// The label the 'goto' statement jumps to
+    private final String label;
+    /// The parsing context of the 'goto' statement
+    private final ParserRuleContext context;
+
+    /**
+     * Constructor of the JumpException, that disables the stack trace
+     *
+     * @param target  The labeled block the execution continues at
+     * @param label   The label the 'goto' statement jumps to
+     * @param context The parsing context of the 'goto' statement
+     */
+    public JumpException(JBasicParser.LabeledBlockContext target, String label, ParserRuleContext context) {
+        super(null, null, false, false);
+        this.target = target;
+        this.label = label;
+        this.context = context;
+    }
+
+    /**
+     * Gets the labeled block the execution continues at
+     *
+     * @return The labeled block
+     */
+    public JBasicParser.LabeledBlockContext getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Gets the label the 'goto' statement jumps to
+     *
+     * @return The label
+     */
+    public String getLabel() {
+        return this.label;
+    }
+
+    /**
+     * Gets the parsing context of the 'goto' statement
+     *
+     * @return The parsing context
+     */
+    public ParserRuleContext getContext() {
+        return this.context;
+    }
+}
@@ -0,0 +1,40 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file StopException.java
+ * @brief Stops the execution of a program, whose caller was interrupted.
+ */
+
+package org.jbasic.programFlow;
+
+/**
+ * @brief Stops the execution of a program, whose caller was interrupted.
+ * @details Thrown by the interpreter thread at the next loop iteration, jump, subroutine invocation or output of the
+ * program, after the interpreter was asked to stop it.
+ */
+@SuppressWarnings("serial")
+public class StopException extends RuntimeException {
+
+    /// The only instance, the exception does not report an error and has no stack trace
+    public static final StopException INSTANCE = new StopException();
+
+    /**
+     * Private constructor of the StopException, that disables the stack trace
+     */
+    private StopException() {
+        super(null, null, false, false);
+    }
+}
@@ -0,0 +1,151 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file SwitchTable.java
+ * @brief Maps the values of the cases of a switch statement to the cases, that are executed for a value.
+ */
+
+package org.jbasic.programFlow;
+
+import org.jbasic.languageModels.JBasicValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @brief Maps the values of the cases of a switch statement to the cases, that are executed for a value.
+ * @details The table is built once from the literals of the cases, so a switch statement finds its cases with a
+ * single lookup instead of comparing the value with every case. Whole numbers in a small range are looked up in an
+ * array, other numbers and strings in a hash table. Cases with the same value are all executed in their order.
+ *
+ * @param <T> The type of the cases
+ */
+public class SwitchTable<T> {
+
+    /// The maximum amount of slots of the array per numerical case, larger ranges are stored in the hash table
+    private static final int MAX_SLOTS_PER_CASE = 4;
+
+    /// The cases of the whole numbers in the range of the array, indexed by the number minus the offset
+    private final List<List<T>> denseCases;
+    /// The smallest number in the range of the array
+    private final int denseOffset;
+    /// The cases of the numbers, that are not stored in the array, stored with their key as key
+    private final Map<Object, List<T>> numericalCases = new HashMap<>();
+    /// The cases of the strings
+    private final Map<String, List<T>> stringCases = new HashMap<>();
+
+    /**
+     * Constructor of the SwitchTable
+     *
+     * @param caseValues The decoded literals of the cases
+     * @param cases      The cases, in the same order as the literals
+     */
+    public SwitchTable(JBasicValue[] caseValues, List<T> cases) {
+        int minimum = Integer.MAX_VALUE;
+        int maximum = Integer.MIN_VALUE;
+        int wholeNumbers = 0;
+        for (JBasicValue caseValue : caseValues) {
+            if (caseValue.isANumericalValue() && isSmallWholeNumber(caseValue.underlyingNumber())) {
+                minimum = Math.min(minimum, (int) caseValue.underlyingNumber());
+                maximum = Math.max(maximum, (int) caseValue.underlyingNumber());
+                wholeNumbers++;
+            }
+        }
+        boolean dense = wholeNumbers > 0 && (long) maximum - minimum < (long) wholeNumbers * MAX_SLOTS_PER_CASE;
+        this.denseCases = new ArrayList<>(dense ? Collections.nCopies(maximum - minimum + 1, null)
+                : Collections.emptyList());
+        this.denseOffset = dense ? minimum : 0;
+        for (int i = 0; i < caseValues.length; i++) {
+            JBasicValue caseValue = caseValues[i];
+            List<T> matching;
+            if (caseValue.isAStringValue()) {
+                matching = this.stringCases.computeIfAbsent(caseValue.underlyingString(), (key) -> new ArrayList<>());
+            }
+            else if (dense && isSmallWholeNumber(caseValue.underlyingNumber())) {
+                int slot = (int) caseValue.underlyingNumber() - minimum;
+                if (this.denseCases.get(slot) == null) {
+                    this.denseCases.set(slot, new ArrayList<>());
+                }
+                matching = this.denseCases.get(slot);
+            }
+            else {
+                matching = this.numericalCases.computeIfAbsent(numericalKey(caseValue), (key) -> new ArrayList<>());
+            }
+            matching.add(cases.get(i));
+        }
+    }
+
+    /**
+     * Gets the cases, that are executed for a value
+     *
+     * @param value The value of the switch statement
+     * @return The matching cases in their order or an empty list if no case matches
+     */
+    public List<T> lookup(JBasicValue value) {
+        List<T> matching;
+        if (value.isANumericalValue()) {
+            double number = value.underlyingNumber();
+            int slot = (int) number - this.denseOffset;
+            if (isSmallWholeNumber(number) && slot >= 0 && slot < this.denseCases.size()) {
+                matching = this.denseCases.get(slot);
+            }
+            else {
+                matching = this.numericalCases.get(numericalKey(value));
+            }
+        }
+        else if (value.isAStringValue()) {
+            matching = this.stringCases.get(value.underlyingString());
+        }
+        else {
+            matching = null;
+        }
+        return matching != null ? matching : Collections.emptyList();
+    }
+
+    /**
+     * Gets the key of a number in the hash table. Whole numbers are stored with their 64 bit integer as key, so an
+     * integer of a variable with the suffix '%' matches exactly the case with its value. Other numbers are compared
+     * by their bits, so negative zero and NaN match like they do with the equality operator
+     *
+     * @param value The numerical value
+     * @return The key of the number
+     */
+    private static Object numericalKey(JBasicValue value) {
+        if (value.isAnIntegerValue()) {
+            return value.underlyingInteger();
+        }
+        double number = value.underlyingNumber();
+        boolean negativeZero = Double.doubleToLongBits(number) == Double.doubleToLongBits(-0.0);
+        if (number == Math.rint(number) && Math.abs(number) < 0x1p63 && !negativeZero) {
+            return (long) number;
+        }
+        return number;
+    }
+
+    /**
+     * Determines whether a number is a whole number, that can be stored in the array. Negative zero is not, because
+     * it is a different value than zero
+     *
+     * @param number The number
+     * @return true if the number is a whole number in the range of an integer, false if not
+     */
+    private static boolean isSmallWholeNumber(double number) {
+        return Double.doubleToLongBits(number) == Double.doubleToLongBits((int) number);
+    }
+}
@@ -0,0 +1,40 @@
+/****************************************************************************
+ * Copyright (C) 2022 by Frederik Tobner                                    *
+ *                                                                          *
+ * This file is part of JBASIC.                                             *
+ *                                                                          *
+ * Permission to use, copy, modify, and distribute this software and its    *
+ * documentation under the terms of the GNU General Public License is       *
+ * hereby granted.                                                          *
+ * No representations are made about the suitability of this software for   *
+ * any purpose.                                                             *
+ * It is provided "as is" without express or implied warranty.              *
+ * See the <"https://www.gnu.org/licenses/gpl-3.0.html">GNU General Public  *
+ * License for more details.                                                *
+ ****************************************************************************/
+
+/**
+ * @file TailCallException.java
+ * @brief Returns from a subroutine, whose last statement calls another subroutine.
+ */
+
+package org.jbasic.programFlow;
+
+/**
+ * @brief Returns from a subroutine, whose last statement calls another subroutine.
+ * @details The called subroutine and its arguments are stored in the interpreter state, the invocation of the
+ * enclosing subroutine executes the called subroutine with its frame.
+ */
+@SuppressWarnings("serial")
+public class TailCallException extends RuntimeException {
+
+    /// The only instance, the exception is thrown on every tail call and has no stack trace
+    public static final TailCallException INSTANCE = new TailCallException();
+
+    /**
+     * Private constructor of the TailCallException, that disables the stack trace
+     */
+    private TailCallException() {
+        super(null, null, false, false);
+    }
+}
@@ -1,5 +1,5 @@
 /**
- * @brief Contains exceptions to control the program flow
+ * @brief Contains exceptions and completion signals to control the program flow
  */
 
 package org.jbasic.programFlow;
\ No newline at end of file
@@ -24,8 +24,9 @@ package org.jbasic.visitor;
 import jbasic.JBasicBaseVisitor;
 import jbasic.JBasicParser;
 import jbasic.LBExpressionParser;
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RuleContext;
-import org.jbasic.core.IOFormatter;
+import org.antlr.v4.runtime.tree.ParseTree;
 import org.jbasic.core.RandomNumbersGenerator;
 import org.jbasic.core.Trigonometry;
 import org.jbasic.core.guard.ArraySafeguard;
@@ -33,11 +34,16 @@ import org.jbasic.core.guard.FunctionSafeguard;
 import org.jbasic.core.guard.NumericalValueSafeguard;
 import org.jbasic.core.guard.ValueTypeSafeguard;
 import org.jbasic.core.guard.VariableSafeguard;
+import org.jbasic.error.labels.UndefinedLabelException;
+import org.jbasic.interpreter.CallSite;
+import org.jbasic.interpreter.FrameLayout;
 import org.jbasic.interpreter.JBasicInterpreterState;
 import org.jbasic.languageModels.JBasicSubroutine;
 import org.jbasic.languageModels.JBasicValue;
 import org.jbasic.programFlow.ContinueException;
 import org.jbasic.programFlow.ExitException;
+import org.jbasic.programFlow.JumpException;
+import org.jbasic.programFlow.SwitchTable;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -46,8 +52,10 @@ import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import java.util.stream.IntStream;
 
 /**
@@ -62,6 +70,11 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
     private final PrintStream stdout;
     /// State of the interpreter
     private final JBasicInterpreterState state;
+    /// Whether 'and' and 'or' expressions only evaluate their right operand if the left operand does not decide it
+    private final boolean shortCircuitEvaluation;
+    /// The tables of the switch statements, that were executed so far
+    private final Map<JBasicParser.SwitchStatementContext, SwitchTable<JBasicParser.BlockContext>> switchTables =
+            new IdentityHashMap<>();
 
     /// standard output stream that is used when the program is executed
     private PrintStream printStream;
@@ -76,9 +89,24 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
      * @param stdout The standard output stream used by the visitor
      */
     public JBasicVisitor(JBasicInterpreterState state, InputStream stdin, PrintStream stdout) {
+        this(state, stdin, stdout, false);
+    }
+
+    /**
+     * Constructor of the JBasicVisitor
+     *
+     * @param state                  The interpreter state object used by the visitor
+     * @param stdin                  The standard input stream used by the visitor
+     * @param stdout                 The standard output stream used by the visitor
+     * @param shortCircuitEvaluation Whether 'and' and 'or' expressions skip the right operand if the left operand
+     *                               decides the result
+     */
+    public JBasicVisitor(JBasicInterpreterState state, InputStream stdin, PrintStream stdout,
+                         boolean shortCircuitEvaluation) {
         this.stdin = stdin;
         this.stdout = stdout;
         this.state = state;
+        this.shortCircuitEvaluation = shortCircuitEvaluation;
     }
 
     /**
@@ -90,12 +118,167 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
     @Override
     public JBasicValue visitProgram(JBasicParser.ProgramContext context) {
         this.initialize();
+        // The subroutines are defined before the program is executed, so they can be invoked before their definition
+        this.defineSubroutines(context);
+        this.state.bindCallSites();
         try {
-            return super.visitProgram(context);
+            try {
+                super.visitProgram(context);
+            }
+            catch (JumpException jump) {
+                this.dispatchJumps(context, jump);
+            }
+        }
+        catch (JumpException jump) {
+            throw new UndefinedLabelException("The label " + jump.getLabel() +
+                    " can not be reached from the goto statement", jump.getContext());
         }
         finally {
             this.cleanup();
         }
+        return new JBasicValue(0);
+    }
+
+    /**
+     * Executes the statements of a subroutine
+     *
+     * @param body The statements in the body of the subroutine
+     */
+    public void executeSubroutineBody(JBasicParser.StatementContext[] body) {
+        try {
+            for (JBasicParser.StatementContext statement : body) {
+                this.visit(statement);
+            }
+        }
+        catch (JumpException jump) {
+            this.dispatchJumps(body[0].getParent(), jump);
+        }
+    }
+
+    /**
+     * Continues the execution of the program or the body of a subroutine at the labels the 'goto' statements jump to.
+     * Every jump returns to the unit first, so jumping backwards repeatedly runs in constant stack space
+     *
+     * @param unit The parsing context of the program or the body of the subroutine
+     * @param jump The first jump
+     * @throws JumpException if a 'goto' statement jumped to a label of another unit
+     */
+    private void dispatchJumps(ParserRuleContext unit, JumpException jump) throws JumpException {
+        while (true) {
+            List<ParserRuleContext> path = this.resumePath(jump.getTarget());
+            if (path.get(0) != unit) {
+                throw jump;
+            }
+            try {
+                this.resume(path, 0);
+                return;
+            }
+            catch (JumpException next) {
+                jump = next;
+            }
+        }
+    }
+
+    /**
+     * Gets the rules that enclose a labeled block, starting with the program or the body of the subroutine
+     *
+     * @param target The labeled block
+     * @return The enclosing rules, ending with the labeled block itself
+     */
+    private List<ParserRuleContext> resumePath(JBasicParser.LabeledBlockContext target) {
+        List<ParserRuleContext> path = new ArrayList<>();
+        ParserRuleContext rule = target;
+        while (!(rule instanceof JBasicParser.ProgramContext || rule instanceof JBasicParser.SubroutineBodyContext)) {
+            path.add(rule);
+            rule = rule.getParent();
+        }
+        path.add(rule);
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Continues the execution inside of a rule, that encloses the labeled block a 'goto' statement jumped to
+     *
+     * @param path  The rules that enclose the labeled block
+     * @param depth The position of the rule in the path
+     */
+    private void resume(List<ParserRuleContext> path, int depth) {
+        ParserRuleContext rule = path.get(depth);
+        if (depth == path.size() - 1) {
+            this.visit(rule);
+            return;
+        }
+        ParserRuleContext next = path.get(depth + 1);
+        if (rule instanceof JBasicParser.BlockContext || rule instanceof JBasicParser.SubroutineBodyContext) {
+            this.resume(path, depth + 1);
+            for (int i = rule.children.indexOf(next) + 1; i < rule.getChildCount(); i++) {
+                if (rule.getChild(i) instanceof ParserRuleContext) {
+                    this.visit(rule.getChild(i));
+                }
+            }
+        }
+        else if (rule instanceof JBasicParser.ForStatementContext) {
+            JBasicParser.ForStatementContext forStatement = (JBasicParser.ForStatementContext) rule;
+            if (this.resumeLoopBody(path, depth)) {
+                // The loop was entered by a jump, so the limit and the step are evaluated again and the counter is read
+                String variableName = forStatement.variableIdentifier().IDENTIFIER().getText();
+                JBasicValue end = this.visit(forStatement.expression(1));
+                JBasicValue step = forStatement.expression(2) != null ?
+                        this.visit(forStatement.expression(2)) : new JBasicValue(1);
+                double counter = this.state.getVariableValue(variableName, forStatement).underlyingNumber();
+                this.forLoop(forStatement, counter + step.underlyingNumber(), end.underlyingNumber(),
+                        step.underlyingNumber());
+            }
+        }
+        else if (rule instanceof JBasicParser.WhileStatementContext ||
+                rule instanceof JBasicParser.RepeatStatementContext) {
+            if (this.resumeLoopBody(path, depth)) {
+                this.visit(rule);
+            }
+        }
+        else if (rule instanceof JBasicParser.DoWhileStatementContext) {
+            if (this.resumeLoopBody(path, depth) &&
+                    this.visit(((JBasicParser.DoWhileStatementContext) rule).expression()).isTruthy(rule)) {
+                this.visit(rule);
+            }
+        }
+        else if (rule instanceof JBasicParser.DoUntilStatementContext) {
+            if (this.resumeLoopBody(path, depth) &&
+                    this.visit(((JBasicParser.DoUntilStatementContext) rule).expression()).isFalsy(rule)) {
+                this.visit(rule);
+            }
+        }
+        else if (rule instanceof JBasicParser.SwitchCaseContext) {
+            try {
+                this.resume(path, depth + 1);
+            }
+            catch (ExitException ignored) {
+            }
+        }
+        else {
+            // Statements, branches of if statements and switch statements are left after the enclosed block
+            this.resume(path, depth + 1);
+        }
+    }
+
+    /**
+     * Continues the execution inside of the body of a loop
+     *
+     * @param path  The rules that enclose the labeled block
+     * @param depth The position of the loop in the path
+     * @return true if the loop continues with the next iteration, false if it was left by an 'exit' statement
+     */
+    private boolean resumeLoopBody(List<ParserRuleContext> path, int depth) {
+        try {
+            this.resume(path, depth + 1);
+        }
+        catch (ContinueException ignored) {
+        }
+        catch (ExitException e) {
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -135,7 +318,7 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
      */
     @Override
     public JBasicValue visitNumericLiteral(JBasicParser.NumericLiteralContext context) {
-        return new JBasicValue(Double.parseDouble(context.getText()));
+        return JBasicValue.parseNumber(context.getText());
     }
 
     /**
@@ -158,17 +341,7 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
      */
     @Override
     public JBasicValue visitLabeledBlock(JBasicParser.LabeledBlockContext context) {
-        if (context.lab.getType() == LBExpressionParser.NUMERIC_LITERAL) {
-            NumericalValueSafeguard.guaranteeIsWhole("Digits are not allowed in a label",
-                    Double.parseDouble(context.NUMERIC_LITERAL().getText()),
-                    context);
-
-            this.state.addLabel(context.NUMERIC_LITERAL().getText(), context.block());
-        }
-        else {
-            this.state.addLabel(context.IDENTIFIER().getText(), context.block());
-        }
-
+        // The label was registered when the program was linked
         return this.visit(context.block());
     }
 
@@ -237,27 +410,69 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
         ValueTypeSafeguard.guaranteeValueIsArray("Could not execute set expression", array, context.variableIdentifier());
         ArraySafeguard.guaranteeArrayDimensionCountIsValid(context.expression());
         ArraySafeguard.guaranteeArrayDimensionsMatch(array, context.expression());
-        List<Integer> dimensions = new ArrayList<>();
-        context.expression().forEach(expressionContext -> {
-            JBasicValue dimension = this.visit(expressionContext);
-            ArraySafeguard.guaranteeArrayDimensionIsValid(dimension, expressionContext);
-            dimensions.add((int) dimension.underlyingNumber() - 1);
-        });
+        int[] index = this.arrayIndex(context.expression());
         JBasicValue value = this.visit(context.arraySetAtIndexAssignment().expression());
         if(context.variableIdentifier().variableSuffix() != null) {
             VariableSafeguard.guaranteeVariableSuffixIsNotViolated(value, context.variableIdentifier().variableSuffix());
         }
-        switch (dimensions.size()) {
+        if (arrayName.endsWith("%")) {
+            value = value.asInteger();
+        }
+        JBasicValue[] row = this.arrayRow(array, index, context.expression());
+        return row[index[index.length - 1]] = value;
+    }
+
+    /**
+     * Evaluates the zero based index, that is specified by the expressions of an array access
+     *
+     * @param expressionContexts The parsing context of the expressions that specified the index
+     * @return The zero based index for every dimension of the array
+     */
+    private int[] arrayIndex(List<JBasicParser.ExpressionContext> expressionContexts) {
+        int[] index = new int[expressionContexts.size()];
+        for (int dimension = 0; dimension < index.length; dimension++) {
+            JBasicValue value = this.visit(expressionContexts.get(dimension));
+            ArraySafeguard.guaranteeArrayDimensionIsValid(value, expressionContexts.get(dimension));
+            index[dimension] = (int) value.underlyingNumber() - 1;
+        }
+        return index;
+    }
+
+    /**
+     * Determines the row of an array that contains the element at the specified index.
+     * Every dimension of the index is checked against the size of the array
+     *
+     * @param array The array that is accessed
+     * @param index The zero based index of the element
+     * @param expressionContexts The parsing context of the expressions that specified the index
+     * @return The innermost row that contains the element
+     */
+    private JBasicValue[] arrayRow(JBasicValue array, int[] index,
+                                   List<JBasicParser.ExpressionContext> expressionContexts) {
+        JBasicValue[] row;
+        switch (index.length) {
             case 1:
-                return array.underlyingOneDimensionalArray()[dimensions.get(0)] = value;
+                row = array.underlyingOneDimensionalArray();
+                break;
             case 2:
-                return array.underlyingTwoDimensionalArray()[dimensions.get(0)][dimensions.get(1)] = value;
+                JBasicValue[][] rows = array.underlyingTwoDimensionalArray();
+                ArraySafeguard.guaranteeArrayIndexIsInRange(index[0], rows.length, expressionContexts.get(0));
+                row = rows[index[0]];
+                break;
             case 3:
-                return array.underlyingThreeDimensionalArray()[dimensions.get(0)][dimensions.get(1)][dimensions.get(2)] = value;
+                JBasicValue[][][] planes = array.underlyingThreeDimensionalArray();
+                ArraySafeguard.guaranteeArrayIndexIsInRange(index[0], planes.length, expressionContexts.get(0));
+                ArraySafeguard.guaranteeArrayIndexIsInRange(index[1], planes[index[0]].length,
+                        expressionContexts.get(1));
+                row = planes[index[0]][index[1]];
+                break;
             default:
                 // Unreachable
-                throw new IllegalStateException("Unexpected value: " + context.expression().size());
+                throw new IllegalStateException("Unexpected value: " + index.length);
         }
+        ArraySafeguard.guaranteeArrayIndexIsInRange(index[index.length - 1], row.length,
+                expressionContexts.get(index.length - 1));
+        return row;
     }
 
     /**
@@ -268,7 +483,7 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
      */
     @Override
     public JBasicValue visitContinueStatement(JBasicParser.ContinueStatementContext context) throws ContinueException {
-        throw new ContinueException();
+        throw ContinueException.INSTANCE;
     }
 
     /**
@@ -308,6 +523,7 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
     public JBasicValue visitDoUntilStatement(JBasicParser.DoUntilStatementContext context) {
         JBasicValue condition;
         do {
+            this.state.checkStopRequested();
             try {
                 this.visit(context.block());
             }
@@ -333,6 +549,7 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
     public JBasicValue visitDoWhileStatement(JBasicParser.DoWhileStatementContext context) {
         JBasicValue condition;
         do {
+            this.state.checkStopRequested();
             try {
                 this.visit(context.block());
             }
@@ -356,7 +573,7 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
      */
     @Override
     public JBasicValue visitExitStatement(JBasicParser.ExitStatementContext context) throws ExitException {
-        throw new ExitException();
+        throw ExitException.INSTANCE;
     }
 
     /**
@@ -371,10 +588,24 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
         JBasicValue start = this.visit(context.expression(0));
         JBasicValue end = this.visit(context.expression(1));
         JBasicValue step = context.expression(2) != null ? this.visit(context.expression(2)) : new JBasicValue(1);
-        for (double counter = start.underlyingNumber();
-             counter <= end.underlyingNumber();
-             counter = counter + step.underlyingNumber()) {
+        this.forLoop(context, start.underlyingNumber(), end.underlyingNumber(), step.underlyingNumber());
+        return new JBasicValue(0);
+    }
+
+    /**
+     * Executes the iterations of a 'for statement', a negative step counts the counter down to the end value
+     *
+     * @param context The parsing context of the 'for statement'
+     * @param counter The value of the counter in the first iteration
+     * @param end     The last value of the counter
+     * @param step    The value the counter is incremented by
+     */
+    private void forLoop(JBasicParser.ForStatementContext context, double counter, double end, double step) {
+        String variableName = context.variableIdentifier().IDENTIFIER().getText();
+        boolean ascending = step >= 0;
+        for (; ascending ? counter <= end : counter >= end; counter += step) {
             this.state.assignToVariable(variableName, new JBasicValue(counter));
+            this.state.checkStopRequested();
             try {
                 this.visit(context.block());
             }
@@ -384,7 +615,6 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
                 break;
             }
         }
-        return new JBasicValue(0);
     }
 
     /**
@@ -395,9 +625,10 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
      */
     @Override
     public JBasicValue visitGotoStatement(JBasicParser.GotoStatementContext context) {
-        return this.state.gotoLabel(context.lab.getType() == LBExpressionParser.IDENTIFIER  ?
+        this.state.gotoLabel(context.lab.getType() == LBExpressionParser.IDENTIFIER  ?
                 context.IDENTIFIER().getText() :
-                context.NUMERIC_LITERAL().getText(), this, context);
+                context.NUMERIC_LITERAL().getText(), context);
+        return new JBasicValue(0);
     }
 
     /**
@@ -460,6 +691,9 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
         if(context.variableIdentifier().variableSuffix() != null) {
             VariableSafeguard.guaranteeVariableSuffixIsNotViolated(value, context.variableIdentifier().variableSuffix());
         }
+        if (variableName.endsWith("%")) {
+            value = value.asInteger();
+        }
         this.state.assignToVariable(variableName, value);
         return value;
     }
@@ -497,6 +731,9 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
             if(variableIdentifierContext.variableSuffix() != null) {
                 VariableSafeguard.guaranteeVariableSuffixIsNotViolated(value, variableIdentifierContext.variableSuffix());
             }
+            if (variableIdentifierContext.getText().endsWith("%")) {
+                value = value.asInteger();
+            }
             this.state.assignToVariable(variableIdentifierContext.getText(), value);
         }
         return new JBasicValue(0);
@@ -512,6 +749,7 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
     public JBasicValue visitRepeatStatement(JBasicParser.RepeatStatementContext context) {
         JBasicValue condition = this.visit(context.expression());
         while (condition.isFalsy(context)) {
+            this.state.checkStopRequested();
             try {
                 this.visit(context.block());
             }
@@ -551,13 +789,125 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
      */
     @Override
     public JBasicValue visitSubroutineDefinitionStatement(JBasicParser.SubroutineDefinitionStatementContext context) {
+        // The subroutine was defined before the program was executed
+        return new JBasicValue(0);
+    }
+
+    /**
+     * Defines the subroutines of a part of the abstract syntax tree
+     *
+     * @param tree The part of the abstract syntax tree
+     */
+    private void defineSubroutines(ParseTree tree) {
+        if (tree instanceof JBasicParser.SubroutineDefinitionStatementContext) {
+            this.defineSubroutine((JBasicParser.SubroutineDefinitionStatementContext) tree);
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            this.defineSubroutines(tree.getChild(i));
+        }
+    }
+
+    /**
+     * Defines a subroutine
+     *
+     * @param context The parsing context of the subroutine definition
+     */
+    private void defineSubroutine(JBasicParser.SubroutineDefinitionStatementContext context) {
         // Adds all the argument from the subroutine signature to the List
+        String[] arguments = context.subroutineSignature().variableIdentifier().stream()
+                .map(RuleContext::getText).toArray(String[]::new);
+        // The arguments occupy the first slots of the frame, followed by the other variables of the body
+        FrameLayout layout = new FrameLayout();
+        for (String argument : arguments) {
+            layout.resolve(argument);
+        }
+        collectVariables(context.subroutineBody(), layout);
+        // A frame can only be reused by the subroutine of the last statement, if no 'goto' statement can return to it
+        if (!containsLabels(context.subroutineBody())) {
+            List<JBasicParser.StatementContext> body = context.subroutineBody().statement();
+            this.addTailCalls(lastStatement(body));
+        }
         this.state.defineSubroutine(context.subroutineSignature().IDENTIFIER().getText(),
-                new JBasicSubroutine(context.subroutineSignature().variableIdentifier().stream()
-                        .map(RuleContext::getText).toArray(String[]::new),
-                        context.subroutineBody().statement().toArray(JBasicParser.StatementContext[]::new)),
+                new JBasicSubroutine(arguments,
+                        context.subroutineBody().statement().toArray(JBasicParser.StatementContext[]::new), layout),
                 context);
-        return new JBasicValue(0);
+    }
+
+    /**
+     * Marks the subroutine invocations of a statement in tail position, so they reuse the frame of the enclosing
+     * subroutine
+     *
+     * @param statement The statement in tail position or null if the block of the statement is empty
+     */
+    private void addTailCalls(JBasicParser.StatementContext statement) {
+        if (statement == null) {
+            return;
+        }
+        if (statement.subroutineInvocationStatement() != null) {
+            this.state.addTailCall(statement.subroutineInvocationStatement());
+        }
+        else if (statement.ifStatement() != null) {
+            JBasicParser.IfStatementContext ifStatement = statement.ifStatement();
+            this.addTailCalls(lastStatement(ifStatement.block().statement()));
+            for (JBasicParser.ElifStatementContext elifStatement : ifStatement.elifStatement()) {
+                this.addTailCalls(lastStatement(elifStatement.block().statement()));
+            }
+            if (ifStatement.elseStatement() != null) {
+                this.addTailCalls(lastStatement(ifStatement.elseStatement().block().statement()));
+            }
+        }
+    }
+
+    /**
+     * Gets the last statement of a block, that is not a comment
+     *
+     * @param statements The statements of the block
+     * @return The last statement or null if the block only contains comments
+     */
+    private static JBasicParser.StatementContext lastStatement(List<JBasicParser.StatementContext> statements) {
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            if (statements.get(i).COMMENT() == null) {
+                return statements.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines whether a part of the abstract syntax tree contains a labeled block
+     *
+     * @param tree The part of the abstract syntax tree
+     * @return true if the tree contains a label, false if not
+     */
+    private static boolean containsLabels(ParseTree tree) {
+        if (tree instanceof JBasicParser.LabeledBlockContext) {
+            return true;
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            if (containsLabels(tree.getChild(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the variables, that are used in a part of the abstract syntax tree, to the slots of a frame layout
+     *
+     * @param tree   The part of the abstract syntax tree
+     * @param layout The layout the variables are resolved in
+     */
+    private static void collectVariables(ParseTree tree, FrameLayout layout) {
+        if (tree instanceof JBasicParser.VariableIdentifierContext) {
+            layout.resolve(tree.getText());
+        }
+        else if (tree instanceof JBasicParser.ForStatementContext) {
+            // The counter of a for statement is stored without its suffix
+            layout.resolve(((JBasicParser.ForStatementContext) tree).variableIdentifier().IDENTIFIER().getText());
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            collectVariables(tree.getChild(i), layout);
+        }
     }
 
     /**
@@ -568,10 +918,15 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
      */
     @Override
     public JBasicValue visitSubroutineInvocationStatement(JBasicParser.SubroutineInvocationStatementContext context) {
-
-        this.state.invokeSubroutine(context.IDENTIFIER().getText(),
-                context.expression().stream().map(this::visit).collect(Collectors.toList()),
-                this, context);
+        // The call site caches the invoked subroutine and the amount of arguments
+        CallSite callSite = this.state.callSite(context);
+        JBasicValue[] arguments = new JBasicValue[callSite.getArity()];
+        for (int i = 0, argument = 0; argument < arguments.length; i++) {
+            if (context.getChild(i) instanceof JBasicParser.ExpressionContext) {
+                arguments[argument++] = this.visit(context.getChild(i));
+            }
+        }
+        this.state.invokeSubroutine(callSite, arguments, this);
         return new JBasicValue(0);
     }
 
@@ -584,32 +939,39 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
     @Override
     public JBasicValue visitSwitchStatement(JBasicParser.SwitchStatementContext context) {
         JBasicValue value = this.visit(context.expression());
-        for (JBasicParser.SwitchCaseContext caseContext : context.switchCase()) {
-            if (caseContext.numericLiteral() != null) {
-                JBasicValue o = this.visitNumericLiteral(caseContext.numericLiteral());
-                if (o.equals(value)) {
-                    try {
-                        this.visit(caseContext.block());
-                    }
-                    catch (ExitException e) {
-                        break;
-                    }
-                }
+        List<JBasicParser.BlockContext> matching =
+                this.switchTables.computeIfAbsent(context, this::createSwitchTable).lookup(value);
+        for (int i = 0; i < matching.size(); i++) {
+            try {
+                this.visit(matching.get(i));
             }
-            else {
-                if (this.visit(caseContext.stringLiteral()).equals(value)) {
-                    try {
-                        this.visit(caseContext.block());
-                    }
-                    catch (ExitException e) {
-                        break;
-                    }
-                }
+            catch (ExitException e) {
+                break;
             }
         }
         return new JBasicValue(0);
     }
 
+    /**
+     * Creates the table, that maps the values of the cases of a switch statement to their blocks
+     *
+     * @param context The parsing context of the switch statement
+     * @return The table of the switch statement
+     */
+    private SwitchTable<JBasicParser.BlockContext> createSwitchTable(JBasicParser.SwitchStatementContext context) {
+        List<JBasicParser.SwitchCaseContext> cases = context.switchCase();
+        JBasicValue[] caseValues = new JBasicValue[cases.size()];
+        List<JBasicParser.BlockContext> blocks = new ArrayList<>();
+        for (int i = 0; i < caseValues.length; i++) {
+            JBasicParser.SwitchCaseContext caseContext = cases.get(i);
+            caseValues[i] = caseContext.numericLiteral() != null ?
+                    this.visitNumericLiteral(caseContext.numericLiteral()) :
+                    this.visit(caseContext.stringLiteral());
+            blocks.add(caseContext.block());
+        }
+        return new SwitchTable<>(caseValues, blocks);
+    }
+
     /**
      * Visits a 'while statement' in the abstract syntax tree
      *
@@ -620,6 +982,7 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
     public JBasicValue visitWhileStatement(JBasicParser.WhileStatementContext context) {
         JBasicValue condition = this.visit(context.expression());
         while (condition.isTruthy(context)) {
+            this.state.checkStopRequested();
             try {
                 this.visit(context.block());
             }
@@ -939,8 +1302,7 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
                 (parameterCount -> parameterCount == 1));
         JBasicValue argument = this.visit(context.functionCallArgs().expression().get(0));
         if (argument.isANumericalValue()) {
-            Double number = argument.underlyingNumber();
-            return new JBasicValue(IOFormatter.numericalOutputFormat.format(number));
+            return new JBasicValue(argument.formatNumber());
         }
         return argument;
     }
@@ -991,6 +1353,9 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
     @Override
     public JBasicValue visitAndExpression(JBasicParser.AndExpressionContext context) {
         JBasicValue left = this.visit(context.expression(0));
+        if (this.shortCircuitEvaluation && !left.isTruthy(context)) {
+            return JBasicValue.FalseValue;
+        }
         JBasicValue right = this.visit(context.expression(1));
         return left.and(right, context);
     }
@@ -1008,23 +1373,8 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
         VariableSafeguard.guaranteeVariableIsDefined(array, arrayName, context.variableIdentifier());
         ArraySafeguard.guaranteeArrayDimensionCountIsValid(context.expression());
         ArraySafeguard.guaranteeArrayDimensionsMatch(array, context.expression());
-        List<Integer> dimensions = new ArrayList<>();
-        context.expression().forEach(expressionContext -> {
-            JBasicValue dimension = this.visit(expressionContext);
-            ArraySafeguard.guaranteeArrayDimensionIsValid(dimension, expressionContext);
-            dimensions.add((int)dimension.underlyingNumber() - 1);
-        });
-        switch (dimensions.size()) {
-            case 1:
-                return array.underlyingOneDimensionalArray()[dimensions.get(0)];
-            case 2:
-                return array.underlyingTwoDimensionalArray()[dimensions.get(0)][dimensions.get(1)];
-            case 3:
-                return array.underlyingThreeDimensionalArray()[dimensions.get(0)][dimensions.get(1)][dimensions.get(2)];
-            default:
-                // Unreachable
-                throw new IllegalStateException("Unexpected value: " + context.expression().size());
-        }
+        int[] index = this.arrayIndex(context.expression());
+        return this.arrayRow(array, index, context.expression())[index[index.length - 1]];
     }
 
     /**
@@ -1117,6 +1467,9 @@ public class JBasicVisitor extends JBasicBaseVisitor<JBasicValue> {
     @Override
     public JBasicValue visitOrExpression(JBasicParser.OrExpressionContext context) {
         JBasicValue left = this.visit(context.expression(0));
+        if (this.shortCircuitEvaluation && left.isTruthy(context)) {
+            return JBasicValue.TrueValue;
+        }
         JBasicValue right = this.visit(context.expression(1));
         return left.or(right, context);
     }
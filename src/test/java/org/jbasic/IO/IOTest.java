@@ -1,6 +1,8 @@
 package org.jbasic.IO;
 
 import org.jbasic.JBasicEndToEndTest;
+import org.jbasic.interpreter.ExecutionMode;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -13,6 +15,18 @@ public class IOTest extends JBasicEndToEndTest {
                         result.output));
     }
 
+    @Test
+    public void testInputAtEndOfInput() {
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            this.test("IO/input_end_of_input.bas", "", new JBasicInterpreterOptions().setExecutionMode(mode),
+                    (result) -> {
+                        Assert.assertEquals("Name:  ", result.output);
+                        Assert.assertEquals("Error at [2, 6]: Could not call LEN. Value is not a string",
+                                result.error.trim());
+                    });
+        }
+    }
+
     @Test
     public void testPrint() {
         this.test("IO/output.bas",
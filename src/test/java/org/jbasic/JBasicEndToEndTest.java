@@ -1,6 +1,7 @@
 package org.jbasic;
 
 import org.jbasic.interpreter.JBasicInterpreter;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -28,11 +29,15 @@ public class JBasicEndToEndTest {
     }
 
     protected void test(String resource, String input, Consumer<TestResult> assertion) {
+        this.test(resource, input, new JBasicInterpreterOptions(), assertion);
+    }
+
+    protected void test(String resource, String input, JBasicInterpreterOptions options, Consumer<TestResult> assertion) {
         try {
             ByteArrayOutputStream stdout = new ByteArrayOutputStream();
             ByteArrayOutputStream stderr = new ByteArrayOutputStream();
             ByteArrayInputStream stdin = new ByteArrayInputStream(input.getBytes());
-            JBasicInterpreter interpreter = new JBasicInterpreter(stdin, stdout, stderr);
+            JBasicInterpreter interpreter = new JBasicInterpreter(stdin, stdout, stderr, options);
             interpreter.run(this.resource(resource));
             assertion.accept(new TestResult(interpreter, stdout.toString(), stderr.toString()));
         }
@@ -20,6 +20,21 @@ public class ArrayTest extends JBasicEndToEndTest {
                         result.error.trim()));
     }
 
+    @Test
+    public void testArrayIndexOutOfRangeError() {
+        this.test("arrays/index_out_of_range.bas",
+                (result) -> Assert.assertEquals("Error at [3, 11]: Index 4 exceeds the size 3 of the dimension",
+                        result.error.trim()));
+    }
+
+    @Test
+    public void testLoopFill() {
+        this.test("arrays/loop_fill.bas",
+                (result) -> Assert.assertEquals("39" + System.lineSeparator() +
+                                "25" + System.lineSeparator(),
+                        result.output));
+    }
+
     @Test
     public void testSimple() {
         this.test("arrays/simple.bas",
@@ -34,6 +49,16 @@ public class ArrayTest extends JBasicEndToEndTest {
                         result.output));
     }
 
+    @Test
+    public void testCommonSubexpressions() {
+        this.test("arrays/common_subexpressions.bas",
+                (result) -> Assert.assertEquals("25" + System.lineSeparator() +
+                                "50" + System.lineSeparator() +
+                                "52" + System.lineSeparator() +
+                                "8" + System.lineSeparator(),
+                        result.output));
+    }
+
     @Test
     public void testThreeDimensions() {
         this.test("arrays/three_dimensions.bas",
@@ -0,0 +1,77 @@
+package org.jbasic.benchmark;
+
+import org.jbasic.interpreter.ExecutionMode;
+import org.jbasic.interpreter.JBasicInterpreter;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the example programs, whose loops consist of idioms like 'X% = X% + Y%', 'S$ = S$ + "*"' and
+ * 'WHILE second_val% > 0', in every execution mode. The input of each program is chosen so that its loop dominates
+ * the running time.
+ * Run from the project folder with: scripts/benchmark.sh ExamplesBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExamplesBenchmark {
+
+    @Param({"fibonacci_numbers", "greatest_common_divisor", "print_stars"})
+    public String example;
+
+    @Param({"VISITOR", "COMPILED", "BYTECODE"})
+    public ExecutionMode mode;
+
+    private byte[] program;
+
+    private byte[] input;
+
+    private JBasicInterpreterOptions options;
+
+    @Setup
+    public void setup() throws IOException {
+        this.program = Files.readAllBytes(Paths.get("examples", this.example + ".bas"));
+        switch (this.example) {
+            case "fibonacci_numbers":
+                this.input = "70\n".getBytes(StandardCharsets.UTF_8);
+                break;
+            case "greatest_common_divisor":
+                // Consecutive fibonacci numbers take the most steps
+                this.input = "1134903170\n701408733\n".getBytes(StandardCharsets.UTF_8);
+                break;
+            default:
+                this.input = "1000\n".getBytes(StandardCharsets.UTF_8);
+                break;
+        }
+        this.options = new JBasicInterpreterOptions().setExecutionMode(this.mode);
+    }
+
+    @Benchmark
+    public String runExample() throws IOException {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        new JBasicInterpreter(new ByteArrayInputStream(this.input), stdout, new ByteArrayOutputStream(), this.options)
+                .run(new ByteArrayInputStream(this.program));
+        return stdout.toString();
+    }
+}
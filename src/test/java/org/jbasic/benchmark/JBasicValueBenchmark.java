@@ -0,0 +1,117 @@
+package org.jbasic.benchmark;
+
+import org.jbasic.languageModels.JBasicValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Compares the arithmetic of JBasicValue with the previous representation, that stored every number as a boxed
+ * Double and applied the operators through BiFunctions.
+ * Run with: java -cp target/test-classes:target/classes:[test classpath] org.openjdk.jmh.Main JBasicValueBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JBasicValueBenchmark {
+
+    @Param({"1000"})
+    public int iterations;
+
+    /**
+     * Evaluates: total = 0, i = 0, WHILE i < iterations: total = total + i * i / 7, i = i + 1
+     */
+    @Benchmark
+    public JBasicValue numericLoop() {
+        JBasicValue total = new JBasicValue(0);
+        JBasicValue limit = new JBasicValue(this.iterations);
+        JBasicValue one = new JBasicValue(1);
+        JBasicValue seven = new JBasicValue(7);
+        for (JBasicValue i = new JBasicValue(0); i.lessThen(limit, null).isTruthy(null); i = i.add(one, null)) {
+            total = total.add(i.multiply(i, null).divide(seven, null), null);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BoxedValue boxedNumericLoop() {
+        BoxedValue total = new BoxedValue(0);
+        BoxedValue limit = new BoxedValue(this.iterations);
+        BoxedValue one = new BoxedValue(1);
+        BoxedValue seven = new BoxedValue(7);
+        for (BoxedValue i = new BoxedValue(0); i.lessThen(limit).isTruthy(); i = i.add(one)) {
+            total = total.add(i.multiply(i).divide(seven));
+        }
+        return total;
+    }
+
+    /**
+     * The numerical part of the previous JBasicValue, every number is a boxed Double
+     */
+    public static final class BoxedValue {
+
+        private static final BoxedValue TRUE = new BoxedValue(1);
+        private static final BoxedValue FALSE = new BoxedValue(0);
+
+        private final Object value;
+
+        BoxedValue(double value) {
+            this.value = value;
+        }
+
+        private void guaranteeIsNumerical() {
+            if (!(this.value instanceof Double)) {
+                throw new IllegalStateException("Value is not a number");
+            }
+        }
+
+        private BoxedValue arithmeticEvaluation(BoxedValue right, BiFunction<Double, Double, Double> operator) {
+            this.guaranteeIsNumerical();
+            right.guaranteeIsNumerical();
+            return new BoxedValue(operator.apply((double) this.value, (double) right.value));
+        }
+
+        private BoxedValue compare(BoxedValue right, BiFunction<Double, Double, Boolean> comparison) {
+            this.guaranteeIsNumerical();
+            right.guaranteeIsNumerical();
+            return comparison.apply((double) this.value, (double) right.value) ? TRUE : FALSE;
+        }
+
+        BoxedValue add(BoxedValue right) {
+            if (this.value instanceof String || right.value instanceof String) {
+                throw new IllegalStateException("Strings are not part of the benchmark");
+            }
+            return this.arithmeticEvaluation(right, Double::sum);
+        }
+
+        BoxedValue multiply(BoxedValue right) {
+            return this.arithmeticEvaluation(right, (l, r) -> l * r);
+        }
+
+        BoxedValue divide(BoxedValue right) {
+            return this.arithmeticEvaluation(right, (l, r) -> l / r);
+        }
+
+        BoxedValue lessThen(BoxedValue right) {
+            return this.compare(right, (l, r) -> l < r);
+        }
+
+        boolean isTruthy() {
+            this.guaranteeIsNumerical();
+            return (double) this.value != 0;
+        }
+    }
+}
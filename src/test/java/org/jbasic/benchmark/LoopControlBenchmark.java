@@ -0,0 +1,81 @@
+package org.jbasic.benchmark;
+
+import org.jbasic.interpreter.ExecutionMode;
+import org.jbasic.interpreter.JBasicInterpreter;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a loop, that continues in three of four iterations, in every execution mode. continueLoopWithExceptions runs
+ * the same loop in the compiled execution mode with loop control exceptions, so its 'continue' statements allocate an
+ * exception with a stack trace like earlier versions. It does not depend on the mode parameter.
+ * Run with: java -cp target/test-classes:target/classes:[test classpath] org.openjdk.jmh.Main LoopControlBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoopControlBenchmark {
+
+    @Param({"VISITOR", "COMPILED", "BYTECODE"})
+    public ExecutionMode mode;
+
+    @Param({"10000"})
+    public int iterations;
+
+    private byte[] program;
+
+    private JBasicInterpreterOptions options;
+
+    private JBasicInterpreterOptions exceptionOptions;
+
+    @Setup
+    public void setup() {
+        this.program = ("LET total = 0\n" +
+                "FOR i = 1 TO " + this.iterations + "\n" +
+                "    IF i MOD 4 <> 0 THEN\n" +
+                "        CONTINUE\n" +
+                "    END\n" +
+                "    LET total = total + i\n" +
+                "NEXT\n" +
+                "PRINT total\n").getBytes(StandardCharsets.UTF_8);
+        this.options = new JBasicInterpreterOptions().setExecutionMode(this.mode);
+        this.exceptionOptions = new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.COMPILED)
+                .setLoopControlExceptions(true);
+    }
+
+    @Benchmark
+    public String continueLoop() throws IOException {
+        return this.run(this.options);
+    }
+
+    @Benchmark
+    public String continueLoopWithExceptions() throws IOException {
+        return this.run(this.exceptionOptions);
+    }
+
+    private String run(JBasicInterpreterOptions options) throws IOException {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        new JBasicInterpreter(new ByteArrayInputStream(new byte[0]), stdout, new ByteArrayOutputStream(), options)
+                .run(new ByteArrayInputStream(this.program));
+        return stdout.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package org.jbasic.benchmark;
+
+import org.jbasic.interpreter.ExecutionMode;
+import org.jbasic.interpreter.JBasicInterpreter;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a while loop, whose condition and body contain function calls with operands that do not change in the loop, in
+ * the compiled execution modes with and without loop invariant code motion.
+ * Run with: scripts/benchmark.sh LoopInvariantBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoopInvariantBenchmark {
+
+    @Param({"COMPILED", "BYTECODE"})
+    public ExecutionMode mode;
+
+    @Param({"false", "true"})
+    public boolean loopInvariantCodeMotion;
+
+    @Param({"10000"})
+    public int iterations;
+
+    private byte[] program;
+
+    private JBasicInterpreterOptions options;
+
+    @Setup
+    public void setup() {
+        this.program = ("LET text$ = \"abcdefgh\"\n" +
+                "LET limit = " + this.iterations + "\n" +
+                "LET total = 0\n" +
+                "LET i = 0\n" +
+                "WHILE i < MIN(limit, LEN(text$) * limit)\n" +
+                "    LET total = total + SQR(limit) * LOG(limit)\n" +
+                "    LET i = i + 1\n" +
+                "END\n" +
+                "PRINT total\n").getBytes(StandardCharsets.UTF_8);
+        this.options = new JBasicInterpreterOptions().setExecutionMode(this.mode)
+                .setLoopInvariantCodeMotion(this.loopInvariantCodeMotion);
+    }
+
+    @Benchmark
+    public String whileLoop() throws IOException {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        new JBasicInterpreter(new ByteArrayInputStream(new byte[0]), stdout, new ByteArrayOutputStream(), this.options)
+                .run(new ByteArrayInputStream(this.program));
+        return stdout.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package org.jbasic.benchmark;
+
+import org.jbasic.interpreter.ExecutionMode;
+import org.jbasic.interpreter.JBasicInterpreter;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls a small subroutine in a loop in every execution mode, every invocation takes its frame from the frame stack.
+ * Run with -prof gc to see the allocation rate per call.
+ * Run with: java -cp target/test-classes:target/classes:[test classpath] org.openjdk.jmh.Main SubroutineCallBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubroutineCallBenchmark {
+
+    @Param({"VISITOR", "COMPILED", "BYTECODE"})
+    public ExecutionMode mode;
+
+    @Param({"10000"})
+    public int calls;
+
+    private byte[] program;
+
+    private JBasicInterpreterOptions options;
+
+    @Setup
+    public void setup() {
+        this.program = ("SUB Add(a, b)\n" +
+                "    LET total = a + b\n" +
+                "    IF total < 0 THEN\n" +
+                "        PRINT total\n" +
+                "    END\n" +
+                "END SUB\n" +
+                "FOR i = 1 TO " + this.calls + "\n" +
+                "    CALL Add(i, 1)\n" +
+                "NEXT\n").getBytes(StandardCharsets.UTF_8);
+        this.options = new JBasicInterpreterOptions().setExecutionMode(this.mode);
+    }
+
+    @Benchmark
+    public String call() throws IOException {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        new JBasicInterpreter(new ByteArrayInputStream(new byte[0]), stdout, new ByteArrayOutputStream(), this.options)
+                .run(new ByteArrayInputStream(this.program));
+        return stdout.toString();
+    }
+}
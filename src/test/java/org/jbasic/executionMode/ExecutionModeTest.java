@@ -0,0 +1,118 @@
+package org.jbasic.executionMode;
+
+import org.jbasic.JBasicEndToEndTest;
+import org.jbasic.interpreter.ExecutionMode;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RunWith(Parameterized.class)
+public class ExecutionModeTest extends JBasicEndToEndTest {
+
+    private static final String INPUT = "JBASIC\n";
+
+    @Parameterized.Parameter
+    public String resource;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<String> resources() throws IOException, URISyntaxException {
+        Path root = Paths.get(ExecutionModeTest.class.getResource("/").toURI());
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter((file) -> file.toString().endsWith(".bas"))
+                    .map((file) -> root.relativize(file).toString().replace('\\', '/'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testCompiledMatchesVisitor() {
+        this.assertMatchesVisitor(ExecutionMode.COMPILED);
+    }
+
+    @Test
+    public void testBytecodeMatchesVisitor() {
+        this.assertMatchesVisitor(ExecutionMode.BYTECODE);
+    }
+
+    @Test
+    public void testCompiledWithoutConstantFoldingMatchesVisitor() {
+        this.assertMatchesVisitor(new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.COMPILED)
+                .setConstantFolding(false));
+    }
+
+    @Test
+    public void testCompiledWithoutInliningMatchesVisitor() {
+        this.assertMatchesVisitor(new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.COMPILED)
+                .setInliningThreshold(0));
+    }
+
+    @Test
+    public void testCompiledWithoutLoopInvariantCodeMotionMatchesVisitor() {
+        this.assertMatchesVisitor(new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.COMPILED)
+                .setLoopInvariantCodeMotion(false));
+    }
+
+    @Test
+    public void testCompiledWithoutCommonSubexpressionEliminationMatchesVisitor() {
+        this.assertMatchesVisitor(new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.COMPILED)
+                .setCommonSubexpressionElimination(false));
+    }
+
+    @Test
+    public void testCompiledWithoutBoundsCheckEliminationMatchesVisitor() {
+        this.assertMatchesVisitor(new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.COMPILED)
+                .setBoundsCheckElimination(false));
+    }
+
+    @Test
+    public void testCompiledWithLoopControlExceptionsMatchesVisitor() {
+        this.assertMatchesVisitor(new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.COMPILED)
+                .setLoopControlExceptions(true));
+    }
+
+    @Test
+    public void testCompiledWithStrictEvaluationMatchesVisitor() {
+        this.assertMatchesVisitor(new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.COMPILED)
+                .setShortCircuitEvaluation(false));
+    }
+
+    @Test
+    public void testBytecodeWithStrictEvaluationMatchesVisitor() {
+        this.assertMatchesVisitor(new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.BYTECODE)
+                .setShortCircuitEvaluation(false));
+    }
+
+    @Test
+    public void testTieredMatchesVisitor() {
+        this.assertMatchesVisitor(new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.TIERED)
+                .setLoopCompilationThreshold(2)
+                .setInvocationCompilationThreshold(2));
+    }
+
+    protected void assertMatchesVisitor(ExecutionMode executionMode) {
+        this.assertMatchesVisitor(new JBasicInterpreterOptions().setExecutionMode(executionMode));
+    }
+
+    protected void assertMatchesVisitor(JBasicInterpreterOptions options) {
+        JBasicInterpreterOptions visitorOptions = new JBasicInterpreterOptions()
+                .setShortCircuitEvaluation(options.isShortCircuitEvaluation());
+        this.test(this.resource, INPUT, visitorOptions, (expected) ->
+                this.test(this.resource, INPUT, options,
+                        (actual) -> {
+                            Assert.assertEquals(expected.output, actual.output);
+                            Assert.assertEquals(expected.error, actual.error);
+                        }));
+    }
+}
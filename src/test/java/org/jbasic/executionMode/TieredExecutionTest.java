@@ -0,0 +1,56 @@
+package org.jbasic.executionMode;
+
+import org.jbasic.JBasicEndToEndTest;
+import org.jbasic.interpreter.ExecutionMode;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class TieredExecutionTest extends JBasicEndToEndTest {
+
+    @Test
+    public void testTierDecisionsAreLogged() {
+        this.test("executionMode/tiered.bas", "", new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.TIERED)
+                        .setLoopCompilationThreshold(3)
+                        .setInvocationCompilationThreshold(3)
+                        .setTierLogging(true),
+                (result) -> {
+                    Assert.assertTrue(result.error.startsWith("Tiered compilation: loops are compiled after 3 " +
+                            "iterations, subroutines after 3 invocations"));
+                    Assert.assertTrue(result.error.contains("Tiered compilation: loop at [18, 0] continues in " +
+                            "bytecode after 3 iterations"));
+                    Assert.assertTrue(result.error.contains("Tiered compilation: subroutine Countdown is compiled " +
+                            "to bytecode after 3 invocations"));
+                    Assert.assertTrue(result.error.endsWith("Error at [43, 6]: total is not defined" +
+                            System.lineSeparator()));
+                });
+    }
+
+    @Test
+    public void testProfileIsReusedUntilTheScriptChanges() throws IOException {
+        Path profileFile = Files.createTempFile("tiered", ".profile");
+        try {
+            JBasicInterpreterOptions options = new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.TIERED)
+                    .setLoopCompilationThreshold(3)
+                    .setTierLogging(true)
+                    .setProfileFile(profileFile);
+            Files.write(profileFile, Arrays.asList("JBASIC profile", "source 0", "loop 0:0"));
+            this.test("executionMode/tiered.bas", "", options, (result) -> {
+                Assert.assertTrue(result.error.startsWith("Tiered compilation: discarded the profile " + profileFile));
+                Assert.assertTrue(result.error.contains("loop at [18, 0] continues in bytecode after 3 iterations"));
+            });
+            this.test("executionMode/tiered.bas", "", options, (result) -> {
+                Assert.assertTrue(result.error.startsWith("Tiered compilation: loops are compiled after 3 iterations"));
+                Assert.assertTrue(result.error.contains("loop at [18, 0] continues in bytecode after 1 iterations"));
+            });
+        }
+        finally {
+            Files.delete(profileFile);
+        }
+    }
+}
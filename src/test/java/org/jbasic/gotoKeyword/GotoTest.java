@@ -13,4 +13,19 @@ public class GotoTest extends JBasicEndToEndTest {
                         "2" + System.lineSeparator() +
                         "3" + System.lineSeparator(), result.output));
     }
+
+    @Test
+    public void testLoop() {
+        this.test("goto/loop.bas",
+                (result) -> Assert.assertEquals("100000" + System.lineSeparator(), result.output));
+    }
+
+    @Test
+    public void testForward() {
+        this.test("goto/forward.bas",
+                (result) -> Assert.assertEquals("1" + System.lineSeparator() +
+                        "2" + System.lineSeparator() +
+                        "3" + System.lineSeparator() +
+                        "done" + System.lineSeparator(), result.output));
+    }
 }
@@ -20,4 +20,13 @@ public class LabelTest extends JBasicEndToEndTest {
                         result.error.trim()));
     }
 
+    @Test
+    public void testUndefinedLabelErrorBeforeExecution() {
+        this.test("label/undefined_label_linked.bas",
+                (result) -> {
+                    Assert.assertEquals("", result.output);
+                    Assert.assertEquals("Error at [3, 0]: A label called Finish is not defined", result.error.trim());
+                });
+    }
+
 }
@@ -21,4 +21,15 @@ public class LetTest extends JBasicEndToEndTest {
             Assert.assertEquals("foo", result.interpreter.getState().getVariableValue("string", null).underlyingString());
         });
     }
+
+    @Test
+    public void testAccumulate() {
+        this.test("let/accumulate.bas", (result) -> Assert.assertEquals("19" + System.lineSeparator() +
+                "64" + System.lineSeparator() +
+                "a123456" + System.lineSeparator() +
+                "9:5:7" + System.lineSeparator() +
+                "xyyyyyy" + System.lineSeparator() +
+                "1!" + System.lineSeparator(),
+                result.output));
+    }
 }
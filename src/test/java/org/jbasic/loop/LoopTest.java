@@ -24,6 +24,28 @@ public class LoopTest extends JBasicEndToEndTest {
                         result.output));
     }
 
+    @Test
+    public void testForNegativeStep() {
+        this.test("loops/for_negative_step.bas",
+                (result) -> Assert.assertEquals("5" + System.lineSeparator() +
+                                "3" + System.lineSeparator() +
+                                "1" + System.lineSeparator() +
+                                "10" + System.lineSeparator(),
+                        result.output));
+    }
+
+    @Test
+    public void testLoopInvariants() {
+        this.test("loops/loop_invariants.bas",
+                (result) -> Assert.assertEquals("6" + System.lineSeparator() +
+                                "22" + System.lineSeparator() +
+                                "3" + System.lineSeparator() +
+                                "4" + System.lineSeparator() +
+                                "2" + System.lineSeparator() +
+                                "1" + System.lineSeparator(),
+                        result.output));
+    }
+
     @Test
     public void testDoUntil() {
         this.test("loops/do_until.bas",
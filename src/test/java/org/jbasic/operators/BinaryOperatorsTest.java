@@ -1,6 +1,8 @@
 package org.jbasic.operators;
 
 import org.jbasic.JBasicEndToEndTest;
+import org.jbasic.interpreter.ExecutionMode;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -16,6 +18,25 @@ public class BinaryOperatorsTest extends JBasicEndToEndTest {
                         result.output));
     }
 
+    @Test
+    public void testAnd() {
+        this.test("operators/binary/and.bas",
+                (result) -> {
+                    Assert.assertEquals("0" + System.lineSeparator() +
+                            "1" + System.lineSeparator(), result.output);
+                    Assert.assertEquals("Error at [4, 13]: missing is not defined", result.error.trim());
+                });
+    }
+
+    @Test
+    public void testAndShortCircuit() {
+        this.test("operators/binary/and.bas", "",
+                new JBasicInterpreterOptions().setExecutionMode(ExecutionMode.COMPILED),
+                (result) -> Assert.assertEquals("0" + System.lineSeparator() +
+                        "1" + System.lineSeparator() +
+                        "skipped right operand" + System.lineSeparator(), result.output));
+    }
+
     @Test
     public void testDivide() {
         this.test("operators/binary/divide.bas",
@@ -36,6 +57,38 @@ public class BinaryOperatorsTest extends JBasicEndToEndTest {
                 (result) -> Assert.assertEquals("6" + System.lineSeparator(), result.output));
     }
 
+    @Test
+    public void testOr() {
+        this.test("operators/binary/or.bas",
+                (result) -> {
+                    Assert.assertEquals("0" + System.lineSeparator() +
+                            "1" + System.lineSeparator(), result.output);
+                    Assert.assertEquals("Error at [4, 12]: missing is not defined", result.error.trim());
+                });
+    }
+
+    @Test
+    public void testOrShortCircuit() {
+        this.test("operators/binary/or.bas", "",
+                new JBasicInterpreterOptions().setShortCircuitEvaluation(true),
+                (result) -> Assert.assertEquals("0" + System.lineSeparator() +
+                        "1" + System.lineSeparator() +
+                        "skipped right operand" + System.lineSeparator(), result.output));
+    }
+
+    @Test
+    public void testChangingOperandTypes() {
+        this.test("operators/binary/changing_operand_types.bas",
+                (result) -> Assert.assertEquals("2" + System.lineSeparator() +
+                        "1" + System.lineSeparator() +
+                        "3" + System.lineSeparator() +
+                        "1" + System.lineSeparator() +
+                        "a3" + System.lineSeparator() +
+                        "0" + System.lineSeparator() +
+                        "a4" + System.lineSeparator() +
+                        "0" + System.lineSeparator(), result.output));
+    }
+
     @Test
     public void testSubtract() {
         this.test("operators/binary/subtract.bas",
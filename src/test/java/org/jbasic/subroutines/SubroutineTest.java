@@ -1,9 +1,16 @@
 package org.jbasic.subroutines;
 
 import org.jbasic.JBasicEndToEndTest;
+import org.jbasic.interpreter.ExecutionMode;
+import org.jbasic.interpreter.JBasicInterpreter;
+import org.jbasic.interpreter.JBasicInterpreterOptions;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
 public class SubroutineTest extends JBasicEndToEndTest {
 
     @Test
@@ -13,6 +20,12 @@ public class SubroutineTest extends JBasicEndToEndTest {
                 (result) -> Assert.assertEquals("Name= Hi my name is Jeff" + System.lineSeparator(), result.output));
     }
 
+    @Test
+    public void testInvocationBeforeDefinition() {
+        this.test("subroutine/hoisted.bas",
+                (result) -> Assert.assertEquals("Hi Jeff" + System.lineSeparator(), result.output));
+    }
+
     @Test
     public void testSubroutineArityError() {
         this.test("subroutine/subroutine_arity.bas",
@@ -20,6 +33,16 @@ public class SubroutineTest extends JBasicEndToEndTest {
                         result.error.trim()));
     }
 
+    @Test
+    public void testSubroutineArityErrorBeforeExecution() {
+        this.test("subroutine/subroutine_arity_linked.bas",
+                (result) -> {
+                    Assert.assertEquals("", result.output);
+                    Assert.assertEquals("Error at [7, 0]: Subroutine expects 2 arguments but was called with 1",
+                            result.error.trim());
+                });
+    }
+
     @Test
     public void testSubroutineRedefinitionError() {
         this.test("subroutine/subroutine_redefinition.bas",
@@ -33,4 +56,131 @@ public class SubroutineTest extends JBasicEndToEndTest {
                 (result) -> Assert.assertEquals("Error at [1, 0]: A subroutine with the nameUNDEFINED is not defined in the script",
                         result.error.trim()));
     }
+
+    @Test
+    public void testDeepRecursion() {
+        this.test("subroutine/deep_recursion.bas",
+                (result) -> Assert.assertEquals("bottom" + System.lineSeparator(), result.output));
+    }
+
+    @Test
+    public void testCallStackOverflowError() {
+        this.test("subroutine/call_stack_overflow.bas",
+                (result) -> Assert.assertEquals("Error at [2, 4]: Call stack overflow, subroutine invocations are nested more than 10000 levels deep",
+                        result.error.trim()));
+    }
+
+    @Test
+    public void testCallStackOverflowErrorReportsMaxCallDepth() {
+        this.test("subroutine/call_stack_overflow.bas", "", new JBasicInterpreterOptions().setMaxCallDepth(100),
+                (result) -> Assert.assertEquals("Error at [2, 4]: Call stack overflow, subroutine invocations are nested more than 100 levels deep",
+                        result.error.trim()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxCallDepthAboveLimitIsRejected() {
+        new JBasicInterpreterOptions().setMaxCallDepth(JBasicInterpreterOptions.MAX_CALL_DEPTH + 1);
+    }
+
+    @Test
+    public void testRecursionReachesMaxCallDepth() throws IOException {
+        String program = "SUB Down(n)\n" +
+                "    IF n > 0 THEN\n" +
+                "        CALL Down(n - 1)\n" +
+                "        LET n = n - 1\n" +
+                "    ELSE\n" +
+                "        PRINT \"bottom\"\n" +
+                "    END\n" +
+                "END SUB\n" +
+                "CALL Down(" + (JBasicInterpreterOptions.MAX_CALL_DEPTH - 1) + ")\n";
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+            new JBasicInterpreter(new ByteArrayInputStream(new byte[0]), stdout, stderr, new JBasicInterpreterOptions()
+                    .setExecutionMode(mode).setMaxCallDepth(JBasicInterpreterOptions.MAX_CALL_DEPTH))
+                    .run(new ByteArrayInputStream(program.getBytes()));
+            Assert.assertEquals(mode.name(), "", stderr.toString());
+            Assert.assertEquals(mode.name(), "bottom" + System.lineSeparator(), stdout.toString());
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testInterruptedRecursionStops() throws IOException {
+        // The programs never end, so they are not resources that are executed by the execution mode tests
+        this.assertStopsWhenInterrupted("SUB Spin(n)\n" +
+                "    IF n > 0 THEN\n" +
+                "        CALL Spin(n - 1)\n" +
+                "        LET n = n - 1\n" +
+                "    END\n" +
+                "END SUB\n" +
+                "PRINT \"started\"\n" +
+                "WHILE 1 = 1\n" +
+                "    CALL Spin(3)\n" +
+                "END\n");
+    }
+
+    @Test(timeout = 20000)
+    public void testInterruptedLoopStops() throws IOException {
+        this.assertStopsWhenInterrupted("PRINT \"started\"\n" +
+                "LET i = 0\n" +
+                "WHILE 1 = 1\n" +
+                "    LET i = i + 1\n" +
+                "END\n");
+    }
+
+    @Test(timeout = 20000)
+    public void testInterruptedGotoLoopStops() throws IOException {
+        this.assertStopsWhenInterrupted("PRINT \"started\"\n" +
+                "10: LET i = 0\n" +
+                "20: LET i = i + 1\n" +
+                "30: GOTO 20\n");
+    }
+
+    /**
+     * Runs a program, that never ends, in every execution mode and interrupts the calling thread after the program
+     * started
+     */
+    private void assertStopsWhenInterrupted(String program) throws IOException {
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+            JBasicInterpreter interpreter = new JBasicInterpreter(new ByteArrayInputStream(new byte[0]), stdout, stderr,
+                    new JBasicInterpreterOptions().setExecutionMode(mode));
+            Thread caller = Thread.currentThread();
+            Thread interrupter = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                }
+                catch (InterruptedException exception) {
+                    return;
+                }
+                caller.interrupt();
+            });
+            interrupter.start();
+            interpreter.run(new ByteArrayInputStream(program.getBytes()));
+            Assert.assertTrue(mode.name(), Thread.interrupted());
+            Assert.assertEquals(mode.name(), "started" + System.lineSeparator(), stdout.toString());
+            Assert.assertEquals(mode.name(), "", stderr.toString());
+        }
+    }
+
+    @Test
+    public void testTailRecursion() {
+        this.test("subroutine/tail_recursion.bas",
+                (result) -> Assert.assertEquals("1250025000" + System.lineSeparator() +
+                        "odd" + System.lineSeparator(), result.output));
+    }
+
+    @Test
+    public void testInlined() {
+        this.test("subroutine/inlined.bas",
+                (result) -> {
+                    Assert.assertEquals("2" + System.lineSeparator() +
+                            "4" + System.lineSeparator() +
+                            "6" + System.lineSeparator() +
+                            "10" + System.lineSeparator() +
+                            "7" + System.lineSeparator(), result.output);
+                    Assert.assertEquals("Error at [25, 14]: last is not defined", result.error.trim());
+                });
+    }
 }
@@ -12,4 +12,15 @@ public class SwitchTest extends JBasicEndToEndTest {
                 (result) -> Assert.assertEquals("tres" + System.lineSeparator(),
                         result.output));
     }
+
+    @Test
+    public void testTable() {
+        this.test("switch/table.bas",
+                (result) -> Assert.assertEquals("zero" + System.lineSeparator() +
+                        "one" + System.lineSeparator() +
+                        "one again" + System.lineSeparator() +
+                        "one and a half" + System.lineSeparator() +
+                        "three" + System.lineSeparator() +
+                        "b" + System.lineSeparator(), result.output));
+    }
 }
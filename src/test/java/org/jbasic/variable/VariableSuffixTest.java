@@ -19,4 +19,35 @@ public class VariableSuffixTest extends JBasicEndToEndTest {
                 (result) -> Assert.assertEquals("Error at [1, 8]: Type suffix does not match specified type",
                         result.error.trim()));
     }
+
+    @Test
+    public void testIntegerArithmetic() {
+        this.test("variable/integer_arithmetic.bas",
+                (result) -> Assert.assertEquals("2880067194370816120" + System.lineSeparator() +
+                        "210345902" + System.lineSeparator() +
+                        "-1100087778366101931" + System.lineSeparator() +
+                        "9007199254740993" + System.lineSeparator() +
+                        "9007199254740995" + System.lineSeparator() +
+                        "-9007199254740993" + System.lineSeparator() +
+                        "9223372030926249001" + System.lineSeparator() +
+                        "1" + System.lineSeparator() +
+                        "2.5" + System.lineSeparator() +
+                        "5.5" + System.lineSeparator() +
+                        "fibonacci: 2880067194370816120" + System.lineSeparator() +
+                        "4660046610375530309" + System.lineSeparator() +
+                        "ordered" + System.lineSeparator(),
+                        result.output));
+    }
+
+    @Test
+    public void testIntegerLiteralsAndParameters() {
+        this.test("variable/integer_literals.bas",
+                (result) -> Assert.assertEquals("9007199254740993" + System.lineSeparator() +
+                        "0" + System.lineSeparator() +
+                        "1" + System.lineSeparator() +
+                        "9007199254740993" + System.lineSeparator() +
+                        "9007199254740994" + System.lineSeparator() +
+                        "exact" + System.lineSeparator(),
+                        result.output));
+    }
 }
@@ -0,0 +1,2 @@
+INPUT "Name: ", name
+PRINT LEN(name)
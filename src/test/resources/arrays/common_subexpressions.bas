@@ -0,0 +1,15 @@
+REM Repeated expressions are computed once, until a variable or an array element they read is assigned
+DIM grid[3, 3]
+LET i = 1
+LET j = 2
+grid[i, j] = 5
+LET x = 3
+LET y = 4
+LET a = x * x + y * y
+LET b = x * x + y * y + grid[i, j] * grid[i, j]
+PRINT a
+PRINT b
+grid[i, j] = 6
+LET x = 0
+PRINT x * x + y * y + grid[i, j] * grid[i, j]
+PRINT SQR(x * x + y * y) + SQR(x * x + y * y)
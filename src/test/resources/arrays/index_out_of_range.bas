@@ -0,0 +1,4 @@
+DIM values[3]
+FOR i = 1 TO 4
+    values[i] = i
+NEXT
@@ -0,0 +1,16 @@
+REM The indices of the loops are in range of the declared sizes and are not checked
+DIM squares[5]
+DIM table[3, 4]
+FOR i = 1 TO 5
+    squares[i] = i * i
+NEXT
+FOR r = 1 TO 3
+    FOR c = 2 TO 5
+        table[r, c - 1] = squares[r] + c
+    NEXT
+NEXT
+PRINT table[3, 4] + squares[5]
+FOR i = 5 TO 2 STEP -1
+    squares[i - 1] = squares[i]
+NEXT
+PRINT squares[1]
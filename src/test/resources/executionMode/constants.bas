@@ -0,0 +1,32 @@
+REM Constant expressions, builtin calls and branches with constant conditions
+PRINT 2 * 3.14159
+PRINT SQR(16) + ABS(-3) - LEN("four")
+PRINT MAX(1, 7, 3) + MIN(4, 2)
+PRINT "pi is about " + 22 / 7
+PRINT NOT 0 AND 1 OR 0
+PRINT 7 MOD 3 = 1
+PRINT STR(12) + NUM("30")
+LET x = 4
+IF 1 < 2 THEN
+    PRINT "always"
+ELSE
+    PRINT "never"
+END
+IF 0 THEN
+    PRINT "skipped"
+ELSE IF x = 4 THEN
+    PRINT "x is four"
+END
+IF x > 10 THEN
+    PRINT "large"
+ELSE IF LET y = 1 THEN
+    PRINT "assigned"
+END
+IF 1 = 2 THEN
+    PRINT "never"
+END
+FOR i = 1 TO 3
+    LET x = x + 2 * 5
+NEXT
+PRINT x
+PRINT "text" - 1
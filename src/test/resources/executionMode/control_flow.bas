@@ -0,0 +1,34 @@
+REM Switch statements, subroutines and arrays inside loops
+SUB Report(name, value)
+    FOR i = 1 TO value
+        IF i = 2 THEN
+            CONTINUE
+        END
+        PRINT name + i
+    NEXT
+END SUB
+
+DIM squares[5]
+FOR i = 1 TO 5
+    squares[i] = i * i
+    SWITCH i
+        CASE 2: PRINT "two"
+        CASE 3: EXIT
+        CASE 4: PRINT "four"
+    END
+NEXT
+PRINT squares[1] + squares[5]
+CALL Report("item", 3)
+LET x = 1
+IF x > 5 THEN
+    PRINT "large"
+ELSE IF x = 3 THEN
+    PRINT "assigned " + x
+ELSE
+    PRINT "small"
+END
+FOR i = 5 TO 1
+    PRINT "never"
+NEXT
+PRINT i
+PRINT undefined_variable
@@ -0,0 +1,26 @@
+REM Frames are reused by the invocations at the same depth
+SUB Countdown(n)
+    LET local = n * 10
+    IF n > 0 THEN
+        CALL Countdown(n - 1)
+    END
+    PRINT local
+END SUB
+SUB Wide(a, b, c)
+    LET d = a + b + c
+    LET e$ = "wide"
+    PRINT d
+    PRINT e$
+END SUB
+SUB Remember(first)
+    IF first = 1 THEN
+        LET kept = 42
+    END
+    PRINT kept
+END SUB
+CALL Countdown(3)
+CALL Wide(1, 2, 3)
+CALL Countdown(1)
+CALL Remember(1)
+REM The variables of the previous invocation are not defined anymore
+CALL Remember(0)
@@ -0,0 +1,63 @@
+REM A subroutine can jump to a label of the main program
+SUB Leave(n)
+    IF n > 2 THEN
+        GOTO Returned
+    END
+    PRINT n
+END SUB
+
+REM Jumping backwards repeatedly runs in constant stack space
+LET i = 0
+Again:
+LET i = i + 1
+IF i < 200000 THEN
+    GOTO Again
+END
+PRINT i
+
+REM A jump leaves the enclosing loops
+LET found = 0
+Found:
+IF found = 0 THEN
+    FOR j = 1 TO 10
+        WHILE 1
+            IF j = 3 THEN
+                LET found = j
+                GOTO Found
+            END
+            EXIT
+        END
+    NEXT
+END
+PRINT found
+
+REM A jump into the body of a loop continues the loop
+LET k = 0
+WHILE k < 3
+Inside:
+    LET k = k + 1
+    PRINT k
+END
+IF k < 5 THEN
+    GOTO Inside
+END
+FOR m = 1 TO 3
+    IF m > 0 THEN
+Counted:
+        PRINT m
+    END
+NEXT
+IF m < 6 THEN
+    LET m = m + 1
+    GOTO Counted
+END
+
+LET calls = 0
+Returned:
+LET calls = calls + 1
+IF calls < 3 THEN
+    CALL Leave(1)
+    CALL Leave(calls + 2)
+    PRINT "not reached"
+END
+PRINT calls
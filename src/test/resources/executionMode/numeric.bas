@@ -0,0 +1,41 @@
+REM Numerical loops, that store their variables in local variables
+LET total = 0
+FOR i = 1 TO 10
+    FOR j = 1 TO i STEP 2
+        total = total + i * j - j / 2
+    NEXT
+NEXT
+PRINT total
+LET n% = 27
+LET steps = 0
+WHILE n% <> 1
+    IF n% MOD 2 = 0 THEN
+        n% = n% / 2
+    ELSE
+        n% = 3 * n% + 1
+    END
+    steps = steps + 1
+END
+PRINT steps
+LET root = SQR(2) * SQR(2)
+PRINT root
+PRINT -root + ABS(-3)
+LET flag = NOT 0 AND 1 OR 0
+PRINT flag
+LET k = 0
+DO
+    k = k + 1
+    IF k < 3 THEN
+        CONTINUE
+    END
+    IF k > 6 THEN
+        EXIT
+    END
+    PRINT k
+UNTIL k = 10
+REPEAT
+    k = k - 1
+UNTIL k <= 0
+PRINT k
+LET text$ = "n" + steps
+PRINT text$
@@ -0,0 +1,31 @@
+REM Every subroutine has its own variables, suffixed names are distinct variables
+SUB Scoped(x, x$)
+    LET x% = 3
+    PRINT x + x%
+    PRINT x$
+    LET y = 10
+    IF y > 0 THEN
+Inner:
+        PRINT y
+    END
+    LET y = y + 1
+    IF y < 12 THEN
+        GOTO Inner
+    END
+END SUB
+
+LET y = 1
+IF y = 1 THEN
+Shared:
+    PRINT y
+    LET z = 1
+END
+LET x = 100
+LET x$ = "outer"
+CALL Scoped(7, "inner")
+PRINT x
+PRINT x$
+PRINT y
+INPUT "name", n$
+PRINT n$
+PRINT x%
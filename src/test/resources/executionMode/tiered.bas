@@ -0,0 +1,43 @@
+REM Loops and subroutines, that become hot while they are running
+SUB Sum(n)
+    LET total = 0
+    FOR k = 1 TO n
+        LET total = total + k
+    NEXT
+    PRINT total
+END SUB
+
+SUB Countdown(n)
+    IF n > 0 THEN
+        CALL Countdown(n - 1)
+    END
+    PRINT n
+END SUB
+
+LET name = "start"
+FOR i = 10 TO 1 STEP -3
+    PRINT name
+    LET name = i
+NEXT
+PRINT i
+LET count = 0
+WHILE count < 6
+    LET count = count + 1
+    IF count = 4 THEN
+        CONTINUE
+    END
+    IF count = 5 THEN
+        EXIT
+    END
+    PRINT count
+END
+LET j = 0
+DO
+    LET j = j + 2
+UNTIL j >= 9
+PRINT j
+FOR run = 1 TO 4
+    CALL Sum(run * 3)
+NEXT
+CALL Countdown(5)
+PRINT total
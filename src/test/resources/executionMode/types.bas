@@ -0,0 +1,36 @@
+REM Variables, whose types change inside of loops, branches and subroutines
+LET n% = 3
+LET total = 0
+FOR i = 1 TO n%
+    LET total = total + i * 2 - -i
+NEXT
+PRINT total
+LET value = 1
+LET count = 0
+WHILE count < 4
+    LET count = count + 1
+    IF count = 3 THEN
+        LET value = "three"
+    ELSE
+        LET value = value + 1
+    END
+    PRINT value
+END
+PRINT ABS(-n%) + SQR(total) + NOT count
+LET greeting$ = "hello " + n%
+PRINT greeting$
+LET mixed = 1
+FOR j = 1 TO 2
+    PRINT mixed + 2
+    LET mixed = STR(mixed)
+NEXT
+SUB Twice(x)
+    PRINT x + x
+END SUB
+CALL Twice(21)
+CALL Twice("ab")
+DATA 41, "done"
+READ r%, s$
+PRINT r% + 1, s$ + "!"
+LET wrong% = n% + "1"
+PRINT "unreachable"
@@ -0,0 +1,9 @@
+LET I = 0
+Loop: I = I + 1
+IF I > 3 THEN
+   GOTO Done
+END
+PRINT I
+GOTO Loop
+PRINT "unreachable"
+Done: PRINT "done"
@@ -0,0 +1,6 @@
+10: LET I = 0
+20: LET I = I + 1
+30: IF I < 100000 THEN
+40:    GOTO 20
+50: END
+60: PRINT I
@@ -0,0 +1,3 @@
+PRINT "before"
+Start: PRINT "start"
+GOTO Finish
@@ -0,0 +1,30 @@
+REM Assignments, that update a variable or an array element in place
+DIM sums[3]
+DIM grid[2, 2]
+FOR i = 1 TO 3
+    sums[i] = 0
+NEXT
+grid[1, 2] = "x"
+LET count% = 0
+LET product = 1
+LET text = "a"
+i = 0
+WHILE i < 6
+    i = i + 1
+    count% = count% + i
+    product = product * 2
+    text = text + i
+    sums[i MOD 3 + 1] = sums[i MOD 3 + 1] + i
+    grid[1, 2] = grid[1, 2] + "y"
+    IF count% > 10 THEN
+        count% = count% - 1
+    END
+END
+LET mixed = 1
+mixed = mixed + "!"
+PRINT count%
+PRINT product
+PRINT text
+PRINT sums[1] + ":" + sums[2] + ":" + sums[3]
+PRINT grid[1, 2]
+PRINT mixed
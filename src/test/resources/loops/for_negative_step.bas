@@ -0,0 +1,4 @@
+FOR i = 5 TO 1 STEP -2
+    PRINT i
+NEXT
+PRINT i * 10
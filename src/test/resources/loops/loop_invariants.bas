@@ -0,0 +1,28 @@
+REM The length of the text and the square root only change between the executions of the inner loop
+LET text$ = "abc"
+LET total = 0
+FOR round = 1 TO 2
+    LET i = 0
+    WHILE i < LEN(text$)
+        LET i = i + 1
+        LET total = total + SQR(round * round * 4)
+    END
+    PRINT total
+    LET text$ = text$ + "d"
+NEXT
+REM An invariant expression, that is never reached, is not evaluated
+LET j = 0
+REPEAT
+    LET j = j + 1
+    IF j > 5 THEN
+        PRINT LEN(missing$)
+    END
+UNTIL j = 3
+PRINT j
+SUB Halve(n)
+    DO
+        LET n = n / 2
+        PRINT n
+    WHILE ABS(n) > 1
+END SUB
+CALL Halve(8)
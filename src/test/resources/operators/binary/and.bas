@@ -0,0 +1,7 @@
+PRINT 1 AND 0
+PRINT 1 AND 2
+LET N = 0
+IF N > 0 AND missing > 0 THEN
+   PRINT "unreachable"
+END
+PRINT "skipped right operand"
@@ -0,0 +1,9 @@
+REM The operators see numbers first and strings later, so they fall back to their generic form
+LET v = 1
+FOR i = 1 TO 4
+    IF i = 3 THEN
+        LET v = "a"
+    END
+    PRINT v + i
+    PRINT v = 1
+NEXT
@@ -0,0 +1,6 @@
+PRINT 0 OR 0
+PRINT 0 OR 3
+LET N = 1
+IF N > 0 OR missing > 0 THEN
+   PRINT "skipped right operand"
+END
@@ -0,0 +1,6 @@
+SUB Forever(n)
+    CALL Forever(n + 1)
+    PRINT n
+END SUB
+
+CALL Forever(0)
@@ -0,0 +1,9 @@
+SUB Down(n)
+    IF n > 0 THEN
+        CALL Down(n - 1)
+    ELSE
+        PRINT "bottom"
+    END
+END SUB
+
+CALL Down(9000)
@@ -0,0 +1,5 @@
+CALL Greet("Jeff")
+
+SUB Greet(name)
+   PRINT "Hi " + name
+END SUB
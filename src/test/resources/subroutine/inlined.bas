@@ -0,0 +1,39 @@
+REM Small subroutines are inlined, their variables do not change the variables of the caller
+SUB Clamp(x, low, high)
+    LET result = x
+    IF x < low THEN
+        LET result = low
+    END
+    IF x > high THEN
+        LET result = high
+    END
+    PRINT result
+END SUB
+
+SUB Fill(values, n)
+    FOR k = 1 TO n
+        values[k] = k * k
+    NEXT
+END SUB
+
+SUB Twice(x)
+    CALL Clamp(x * 2, 0, 10)
+END SUB
+
+SUB Remember(n)
+    IF n = 2 THEN
+        PRINT last
+    END
+    LET last = n
+END SUB
+
+DIM squares[4]
+CALL Fill(squares, 4)
+LET x = 7
+FOR i = 1 TO 3
+    CALL Twice(i + x - 7)
+NEXT
+CALL Clamp(squares[4], 0, 10)
+PRINT x
+CALL Remember(1)
+CALL Remember(2)
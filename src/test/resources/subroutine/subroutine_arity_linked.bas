@@ -0,0 +1,7 @@
+SUB Add(a, b)
+   PRINT a + b
+END SUB
+
+PRINT "before"
+CALL Add(1, 2)
+CALL Add(3)
@@ -0,0 +1,28 @@
+REM Calls in tail position reuse the frame, so the recursion is not limited by the call depth
+SUB Count(n, total)
+    IF n = 0 THEN
+        PRINT total
+    ELSE
+        CALL Count(n - 1, total + n)
+    END
+END SUB
+
+SUB Even(n)
+    IF n = 0 THEN
+        PRINT "even"
+    ELSE
+        CALL Odd(n - 1)
+    END
+END SUB
+
+SUB Odd(n)
+    IF n = 0 THEN
+        PRINT "odd"
+    ELSE
+        CALL Even(n - 1)
+    END
+    REM Comments after the last statement keep the call in tail position
+END SUB
+
+CALL Count(50000, 0)
+CALL Even(30001)
@@ -0,0 +1,17 @@
+FOR i = 0 TO 6
+    SWITCH i / 2
+        CASE 0: PRINT "zero"
+        CASE 1: PRINT "one"
+        CASE 1.5: PRINT "one and a half"
+        CASE 1: PRINT "one again"
+        CASE 100: PRINT "hundred"
+        CASE 3: PRINT "three"
+            EXIT
+        CASE 3: PRINT "unreachable"
+    END
+NEXT
+SWITCH "b"
+    CASE "a": PRINT "a"
+    CASE 2: PRINT "number"
+    CASE "b": PRINT "b"
+END
@@ -0,0 +1,29 @@
+REM Variables with the suffix '%' compute exactly with 64 bit integers
+LET a% = 0
+LET b% = 1
+FOR i = 1 TO 90
+    t% = a% + b%
+    a% = b%
+    b% = t%
+NEXT
+PRINT a%
+PRINT a% MOD 1000000007
+PRINT b% - a% - a%
+LET big% = 9007199254740992
+PRINT big% + 1
+PRINT big% * 1000 / 1000 + 3
+PRINT -big% - 1
+DIM squares%[2]
+squares%[1] = 3037000499
+squares%[1] = squares%[1] * squares%[1]
+squares%[2] = squares%[1] * 2
+PRINT squares%[1]
+PRINT squares%[2] > squares%[1]
+LET half% = 5
+PRINT half% / 2
+PRINT half% + 0.5
+PRINT "fibonacci: " + a%
+PRINT STR(b%)
+IF b% > a% THEN
+    PRINT "ordered"
+END
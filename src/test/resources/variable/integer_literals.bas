@@ -0,0 +1,16 @@
+REM Integer literals and parameters with the suffix '%' keep all of their digits
+SUB Increment(n%)
+    n% = n% + 1
+    PRINT n%
+END SUB
+
+LET x% = 9007199254740993
+PRINT x%
+PRINT x% = 9007199254740992
+PRINT x% - 9007199254740992
+CALL Increment(9007199254740992)
+CALL Increment(x%)
+SWITCH x%
+    CASE 9007199254740992: PRINT "rounded"
+    CASE 9007199254740993: PRINT "exact"
+END